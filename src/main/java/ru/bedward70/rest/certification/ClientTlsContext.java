@@ -0,0 +1,215 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.certification;
+
+import javax.net.ssl.HandshakeCompletedEvent;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TLS configuration of one client: an SSLContext with a configured client session cache and
+ * a cached socket factory for BaseRestClient.setSSLSocketFactory.
+ * <p>
+ * Connections of the client resume TLS sessions from the cache instead of full handshakes while sessions
+ * are valid. The same socket factory instance must be used for all connections of the client, because
+ * HttpsURLConnection reuses kept-alive connections only with the same factory.
+ * Handshakes are counted as full or resumed for monitoring.
+ */
+public class ClientTlsContext {
+
+    /** Default session cache size */
+    public static final int DEFAULT_SESSION_CACHE_SIZE = 1024;
+
+    /** Default session timeout */
+    public static final Duration DEFAULT_SESSION_TIMEOUT = Duration.ofHours(8);
+
+    /** SSLContext */
+    private final SSLContext sslContext;
+
+    /** Socket factory */
+    private final SSLSocketFactory socketFactory;
+
+    /** Count of full handshakes */
+    private final LongAdder fullHandshakes = new LongAdder();
+
+    /** Count of resumed handshakes */
+    private final LongAdder resumedHandshakes = new LongAdder();
+
+    /**
+     * Constructor
+     *
+     * @param sslContext SSLContext, e.g. TrustKeystoreCertificate.getSSLContext()
+     */
+    public ClientTlsContext(final SSLContext sslContext) {
+        this(sslContext, DEFAULT_SESSION_CACHE_SIZE, DEFAULT_SESSION_TIMEOUT);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param sslContext SSLContext, its client session cache is configured
+     * @param sessionCacheSize maximal count of cached sessions, 0 for no limit
+     * @param sessionTimeout session timeout, sessions are not resumed after it
+     */
+    public ClientTlsContext(final SSLContext sslContext, final int sessionCacheSize, final Duration sessionTimeout) {
+        this.sslContext = sslContext;
+        SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+        sessionContext.setSessionCacheSize(sessionCacheSize);
+        sessionContext.setSessionTimeout((int) Math.min(Integer.MAX_VALUE, sessionTimeout.getSeconds()));
+        this.socketFactory = new CountingSocketFactory(sslContext.getSocketFactory());
+    }
+
+    /**
+     * @return SSLContext
+     */
+    public SSLContext getSSLContext() {
+        return sslContext;
+    }
+
+    /**
+     * @return socket factory of the client
+     */
+    public SSLSocketFactory getSocketFactory() {
+        return socketFactory;
+    }
+
+    /**
+     * @return count of full handshakes
+     */
+    public long getFullHandshakes() {
+        return fullHandshakes.sum();
+    }
+
+    /**
+     * @return count of resumed handshakes
+     */
+    public long getResumedHandshakes() {
+        return resumedHandshakes.sum();
+    }
+
+    /**
+     * Counts a completed handshake. A resumed session keeps the creation time of the original one,
+     * the session ids can not be compared as TLS 1.3 gives a resumed session a new id
+     * @param event handshake event
+     * @param socketCreated time of the socket creation, milliseconds
+     */
+    private void onHandshakeCompleted(final HandshakeCompletedEvent event, final long socketCreated) {
+        SSLSession session = event.getSession();
+        if (session.getCreationTime() < socketCreated) {
+            resumedHandshakes.increment();
+        } else {
+            fullHandshakes.increment();
+        }
+    }
+
+    /**
+     * Socket factory which registers the handshake listener
+     */
+    private class CountingSocketFactory extends SSLSocketFactory {
+
+        /** Original factory */
+        private final SSLSocketFactory factory;
+
+        /**
+         * Constructor
+         *
+         * @param factory original factory
+         */
+        CountingSocketFactory(final SSLSocketFactory factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public String[] getDefaultCipherSuites() {
+            return factory.getDefaultCipherSuites();
+        }
+
+        @Override
+        public String[] getSupportedCipherSuites() {
+            return factory.getSupportedCipherSuites();
+        }
+
+        @Override
+        public Socket createSocket() throws IOException {
+            return register(factory.createSocket());
+        }
+
+        @Override
+        public Socket createSocket(final Socket s, final String host, final int port, final boolean autoClose) throws IOException {
+            return register(factory.createSocket(s, host, port, autoClose));
+        }
+
+        @Override
+        public Socket createSocket(final String host, final int port) throws IOException {
+            return register(factory.createSocket(host, port));
+        }
+
+        @Override
+        public Socket createSocket(
+            final String host,
+            final int port,
+            final InetAddress localHost,
+            final int localPort
+        ) throws IOException {
+            return register(factory.createSocket(host, port, localHost, localPort));
+        }
+
+        @Override
+        public Socket createSocket(final InetAddress host, final int port) throws IOException {
+            return register(factory.createSocket(host, port));
+        }
+
+        @Override
+        public Socket createSocket(
+            final InetAddress address,
+            final int port,
+            final InetAddress localAddress,
+            final int localPort
+        ) throws IOException {
+            return register(factory.createSocket(address, port, localAddress, localPort));
+        }
+
+        /**
+         * Registers the handshake listener
+         * @param socket socket
+         * @return socket
+         */
+        private Socket register(final Socket socket) {
+            if (socket instanceof SSLSocket) {
+                long created = System.currentTimeMillis();
+                ((SSLSocket) socket).addHandshakeCompletedListener(event -> onHandshakeCompleted(event, created));
+            }
+            return socket;
+        }
+    }
+}
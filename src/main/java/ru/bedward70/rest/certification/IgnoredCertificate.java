@@ -31,15 +31,40 @@ import javax.net.ssl.X509TrustManager;
 import java.security.SecureRandom;
 import java.security.cert.X509Certificate;
 
+import static java.util.Objects.isNull;
+
 /**
  * Ignore all validations of certificate
  */
 public class IgnoredCertificate {
 
+    /** Cached SSLContext */
+    private SSLContext sslContext;
+
     /**
-     * Sets a trust manager that does not validate certificate chains
+     * Sets a trust manager that does not validate certificate chains for all connections of the JVM
      */
     public void ignore() {
+        HttpsURLConnection.setDefaultSSLSocketFactory(getSSLContext().getSocketFactory());
+    }
+
+    /**
+     * Returns the SSLContext with a trust manager that does not validate certificate chains,
+     * it is created once and cached. Use it with ClientTlsContext to configure one client instead of the JVM default
+     * @return SSLContext
+     */
+    public synchronized SSLContext getSSLContext() {
+        if (isNull(sslContext)) {
+            sslContext = createSSLContext();
+        }
+        return sslContext;
+    }
+
+    /**
+     * Creates the SSLContext
+     * @return SSLContext
+     */
+    private SSLContext createSSLContext() {
         // Create a trust manager that does not validate certificate chains
         TrustManager[] trustAllCerts = new TrustManager[] {
                 new X509TrustManager() {
@@ -53,7 +78,7 @@ public class IgnoredCertificate {
         try {
             SSLContext sc = SSLContext.getInstance("TLS");
             sc.init(null, trustAllCerts, new SecureRandom());
-            HttpsURLConnection.setDefaultSSLSocketFactory(sc.getSocketFactory());
+            return sc;
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -43,6 +43,8 @@ import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
 
+import static java.util.Objects.isNull;
+
 /**
  * Trust a side certificate from file
  */
@@ -50,6 +52,9 @@ public class TrustCertificate {
 
     private final File certificate;
 
+    /** Cached SSLContext */
+    private SSLContext sslContext;
+
     /**
      * Constructor
      *
@@ -60,9 +65,29 @@ public class TrustCertificate {
     }
 
     /**
-     *  Sets a trust manager that validate a certificate from file
+     *  Sets a trust manager that validate a certificate from file for all connections of the JVM
      */
     public void trust() {
+        HttpsURLConnection.setDefaultSSLSocketFactory(getSSLContext().getSocketFactory());
+    }
+
+    /**
+     * Returns the SSLContext, it is created once and cached, so key material is loaded once.
+     * Use it with ClientTlsContext to configure one client instead of the JVM default
+     * @return SSLContext
+     */
+    public synchronized SSLContext getSSLContext() {
+        if (isNull(sslContext)) {
+            sslContext = createSSLContext();
+        }
+        return sslContext;
+    }
+
+    /**
+     * Creates the SSLContext
+     * @return SSLContext
+     */
+    private SSLContext createSSLContext() {
 
         KeyStore ks = null;
         try {
@@ -86,7 +111,7 @@ public class TrustCertificate {
             tmf.init(ks);
 
             sc.init(kmf.getKeyManagers(), tmf.getTrustManagers(), null);
-            HttpsURLConnection.setDefaultSSLSocketFactory(sc.getSocketFactory());
+            return sc;
 
         } catch (KeyStoreException e) {
             throw new RuntimeException(e);
@@ -41,6 +41,7 @@ import java.security.NoSuchProviderException;
 import java.security.UnrecoverableKeyException;
 import java.security.cert.CertificateException;
 
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
 /**
@@ -52,6 +53,9 @@ public class TrustKeystoreCertificate {
     private final char[] storepass;
     private final char[] keypass;
 
+    /** Cached SSLContext */
+    private SSLContext sslContext;
+
     /**
      * Constructor
      *
@@ -65,8 +69,30 @@ public class TrustKeystoreCertificate {
         this.keypass = nonNull(keystoreKeyPassword) ? keystoreKeyPassword.toCharArray() : this.storepass;
     }
 
-
+    /**
+     * Sets a trust manager and a key manager from the keystore for all connections of the JVM
+     */
     public void trust() {
+        HttpsURLConnection.setDefaultSSLSocketFactory(getSSLContext().getSocketFactory());
+    }
+
+    /**
+     * Returns the SSLContext, it is created once and cached, so key material is loaded once.
+     * Use it with ClientTlsContext to configure one client instead of the JVM default
+     * @return SSLContext
+     */
+    public synchronized SSLContext getSSLContext() {
+        if (isNull(sslContext)) {
+            sslContext = createSSLContext();
+        }
+        return sslContext;
+    }
+
+    /**
+     * Creates the SSLContext
+     * @return SSLContext
+     */
+    private SSLContext createSSLContext() {
 
         KeyStore ks = null;
         try {
@@ -83,7 +109,7 @@ public class TrustKeystoreCertificate {
             tmf.init(ks);
 
             sc.init(kmf.getKeyManagers(), tmf.getTrustManagers(), null);
-            HttpsURLConnection.setDefaultSSLSocketFactory(sc.getSocketFactory());
+            return sc;
 
         } catch (KeyStoreException e) {
             throw new RuntimeException(e);
@@ -25,21 +25,38 @@
 package ru.bedward70.rest.client;
 
 import ru.bedward70.rest.client.body.maker.RestBodyMaker;
+import ru.bedward70.rest.client.buffer.BufferPool;
+import ru.bedward70.rest.client.deadline.Deadline;
+import ru.bedward70.rest.client.deadline.HashedWheelTimer;
+import ru.bedward70.rest.client.exception.DeadlineExceededRestClientException;
 import ru.bedward70.rest.client.exception.ErrorCodeRestClientException;
 import ru.bedward70.rest.client.exception.ErrorRestClientException;
+import ru.bedward70.rest.client.exception.RestClientException;
+import ru.bedward70.rest.client.response.acceptor.ContextRestResponseAcceptor;
 import ru.bedward70.rest.client.response.acceptor.RestResponseAcceptor;
+import ru.bedward70.rest.client.response.acceptor.RestResponseContext;
 
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLSocketFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
 /**
@@ -50,12 +67,39 @@ public class BaseRestClient implements RestClient {
     /** Default successful HTTP response code */
     public static final int OK_RESPONSE_CODE = 200;
 
+    /** Unlimited error body capture */
+    public static final int UNLIMITED_ERROR_BODY = -1;
+
+    /** Default count of error body bytes which are drained after the captured part */
+    public static final long DEFAULT_ERROR_DRAIN_LIMIT = 256 * 1024;
+
     /** Headers map */
     private final Map<String, String> internalHeaders = new HashMap<>();
 
     /** Url */
     private final String url;
 
+    /** Maximal count of captured error body bytes or UNLIMITED_ERROR_BODY */
+    private volatile int errorBodyLimit = UNLIMITED_ERROR_BODY;
+
+    /** Maximal count of drained error body bytes after the captured part */
+    private volatile long errorDrainLimit = DEFAULT_ERROR_DRAIN_LIMIT;
+
+    /** ErrorCodeRestClientException is created without a stack trace */
+    private volatile boolean stacklessErrors;
+
+    /** SSL socket factory of the client, or null for the JVM default */
+    private volatile SSLSocketFactory sslSocketFactory;
+
+    /** Hostname verifier of the client, or null for the JVM default */
+    private volatile HostnameVerifier hostnameVerifier;
+
+    /** Timeout of every request, or null */
+    private volatile Duration requestTimeout;
+
+    /** The remaining budget of the deadline is sent in the deadline header */
+    private volatile boolean deadlinePropagation = true;
+
     /**
      * Constructor
      *
@@ -70,7 +114,17 @@ public class BaseRestClient implements RestClient {
 
         // Generates a request full url
         URL endpointUrl = new URL(url + urlSuffix);
-        return (HttpURLConnection) endpointUrl.openConnection();
+        HttpURLConnection con = (HttpURLConnection) endpointUrl.openConnection();
+        // Sets TLS of the client
+        if (con instanceof HttpsURLConnection) {
+            if (nonNull(sslSocketFactory)) {
+                ((HttpsURLConnection) con).setSSLSocketFactory(sslSocketFactory);
+            }
+            if (nonNull(hostnameVerifier)) {
+                ((HttpsURLConnection) con).setHostnameVerifier(hostnameVerifier);
+            }
+        }
+        return con;
     }
 
     @Override
@@ -84,9 +138,23 @@ public class BaseRestClient implements RestClient {
         final Map<String, String> headers,
         final Integer... successfulResponseCodes
     ) {
+        Deadline deadline = Deadline.earliest(
+            Deadline.current(),
+            isNull(requestTimeout) ? null : Deadline.after(requestTimeout)
+        );
+        if (nonNull(deadline) && deadline.isExpired()) {
+            throw new DeadlineExceededRestClientException(
+                "The deadline passed before the request " + httpMethod + " " + urlSuffix, null
+            );
+        }
         try {
             HttpURLConnection con = getHttpURLConnection(urlSuffix);
+            HashedWheelTimer.Timeout timeout = null;
             try {
+                // Sets timeouts of the deadline
+                if (nonNull(deadline)) {
+                    timeout = applyDeadline(con, deadline);
+                }
                 // Sets method
                 con.setRequestMethod(httpMethod);
                 // Sets headers
@@ -113,10 +181,26 @@ public class BaseRestClient implements RestClient {
 
                 // Gets response
                 return getResponseObject(con, responseClazz, responseAcceptor);
+            } catch (RuntimeException e) {
+                // HttpURLConnection is not thread-safe, the deadline disconnect may break it with any exception
+                if (nonNull(timeout) && timeout.isExpired() && !(e instanceof RestClientException)) {
+                    throw new DeadlineExceededRestClientException(
+                        "The request " + httpMethod + " " + urlSuffix + " exceeded its deadline", e
+                    );
+                }
+                throw e;
             } finally {
+                if (nonNull(timeout)) {
+                    timeout.cancel();
+                }
                 con.disconnect();
             }
         } catch (IOException e) {
+            if (nonNull(deadline) && (deadline.isExpired() || e instanceof SocketTimeoutException)) {
+                throw new DeadlineExceededRestClientException(
+                    "The request " + httpMethod + " " + urlSuffix + " exceeded its deadline", e
+                );
+            }
             throw new ErrorRestClientException(e);
         }
     }
@@ -141,6 +225,100 @@ public class BaseRestClient implements RestClient {
         internalHeaders.clear();
     }
 
+    /**
+     * Sets the maximal count of error body bytes which are captured by ErrorCodeRestClientException
+     * @param errorBodyLimit maximal count of bytes or UNLIMITED_ERROR_BODY
+     */
+    public void setErrorBodyLimit(final int errorBodyLimit) {
+        this.errorBodyLimit = errorBodyLimit;
+    }
+
+    /**
+     * Sets the maximal count of error body bytes which are read and dropped after the captured part,
+     * a completely read error body lets the connection be reused
+     * @param errorDrainLimit maximal count of bytes
+     */
+    public void setErrorDrainLimit(final long errorDrainLimit) {
+        this.errorDrainLimit = errorDrainLimit;
+    }
+
+    /**
+     * Switches lightweight ErrorCodeRestClientException without a stack trace for expected HTTP errors
+     * @param stacklessErrors true to create exceptions without a stack trace
+     */
+    public void setStacklessErrors(final boolean stacklessErrors) {
+        this.stacklessErrors = stacklessErrors;
+    }
+
+    /**
+     * Sets the SSL socket factory for connections of this client only, e.g. ClientTlsContext.getSocketFactory().
+     * The same factory instance should be kept, kept-alive connections are reused only with it
+     * @param sslSocketFactory SSL socket factory, or null for the JVM default
+     */
+    public void setSSLSocketFactory(final SSLSocketFactory sslSocketFactory) {
+        this.sslSocketFactory = sslSocketFactory;
+    }
+
+    /**
+     * Sets the end-to-end timeout of every request: connect, write, time to the first byte and the body.
+     * The current deadline of the thread, see Deadline, is applied as well, the earlier one wins
+     * @param requestTimeout timeout, or null for no timeout
+     */
+    public void setRequestTimeout(final Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Switches sending of the remaining deadline budget to servers in the Deadline.HEADER_KEY header
+     * @param deadlinePropagation true to send the header, it is the default
+     */
+    public void setDeadlinePropagation(final boolean deadlinePropagation) {
+        this.deadlinePropagation = deadlinePropagation;
+    }
+
+    /**
+     * Sets the hostname verifier for connections of this client only
+     * @param hostnameVerifier hostname verifier, or null for the JVM default
+     */
+    public void setHostnameVerifier(final HostnameVerifier hostnameVerifier) {
+        this.hostnameVerifier = hostnameVerifier;
+    }
+
+    /**
+     * Applies the deadline to a connection: connect and read timeouts bound every blocking operation
+     * by the remaining budget, and a timeout of the shared timing wheel aborts the connection at the deadline
+     * @param con HttpURLConnection
+     * @param deadline deadline
+     * @return timeout which must be cancelled when the request completes
+     */
+    private HashedWheelTimer.Timeout applyDeadline(final HttpURLConnection con, final Deadline deadline) {
+        long remainingMillis = Math.max(1L, deadline.remainingMillis());
+        int timeoutMillis = (int) Math.min(Integer.MAX_VALUE, remainingMillis);
+        con.setConnectTimeout(timeoutMillis);
+        con.setReadTimeout(timeoutMillis);
+        if (deadlinePropagation) {
+            con.setRequestProperty(Deadline.HEADER_KEY, String.valueOf(remainingMillis));
+        }
+        return HashedWheelTimer.getDefault().newTimeout(
+            () -> AbortExecutorHolder.INSTANCE.execute(() -> abort(con)),
+            deadline.remainingNanos(),
+            TimeUnit.NANOSECONDS
+        );
+    }
+
+    /**
+     * Aborts a connection at its deadline, it runs on the abort executor: a blocking close of a TLS connection
+     * must not stall other deadlines of the shared timer thread
+     * @param con HttpURLConnection
+     */
+    private static void abort(final HttpURLConnection con) {
+        try {
+            con.disconnect();
+        } catch (RuntimeException e) {
+            // The connection is used by the request thread, which reports the exceeded deadline
+        }
+    }
+
     /**
      * Extracts response object
      * @param con HttpURLConnection
@@ -151,6 +329,7 @@ public class BaseRestClient implements RestClient {
      * @param <T> generic type
      * @throws IOException IO Exception
      */
+    @SuppressWarnings("unchecked")
     private <T> T getResponseObject(
         final HttpURLConnection con,
         final Class<T> responseClazz,
@@ -160,13 +339,33 @@ public class BaseRestClient implements RestClient {
         if (nonNull(responseClazz) && nonNull(responseAcceptor)) {
             try (InputStream inputStream = con.getInputStream()) {
                 if (nonNull(inputStream)) {
-                    result = responseAcceptor.readValue(inputStream, responseClazz);
+                    result = responseAcceptor instanceof ContextRestResponseAcceptor
+                        ? ((ContextRestResponseAcceptor<T>) responseAcceptor)
+                            .readValue(inputStream, responseClazz, getResponseContext(con))
+                        : responseAcceptor.readValue(inputStream, responseClazz);
                 }
             }
         }
         return result;
     }
 
+    /**
+     * Creates response context
+     * @param con HttpURLConnection
+     * @return response context
+     * @throws IOException IO Exception
+     */
+    private static RestResponseContext getResponseContext(final HttpURLConnection con) throws IOException {
+        URL endpointUrl = con.getURL();
+        return new RestResponseContext(
+            con.getResponseCode(),
+            con.getHeaderFields(),
+            con.getContentLengthLong(),
+            con.getContentType(),
+            nonNull(endpointUrl) ? endpointUrl.getPath() : null
+        );
+    }
+
     /**
      * Checks response code
      * @param con HttpURLConnection
@@ -178,14 +377,50 @@ public class BaseRestClient implements RestClient {
         final Integer[] successfulResponseCodes
     ) throws IOException {
         if (!getResponseCodes(successfulResponseCodes).contains(con.getResponseCode())) {
+            byte[] errorStreamBytes = null;
+            boolean truncated = false;
             try (InputStream inputErrorStream = con.getErrorStream()) {
-                throw new ErrorCodeRestClientException(
-                    con.getResponseCode(),
-                    con.getResponseMessage(),
-                    nonNull(inputErrorStream) ? inputErrorStream.readAllBytes() : null
-                );
+                if (nonNull(inputErrorStream)) {
+                    int limit = errorBodyLimit;
+                    errorStreamBytes = limit < 0 ? inputErrorStream.readAllBytes() : inputErrorStream.readNBytes(limit);
+                    truncated = limit >= 0 && drain(inputErrorStream, errorDrainLimit);
+                }
+            }
+            throw new ErrorCodeRestClientException(
+                con.getResponseCode(),
+                con.getResponseMessage(),
+                errorStreamBytes,
+                truncated,
+                RestResponseContext.getCharset(con.getContentType(), StandardCharsets.UTF_8),
+                !stacklessErrors
+            );
+        }
+    }
+
+    /**
+     * Reads and drops the rest of a stream
+     * @param inputStream input stream
+     * @param limit maximal count of dropped bytes
+     * @return true if the stream was not empty
+     * @throws IOException IO Exception
+     */
+    private static boolean drain(final InputStream inputStream, final long limit) throws IOException {
+        if (inputStream.read() < 0) {
+            return false;
+        }
+        BufferPool pool = BufferPool.getDefault();
+        byte[] buffer = pool.acquire();
+        try {
+            long drained = 1L;
+            int read;
+            while (drained < limit
+                && (read = inputStream.read(buffer, 0, (int) Math.min(buffer.length, limit - drained))) >= 0) {
+                drained += read;
             }
+        } finally {
+            pool.release(buffer);
         }
+        return true;
     }
 
     /**
@@ -200,4 +435,17 @@ public class BaseRestClient implements RestClient {
             ? Collections.singletonList(OK_RESPONSE_CODE)
             : Arrays.asList(successfulResponseCodes);
     }
+
+    /**
+     * Lazy holder of the executor which aborts connections at their deadlines
+     */
+    private static final class AbortExecutorHolder {
+
+        /** Executor with daemon threads */
+        private static final ExecutorService INSTANCE = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "rest-deadline-abort");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 }
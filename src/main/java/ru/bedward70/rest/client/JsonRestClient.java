@@ -24,15 +24,32 @@
  */
 package ru.bedward70.rest.client;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.bedward70.rest.client.batch.RestRequest;
 import ru.bedward70.rest.client.body.maker.JsonRestBodyMaker;
 import ru.bedward70.rest.client.body.maker.RestBodyMaker;
+import ru.bedward70.rest.client.buffer.BufferPool;
+import ru.bedward70.rest.client.exception.RestClientException;
+import ru.bedward70.rest.client.intern.StringCache;
 import ru.bedward70.rest.client.response.acceptor.JsonRestResponseAcceptor;
 import ru.bedward70.rest.client.response.acceptor.RestResponseAcceptor;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
+import java.net.URLConnection;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static java.util.Objects.isNull;
 
 /**
  * A JSON Decorator pattern implementation of RestClient interface
@@ -40,6 +57,12 @@ import java.util.Map;
  */
 public class JsonRestClient implements RestClient {
 
+    /** Maximal time to wait for warm-up connections */
+    private static final Duration WARM_UP_TIMEOUT = Duration.ofSeconds(10);
+
+    /** Response codes of successful warm-up requests, all 2xx and 3xx codes */
+    private static final Integer[] WARM_UP_CODES = IntStream.range(200, 400).boxed().toArray(Integer[]::new);
+
     /** Wrapped original instance */
     private final RestClient restClient;
 
@@ -49,6 +72,9 @@ public class JsonRestClient implements RestClient {
     /** Rest response acceptor */
     private final JsonRestResponseAcceptor<?> responseAcceptor;
 
+    /** Object mapper */
+    private final ObjectMapper objectMapper;
+
 
     /**
      * Constructor
@@ -59,10 +85,28 @@ public class JsonRestClient implements RestClient {
     public JsonRestClient(
         final RestClient restClient,
         final ObjectMapper objectMapper
+    ) {
+        this(restClient, objectMapper, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param restClient original instance
+     * @param objectMapper object mapper
+     * @param stringCache cache which canonicalizes the strings of responses or null
+     */
+    public JsonRestClient(
+        final RestClient restClient,
+        final ObjectMapper objectMapper,
+        final StringCache stringCache
     ) {
         this.restClient = restClient;
+        this.objectMapper = objectMapper;
         this.bodyMaker = new JsonRestBodyMaker(objectMapper);
-        this.responseAcceptor = new JsonRestResponseAcceptor<>(objectMapper);
+        this.responseAcceptor = isNull(stringCache)
+            ? new JsonRestResponseAcceptor<>(objectMapper)
+            : new JsonRestResponseAcceptor<>(objectMapper, stringCache);
     }
 
     @Override
@@ -131,6 +175,40 @@ public class JsonRestClient implements RestClient {
         );
     }
 
+    /**
+     * Creates a descriptor of a JSON request, e.g. for RestBatchExecutor
+     * @param httpMethod http method
+     * @param urlSuffix suffix url
+     * @param requestBody request body or null
+     * @param responseClazz response class
+     * @param headers headers
+     * @param successfulResponseCodes array of successful HTTP codes
+     * @return request descriptor
+     *
+     * @param <B> generic type of the body
+     * @param <R> generic type of the response
+     */
+    @SuppressWarnings("unchecked")
+    public <B, R> RestRequest<B, R> request(
+        final String httpMethod,
+        final String urlSuffix,
+        final B requestBody,
+        final Class<R> responseClazz,
+        final Map<String, String> headers,
+        final Integer... successfulResponseCodes
+    ) {
+        return new RestRequest<>(
+            httpMethod,
+            urlSuffix,
+            requestBody,
+            (RestBodyMaker<B>) bodyMaker,
+            responseClazz,
+            responseAcceptor.getGenericInstance(),
+            headers,
+            successfulResponseCodes
+        );
+    }
+
     @Override
     public <B, R> R execute(
         final String httpMethod,
@@ -154,6 +232,37 @@ public class JsonRestClient implements RestClient {
         );
     }
 
+    /**
+     * Warms up the client after start.
+     * Opens the count of connections at once with parallel requests, including TCP and TLS handshakes,
+     * and leaves them in the keep-alive cache, the "http.maxConnections" property (5 by default) limits
+     * idle connections per host. Resolves serializers and deserializers of the classes and runs the count of
+     * codec iterations with a sample of every class, the sample is deserialized from "{}" if the class allows it.
+     * Failed requests do not stop the warm-up.
+     * @param httpMethod http method of warm-up requests, e.g. "GET" or "HEAD"
+     * @param urlSuffix suffix url of warm-up requests
+     * @param connections count of connections, 0 to skip
+     * @param iterations count of codec iterations per class, 0 to only resolve codecs
+     * @param classes DTO classes
+     * @return count of successful warm-up requests
+     * @throws IOException if codec warm-up fails
+     */
+    public int warmUp(
+        final String httpMethod,
+        final String urlSuffix,
+        final int connections,
+        final int iterations,
+        final Class<?>... classes
+    ) throws IOException {
+        int succeeded = connections > 0 ? warmUpConnections(httpMethod, urlSuffix, connections) : 0;
+        for (Class<?> clazz : classes) {
+            Object sample = createSample(clazz);
+            byte[] json = bodyMaker.warmUp(clazz, sample, iterations);
+            responseAcceptor.warmUp(clazz, json, iterations);
+        }
+        return succeeded;
+    }
+
     @Override
     public void setBearerToken(String token) {
         restClient.setBearerToken(token);
@@ -173,4 +282,104 @@ public class JsonRestClient implements RestClient {
     public void removeHeaders() {
         restClient.removeHeaders();
     }
+
+    /**
+     * Opens connections with parallel requests, every request waits for the others before it returns
+     * its connection to the keep-alive cache
+     * @param httpMethod http method
+     * @param urlSuffix suffix url
+     * @param connections count of connections
+     * @return count of successful requests
+     */
+    private int warmUpConnections(final String httpMethod, final String urlSuffix, final int connections) {
+        CountDownLatch opened = new CountDownLatch(connections);
+        AtomicInteger succeeded = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(connections, runnable -> {
+            Thread thread = new Thread(runnable, "rest-warm-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (int i = 0; i < connections; i++) {
+                executor.execute(() -> {
+                    WarmUpRestResponseAcceptor acceptor = new WarmUpRestResponseAcceptor(opened);
+                    try {
+                        restClient.execute(httpMethod, urlSuffix, Long.class, acceptor, null, WARM_UP_CODES);
+                        succeeded.incrementAndGet();
+                    } catch (RestClientException e) {
+                        // A failed warm-up request only leaves a connection less
+                    } finally {
+                        acceptor.arrive();
+                    }
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination(2 * WARM_UP_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        return succeeded.get();
+    }
+
+    /**
+     * Creates a sample of a class from an empty JSON object
+     * @param clazz class
+     * @return sample or null
+     */
+    private Object createSample(final Class<?> clazz) {
+        try {
+            return objectMapper.readValue("{}", clazz);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The acceptor of warm-up requests, it waits for the other connections and drops the body.
+     * The connection returns to the keep-alive cache at the end of the body, so the body is read after the wait.
+     */
+    private static class WarmUpRestResponseAcceptor implements RestResponseAcceptor<Long> {
+
+        /** Latch of opened connections */
+        private final CountDownLatch opened;
+
+        /** The request counted down the latch, it is used by the request thread only */
+        private boolean arrived;
+
+        /**
+         * Constructor
+         *
+         * @param opened latch of opened connections
+         */
+        WarmUpRestResponseAcceptor(final CountDownLatch opened) {
+            this.opened = opened;
+        }
+
+        /**
+         * Counts down the latch once per request
+         */
+        void arrive() {
+            if (!arrived) {
+                arrived = true;
+                opened.countDown();
+            }
+        }
+
+        @Override
+        public void setAcceptProperty(final URLConnection con) {
+        }
+
+        @Override
+        public Long readValue(final InputStream inputStream, final Class<Long> responseClazz) throws IOException {
+            arrive();
+            try {
+                opened.await(WARM_UP_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return BufferPool.getDefault().copy(inputStream, OutputStream.nullOutputStream());
+        }
+    }
 }
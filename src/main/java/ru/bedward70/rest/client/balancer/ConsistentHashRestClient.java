@@ -0,0 +1,184 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.balancer;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.isNull;
+
+/**
+ * A LoadBalancedRestClient which routes requests with the same key to the same endpoint
+ * to keep per-key caches of backends warm.
+ * <p>
+ * The key hash is looked up on a consistent hash ring with virtual nodes by binary search, so only
+ * about 1/n of keys move when an endpoint joins or leaves. With bounded loads an endpoint takes at most
+ * (1 + loadFactor) times the average count of outstanding requests, an overloaded or ejected endpoint
+ * passes the request to the next distinct one on the ring. Requests without a key use the strategy.
+ * The routing decision is O(log n) and does not allocate while the home endpoint takes the request.
+ * Otherwise the walk stops once every endpoint was checked, after about n ln n virtual nodes on average and
+ * all of them in the worst case; rings of more than 64 endpoints allocate a bit set for the walk.
+ */
+public class ConsistentHashRestClient extends LoadBalancedRestClient {
+
+    /** Default virtual nodes per endpoint */
+    public static final int DEFAULT_REPLICAS = 160;
+
+    /** Default load factor */
+    public static final double DEFAULT_LOAD_FACTOR = 0.25;
+
+    /** Key extractor */
+    private final RequestKeyExtractor keyExtractor;
+
+    /** Virtual nodes per endpoint */
+    private final int replicas;
+
+    /** Load factor */
+    private final double loadFactor;
+
+    /** Ring, it is replaced when endpoints change */
+    private volatile HashRing ring;
+
+    /**
+     * Constructor
+     *
+     * @param keyExtractor key extractor
+     * @param urls base urls
+     */
+    public ConsistentHashRestClient(final RequestKeyExtractor keyExtractor, final String... urls) {
+        this(
+            Arrays.stream(urls).map(Endpoint::of).collect(Collectors.toList()),
+            keyExtractor,
+            DEFAULT_REPLICAS,
+            DEFAULT_LOAD_FACTOR,
+            DEFAULT_MAX_CONSECUTIVE_FAILURES,
+            DEFAULT_EJECTION_TIME,
+            DEFAULT_MAX_EJECTION_TIME,
+            DEFAULT_SLOW_START
+        );
+    }
+
+    /**
+     * Constructor
+     *
+     * @param endpoints endpoints
+     * @param keyExtractor key extractor
+     * @param replicas virtual nodes per endpoint
+     * @param loadFactor load factor of bounded loads, Double.POSITIVE_INFINITY switches bounded loads off
+     * @param maxConsecutiveFailures consecutive failures to eject an endpoint
+     * @param ejectionTime base ejection time
+     * @param maxEjectionTime maximal ejection time
+     * @param slowStart slow start duration
+     */
+    public ConsistentHashRestClient(
+        final List<Endpoint> endpoints,
+        final RequestKeyExtractor keyExtractor,
+        final int replicas,
+        final double loadFactor,
+        final int maxConsecutiveFailures,
+        final Duration ejectionTime,
+        final Duration maxEjectionTime,
+        final Duration slowStart
+    ) {
+        super(
+            endpoints,
+            LoadBalancingStrategy.LEAST_OUTSTANDING,
+            maxConsecutiveFailures,
+            ejectionTime,
+            maxEjectionTime,
+            slowStart
+        );
+        this.keyExtractor = keyExtractor;
+        this.replicas = replicas;
+        this.loadFactor = loadFactor;
+        this.ring = new HashRing(getEndpoints(), replicas);
+    }
+
+    @Override
+    protected Endpoint select(
+        final List<Endpoint> endpoints,
+        final String httpMethod,
+        final String urlSuffix,
+        final Object requestBody,
+        final Map<String, String> headers
+    ) {
+        long hash = keyExtractor.getKeyHash(httpMethod, urlSuffix, requestBody, headers);
+        if (hash != RequestKeyExtractor.NO_KEY) {
+            HashRing current = ring;
+            long now = System.nanoTime();
+            double capacity = Math.ceil((1.0 + loadFactor) * (getOutstanding() + 1) / endpoints.size());
+            int index = current.indexOf(hash);
+            int count = current.getEndpointCount();
+            // Owners checked already, a mask for up to 64 endpoints and a bit set for larger rings
+            long checkedMask = 0L;
+            BitSet checkedSet = null;
+            int checked = 0;
+            for (int i = 0; i < current.size() && checked < count; i++) {
+                int owner = current.getOwnerIndex(index);
+                boolean first;
+                if (count <= Long.SIZE) {
+                    first = (checkedMask & (1L << owner)) == 0;
+                    checkedMask |= 1L << owner;
+                } else {
+                    if (isNull(checkedSet)) {
+                        checkedSet = new BitSet(count);
+                    }
+                    first = !checkedSet.get(owner);
+                    checkedSet.set(owner);
+                }
+                if (first) {
+                    checked++;
+                    Endpoint endpoint = current.getOwner(index);
+                    double weight = getWeight(endpoint, now);
+                    if (weight > 0.0 && endpoint.getOutstanding() < Math.max(1.0, capacity * weight)) {
+                        return endpoint;
+                    }
+                }
+                index = index + 1 == current.size() ? 0 : index + 1;
+            }
+        }
+        return super.select(endpoints, httpMethod, urlSuffix, requestBody, headers);
+    }
+
+    /**
+     * Returns the endpoint of a key hash on the ring without bounded loads and health, it is the home
+     * endpoint of the key
+     * @param hash key hash
+     * @return endpoint
+     */
+    public Endpoint getEndpoint(final long hash) {
+        HashRing current = ring;
+        return current.getOwner(current.indexOf(hash));
+    }
+
+    @Override
+    protected void onEndpointsChanged(final List<Endpoint> endpoints) {
+        ring = new HashRing(endpoints, replicas);
+    }
+}
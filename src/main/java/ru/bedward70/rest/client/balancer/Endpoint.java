@@ -0,0 +1,283 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.balancer;
+
+import ru.bedward70.rest.client.BaseRestClient;
+import ru.bedward70.rest.client.RestClient;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An endpoint of LoadBalancedRestClient: the rest client of a base url and its statistics.
+ * All statistics are updated without locks.
+ */
+public class Endpoint {
+
+    /** Minimal weight of an endpoint in slow start */
+    static final double MIN_WEIGHT = 0.1;
+
+    /** No latency sample */
+    private static final long NO_LATENCY = Double.doubleToRawLongBits(-1.0);
+
+    /** Base url */
+    private final String url;
+
+    /** Rest client */
+    private final RestClient restClient;
+
+    /** Outstanding requests */
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    /** Consecutive failures */
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    /** Count of ejections */
+    private final AtomicInteger ejections = new AtomicInteger();
+
+    /** Count of ejections in a row, it multiplies the ejection time */
+    private final AtomicInteger recentEjections = new AtomicInteger();
+
+    /** Peak EWMA latency, nanoseconds, double bits */
+    private final AtomicLong latency = new AtomicLong(NO_LATENCY);
+
+    /** Time of the last latency sample */
+    private volatile long latencyTime;
+
+    /** The endpoint is ejected until this time */
+    private final AtomicLong availableFrom = new AtomicLong(System.nanoTime());
+
+    /** The endpoint is in slow start after availableFrom */
+    private volatile boolean slowStart;
+
+    /** Count of requests */
+    private final LongAdder requests = new LongAdder();
+
+    /** Count of failed requests */
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Constructor
+     *
+     * @param url base url
+     * @param restClient rest client of the base url
+     */
+    public Endpoint(final String url, final RestClient restClient) {
+        this.url = url;
+        this.restClient = restClient;
+    }
+
+    /**
+     * Creates an endpoint with BaseRestClient
+     * @param url base url
+     * @return endpoint
+     */
+    public static Endpoint of(final String url) {
+        return new Endpoint(url, new BaseRestClient(url));
+    }
+
+    /**
+     * @return base url
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * @return rest client
+     */
+    public RestClient getRestClient() {
+        return restClient;
+    }
+
+    /**
+     * @return count of outstanding requests
+     */
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * @return EWMA latency, nanoseconds, 0 before the first request
+     */
+    public double getLatencyNanos() {
+        return Math.max(0.0, Double.longBitsToDouble(latency.get()));
+    }
+
+    /**
+     * @return count of consecutive failures
+     */
+    public int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    /**
+     * @return count of ejections
+     */
+    public int getEjections() {
+        return ejections.get();
+    }
+
+    /**
+     * @return count of requests
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * @return count of failed requests
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * @return true if the endpoint is ejected now
+     */
+    public boolean isEjected() {
+        return !isAvailable(System.nanoTime());
+    }
+
+    @Override
+    public String toString() {
+        return "Endpoint{url=" + url + ", outstanding=" + outstanding.get() + ", ejections=" + ejections.get() + "}";
+    }
+
+    /**
+     * @param now current nano time
+     * @return true if the endpoint is not ejected
+     */
+    boolean isAvailable(final long now) {
+        return now - availableFrom.get() >= 0;
+    }
+
+    /**
+     * @return nano time when the endpoint returns from ejection
+     */
+    long getAvailableFrom() {
+        return availableFrom.get();
+    }
+
+    /**
+     * Returns the weight of the endpoint, it grows linearly from MIN_WEIGHT to 1 during slow start
+     * @param now current nano time
+     * @param slowStartNanos slow start duration, nanoseconds
+     * @return weight, 0 if the endpoint is ejected
+     */
+    double getWeight(final long now, final long slowStartNanos) {
+        long elapsed = now - availableFrom.get();
+        if (elapsed < 0) {
+            return 0.0;
+        }
+        if (!slowStart) {
+            return 1.0;
+        }
+        if (elapsed >= slowStartNanos) {
+            slowStart = false;
+            return 1.0;
+        }
+        return Math.max(MIN_WEIGHT, (double) elapsed / slowStartNanos);
+    }
+
+    /**
+     * Starts slow start from now, it is used for a joined endpoint
+     * @param now current nano time
+     */
+    void startSlowStart(final long now) {
+        availableFrom.set(now);
+        slowStart = true;
+    }
+
+    /**
+     * Registers the start of a request
+     */
+    void onStart() {
+        outstanding.incrementAndGet();
+        requests.increment();
+    }
+
+    /**
+     * Registers a successful request
+     * @param now current nano time
+     * @param latencyNanos latency, nanoseconds
+     * @param decayNanos EWMA decay time, nanoseconds
+     */
+    void onSuccess(final long now, final long latencyNanos, final long decayNanos) {
+        outstanding.decrementAndGet();
+        consecutiveFailures.set(0);
+        updateLatency(now, latencyNanos, decayNanos);
+    }
+
+    /**
+     * Registers a failed request and ejects the endpoint after too many consecutive failures.
+     * The ejection time grows with ejections in a row, an endpoint which stayed available for the base ejection time
+     * since its last ejection starts again from the base ejection time.
+     * @param now current nano time
+     * @param maxConsecutiveFailures consecutive failures to eject
+     * @param ejectionNanos base ejection time, it is multiplied by the count of ejections in a row
+     * @param maxEjectionNanos maximal ejection time
+     */
+    void onFailure(final long now, final int maxConsecutiveFailures, final long ejectionNanos, final long maxEjectionNanos) {
+        outstanding.decrementAndGet();
+        failures.increment();
+        if (consecutiveFailures.incrementAndGet() >= maxConsecutiveFailures) {
+            long current = availableFrom.get();
+            if (now - current >= 0) {
+                int recent = now - current >= ejectionNanos ? 0 : recentEjections.get();
+                long time = Math.min(maxEjectionNanos, ejectionNanos * (recent + 1));
+                if (availableFrom.compareAndSet(current, now + time)) {
+                    ejections.incrementAndGet();
+                    recentEjections.set(recent + 1);
+                    consecutiveFailures.set(0);
+                    slowStart = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates peak EWMA latency: a slower sample is taken at once, faster ones are averaged
+     * with the weight of the old value decaying exponentially with time
+     * @param now current nano time
+     * @param latencyNanos latency, nanoseconds
+     * @param decayNanos decay time, nanoseconds
+     */
+    private void updateLatency(final long now, final long latencyNanos, final long decayNanos) {
+        long elapsed = Math.max(0L, now - latencyTime);
+        latencyTime = now;
+        double alpha = 1.0 - Math.exp(-(double) elapsed / decayNanos);
+        long bits;
+        long next;
+        do {
+            bits = latency.get();
+            double old = Double.longBitsToDouble(bits);
+            next = Double.doubleToRawLongBits(
+                old < 0 || latencyNanos > old ? latencyNanos : old + alpha * (latencyNanos - old)
+            );
+        } while (!latency.compareAndSet(bits, next));
+    }
+}
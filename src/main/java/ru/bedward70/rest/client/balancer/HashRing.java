@@ -0,0 +1,117 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.balancer;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable consistent hash ring: sorted points of virtual nodes and their endpoints
+ */
+class HashRing {
+
+    /** Sorted points */
+    private final long[] points;
+
+    /** Endpoints of points */
+    private final Endpoint[] owners;
+
+    /** Indexes of the endpoints of points in the endpoint list */
+    private final int[] ownerIndexes;
+
+    /** Count of endpoints */
+    private final int endpointCount;
+
+    /**
+     * Constructor
+     *
+     * @param endpoints endpoints
+     * @param replicas virtual nodes per endpoint
+     */
+    HashRing(final List<Endpoint> endpoints, final int replicas) {
+        int size = endpoints.size() * replicas;
+        long[][] entries = new long[size][];
+        for (int e = 0; e < endpoints.size(); e++) {
+            String url = endpoints.get(e).getUrl();
+            for (int r = 0; r < replicas; r++) {
+                String node = url + '#' + r;
+                entries[e * replicas + r] = new long[] {RequestKeyExtractor.hash(node, 0, node.length()), e};
+            }
+        }
+        Arrays.sort(entries, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        this.points = new long[size];
+        this.owners = new Endpoint[size];
+        this.ownerIndexes = new int[size];
+        this.endpointCount = endpoints.size();
+        for (int i = 0; i < size; i++) {
+            points[i] = entries[i][0];
+            ownerIndexes[i] = (int) entries[i][1];
+            owners[i] = endpoints.get(ownerIndexes[i]);
+        }
+    }
+
+    /**
+     * @return count of points
+     */
+    int size() {
+        return points.length;
+    }
+
+    /**
+     * @return count of endpoints
+     */
+    int getEndpointCount() {
+        return endpointCount;
+    }
+
+    /**
+     * Finds the first point clockwise from the hash, O(log n)
+     * @param hash hash
+     * @return index of the point
+     */
+    int indexOf(final long hash) {
+        int index = Arrays.binarySearch(points, hash);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index == points.length ? 0 : index;
+    }
+
+    /**
+     * @param index index of a point
+     * @return endpoint of the point
+     */
+    Endpoint getOwner(final int index) {
+        return owners[index];
+    }
+
+    /**
+     * @param index index of a point
+     * @return index of the endpoint of the point in the endpoint list
+     */
+    int getOwnerIndex(final int index) {
+        return ownerIndexes[index];
+    }
+}
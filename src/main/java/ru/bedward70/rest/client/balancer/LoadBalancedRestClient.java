@@ -0,0 +1,404 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.balancer;
+
+import ru.bedward70.rest.client.RestClient;
+import ru.bedward70.rest.client.body.maker.RestBodyMaker;
+import ru.bedward70.rest.client.exception.ErrorCodeRestClientException;
+import ru.bedward70.rest.client.response.acceptor.RestResponseAcceptor;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * A load balancing implementation of RestClient interface over endpoints with different base urls.
+ * <p>
+ * Every request goes to one endpoint which is selected by the strategy without locks. An endpoint is ejected
+ * for the ejection time after consecutive failures, IO errors and 5xx codes, the time grows with every
+ * ejection up to the maximal one. When all endpoints are ejected, the one which returns first is used.
+ * A returned endpoint gets a share of requests which grows from 10% to the full one during slow start.
+ * Failed requests are not retried on other endpoints. Endpoints may be added and removed at runtime.
+ */
+public class LoadBalancedRestClient implements RestClient {
+
+    /** Default consecutive failures to eject an endpoint */
+    public static final int DEFAULT_MAX_CONSECUTIVE_FAILURES = 5;
+
+    /** Default base ejection time */
+    public static final Duration DEFAULT_EJECTION_TIME = Duration.ofSeconds(30);
+
+    /** Default maximal ejection time */
+    public static final Duration DEFAULT_MAX_EJECTION_TIME = Duration.ofMinutes(5);
+
+    /** Default slow start duration */
+    public static final Duration DEFAULT_SLOW_START = Duration.ofSeconds(30);
+
+    /** Default EWMA latency decay time */
+    public static final Duration DEFAULT_LATENCY_DECAY = Duration.ofSeconds(10);
+
+    /** Strategy */
+    private final LoadBalancingStrategy strategy;
+
+    /** Consecutive failures to eject an endpoint */
+    private final int maxConsecutiveFailures;
+
+    /** Base ejection time, nanoseconds */
+    private final long ejectionNanos;
+
+    /** Maximal ejection time, nanoseconds */
+    private final long maxEjectionNanos;
+
+    /** Slow start duration, nanoseconds */
+    private final long slowStartNanos;
+
+    /** EWMA latency decay time, nanoseconds */
+    private final long latencyDecayNanos;
+
+    /** Round-robin counter */
+    private final AtomicInteger counter = new AtomicInteger();
+
+    /** Outstanding requests of all endpoints */
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    /** Lock of endpoint changes, selection does not use it */
+    private final Object endpointsLock = new Object();
+
+    /** Endpoints, the list is immutable and replaced on changes */
+    private volatile List<Endpoint> endpoints;
+
+    /**
+     * Constructor
+     *
+     * @param strategy strategy
+     * @param urls base urls
+     */
+    public LoadBalancedRestClient(final LoadBalancingStrategy strategy, final String... urls) {
+        this(
+            Arrays.stream(urls).map(Endpoint::of).collect(Collectors.toList()),
+            strategy,
+            DEFAULT_MAX_CONSECUTIVE_FAILURES,
+            DEFAULT_EJECTION_TIME,
+            DEFAULT_MAX_EJECTION_TIME,
+            DEFAULT_SLOW_START
+        );
+    }
+
+    /**
+     * Constructor
+     *
+     * @param endpoints endpoints
+     * @param strategy strategy
+     * @param maxConsecutiveFailures consecutive failures to eject an endpoint
+     * @param ejectionTime base ejection time
+     * @param maxEjectionTime maximal ejection time
+     * @param slowStart slow start duration
+     */
+    public LoadBalancedRestClient(
+        final List<Endpoint> endpoints,
+        final LoadBalancingStrategy strategy,
+        final int maxConsecutiveFailures,
+        final Duration ejectionTime,
+        final Duration maxEjectionTime,
+        final Duration slowStart
+    ) {
+        if (endpoints.isEmpty()) {
+            throw new IllegalArgumentException("At least one endpoint is required");
+        }
+        this.endpoints = List.copyOf(endpoints);
+        this.strategy = strategy;
+        this.maxConsecutiveFailures = maxConsecutiveFailures;
+        this.ejectionNanos = ejectionTime.toNanos();
+        this.maxEjectionNanos = maxEjectionTime.toNanos();
+        this.slowStartNanos = Math.max(1L, slowStart.toNanos());
+        this.latencyDecayNanos = DEFAULT_LATENCY_DECAY.toNanos();
+    }
+
+    /**
+     * @return endpoints
+     */
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Adds an endpoint, it starts in slow start
+     * @param endpoint endpoint
+     */
+    public void addEndpoint(final Endpoint endpoint) {
+        synchronized (endpointsLock) {
+            List<Endpoint> changed = new ArrayList<>(endpoints);
+            endpoint.startSlowStart(System.nanoTime());
+            changed.add(endpoint);
+            endpoints = List.copyOf(changed);
+            onEndpointsChanged(endpoints);
+        }
+    }
+
+    /**
+     * Removes an endpoint, its outstanding requests are completed
+     * @param url base url of the endpoint
+     * @return true if the endpoint is removed
+     */
+    public boolean removeEndpoint(final String url) {
+        synchronized (endpointsLock) {
+            List<Endpoint> changed = new ArrayList<>(endpoints);
+            if (changed.size() == 1 || !changed.removeIf(endpoint -> endpoint.getUrl().equals(url))) {
+                return false;
+            }
+            endpoints = List.copyOf(changed);
+            onEndpointsChanged(endpoints);
+            return true;
+        }
+    }
+
+    @Override
+    public HttpURLConnection getHttpURLConnection(final String urlSuffix) throws IOException {
+        return select(endpoints, null, urlSuffix, null, null).getRestClient().getHttpURLConnection(urlSuffix);
+    }
+
+    @Override
+    public <B, R> R execute(
+        final String httpMethod,
+        final String urlSuffix,
+        final B requestBody,
+        final RestBodyMaker<B> bodyMaker,
+        final Class<R> responseClazz,
+        final RestResponseAcceptor<R> responseAcceptor,
+        final Map<String, String> headers,
+        final Integer... successfulResponseCodes
+    ) {
+        Endpoint endpoint = select(endpoints, httpMethod, urlSuffix, requestBody, headers);
+        endpoint.onStart();
+        outstanding.incrementAndGet();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            R result = endpoint.getRestClient().execute(
+                httpMethod,
+                urlSuffix,
+                requestBody,
+                bodyMaker,
+                responseClazz,
+                responseAcceptor,
+                headers,
+                successfulResponseCodes
+            );
+            failed = false;
+            return result;
+        } catch (ErrorCodeRestClientException e) {
+            // The endpoint answered, only server errors count as failures
+            failed = e.getResponseCode() >= 500;
+            throw e;
+        } finally {
+            outstanding.decrementAndGet();
+            long now = System.nanoTime();
+            if (failed) {
+                endpoint.onFailure(now, maxConsecutiveFailures, ejectionNanos, maxEjectionNanos);
+            } else {
+                endpoint.onSuccess(now, now - start, latencyDecayNanos);
+            }
+        }
+    }
+
+    @Override
+    public void setBearerToken(final String token) {
+        endpoints.forEach(endpoint -> endpoint.getRestClient().setBearerToken(token));
+    }
+
+    @Override
+    public void setHeader(final String name, final String value) {
+        endpoints.forEach(endpoint -> endpoint.getRestClient().setHeader(name, value));
+    }
+
+    @Override
+    public void removeHeader(final String name) {
+        endpoints.forEach(endpoint -> endpoint.getRestClient().removeHeader(name));
+    }
+
+    @Override
+    public void removeHeaders() {
+        endpoints.forEach(endpoint -> endpoint.getRestClient().removeHeaders());
+    }
+
+    /**
+     * Selects the endpoint of a request, subclasses may route by the request
+     * @param endpoints endpoints
+     * @param httpMethod http method, null for getHttpURLConnection
+     * @param urlSuffix url suffix
+     * @param requestBody request body or null
+     * @param headers headers or null
+     * @return endpoint
+     */
+    protected Endpoint select(
+        final List<Endpoint> endpoints,
+        final String httpMethod,
+        final String urlSuffix,
+        final Object requestBody,
+        final Map<String, String> headers
+    ) {
+        long now = System.nanoTime();
+        switch (strategy) {
+            case ROUND_ROBIN:
+                return selectRoundRobin(endpoints, now);
+            case LEAST_OUTSTANDING:
+                return selectLeastOutstanding(endpoints, now);
+            default:
+                return selectPowerOfTwoChoices(endpoints, now);
+        }
+    }
+
+    /**
+     * Is called under the change lock after endpoints are added or removed
+     * @param endpoints new endpoints
+     */
+    protected void onEndpointsChanged(final List<Endpoint> endpoints) {
+    }
+
+    /**
+     * @return outstanding requests of all endpoints
+     */
+    protected int getOutstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * Returns the weight of an endpoint
+     * @param endpoint endpoint
+     * @param now current nano time
+     * @return weight, 0 if the endpoint is ejected
+     */
+    protected double getWeight(final Endpoint endpoint, final long now) {
+        return endpoint.getWeight(now, slowStartNanos);
+    }
+
+    /**
+     * Takes endpoints in turn, an endpoint in slow start is skipped with the probability of its missing weight
+     * @param endpoints endpoints
+     * @param now current nano time
+     * @return endpoint
+     */
+    private Endpoint selectRoundRobin(final List<Endpoint> endpoints, final long now) {
+        int size = endpoints.size();
+        int start = counter.getAndIncrement() & Integer.MAX_VALUE;
+        Endpoint available = null;
+        for (int i = 0; i < size; i++) {
+            Endpoint endpoint = endpoints.get((start + i) % size);
+            double weight = getWeight(endpoint, now);
+            if (weight >= 1.0 || weight > 0.0 && ThreadLocalRandom.current().nextDouble() < weight) {
+                return endpoint;
+            }
+            if (weight > 0.0 && available == null) {
+                available = endpoint;
+            }
+        }
+        return available == null ? getLeastEjected(endpoints) : available;
+    }
+
+    /**
+     * Takes the endpoint with the least outstanding requests divided by the weight,
+     * the scan starts at a random endpoint to spread ties
+     * @param endpoints endpoints
+     * @param now current nano time
+     * @return endpoint
+     */
+    private Endpoint selectLeastOutstanding(final List<Endpoint> endpoints, final long now) {
+        int size = endpoints.size();
+        int start = ThreadLocalRandom.current().nextInt(size);
+        Endpoint best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Endpoint endpoint = endpoints.get((start + i) % size);
+            double weight = getWeight(endpoint, now);
+            if (weight > 0.0) {
+                double score = (endpoint.getOutstanding() + 1) / weight;
+                if (score < bestScore) {
+                    best = endpoint;
+                    bestScore = score;
+                }
+            }
+        }
+        return best == null ? getLeastEjected(endpoints) : best;
+    }
+
+    /**
+     * Takes the better of two random endpoints by EWMA latency multiplied by outstanding requests
+     * and divided by the weight
+     * @param endpoints endpoints
+     * @param now current nano time
+     * @return endpoint
+     */
+    private Endpoint selectPowerOfTwoChoices(final List<Endpoint> endpoints, final long now) {
+        int size = endpoints.size();
+        if (size == 1) {
+            return endpoints.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        Endpoint a = endpoints.get(first);
+        Endpoint b = endpoints.get(second);
+        double weightA = getWeight(a, now);
+        double weightB = getWeight(b, now);
+        if (weightA == 0.0 && weightB == 0.0) {
+            return selectLeastOutstanding(endpoints, now);
+        }
+        if (weightA == 0.0) {
+            return b;
+        }
+        if (weightB == 0.0) {
+            return a;
+        }
+        double scoreA = (a.getLatencyNanos() + 1.0) * (a.getOutstanding() + 1) / weightA;
+        double scoreB = (b.getLatencyNanos() + 1.0) * (b.getOutstanding() + 1) / weightB;
+        return scoreA <= scoreB ? a : b;
+    }
+
+    /**
+     * Returns the endpoint which returns from ejection first, it is used when all endpoints are ejected
+     * @param endpoints endpoints
+     * @return endpoint
+     */
+    private static Endpoint getLeastEjected(final List<Endpoint> endpoints) {
+        Endpoint result = endpoints.get(0);
+        for (int i = 1; i < endpoints.size(); i++) {
+            Endpoint endpoint = endpoints.get(i);
+            if (endpoint.getAvailableFrom() - result.getAvailableFrom() < 0) {
+                result = endpoint;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.balancer;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Extracts the routing key of a request for ConsistentHashRestClient and returns its 64-bit hash
+ */
+@FunctionalInterface
+public interface RequestKeyExtractor {
+
+    /** The request has no key */
+    long NO_KEY = 0L;
+
+    /**
+     * Returns the hash of the request key
+     * @param httpMethod http method, null for getHttpURLConnection
+     * @param urlSuffix url suffix
+     * @param requestBody request body or null
+     * @param headers headers or null
+     * @return hash of the key or NO_KEY
+     */
+    long getKeyHash(String httpMethod, String urlSuffix, Object requestBody, Map<String, String> headers);
+
+    /**
+     * Takes a segment of the url path as the key, it is hashed in place without copying
+     * @param index index of the segment, 0 is the first segment after the leading slash
+     * @return extractor
+     */
+    static RequestKeyExtractor pathSegment(final int index) {
+        return (httpMethod, urlSuffix, requestBody, headers) -> {
+            if (isNull(urlSuffix)) {
+                return NO_KEY;
+            }
+            int end = urlSuffix.indexOf('?');
+            end = end < 0 ? urlSuffix.length() : end;
+            int start = urlSuffix.startsWith("/") ? 1 : 0;
+            for (int i = 0; i < index && start <= end; i++) {
+                int slash = urlSuffix.indexOf('/', start);
+                start = slash < 0 || slash >= end ? end + 1 : slash + 1;
+            }
+            if (start > end) {
+                return NO_KEY;
+            }
+            int slash = urlSuffix.indexOf('/', start);
+            return hash(urlSuffix, start, slash < 0 || slash > end ? end : slash);
+        };
+    }
+
+    /**
+     * Takes a header value as the key
+     * @param name header name
+     * @return extractor
+     */
+    static RequestKeyExtractor header(final String name) {
+        return (httpMethod, urlSuffix, requestBody, headers) -> {
+            String value = isNull(headers) ? null : headers.get(name);
+            return isNull(value) ? NO_KEY : hash(value, 0, value.length());
+        };
+    }
+
+    /**
+     * Takes a top level field of the request body as the key. Map and JsonNode bodies are read directly,
+     * other bodies by the accessor (getter or field) of the property, which is found once per body class
+     * from the bean description of the object mapper, so the body is not converted per request
+     * @param objectMapper object mapper
+     * @param name field name, the JSON name of the property
+     * @return extractor
+     */
+    static RequestKeyExtractor bodyField(final ObjectMapper objectMapper, final String name) {
+        ClassValue<Optional<AnnotatedMember>> accessors = new ClassValue<>() {
+            @Override
+            protected Optional<AnnotatedMember> computeValue(final Class<?> type) {
+                return findAccessor(objectMapper, type, name);
+            }
+        };
+        return (httpMethod, urlSuffix, requestBody, headers) -> {
+            Object value;
+            if (isNull(requestBody)) {
+                value = null;
+            } else if (requestBody instanceof Map) {
+                value = ((Map<?, ?>) requestBody).get(name);
+            } else if (requestBody instanceof JsonNode) {
+                JsonNode field = ((JsonNode) requestBody).get(name);
+                value = isNull(field) || field.isNull() ? null : field.asText();
+            } else {
+                AnnotatedMember accessor = accessors.get(requestBody.getClass()).orElse(null);
+                value = isNull(accessor) ? null : accessor.getValue(requestBody);
+            }
+            return hashOf(value);
+        };
+    }
+
+    /**
+     * Takes a value of a typed request body as the key, e.g. {@code body(Order.class, Order::getTenant)}.
+     * Bodies of other classes have no key
+     * @param bodyClass class of the request body
+     * @param key function which returns the key or null
+     * @param <B> generic type of the request body
+     * @return extractor
+     */
+    static <B> RequestKeyExtractor body(final Class<B> bodyClass, final Function<? super B, ?> key) {
+        return (httpMethod, urlSuffix, requestBody, headers) ->
+            bodyClass.isInstance(requestBody) ? hashOf(key.apply(bodyClass.cast(requestBody))) : NO_KEY;
+    }
+
+    /**
+     * Finds the accessor of a property
+     * @param objectMapper object mapper
+     * @param type bean class
+     * @param name JSON name of the property
+     * @return accessor or empty if the bean has no readable property with the name
+     */
+    private static Optional<AnnotatedMember> findAccessor(
+        final ObjectMapper objectMapper,
+        final Class<?> type,
+        final String name
+    ) {
+        SerializationConfig config = objectMapper.getSerializationConfig();
+        BeanDescription description = config.introspect(objectMapper.constructType(type));
+        for (BeanPropertyDefinition property : description.findProperties()) {
+            AnnotatedMember accessor = property.getAccessor();
+            if (name.equals(property.getName()) && nonNull(accessor)) {
+                accessor.fixAccess(config.isEnabled(MapperFeature.OVERRIDE_PUBLIC_ACCESS_MODIFIERS));
+                return Optional.of(accessor);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Hashes the string form of a key value
+     * @param value value or null
+     * @return hash or NO_KEY for null
+     */
+    private static long hashOf(final Object value) {
+        if (isNull(value)) {
+            return NO_KEY;
+        }
+        String key = value.toString();
+        return hash(key, 0, key.length());
+    }
+
+    /**
+     * Hashes a region of chars with FNV-1a and the MurmurHash3 finalizer, it never returns NO_KEY
+     * @param chars chars
+     * @param start start index, inclusive
+     * @param end end index, exclusive
+     * @return hash
+     */
+    static long hash(final CharSequence chars, final int start, final int end) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = start; i < end; i++) {
+            h = (h ^ chars.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == NO_KEY ? 1L : h;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.batch;
+
+import ru.bedward70.rest.client.RestClient;
+import ru.bedward70.rest.client.deadline.Deadline;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Executes batches of independent requests with bounded parallelism.
+ * <p>
+ * Results are returned in the order of requests. In the fail-fast mode the first failure stops starting
+ * new requests, otherwise all requests are executed. When the batch deadline passes, executeAll returns,
+ * not completed requests are reported as TIMED_OUT and their late results are ignored. The batch deadline,
+ * or the earlier current Deadline of the caller, is the deadline of every request, so BaseRestClient aborts
+ * requests which are still running at the deadline.
+ * <p>
+ * Workers run requests one after another, so a kept-alive connection of a finished request is reused
+ * by the next one. HttpURLConnection keeps "http.maxConnections" (5 by default) idle connections
+ * per destination, the property should not be less than the parallelism.
+ */
+public class RestBatchExecutor {
+
+    /** Rest client */
+    private final RestClient restClient;
+
+    /** Maximal count of parallel requests */
+    private final int maxParallelism;
+
+    /** Batch deadline or null */
+    private final Duration deadline;
+
+    /** Fail-fast mode */
+    private final boolean failFast;
+
+    /**
+     * Constructor of a collect-all executor without deadline
+     *
+     * @param restClient rest client
+     * @param maxParallelism maximal count of parallel requests
+     */
+    public RestBatchExecutor(final RestClient restClient, final int maxParallelism) {
+        this(restClient, maxParallelism, null, false);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param restClient rest client
+     * @param maxParallelism maximal count of parallel requests
+     * @param deadline batch deadline or null
+     * @param failFast fail-fast mode
+     */
+    public RestBatchExecutor(
+        final RestClient restClient,
+        final int maxParallelism,
+        final Duration deadline,
+        final boolean failFast
+    ) {
+        if (maxParallelism <= 0) {
+            throw new IllegalArgumentException("maxParallelism must be positive: " + maxParallelism);
+        }
+        this.restClient = restClient;
+        this.maxParallelism = maxParallelism;
+        this.deadline = deadline;
+        this.failFast = failFast;
+    }
+
+    /**
+     * Executes a batch
+     * @param requests requests
+     * @return results in the order of requests
+     *
+     * @param <R> generic type of the response
+     */
+    public <R> List<RestBatchResult<R>> executeAll(final List<? extends RestRequest<?, ? extends R>> requests) {
+        int size = requests.size();
+        AtomicReferenceArray<RestBatchResult<R>> results = new AtomicReferenceArray<>(size);
+        AtomicLongArray startTimes = new AtomicLongArray(size);
+        AtomicInteger next = new AtomicInteger();
+        AtomicBoolean stopped = new AtomicBoolean();
+        long batchStart = System.nanoTime();
+        // The batch deadline does not extend the current deadline of the caller and bounds every request
+        Deadline batchDeadline = Deadline.earliest(Deadline.current(), isNull(deadline) ? null : Deadline.after(deadline));
+        long deadlineNanos = isNull(batchDeadline) ? Long.MAX_VALUE : batchStart + batchDeadline.remainingNanos();
+
+        int threads = Math.min(maxParallelism, size);
+        CountDownLatch finished = new CountDownLatch(threads);
+        ExecutorService executor = threads == 0 ? null : Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "rest-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Runnable worker = () -> {
+            try {
+                int index;
+                while (!stopped.get() && System.nanoTime() < deadlineNanos && (index = next.getAndIncrement()) < size) {
+                    long start = System.nanoTime();
+                    startTimes.set(index, start - batchStart + 1);
+                    RestBatchResult<R> result;
+                    try {
+                        RestRequest<?, ? extends R> request = requests.get(index);
+                        R value = isNull(batchDeadline)
+                            ? request.execute(restClient)
+                            : batchDeadline.call(() -> request.execute(restClient));
+                        result = new RestBatchResult<>(
+                            RestBatchResult.Status.SUCCEEDED, value, null, start - batchStart, System.nanoTime() - start
+                        );
+                    } catch (RuntimeException e) {
+                        result = new RestBatchResult<>(
+                            RestBatchResult.Status.FAILED, null, e, start - batchStart, System.nanoTime() - start
+                        );
+                        if (failFast) {
+                            stopped.set(true);
+                        }
+                    }
+                    results.compareAndSet(index, null, result);
+                }
+            } finally {
+                finished.countDown();
+            }
+        };
+        try {
+            for (int i = 0; i < threads; i++) {
+                executor.execute(worker);
+            }
+            if (deadlineNanos == Long.MAX_VALUE) {
+                finished.await();
+            } else {
+                finished.await(Math.max(0L, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopped.set(true);
+        } finally {
+            if (nonNull(executor)) {
+                executor.shutdown();
+            }
+        }
+
+        List<RestBatchResult<R>> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long start = startTimes.get(i) - 1;
+            RestBatchResult.Status status = stopped.get() && start < 0
+                ? RestBatchResult.Status.SKIPPED
+                : RestBatchResult.Status.TIMED_OUT;
+            results.compareAndSet(i, null, new RestBatchResult<>(status, null, null, start, -1L));
+            list.add(results.get(i));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.batch;
+
+import java.time.Duration;
+
+/**
+ * Result of one request of a batch
+ * @param <R> generic type of the response
+ */
+public class RestBatchResult<R> {
+
+    /**
+     * Status of the request
+     */
+    public enum Status {
+        /** The request is completed */
+        SUCCEEDED,
+        /** The request failed */
+        FAILED,
+        /** The request was not started because a previous request failed in the fail-fast mode */
+        SKIPPED,
+        /** The request was not started or completed before the batch deadline */
+        TIMED_OUT
+    }
+
+    /** Status */
+    private final Status status;
+
+    /** Response object */
+    private final R value;
+
+    /** Failure */
+    private final RuntimeException exception;
+
+    /** Start time from the batch start, nanoseconds, or -1 if the request was not started */
+    private final long startNanos;
+
+    /** Duration, nanoseconds, or -1 if the request was not completed */
+    private final long durationNanos;
+
+    /**
+     * Constructor
+     *
+     * @param status status
+     * @param value response object
+     * @param exception failure
+     * @param startNanos start time from the batch start, nanoseconds, or -1
+     * @param durationNanos duration, nanoseconds, or -1
+     */
+    RestBatchResult(
+        final Status status,
+        final R value,
+        final RuntimeException exception,
+        final long startNanos,
+        final long durationNanos
+    ) {
+        this.status = status;
+        this.value = value;
+        this.exception = exception;
+        this.startNanos = startNanos;
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * @return status
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return true if the request is completed
+     */
+    public boolean isSucceeded() {
+        return status == Status.SUCCEEDED;
+    }
+
+    /**
+     * Returns the response object
+     * @return response object
+     * @throws RuntimeException the failure of the request
+     * @throws IllegalStateException if the request was skipped or timed out
+     */
+    public R getValue() {
+        if (status == Status.FAILED) {
+            throw exception;
+        }
+        if (status != Status.SUCCEEDED) {
+            throw new IllegalStateException("The request is " + status);
+        }
+        return value;
+    }
+
+    /**
+     * @return failure or null
+     */
+    public RuntimeException getException() {
+        return exception;
+    }
+
+    /**
+     * @return start time from the batch start, nanoseconds, or -1 if the request was not started
+     */
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    /**
+     * @return duration or null if the request was not completed
+     */
+    public Duration getDuration() {
+        return durationNanos < 0 ? null : Duration.ofNanos(durationNanos);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.batch;
+
+import ru.bedward70.rest.client.RestClient;
+import ru.bedward70.rest.client.body.maker.RestBodyMaker;
+import ru.bedward70.rest.client.response.acceptor.RestResponseAcceptor;
+
+import java.util.Map;
+
+/**
+ * Descriptor of a rest request, the arguments of RestClient.execute
+ * @param <B> generic type of the body
+ * @param <R> generic type of the response
+ */
+public class RestRequest<B, R> {
+
+    /** Http method */
+    private final String httpMethod;
+
+    /** Suffix url */
+    private final String urlSuffix;
+
+    /** Request body */
+    private final B requestBody;
+
+    /** Body maker */
+    private final RestBodyMaker<B> bodyMaker;
+
+    /** Response class */
+    private final Class<R> responseClazz;
+
+    /** Response acceptor */
+    private final RestResponseAcceptor<R> responseAcceptor;
+
+    /** Headers */
+    private final Map<String, String> headers;
+
+    /** Array of successful HTTP codes */
+    private final Integer[] successfulResponseCodes;
+
+    /**
+     * Constructor of a request without request body
+     *
+     * @param httpMethod http method
+     * @param urlSuffix suffix url
+     * @param responseClazz response class
+     * @param responseAcceptor response acceptor
+     * @param headers headers
+     * @param successfulResponseCodes array of successful HTTP codes
+     */
+    public RestRequest(
+        final String httpMethod,
+        final String urlSuffix,
+        final Class<R> responseClazz,
+        final RestResponseAcceptor<R> responseAcceptor,
+        final Map<String, String> headers,
+        final Integer... successfulResponseCodes
+    ) {
+        this(httpMethod, urlSuffix, null, null, responseClazz, responseAcceptor, headers, successfulResponseCodes);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param httpMethod http method
+     * @param urlSuffix suffix url
+     * @param requestBody request body
+     * @param bodyMaker body maker
+     * @param responseClazz response class
+     * @param responseAcceptor response acceptor
+     * @param headers headers
+     * @param successfulResponseCodes array of successful HTTP codes
+     */
+    public RestRequest(
+        final String httpMethod,
+        final String urlSuffix,
+        final B requestBody,
+        final RestBodyMaker<B> bodyMaker,
+        final Class<R> responseClazz,
+        final RestResponseAcceptor<R> responseAcceptor,
+        final Map<String, String> headers,
+        final Integer... successfulResponseCodes
+    ) {
+        this.httpMethod = httpMethod;
+        this.urlSuffix = urlSuffix;
+        this.requestBody = requestBody;
+        this.bodyMaker = bodyMaker;
+        this.responseClazz = responseClazz;
+        this.responseAcceptor = responseAcceptor;
+        this.headers = headers;
+        this.successfulResponseCodes = successfulResponseCodes;
+    }
+
+    /**
+     * Executes the request
+     * @param restClient rest client
+     * @return response object
+     */
+    public R execute(final RestClient restClient) {
+        return restClient.execute(
+            httpMethod,
+            urlSuffix,
+            requestBody,
+            bodyMaker,
+            responseClazz,
+            responseAcceptor,
+            headers,
+            successfulResponseCodes
+        );
+    }
+
+    /**
+     * @return http method
+     */
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    /**
+     * @return suffix url
+     */
+    public String getUrlSuffix() {
+        return urlSuffix;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.body.maker;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/**
+ * A byte range of a file which is used as a request body
+ */
+public class FileRegion {
+
+    /** Count value which means "up to the end of the file" */
+    public static final long TO_END_OF_FILE = -1L;
+
+    /** File path */
+    private final Path path;
+
+    /** Start position in the file */
+    private final long position;
+
+    /** Count of bytes or TO_END_OF_FILE */
+    private final long count;
+
+    /**
+     * Constructor of a region which covers the whole file
+     *
+     * @param path file path
+     */
+    public FileRegion(final Path path) {
+        this(path, 0L, TO_END_OF_FILE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param path file path
+     * @param position start position in the file
+     * @param count count of bytes or TO_END_OF_FILE
+     */
+    public FileRegion(final Path path, final long position, final long count) {
+        if (position < 0) {
+            throw new IllegalArgumentException("position must be non-negative: " + position);
+        }
+        if (count < 0 && count != TO_END_OF_FILE) {
+            throw new IllegalArgumentException("count must be non-negative: " + count);
+        }
+        this.path = path;
+        this.position = position;
+        this.count = count;
+    }
+
+    /**
+     * @return file path
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return start position in the file
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * @return count of bytes or TO_END_OF_FILE
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Resolves the real count of bytes of the region in the opened file
+     * @param channel opened file channel
+     * @return count of bytes which will be sent
+     * @throws IOException IO Exception
+     */
+    long resolveCount(final FileChannel channel) throws IOException {
+        long available = Math.max(0L, channel.size() - position);
+        return count == TO_END_OF_FILE ? available : Math.min(count, available);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.body.maker;
+
+import ru.bedward70.rest.client.buffer.BufferPool;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * A file region implementation of RestBodyMaker interface.
+ * The region is read into a pooled heap buffer and streamed with the fixed-length streaming mode,
+ * so the heap usage does not depend on the file size.
+ * A transfer buffer up to the buffer size of the default BufferPool is taken from the pool,
+ * a larger one is allocated per write.
+ */
+public class FileRegionRestBodyMaker implements RestBodyMaker<FileRegion> {
+
+    /** Default size of the transfer buffer */
+    public static final int DEFAULT_BUFFER_SIZE = BufferPool.DEFAULT_BUFFER_SIZE;
+
+    /** Mime type */
+    private final String mimeType;
+
+    /** Size of the transfer buffer */
+    private final int bufferSize;
+
+    /**
+     * Constructor
+     *
+     * @param mimeType mime type
+     */
+    public FileRegionRestBodyMaker(final String mimeType) {
+        this(mimeType, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param mimeType mime type
+     * @param bufferSize size of the transfer buffer
+     */
+    public FileRegionRestBodyMaker(final String mimeType, final int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive: " + bufferSize);
+        }
+        this.mimeType = mimeType;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public void setContentTypeProperty(final URLConnection con, final FileRegion requestBody) {
+        if (nonNull(requestBody)) {
+            con.setRequestProperty(CONTENT_TYPE_HEADER_KEY, mimeType);
+        }
+    }
+
+    @Override
+    public void write(final URLConnection con, final FileRegion requestBody) throws IOException {
+        if (nonNull(requestBody)) {
+            try (FileChannel channel = FileChannel.open(requestBody.getPath(), StandardOpenOption.READ)) {
+                long count = requestBody.resolveCount(channel);
+                if (con instanceof HttpURLConnection) {
+                    ((HttpURLConnection) con).setFixedLengthStreamingMode(count);
+                }
+                con.setDoOutput(true);
+                try (OutputStream os = con.getOutputStream()) {
+                    transfer(channel, requestBody.getPosition(), count, os);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the region of the channel to the output stream
+     * @param channel file channel
+     * @param position start position
+     * @param count count of bytes
+     * @param os output stream
+     * @throws IOException IO Exception
+     */
+    private void transfer(
+        final FileChannel channel,
+        final long position,
+        final long count,
+        final OutputStream os
+    ) throws IOException {
+        BufferPool pool = BufferPool.getDefault();
+        boolean pooled = bufferSize <= pool.getBufferSize();
+        byte[] buffer = pooled ? pool.acquire() : new byte[bufferSize];
+        ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+        try {
+            long transferred = 0L;
+            while (transferred < count) {
+                byteBuffer.clear().limit((int) Math.min(bufferSize, count - transferred));
+                int read = channel.read(byteBuffer, position + transferred);
+                if (read < 0) {
+                    throw new IOException("Unexpected end of file at position " + (position + transferred));
+                }
+                os.write(buffer, 0, read);
+                transferred += read;
+            }
+        } finally {
+            if (pooled) {
+                pool.release(buffer);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.body.maker;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URLConnection;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * A file implementation of RestBodyMaker interface
+ */
+public class FileRestBodyMaker implements RestBodyMaker<File> {
+
+    /** File region body maker */
+    private final FileRegionRestBodyMaker regionBodyMaker;
+
+    /**
+     * Constructor
+     *
+     * @param mimeType mime type
+     */
+    public FileRestBodyMaker(final String mimeType) {
+        this(mimeType, FileRegionRestBodyMaker.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param mimeType mime type
+     * @param bufferSize size of the transfer buffer
+     */
+    public FileRestBodyMaker(final String mimeType, final int bufferSize) {
+        this.regionBodyMaker = new FileRegionRestBodyMaker(mimeType, bufferSize);
+    }
+
+    @Override
+    public void setContentTypeProperty(final URLConnection con, final File requestBody) {
+        regionBodyMaker.setContentTypeProperty(con, toRegion(requestBody));
+    }
+
+    @Override
+    public void write(final URLConnection con, final File requestBody) throws IOException {
+        regionBodyMaker.write(con, toRegion(requestBody));
+    }
+
+    /**
+     * Transforms file to the region which covers the whole file
+     * @param file file or null
+     * @return file region or null
+     */
+    private static FileRegion toRegion(final File file) {
+        return nonNull(file) ? new FileRegion(file.toPath()) : null;
+    }
+}
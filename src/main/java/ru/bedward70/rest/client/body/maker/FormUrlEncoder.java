@@ -0,0 +1,234 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.body.maker;
+
+import ru.bedward70.rest.client.buffer.BufferPool;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Streaming x-www-form-urlencoded encoder.
+ * It writes percent-encoded UTF-8 bytes of parameters into a pooled buffer and flushes it to the output stream,
+ * the output is the same as of {@link java.net.URLEncoder#encode(String, java.nio.charset.Charset)} with UTF-8.
+ * A malformed surrogate is encoded as "?" like the URLEncoder does.
+ */
+public class FormUrlEncoder implements Closeable {
+
+    /** Max encoded size of a char: a surrogate pair is 4 percent-encoded bytes */
+    private static final int MAX_CHAR_SIZE = 12;
+
+    /** Upper case hex digits */
+    private static final byte[] HEX = {
+        '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'
+    };
+
+    /** ASCII chars written as is */
+    private static final boolean[] SAFE = new boolean[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            SAFE[c] = true;
+            SAFE[c - 'a' + 'A'] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            SAFE[c] = true;
+        }
+        SAFE['.'] = true;
+        SAFE['-'] = true;
+        SAFE['*'] = true;
+        SAFE['_'] = true;
+    }
+
+    /** Output stream */
+    private final OutputStream outputStream;
+
+    /** Buffer pool */
+    private final BufferPool pool;
+
+    /** Buffer */
+    private byte[] buffer;
+
+    /** Position in the buffer */
+    private int position;
+
+    /** No parameters are written yet */
+    private boolean first = true;
+
+    /**
+     * Constructor
+     * @param outputStream output stream, it is not closed by the encoder
+     */
+    public FormUrlEncoder(final OutputStream outputStream) {
+        this(outputStream, BufferPool.getDefault());
+    }
+
+    /**
+     * Constructor
+     * @param outputStream output stream, it is not closed by the encoder
+     * @param pool buffer pool
+     */
+    public FormUrlEncoder(final OutputStream outputStream, final BufferPool pool) {
+        this.outputStream = outputStream;
+        this.pool = pool;
+        this.buffer = pool.acquire();
+    }
+
+    /**
+     * Writes a parameter, parameters are separated by "&amp;"
+     * @param name name
+     * @param value value, null is written as an empty value
+     * @throws IOException IO Exception
+     */
+    public void writeParameter(final CharSequence name, final CharSequence value) throws IOException {
+        if (isNull(buffer)) {
+            throw new IOException("The encoder is closed");
+        }
+        if (!first) {
+            put((byte) '&');
+        }
+        first = false;
+        encode(name);
+        put((byte) '=');
+        if (!isNull(value)) {
+            encode(value);
+        }
+    }
+
+    /**
+     * Writes the buffered bytes to the output stream
+     * @throws IOException IO Exception
+     */
+    public void flush() throws IOException {
+        if (position > 0) {
+            outputStream.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    /**
+     * Flushes the buffered bytes and releases the buffer, the output stream is not closed
+     * @throws IOException IO Exception
+     */
+    @Override
+    public void close() throws IOException {
+        if (isNull(buffer)) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            pool.release(buffer);
+            buffer = null;
+        }
+    }
+
+    /**
+     * Returns the encoded length of a parameter
+     * @param name name
+     * @param value value, null is an empty value
+     * @return length in bytes without a separator
+     */
+    public static long getParameterLength(final CharSequence name, final CharSequence value) {
+        return getEncodedLength(name) + 1 + (isNull(value) ? 0 : getEncodedLength(value));
+    }
+
+    /**
+     * Returns the encoded length of a string
+     * @param s string
+     * @return length in bytes
+     */
+    public static long getEncodedLength(final CharSequence s) {
+        long length = 0;
+        int size = s.length();
+        for (int i = 0; i < size; i++) {
+            char c = s.charAt(i);
+            if (c < 128) {
+                length += SAFE[c] || c == ' ' ? 1 : 3;
+            } else if (c < 0x800) {
+                length += 6;
+            } else if (Character.isHighSurrogate(c) && i + 1 < size && Character.isLowSurrogate(s.charAt(i + 1))) {
+                length += 12;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length += 3;
+            } else {
+                length += 9;
+            }
+        }
+        return length;
+    }
+
+    private void encode(final CharSequence s) throws IOException {
+        int size = s.length();
+        for (int i = 0; i < size; i++) {
+            if (position > buffer.length - MAX_CHAR_SIZE) {
+                flush();
+            }
+            char c = s.charAt(i);
+            if (c < 128) {
+                if (SAFE[c]) {
+                    buffer[position++] = (byte) c;
+                } else if (c == ' ') {
+                    buffer[position++] = '+';
+                } else {
+                    percent(c);
+                }
+            } else if (c < 0x800) {
+                percent(0xC0 | (c >> 6));
+                percent(0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < size && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, s.charAt(++i));
+                percent(0xF0 | (codePoint >> 18));
+                percent(0x80 | ((codePoint >> 12) & 0x3F));
+                percent(0x80 | ((codePoint >> 6) & 0x3F));
+                percent(0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                percent('?');
+            } else {
+                percent(0xE0 | (c >> 12));
+                percent(0x80 | ((c >> 6) & 0x3F));
+                percent(0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private void percent(final int b) {
+        buffer[position] = '%';
+        buffer[position + 1] = HEX[(b >> 4) & 0x0F];
+        buffer[position + 2] = HEX[b & 0x0F];
+        position += 3;
+    }
+
+    private void put(final byte b) throws IOException {
+        if (position == buffer.length) {
+            flush();
+        }
+        buffer[position++] = b;
+    }
+}
@@ -25,15 +25,19 @@
 package ru.bedward70.rest.client.body.maker;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.bedward70.rest.client.codec.JsonCodec;
+import ru.bedward70.rest.client.codec.JsonCodecs;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URLConnection;
 
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
 /**
- * A JSON implementation of RestBodyMaker interface
+ * A JSON implementation of RestBodyMaker interface.
+ * Bodies with a generated {@link JsonCodec} are written by the codec, other bodies by the object mapper.
  */
 public class JsonRestBodyMaker implements RestBodyMaker<Object> {
 
@@ -62,9 +66,42 @@ public class JsonRestBodyMaker implements RestBodyMaker<Object> {
         if (nonNull(requestBody)) {
             con.setDoOutput(true);
             try(OutputStream os = con.getOutputStream()) {
-                byte[] input = objectMapper.writeValueAsString(requestBody).getBytes("utf-8");
+                // Jackson serializes to UTF-8 bytes through its own recycled buffers
+                byte[] input = toBytes(requestBody);
                 os.write(input);
             }
         }
     }
+
+    /**
+     * Warms up serialization of a class: resolves and caches its serializer and, with a sample,
+     * serializes the sample once for the result and then the count of iterations through the same path as write,
+     * so it is compiled before traffic
+     * @param clazz class
+     * @param sample sample instance or null
+     * @param iterations count of iterations, 0 to only resolve the serializer
+     * @return the serialized sample, or null without a sample
+     * @throws IOException IO Exception
+     */
+    public byte[] warmUp(final Class<?> clazz, final Object sample, final int iterations) throws IOException {
+        if (isNull(JsonCodecs.find(clazz))) {
+            objectMapper.getSerializerProviderInstance().findValueSerializer(clazz);
+        }
+        byte[] result = null;
+        if (nonNull(sample)) {
+            result = toBytes(sample);
+            for (int i = 0; i < iterations; i++) {
+                toBytes(sample);
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] toBytes(final Object body) throws IOException {
+        JsonCodec<Object> codec = (JsonCodec<Object>) JsonCodecs.find(body.getClass());
+        return nonNull(codec)
+            ? JsonCodecs.writeValueAsBytes(objectMapper, codec, body)
+            : objectMapper.writeValueAsBytes(body);
+    }
 }
@@ -0,0 +1,316 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.body.maker;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URLConnection;
+import java.util.Iterator;
+import java.util.concurrent.Flow;
+import java.util.stream.Stream;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * A streaming JSON implementation of RestBodyMaker interface for large collections.
+ * Elements are taken from the iterator one by one and serialized with a JsonGenerator straight into
+ * the chunked request stream, as a JSON array or as newline-delimited JSON.
+ * The stream is flushed every time the flush threshold of bytes is written.
+ * If the iterator is AutoCloseable, it is closed after writing.
+ * If the iterator fails, the request is aborted by HttpURLConnection.disconnect() instead of ending the body.
+ */
+public class JsonSequenceRestBodyMaker implements RestBodyMaker<Iterator<?>> {
+
+    /** Default flush threshold, bytes */
+    public static final int DEFAULT_FLUSH_THRESHOLD = 64 * 1024;
+
+    /**
+     * Format of the sequence
+     */
+    public enum Format {
+        /** JSON array, "application/json" */
+        JSON_ARRAY("application/json"),
+        /** Newline-delimited JSON, "application/x-ndjson" */
+        NDJSON("application/x-ndjson");
+
+        /** Mime type */
+        private final String mimeType;
+
+        /**
+         * Constructor
+         *
+         * @param mimeType mime type
+         */
+        Format(final String mimeType) {
+            this.mimeType = mimeType;
+        }
+
+        /**
+         * @return mime type
+         */
+        public String getMimeType() {
+            return mimeType;
+        }
+    }
+
+    /** Object writer which does not flush after each element */
+    private final ObjectWriter objectWriter;
+
+    /** Format */
+    private final Format format;
+
+    /** Flush threshold, bytes */
+    private final int flushThreshold;
+
+    /**
+     * Constructor
+     *
+     * @param objectMapper object mapper
+     * @param format format
+     */
+    public JsonSequenceRestBodyMaker(final ObjectMapper objectMapper, final Format format) {
+        this(objectMapper, format, DEFAULT_FLUSH_THRESHOLD);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param objectMapper object mapper
+     * @param format format
+     * @param flushThreshold flush threshold, bytes
+     */
+    public JsonSequenceRestBodyMaker(final ObjectMapper objectMapper, final Format format, final int flushThreshold) {
+        if (flushThreshold <= 0) {
+            throw new IllegalArgumentException("flushThreshold must be positive: " + flushThreshold);
+        }
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.format = format;
+        this.flushThreshold = flushThreshold;
+    }
+
+    /**
+     * Adapts a stream to the request body, the stream is closed after writing
+     * @param stream stream
+     * @return request body
+     */
+    public static Iterator<?> of(final Stream<?> stream) {
+        return new StreamIterator<>(stream);
+    }
+
+    /**
+     * Adapts a publisher to the request body, elements are requested one by one while the body is written
+     * and the subscription is cancelled if writing fails
+     * @param publisher publisher
+     * @return request body
+     */
+    public static Iterator<?> of(final Flow.Publisher<?> publisher) {
+        return new PublisherIterator<>(publisher);
+    }
+
+    @Override
+    public void setContentTypeProperty(final URLConnection con, final Iterator<?> requestBody) {
+        if (nonNull(requestBody)) {
+            con.setRequestProperty(CONTENT_TYPE_HEADER_KEY, format.getMimeType());
+        }
+    }
+
+    @Override
+    public void write(final URLConnection con, final Iterator<?> requestBody) throws IOException {
+        if (nonNull(requestBody)) {
+            try {
+                if (con instanceof HttpURLConnection) {
+                    ((HttpURLConnection) con).setChunkedStreamingMode(0);
+                }
+                con.setDoOutput(true);
+                OutputStream outputStream = con.getOutputStream();
+                CountingOutputStream os = new CountingOutputStream(outputStream);
+                JsonGenerator generator = objectWriter.getFactory().createGenerator(os)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                boolean completed = false;
+                try {
+                    writeElements(generator, os, requestBody);
+                    generator.close();
+                    completed = true;
+                } finally {
+                    if (completed) {
+                        outputStream.close();
+                    } else {
+                        abort(con);
+                    }
+                }
+            } finally {
+                if (requestBody instanceof AutoCloseable) {
+                    close((AutoCloseable) requestBody);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes elements
+     * @param generator JSON generator
+     * @param os counting output stream under the generator
+     * @param elements elements
+     * @throws IOException IO Exception
+     */
+    private void writeElements(
+        final JsonGenerator generator,
+        final CountingOutputStream os,
+        final Iterator<?> elements
+    ) throws IOException {
+        boolean array = format == Format.JSON_ARRAY;
+        if (array) {
+            generator.writeStartArray();
+        } else {
+            generator.setRootValueSeparator(null);
+        }
+        long flushed = 0L;
+        while (elements.hasNext()) {
+            objectWriter.writeValue(generator, elements.next());
+            if (!array) {
+                generator.writeRaw('\n');
+            }
+            long written = os.getCount() + generator.getOutputBuffered();
+            if (written - flushed >= flushThreshold) {
+                generator.flush();
+                flushed = written;
+            }
+        }
+        if (array) {
+            generator.writeEndArray();
+        }
+        generator.flush();
+    }
+
+    /**
+     * Aborts the request after a failed write, so the server never receives a complete but truncated body:
+     * the generator is not closed, it would end the JSON content, and the stream is not closed,
+     * it would end the chunked body
+     * @param con connection
+     */
+    private static void abort(final URLConnection con) {
+        if (con instanceof HttpURLConnection) {
+            ((HttpURLConnection) con).disconnect();
+        }
+    }
+
+    /**
+     * Closes a resource
+     * @param closeable resource
+     * @throws IOException IO Exception
+     */
+    private static void close(final AutoCloseable closeable) throws IOException {
+        try {
+            closeable.close();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Output stream which counts written bytes
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        /** Count of written bytes */
+        private long count;
+
+        /**
+         * Constructor
+         *
+         * @param out output stream
+         */
+        CountingOutputStream(final OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        /**
+         * @return count of written bytes
+         */
+        long getCount() {
+            return count;
+        }
+    }
+
+    /**
+     * Iterator over a stream which closes the stream
+     * @param <T> generic type of elements
+     */
+    private static class StreamIterator<T> implements Iterator<T>, AutoCloseable {
+
+        /** Stream */
+        private final Stream<T> stream;
+
+        /** Iterator of the stream */
+        private final Iterator<T> iterator;
+
+        /**
+         * Constructor
+         *
+         * @param stream stream
+         */
+        StreamIterator(final Stream<T> stream) {
+            this.stream = stream;
+            this.iterator = stream.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public T next() {
+            return iterator.next();
+        }
+
+        @Override
+        public void close() {
+            stream.close();
+        }
+    }
+}
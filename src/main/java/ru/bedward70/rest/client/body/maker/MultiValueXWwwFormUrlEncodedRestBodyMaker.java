@@ -0,0 +1,107 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.body.maker;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URLConnection;
+import java.util.Collection;
+import java.util.Map;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * A x-www-form-urlencoded body format implementation of RestBodyMaker interface for multi-valued parameters.
+ * Every value is written as a separate "name=value" pair, a parameter with no values is omitted.
+ */
+public class MultiValueXWwwFormUrlEncodedRestBodyMaker implements RestBodyMaker<Map<String, ? extends Collection<String>>> {
+
+    /** Fixed-length streaming mode flag */
+    private final boolean fixedLength;
+
+    /**
+     * Constructor, the connection buffers the body
+     */
+    public MultiValueXWwwFormUrlEncodedRestBodyMaker() {
+        this(false);
+    }
+
+    /**
+     * Constructor
+     * @param fixedLength true precomputes the content length and streams the body without buffering in the connection
+     */
+    public MultiValueXWwwFormUrlEncodedRestBodyMaker(final boolean fixedLength) {
+        this.fixedLength = fixedLength;
+    }
+
+    @Override
+    public void setContentTypeProperty(
+        final URLConnection con,
+        final Map<String, ? extends Collection<String>> requestBody
+    ) {
+        if (nonNull(requestBody)) {
+            con.setRequestProperty(CONTENT_TYPE_HEADER_KEY, XWwwFormUrlEncodedRestBodyMaker.CONTENT_TYPE);
+        }
+    }
+
+    @Override
+    public void write(
+        final URLConnection con,
+        final Map<String, ? extends Collection<String>> requestBody
+    ) throws IOException {
+        if (nonNull(requestBody)) {
+            con.setDoOutput(true);
+            if (fixedLength && con instanceof HttpURLConnection) {
+                ((HttpURLConnection) con).setFixedLengthStreamingMode(getContentLength(requestBody));
+            }
+            try (OutputStream os = con.getOutputStream(); FormUrlEncoder encoder = new FormUrlEncoder(os)) {
+                for (Map.Entry<String, ? extends Collection<String>> entry : requestBody.entrySet()) {
+                    for (String value : entry.getValue()) {
+                        encoder.writeParameter(entry.getKey(), value);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the encoded length of the body
+     * @param params map of params
+     * @return length in bytes
+     */
+    public long getContentLength(final Map<String, ? extends Collection<String>> params) {
+        long length = 0;
+        long count = 0;
+        for (Map.Entry<String, ? extends Collection<String>> entry : params.entrySet()) {
+            long nameLength = FormUrlEncoder.getEncodedLength(entry.getKey());
+            for (String value : entry.getValue()) {
+                length += nameLength + 1 + (nonNull(value) ? FormUrlEncoder.getEncodedLength(value) : 0);
+                count++;
+            }
+        }
+        return length + Math.max(0, count - 1);
+    }
+}
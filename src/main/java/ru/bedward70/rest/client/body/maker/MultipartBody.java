@@ -0,0 +1,311 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.body.maker;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.bedward70.rest.client.buffer.BufferPool;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * The multipart/form-data request body, a list of parts which are streamed by MultipartRestBodyMaker.
+ * Part contents are not buffered: files and streams are read at writing time, JSON objects are serialized
+ * directly into the request output stream.
+ */
+public class MultipartBody {
+
+    /** Unknown length of a part */
+    public static final long UNKNOWN_LENGTH = -1L;
+
+    /** Line separator */
+    static final byte[] CRLF = {'\r', '\n'};
+
+    /** Boundary prefix */
+    static final byte[] DASHES = {'-', '-'};
+
+    /** Generator of boundaries */
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /** Boundary */
+    private final String boundary;
+
+    /** Parts */
+    private final List<Part> parts = new ArrayList<>();
+
+    /**
+     * Constructor with a random boundary
+     */
+    public MultipartBody() {
+        this("----RestClientBoundary" + Long.toHexString(RANDOM.nextLong()) + Long.toHexString(RANDOM.nextLong()));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param boundary boundary
+     */
+    public MultipartBody(final String boundary) {
+        this.boundary = boundary;
+    }
+
+    /**
+     * @return boundary
+     */
+    public String getBoundary() {
+        return boundary;
+    }
+
+    /**
+     * Adds a text field
+     * @param name field name
+     * @param value field value
+     * @return this instance
+     */
+    public MultipartBody addField(final String name, final String value) {
+        return addBytes(name, null, null, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Adds a byte array part
+     * @param name field name
+     * @param filename file name or null
+     * @param contentType content type or null
+     * @param content content
+     * @return this instance
+     */
+    public MultipartBody addBytes(
+        final String name,
+        final String filename,
+        final String contentType,
+        final byte[] content
+    ) {
+        parts.add(new Part(name, filename, contentType) {
+            @Override
+            long getContentLength() {
+                return content.length;
+            }
+
+            @Override
+            void writeContent(final OutputStream os, final ObjectMapper objectMapper) throws IOException {
+                os.write(content);
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Adds a file part, the file name is used as the part file name
+     * @param name field name
+     * @param file file
+     * @param contentType content type or null
+     * @return this instance
+     */
+    public MultipartBody addFile(final String name, final File file, final String contentType) {
+        parts.add(new Part(name, file.getName(), nonNull(contentType) ? contentType : "application/octet-stream") {
+            @Override
+            long getContentLength() {
+                return file.length();
+            }
+
+            @Override
+            void writeContent(final OutputStream os, final ObjectMapper objectMapper) throws IOException {
+                try (InputStream is = Files.newInputStream(file.toPath())) {
+                    copy(is, os);
+                }
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Adds a stream part
+     * @param name field name
+     * @param filename file name or null
+     * @param contentType content type or null
+     * @param streamSupplier supplier of the content stream, the stream is closed after writing
+     * @param length content length or UNKNOWN_LENGTH
+     * @return this instance
+     */
+    public MultipartBody addStream(
+        final String name,
+        final String filename,
+        final String contentType,
+        final Supplier<InputStream> streamSupplier,
+        final long length
+    ) {
+        parts.add(new Part(name, filename, nonNull(contentType) ? contentType : "application/octet-stream") {
+            @Override
+            long getContentLength() {
+                return length;
+            }
+
+            @Override
+            void writeContent(final OutputStream os, final ObjectMapper objectMapper) throws IOException {
+                try (InputStream is = streamSupplier.get()) {
+                    long copied = copy(is, os);
+                    if (length != UNKNOWN_LENGTH && copied != length) {
+                        throw new IOException("Part \"" + name + "\": " + copied + " of " + length + " bytes are read");
+                    }
+                }
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Adds a JSON part, the object is serialized at writing time so the length of the part is unknown
+     * @param name field name
+     * @param value object
+     * @return this instance
+     */
+    public MultipartBody addJson(final String name, final Object value) {
+        parts.add(new Part(name, null, "application/json") {
+            @Override
+            long getContentLength() {
+                return UNKNOWN_LENGTH;
+            }
+
+            @Override
+            void writeContent(final OutputStream os, final ObjectMapper objectMapper) throws IOException {
+                if (isNull(objectMapper)) {
+                    throw new IllegalStateException("Object mapper is required for the JSON part \"" + name + "\"");
+                }
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(os);
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                objectMapper.writeValue(generator, value);
+                generator.close();
+            }
+        });
+        return this;
+    }
+
+    /**
+     * @return unmodifiable list of parts
+     */
+    List<Part> getParts() {
+        return Collections.unmodifiableList(parts);
+    }
+
+    /**
+     * Calculates the total length of the body
+     * @return total length or UNKNOWN_LENGTH if a part length is unknown
+     */
+    public long getContentLength() {
+        byte[] boundaryBytes = boundary.getBytes(StandardCharsets.US_ASCII);
+        long total = 0L;
+        for (Part part : parts) {
+            long length = part.getContentLength();
+            if (length == UNKNOWN_LENGTH) {
+                return UNKNOWN_LENGTH;
+            }
+            total += DASHES.length + boundaryBytes.length + CRLF.length + part.getHeaders().length + length + CRLF.length;
+        }
+        return total + DASHES.length + boundaryBytes.length + DASHES.length + CRLF.length;
+    }
+
+    /**
+     * Copies the input stream to the output stream
+     * @param is input stream
+     * @param os output stream
+     * @return count of copied bytes
+     * @throws IOException IO Exception
+     */
+    private static long copy(final InputStream is, final OutputStream os) throws IOException {
+        return BufferPool.getDefault().copy(is, os);
+    }
+
+    /**
+     * A part of the body
+     */
+    abstract static class Part {
+
+        /** Encoded part headers which end with the empty line */
+        private final byte[] headers;
+
+        /**
+         * Constructor
+         *
+         * @param name field name
+         * @param filename file name or null
+         * @param contentType content type or null
+         */
+        Part(final String name, final String filename, final String contentType) {
+            StringBuilder builder = new StringBuilder("Content-Disposition: form-data; name=\"")
+                .append(escape(name))
+                .append('"');
+            if (nonNull(filename)) {
+                builder.append("; filename=\"").append(escape(filename)).append('"');
+            }
+            builder.append("\r\n");
+            if (nonNull(contentType)) {
+                builder.append("Content-Type: ").append(contentType).append("\r\n");
+            }
+            this.headers = builder.append("\r\n").toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        /**
+         * @return encoded part headers
+         */
+        byte[] getHeaders() {
+            return headers;
+        }
+
+        /**
+         * @return content length or UNKNOWN_LENGTH
+         */
+        abstract long getContentLength();
+
+        /**
+         * Writes content of the part
+         * @param os output stream
+         * @param objectMapper object mapper or null
+         * @throws IOException IO Exception
+         */
+        abstract void writeContent(final OutputStream os, final ObjectMapper objectMapper) throws IOException;
+
+        /**
+         * Escapes a quoted header parameter value
+         * @param value parameter value
+         * @return escaped value
+         */
+        private static String escape(final String value) {
+            return value.replace("\"", "%22").replace("\r", "%0D").replace("\n", "%0A");
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.body.maker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * A multipart/form-data implementation of RestBodyMaker interface.
+ * If the lengths of all parts are known, the fixed-length streaming mode is used,
+ * otherwise the body is sent with the chunked transfer encoding.
+ */
+public class MultipartRestBodyMaker implements RestBodyMaker<MultipartBody> {
+
+    /** Object mapper of JSON parts */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor of a maker which does not support JSON parts
+     */
+    public MultipartRestBodyMaker() {
+        this(null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param objectMapper object mapper of JSON parts
+     */
+    public MultipartRestBodyMaker(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void setContentTypeProperty(final URLConnection con, final MultipartBody requestBody) {
+        if (nonNull(requestBody)) {
+            con.setRequestProperty(CONTENT_TYPE_HEADER_KEY, "multipart/form-data; boundary=" + requestBody.getBoundary());
+        }
+    }
+
+    @Override
+    public void write(final URLConnection con, final MultipartBody requestBody) throws IOException {
+        if (nonNull(requestBody)) {
+            if (con instanceof HttpURLConnection) {
+                long length = requestBody.getContentLength();
+                if (length == MultipartBody.UNKNOWN_LENGTH) {
+                    ((HttpURLConnection) con).setChunkedStreamingMode(0);
+                } else {
+                    ((HttpURLConnection) con).setFixedLengthStreamingMode(length);
+                }
+            }
+            con.setDoOutput(true);
+            byte[] boundary = requestBody.getBoundary().getBytes(StandardCharsets.US_ASCII);
+            try (OutputStream os = con.getOutputStream()) {
+                for (MultipartBody.Part part : requestBody.getParts()) {
+                    os.write(MultipartBody.DASHES);
+                    os.write(boundary);
+                    os.write(MultipartBody.CRLF);
+                    os.write(part.getHeaders());
+                    part.writeContent(os, objectMapper);
+                    os.write(MultipartBody.CRLF);
+                }
+                os.write(MultipartBody.DASHES);
+                os.write(boundary);
+                os.write(MultipartBody.DASHES);
+                os.write(MultipartBody.CRLF);
+            }
+        }
+    }
+}
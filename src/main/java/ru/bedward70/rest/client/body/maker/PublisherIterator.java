@@ -0,0 +1,151 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.body.maker;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A blocking iterator over a Flow.Publisher, it requests the next element only when the previous one is taken,
+ * so at most one element is buffered
+ * @param <T> generic type of elements
+ */
+class PublisherIterator<T> implements Iterator<T>, Flow.Subscriber<T>, AutoCloseable {
+
+    /** Completion signal */
+    private static final Object COMPLETE = new Object();
+
+    /** Received signals: elements, COMPLETE or Throwable */
+    private final BlockingQueue<Object> signals = new LinkedBlockingQueue<>();
+
+    /** Subscription latch */
+    private final CountDownLatch subscribed = new CountDownLatch(1);
+
+    /** Subscription */
+    private volatile Flow.Subscription subscription;
+
+    /** Next signal which is not taken yet */
+    private Object next;
+
+    /** Count of requested and not received elements */
+    private int requested;
+
+    /**
+     * Constructor
+     *
+     * @param publisher publisher
+     */
+    PublisherIterator(final Flow.Publisher<T> publisher) {
+        publisher.subscribe(this);
+    }
+
+    @Override
+    public void onSubscribe(final Flow.Subscription subscription) {
+        if (nonNull(this.subscription)) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        subscribed.countDown();
+    }
+
+    @Override
+    public void onNext(final T item) {
+        signals.add(item);
+    }
+
+    @Override
+    public void onError(final Throwable throwable) {
+        signals.add(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        signals.add(COMPLETE);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (isNull(next)) {
+            next = take();
+        }
+        if (next instanceof Throwable) {
+            Throwable throwable = (Throwable) next;
+            throw throwable instanceof RuntimeException
+                ? (RuntimeException) throwable
+                : new IllegalStateException("The publisher failed", throwable);
+        }
+        return next != COMPLETE;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T result = (T) next;
+        next = null;
+        return result;
+    }
+
+    @Override
+    public void close() {
+        Flow.Subscription current = subscription;
+        if (nonNull(current)) {
+            current.cancel();
+        }
+    }
+
+    /**
+     * Requests one element if needed and waits for the next signal
+     * @return next signal
+     */
+    private Object take() {
+        try {
+            subscribed.await();
+            if (signals.isEmpty() && requested == 0) {
+                requested = 1;
+                subscription.request(1);
+            }
+            Object signal = signals.take();
+            if (signal != COMPLETE && !(signal instanceof Throwable)) {
+                requested = 0;
+            }
+            return signal;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            return new IllegalStateException("Interrupted while waiting for the publisher", e);
+        }
+    }
+}
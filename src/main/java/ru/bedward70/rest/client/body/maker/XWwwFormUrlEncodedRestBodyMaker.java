@@ -26,23 +26,43 @@ package ru.bedward70.rest.client.body.maker;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.net.HttpURLConnection;
 import java.net.URLConnection;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import static java.util.Objects.nonNull;
 
 /**
- * A x-www-form-urlencoded body format implementation of RestBodyMaker interface
+ * A x-www-form-urlencoded body format implementation of RestBodyMaker interface.
+ * The body is encoded by the streaming {@link FormUrlEncoder} straight into the connection output stream.
  */
 public class XWwwFormUrlEncodedRestBodyMaker implements RestBodyMaker<Map<String, String>> {
 
+    /** Content type */
+    static final String CONTENT_TYPE = "application/x-www-form-urlencoded";
+
+    /** Fixed-length streaming mode flag */
+    private final boolean fixedLength;
+
+    /**
+     * Constructor, the connection buffers the body
+     */
+    public XWwwFormUrlEncodedRestBodyMaker() {
+        this(false);
+    }
+
+    /**
+     * Constructor
+     * @param fixedLength true precomputes the content length and streams the body without buffering in the connection
+     */
+    public XWwwFormUrlEncodedRestBodyMaker(final boolean fixedLength) {
+        this.fixedLength = fixedLength;
+    }
+
     @Override
     public void setContentTypeProperty(final URLConnection con, final Map<String, String> requestBody) {
         if (nonNull(requestBody)) {
-            con.setRequestProperty(CONTENT_TYPE_HEADER_KEY, "application/x-www-form-urlencoded");
+            con.setRequestProperty(CONTENT_TYPE_HEADER_KEY, CONTENT_TYPE);
         }
     }
 
@@ -50,29 +70,27 @@ public class XWwwFormUrlEncodedRestBodyMaker implements RestBodyMaker<Map<String
     public void write(final URLConnection con, final Map<String, String> requestBody) throws IOException {
         if (nonNull(requestBody)) {
             con.setDoOutput(true);
-            try(OutputStream os = con.getOutputStream()) {
-                byte[] input = getXWwwFormUrlEncoded(requestBody).getBytes(StandardCharsets.UTF_8);
-                os.write(input);
+            if (fixedLength && con instanceof HttpURLConnection) {
+                ((HttpURLConnection) con).setFixedLengthStreamingMode(getContentLength(requestBody));
+            }
+            try (OutputStream os = con.getOutputStream(); FormUrlEncoder encoder = new FormUrlEncoder(os)) {
+                for (Map.Entry<String, String> entry : requestBody.entrySet()) {
+                    encoder.writeParameter(entry.getKey(), entry.getValue());
+                }
             }
         }
     }
 
     /**
-     * Transforms map to x-www-form-urlencoded body format
-     * @param params mao of params
-     * @return x-www-form-urlencoded body formatted string
+     * Returns the encoded length of the body
+     * @param params map of params
+     * @return length in bytes
      */
-    private String getXWwwFormUrlEncoded(final Map<String, String> params) {
-
-        return params
-            .entrySet()
-            .stream()
-            .map(
-                (e) ->
-                    URLEncoder.encode(e.getKey(), StandardCharsets.UTF_8)
-                    + "="
-                    + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8)
-            )
-            .collect(Collectors.joining("&"));
+    public long getContentLength(final Map<String, String> params) {
+        long length = Math.max(0, params.size() - 1);
+        for (Map.Entry<String, String> entry : params.entrySet()) {
+            length += FormUrlEncoder.getParameterLength(entry.getKey(), entry.getValue());
+        }
+        return length;
     }
 }
@@ -0,0 +1,263 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.buffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A bounded pool of fixed-size heap I/O buffers.
+ * <p>
+ * Each thread keeps one buffer in a thread-local slot, other released buffers go to
+ * a bounded shared queue; when the queue is full they are left to the garbage collector.
+ * Buffers larger than the pool buffer size are not pooled.
+ * <p>
+ * Leak detection is enabled by the "ru.bedward70.rest.client.buffer.leakDetection" system property
+ * (the test configuration sets it): every acquired buffer remembers its acquisition stack until it is released.
+ */
+public class BufferPool {
+
+    /** Leak detection system property */
+    public static final String LEAK_DETECTION_PROPERTY = "ru.bedward70.rest.client.buffer.leakDetection";
+
+    /** Default buffer size */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /** Default count of buffers in the shared queue */
+    public static final int DEFAULT_MAX_SHARED_BUFFERS = 64;
+
+    /** Default pool */
+    private static final BufferPool DEFAULT = new BufferPool(
+        DEFAULT_BUFFER_SIZE,
+        DEFAULT_MAX_SHARED_BUFFERS,
+        Boolean.getBoolean(LEAK_DETECTION_PROPERTY)
+    );
+
+    /** Buffer size */
+    private final int bufferSize;
+
+    /** Leak detection flag */
+    private final boolean leakDetection;
+
+    /** Thread-local heap buffer */
+    private final ThreadLocal<byte[]> localHeap = new ThreadLocal<>();
+
+    /** Shared heap buffers */
+    private final BlockingQueue<byte[]> sharedHeap;
+
+    /** Acquisition stacks of not released buffers, used by leak detection only */
+    private final Map<Object, Throwable> outstanding = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    /** Count of acquisitions served from the pool */
+    private final LongAdder hits = new LongAdder();
+
+    /** Count of acquisitions which allocated a new buffer */
+    private final LongAdder misses = new LongAdder();
+
+    /** Count of released buffers which were not kept by the pool */
+    private final LongAdder drops = new LongAdder();
+
+    /**
+     * Constructor
+     *
+     * @param bufferSize buffer size
+     * @param maxSharedBuffers count of buffers in the shared queue
+     * @param leakDetection leak detection flag
+     */
+    public BufferPool(final int bufferSize, final int maxSharedBuffers, final boolean leakDetection) {
+        if (bufferSize <= 0 || maxSharedBuffers <= 0) {
+            throw new IllegalArgumentException("Invalid pool size: " + bufferSize + ", " + maxSharedBuffers);
+        }
+        this.bufferSize = bufferSize;
+        this.leakDetection = leakDetection;
+        this.sharedHeap = new ArrayBlockingQueue<>(maxSharedBuffers);
+    }
+
+    /**
+     * @return default pool
+     */
+    public static BufferPool getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @return buffer size
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Acquires a heap buffer of the pool buffer size
+     * @return buffer, it should be released by release(byte[])
+     */
+    public byte[] acquire() {
+        return acquire(bufferSize);
+    }
+
+    /**
+     * Acquires a heap buffer
+     * @param minSize minimal buffer size, a larger than the pool buffer size one is allocated and not pooled
+     * @return buffer, it should be released by release(byte[])
+     */
+    public byte[] acquire(final int minSize) {
+        byte[] buffer = null;
+        if (minSize <= bufferSize) {
+            buffer = localHeap.get();
+            if (nonNull(buffer)) {
+                localHeap.set(null);
+            } else {
+                buffer = sharedHeap.poll();
+            }
+        }
+        if (nonNull(buffer)) {
+            hits.increment();
+        } else {
+            misses.increment();
+            buffer = new byte[Math.max(minSize, bufferSize)];
+        }
+        track(buffer);
+        return buffer;
+    }
+
+    /**
+     * Returns a heap buffer to the pool
+     * @param buffer buffer or null
+     */
+    public void release(final byte[] buffer) {
+        if (isNull(buffer)) {
+            return;
+        }
+        untrack(buffer);
+        if (buffer.length != bufferSize) {
+            drops.increment();
+        } else if (isNull(localHeap.get())) {
+            localHeap.set(buffer);
+        } else if (!sharedHeap.offer(buffer)) {
+            drops.increment();
+        }
+    }
+
+    /**
+     * Copies the input stream to the output stream through a pooled buffer
+     * @param inputStream input stream
+     * @param outputStream output stream
+     * @return count of copied bytes
+     * @throws IOException IO Exception
+     */
+    public long copy(final InputStream inputStream, final OutputStream outputStream) throws IOException {
+        byte[] buffer = acquire();
+        try {
+            long copied = 0L;
+            int read;
+            while ((read = inputStream.read(buffer)) >= 0) {
+                outputStream.write(buffer, 0, read);
+                copied += read;
+            }
+            return copied;
+        } finally {
+            release(buffer);
+        }
+    }
+
+    /**
+     * @return count of acquisitions served from the pool
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return count of acquisitions which allocated a new buffer
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return count of released buffers which were not kept by the pool
+     */
+    public long getDrops() {
+        return drops.sum();
+    }
+
+    /**
+     * @return ratio of acquisitions served from the pool, 0 if there were no acquisitions
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    /**
+     * @return true if leak detection is enabled
+     */
+    public boolean isLeakDetection() {
+        return leakDetection;
+    }
+
+    /**
+     * Returns acquisition stacks of not released buffers, it is always empty if leak detection is disabled
+     * @return acquisition stacks
+     */
+    public List<Throwable> getLeaks() {
+        synchronized (outstanding) {
+            return new ArrayList<>(outstanding.values());
+        }
+    }
+
+    /**
+     * Remembers the acquisition stack of a buffer
+     * @param buffer buffer
+     */
+    private void track(final Object buffer) {
+        if (leakDetection) {
+            outstanding.put(buffer, new Throwable("Buffer acquired by " + Thread.currentThread().getName()));
+        }
+    }
+
+    /**
+     * Forgets the acquisition stack of a buffer
+     * @param buffer buffer
+     */
+    private void untrack(final Object buffer) {
+        if (leakDetection && isNull(outstanding.remove(buffer))) {
+            throw new IllegalStateException("The buffer is released twice or does not belong to the pool");
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.codec;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a DTO for the {@link ru.bedward70.rest.client.codec.processor.JsonCodecProcessor}.
+ * <p>
+ * The processor generates a streaming {@link JsonCodec} named {@code <Outer>_<Dto>_JsonCodec} in the package of the DTO,
+ * and {@link JsonCodecs} picks it up for the JSON body maker and response acceptor.
+ * The DTO needs a non-private no-argument constructor, its properties are public getters, setters and fields.
+ * The Jackson annotations {@code @JsonProperty}, {@code @JsonIgnore}, {@code @JsonIgnoreProperties}
+ * and {@code @JsonInclude(NON_NULL)} are followed, other properties types are delegated to the ObjectMapper.
+ * A getter-only property is unknown while reading like with the ObjectMapper, a collection or a map one is read
+ * through the getter if MapperFeature.USE_GETTERS_AS_SETTERS is enabled.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface GenerateJsonCodec {
+}
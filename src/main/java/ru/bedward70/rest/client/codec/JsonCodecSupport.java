@@ -0,0 +1,249 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.codec;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Helpers of generated codecs.
+ * Every read method takes the fast path for the expected token and delegates other tokens to the parser codec,
+ * so coercions and errors are the ones of the ObjectMapper.
+ */
+public final class JsonCodecSupport {
+
+    private JsonCodecSupport() {
+    }
+
+    /**
+     * Moves to the first token of a value if there is no current token
+     * @param parser parser
+     * @return current token
+     * @throws IOException IO Exception
+     */
+    public static JsonToken currentToken(final JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        return token == null ? parser.nextToken() : token;
+    }
+
+    public static int readInt(final JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+        return token == JsonToken.VALUE_NULL ? 0 : parser.readValueAs(Integer.TYPE);
+    }
+
+    public static Integer readInteger(final JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+        return token == JsonToken.VALUE_NULL ? null : parser.readValueAs(Integer.class);
+    }
+
+    public static long readLong(final JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getLongValue();
+        }
+        return token == JsonToken.VALUE_NULL ? 0L : parser.readValueAs(Long.TYPE);
+    }
+
+    public static Long readLongObject(final JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getLongValue();
+        }
+        return token == JsonToken.VALUE_NULL ? null : parser.readValueAs(Long.class);
+    }
+
+    public static short readShort(final JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getShortValue();
+        }
+        return token == JsonToken.VALUE_NULL ? 0 : parser.readValueAs(Short.TYPE);
+    }
+
+    public static Short readShortObject(final JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getShortValue();
+        }
+        return token == JsonToken.VALUE_NULL ? null : parser.readValueAs(Short.class);
+    }
+
+    public static byte readByte(final JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? 0 : parser.readValueAs(Byte.TYPE);
+    }
+
+    public static Byte readByteObject(final JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.readValueAs(Byte.class);
+    }
+
+    public static double readDouble(final JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getDoubleValue();
+        }
+        return token == JsonToken.VALUE_NULL ? 0.0 : parser.readValueAs(Double.TYPE);
+    }
+
+    public static Double readDoubleObject(final JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getDoubleValue();
+        }
+        return token == JsonToken.VALUE_NULL ? null : parser.readValueAs(Double.class);
+    }
+
+    public static float readFloat(final JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getFloatValue();
+        }
+        return token == JsonToken.VALUE_NULL ? 0.0f : parser.readValueAs(Float.TYPE);
+    }
+
+    public static Float readFloatObject(final JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getFloatValue();
+        }
+        return token == JsonToken.VALUE_NULL ? null : parser.readValueAs(Float.class);
+    }
+
+    public static boolean readBoolean(final JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+            return token == JsonToken.VALUE_TRUE;
+        }
+        return token != JsonToken.VALUE_NULL && parser.readValueAs(Boolean.TYPE);
+    }
+
+    public static Boolean readBooleanObject(final JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+            return token == JsonToken.VALUE_TRUE;
+        }
+        return token == JsonToken.VALUE_NULL ? null : parser.readValueAs(Boolean.class);
+    }
+
+    public static char readChar(final JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? '\0' : parser.readValueAs(Character.TYPE);
+    }
+
+    public static Character readCharacter(final JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.readValueAs(Character.class);
+    }
+
+    public static String readString(final JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        return token == JsonToken.VALUE_NULL ? null : parser.readValueAs(String.class);
+    }
+
+    /**
+     * Handles an unknown property, the current token is its value
+     * @param parser parser
+     * @param bean bean being read
+     * @param name property name
+     * @param ignoreUnknown true if the DTO ignores unknown properties
+     * @param knownNames known property names
+     * @throws IOException UnrecognizedPropertyException unless unknown properties are ignored
+     */
+    public static void unknownProperty(
+        final JsonParser parser,
+        final Object bean,
+        final String name,
+        final boolean ignoreUnknown,
+        final Collection<Object> knownNames
+    ) throws IOException {
+        ObjectCodec codec = parser.getCodec();
+        boolean fail = !ignoreUnknown
+            && (!(codec instanceof ObjectMapper)
+                || ((ObjectMapper) codec).isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+        if (fail) {
+            throw UnrecognizedPropertyException.from(parser, bean, name, knownNames);
+        }
+        parser.skipChildren();
+    }
+
+    /**
+     * Handles a property with a getter only, the current token is its value.
+     * A collection or a map is read into the value of the getter like Jackson does with
+     * MapperFeature.USE_GETTERS_AS_SETTERS, otherwise the property is unknown
+     * @param parser parser
+     * @param bean bean being read
+     * @param name property name
+     * @param target value of the getter
+     * @param type type of the getter
+     * @param ignoreUnknown true if the DTO ignores unknown properties
+     * @param knownNames known property names
+     * @throws IOException IO Exception
+     */
+    public static void setterlessProperty(
+        final JsonParser parser,
+        final Object bean,
+        final String name,
+        final Object target,
+        final Type type,
+        final boolean ignoreUnknown,
+        final Collection<Object> knownNames
+    ) throws IOException {
+        ObjectCodec codec = parser.getCodec();
+        boolean getterAsSetter = codec instanceof ObjectMapper
+            && ((ObjectMapper) codec).isEnabled(MapperFeature.USE_GETTERS_AS_SETTERS);
+        if (!getterAsSetter) {
+            unknownProperty(parser, bean, name, ignoreUnknown, knownNames);
+            return;
+        }
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return;
+        }
+        if (isNull(target)) {
+            throw JsonMappingException.from(
+                parser, "Problem deserializing 'setterless' property '" + name + "': get method returned null"
+            );
+        }
+        ObjectMapper objectMapper = (ObjectMapper) codec;
+        objectMapper.readerForUpdating(target).forType(objectMapper.constructType(type)).readValue(parser);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.codec;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Registry of generated {@link JsonCodec}s.
+ * A codec is looked up once per class by the naming convention of the processor and cached.
+ */
+public final class JsonCodecs {
+
+    /** Suffix of generated codec classes */
+    public static final String CODEC_SUFFIX = "_JsonCodec";
+
+    /** Name of the singleton field of generated codec classes */
+    public static final String INSTANCE_FIELD = "INSTANCE";
+
+    /** Codecs by class, null values are absent codecs */
+    private static final ClassValue<JsonCodec<?>> CODECS = new ClassValue<>() {
+        @Override
+        protected JsonCodec<?> computeValue(final Class<?> type) {
+            return lookup(type);
+        }
+    };
+
+    private JsonCodecs() {
+    }
+
+    /**
+     * Finds a generated codec
+     * @param clazz class
+     * @return codec or null
+     * @param <T> generic type
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> JsonCodec<T> find(final Class<T> clazz) {
+        return isNull(clazz) ? null : (JsonCodec<T>) CODECS.get(clazz);
+    }
+
+    /**
+     * Returns the name of the generated codec class
+     * @param binaryName binary name of the DTO class, e.g. "p.Outer$Dto"
+     * @return class name, e.g. "p.Outer_Dto_JsonCodec"
+     */
+    public static String getCodecClassName(final String binaryName) {
+        int dot = binaryName.lastIndexOf('.');
+        return binaryName.substring(0, dot + 1) + binaryName.substring(dot + 1).replace('$', '_') + CODEC_SUFFIX;
+    }
+
+    /**
+     * Reads a root value like ObjectMapper.readValue does
+     * @param objectMapper object mapper, it is the codec of delegated properties
+     * @param inputStream input stream, it is closed
+     * @param codec codec
+     * @param clazz class
+     * @return value
+     * @param <T> generic type
+     * @throws IOException IO Exception
+     */
+    public static <T> T readValue(
+        final ObjectMapper objectMapper,
+        final InputStream inputStream,
+        final JsonCodec<T> codec,
+        final Class<T> clazz
+    ) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(inputStream)) {
+            if (isNull(parser.nextToken())) {
+                throw MismatchedInputException.from(parser, clazz, "No content to map due to end-of-input");
+            }
+            return codec.read(parser);
+        }
+    }
+
+    /**
+     * Writes a root value like ObjectMapper.writeValueAsBytes does
+     * @param objectMapper object mapper, it is the codec of delegated properties
+     * @param codec codec
+     * @param value value
+     * @return UTF-8 JSON
+     * @param <T> generic type
+     * @throws IOException IO Exception
+     */
+    public static <T> byte[] writeValueAsBytes(
+        final ObjectMapper objectMapper,
+        final JsonCodec<T> codec,
+        final T value
+    ) throws IOException {
+        try (ByteArrayBuilder builder = new ByteArrayBuilder()) {
+            try (JsonGenerator generator = objectMapper.createGenerator(builder, JsonEncoding.UTF8)) {
+                codec.write(generator, value);
+            }
+            byte[] result = builder.toByteArray();
+            builder.release();
+            return result;
+        }
+    }
+
+    private static JsonCodec<?> lookup(final Class<?> type) {
+        if (!type.isAnnotationPresent(GenerateJsonCodec.class)) {
+            return null;
+        }
+        try {
+            Class<?> codecClass = Class.forName(getCodecClassName(type.getName()), true, type.getClassLoader());
+            return (JsonCodec<?>) codecClass.getField(INSTANCE_FIELD).get(null);
+        } catch (ReflectiveOperationException e) {
+            // The processor did not run for the class
+            return null;
+        }
+    }
+}
@@ -0,0 +1,686 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.codec.processor;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import ru.bedward70.rest.client.codec.GenerateJsonCodec;
+import ru.bedward70.rest.client.codec.JsonCodecs;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Generates streaming {@link ru.bedward70.rest.client.codec.JsonCodec}s of {@link GenerateJsonCodec} DTOs.
+ * <p>
+ * Scalars, strings, primitive numeric arrays, lists and other generated DTOs are read and written directly
+ * on the parser and generator, property names are matched by a switch over their precomputed hash codes.
+ * Other types are delegated to the codec (ObjectMapper) of the parser and generator.
+ * The processor is registered as a service, a library build compiles it with "-proc:none".
+ */
+@SupportedAnnotationTypes("ru.bedward70.rest.client.codec.GenerateJsonCodec")
+public class JsonCodecProcessor extends AbstractProcessor {
+
+    /** Helpers of generated codecs */
+    private static final String SUPPORT = "ru.bedward70.rest.client.codec.JsonCodecSupport";
+
+    /** Read methods of JsonCodecSupport by type */
+    private static final Map<String, String> READERS = new HashMap<>();
+
+    static {
+        READERS.put("int", "readInt");
+        READERS.put("java.lang.Integer", "readInteger");
+        READERS.put("long", "readLong");
+        READERS.put("java.lang.Long", "readLongObject");
+        READERS.put("short", "readShort");
+        READERS.put("java.lang.Short", "readShortObject");
+        READERS.put("byte", "readByte");
+        READERS.put("java.lang.Byte", "readByteObject");
+        READERS.put("double", "readDouble");
+        READERS.put("java.lang.Double", "readDoubleObject");
+        READERS.put("float", "readFloat");
+        READERS.put("java.lang.Float", "readFloatObject");
+        READERS.put("boolean", "readBoolean");
+        READERS.put("java.lang.Boolean", "readBooleanObject");
+        READERS.put("char", "readChar");
+        READERS.put("java.lang.Character", "readCharacter");
+        READERS.put("java.lang.String", "readString");
+    }
+
+    /** Primitive array readers, they do not box elements */
+    private static final Map<String, String> ARRAY_READERS = Map.of(
+        "double[]", "ru.bedward70.rest.client.numeric.NumericArrays.readDoubleArray",
+        "long[]", "ru.bedward70.rest.client.numeric.NumericArrays.readLongArray",
+        "int[]", "ru.bedward70.rest.client.numeric.NumericArrays.readIntArray"
+    );
+
+    /** List types read as ArrayList */
+    private static final Set<String> LIST_TYPES = Set.of(
+        "java.util.List", "java.util.Collection", "java.util.ArrayList", "java.lang.Iterable"
+    );
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateJsonCodec.class)) {
+            TypeElement type = (TypeElement) element;
+            try {
+                validate(type);
+                generate(type);
+            } catch (IllegalArgumentException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), type);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(
+                    Diagnostic.Kind.ERROR, "Can not write the codec: " + e.getMessage(), type
+                );
+            }
+        }
+        return true;
+    }
+
+    private void validate(final TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)) {
+            throw new IllegalArgumentException("@GenerateJsonCodec needs a concrete class");
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            throw new IllegalArgumentException("@GenerateJsonCodec does not support generic classes");
+        }
+        for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                throw new IllegalArgumentException("@GenerateJsonCodec needs a non-private class");
+            }
+            if (e.getEnclosingElement() instanceof TypeElement && !e.getModifiers().contains(Modifier.STATIC)) {
+                throw new IllegalArgumentException("@GenerateJsonCodec needs a static nested class");
+            }
+        }
+        boolean constructor = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+            .anyMatch(c -> c.getParameters().isEmpty() && !c.getModifiers().contains(Modifier.PRIVATE));
+        if (!constructor) {
+            throw new IllegalArgumentException("@GenerateJsonCodec needs a non-private no-argument constructor");
+        }
+    }
+
+    private void generate(final TypeElement type) throws IOException {
+        String codecName = getCodecName(type);
+        int dot = codecName.lastIndexOf('.');
+        String packageName = dot < 0 ? "" : codecName.substring(0, dot);
+        String simpleName = codecName.substring(dot + 1);
+        String dto = type.getQualifiedName().toString();
+        List<CodecProperty> properties = getProperties(type);
+        JsonIgnoreProperties ignoreProperties = type.getAnnotation(JsonIgnoreProperties.class);
+        JsonInclude include = type.getAnnotation(JsonInclude.class);
+        boolean nonNull = nonNull(include) && include.value() == JsonInclude.Include.NON_NULL;
+
+        Source source = new Source();
+        List<String> ignoredNames = new ArrayList<>();
+        properties.stream().filter(p -> p.ignored).forEach(p -> ignoredNames.add(p.jsonName));
+        if (nonNull(ignoreProperties)) {
+            ignoredNames.addAll(Arrays.asList(ignoreProperties.value()));
+        }
+        // Jackson knows a property by its mutator, a setterless one is unknown while reading
+        StringBuilder known = new StringBuilder();
+        for (CodecProperty property : properties) {
+            if (!property.ignored && !isSetterless(property)) {
+                known.append(known.length() == 0 ? "" : ", ").append(literal(property.jsonName));
+            }
+        }
+        String knownConstant = source.constant("java.util.List<Object>", "java.util.List.of(" + known + ")");
+
+        // Read properties by hash code, known names are ignored, not written ones are skipped
+        Map<Integer, List<String>> cases = new TreeMap<>();
+        List<String> knownNames = new ArrayList<>();
+        for (CodecProperty property : properties) {
+            if (property.ignored) {
+                continue;
+            }
+            knownNames.add(property.jsonName);
+            String assign;
+            if (nonNull(property.setter)) {
+                TypeMirror t = property.setter.getParameters().get(0).asType();
+                assign = "value." + property.setter.getSimpleName() + "(" + source.read(t) + ");";
+            } else if (isWritableField(property.field)) {
+                assign = "value." + property.field.getSimpleName() + " = " + source.read(property.field.asType()) + ";";
+            } else if (!isSetterless(property) || ignoredNames.contains(property.jsonName)) {
+                // Jackson writes a hidden field the codec cannot reach, or the name is ignored
+                assign = "parser.skipChildren();";
+            } else if (isContainer(property.getter.getReturnType())) {
+                TypeMirror t = property.getter.getReturnType();
+                assign = SUPPORT + ".setterlessProperty(parser, value, name, value." + property.getter.getSimpleName()
+                    + "(), " + source.reflectType(t) + ", IGNORE_UNKNOWN, " + knownConstant + ");";
+            } else {
+                assign = SUPPORT + ".unknownProperty(parser, value, name, IGNORE_UNKNOWN, " + knownConstant + ");";
+            }
+            cases.computeIfAbsent(property.jsonName.hashCode(), h -> new ArrayList<>()).add(
+                "                if (name.equals(" + literal(property.jsonName) + ")) {\n"
+                    + "                    " + assign + "\n"
+                    + "                    continue;\n"
+                    + "                }\n"
+            );
+        }
+        for (String ignored : ignoredNames) {
+            if (!knownNames.contains(ignored)) {
+                cases.computeIfAbsent(ignored.hashCode(), h -> new ArrayList<>()).add(
+                    "                if (name.equals(" + literal(ignored) + ")) {\n"
+                        + "                    parser.skipChildren();\n"
+                        + "                    continue;\n"
+                        + "                }\n"
+                );
+            }
+        }
+
+        StringBuilder write = new StringBuilder();
+        int index = 0;
+        for (CodecProperty property : properties) {
+            String getter;
+            TypeMirror t;
+            if (property.ignored) {
+                continue;
+            } else if (nonNull(property.getter)) {
+                getter = "value." + property.getter.getSimpleName() + "()";
+                t = property.getter.getReturnType();
+            } else if (isReadableField(property.field)) {
+                getter = "value." + property.field.getSimpleName();
+                t = property.field.asType();
+            } else {
+                continue;
+            }
+            String name = source.constant(
+                "com.fasterxml.jackson.core.io.SerializedString",
+                "new com.fasterxml.jackson.core.io.SerializedString(" + literal(property.jsonName) + ")"
+            );
+            String v = "v" + index++;
+            boolean skipNull = nonNull && !t.getKind().isPrimitive();
+            write.append("        {\n")
+                .append("            ").append(t).append(' ').append(v).append(" = ").append(getter).append(";\n");
+            String indent = "            ";
+            if (skipNull) {
+                write.append("            if (").append(v).append(" != null) {\n");
+                indent = "                ";
+            }
+            write.append(indent).append("generator.writeFieldName(").append(name).append(");\n");
+            write.append(indent).append(source.write(t, v)).append('\n');
+            if (skipNull) {
+                write.append("            }\n");
+            }
+            write.append("        }\n");
+        }
+
+        StringBuilder code = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            code.append("package ").append(packageName).append(";\n\n");
+        }
+        code.append("import com.fasterxml.jackson.core.JsonGenerator;\n")
+            .append("import com.fasterxml.jackson.core.JsonParser;\n")
+            .append("import com.fasterxml.jackson.core.JsonToken;\n")
+            .append("import ru.bedward70.rest.client.codec.JsonCodec;\n\n")
+            .append("import java.io.IOException;\n\n")
+            .append("/**\n * Generated JSON codec of {@link ").append(dto).append("}\n */\n")
+            .append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+            .append("public final class ").append(simpleName).append(" implements JsonCodec<").append(dto).append("> {\n\n")
+            .append("    /** Instance */\n")
+            .append("    public static final ").append(simpleName).append(' ').append(JsonCodecs.INSTANCE_FIELD)
+            .append(" = new ").append(simpleName).append("();\n\n")
+            .append("    /** Unknown properties are ignored */\n")
+            .append("    private static final boolean IGNORE_UNKNOWN = ")
+            .append(nonNull(ignoreProperties) && ignoreProperties.ignoreUnknown()).append(";\n\n");
+        source.appendConstants(code);
+        code.append("    @Override\n")
+            .append("    public void write(final JsonGenerator generator, final ").append(dto).append(" value) throws IOException {\n")
+            .append("        if (value == null) {\n")
+            .append("            generator.writeNull();\n")
+            .append("            return;\n")
+            .append("        }\n")
+            .append("        generator.writeStartObject(value);\n")
+            .append(write)
+            .append("        generator.writeEndObject();\n")
+            .append("    }\n\n")
+            .append("    @Override\n")
+            .append("    public ").append(dto).append(" read(final JsonParser parser) throws IOException {\n")
+            .append("        JsonToken token = ").append(SUPPORT).append(".currentToken(parser);\n")
+            .append("        if (token == JsonToken.VALUE_NULL) {\n")
+            .append("            return null;\n")
+            .append("        }\n")
+            .append("        if (token != JsonToken.START_OBJECT) {\n")
+            .append("            return parser.readValueAs(").append(dto).append(".class);\n")
+            .append("        }\n")
+            .append("        ").append(dto).append(" value = new ").append(dto).append("();\n")
+            .append("        for (String name = parser.nextFieldName(); name != null; name = parser.nextFieldName()) {\n")
+            .append("            parser.nextToken();\n")
+            .append("            switch (name.hashCode()) {\n");
+        for (Map.Entry<Integer, List<String>> entry : cases.entrySet()) {
+            code.append("            case ").append(entry.getKey()).append(":\n");
+            entry.getValue().forEach(code::append);
+            code.append("                break;\n");
+        }
+        code.append("            default:\n")
+            .append("                break;\n")
+            .append("            }\n")
+            .append("            ").append(SUPPORT).append(".unknownProperty(parser, value, name, IGNORE_UNKNOWN, ")
+            .append(knownConstant).append(");\n")
+            .append("        }\n")
+            .append("        return value;\n")
+            .append("    }\n");
+        source.appendMethods(code);
+        code.append("}\n");
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(codecName, type).openWriter()) {
+            writer.write(code.toString());
+        }
+    }
+
+    /**
+     * Finds properties like the default Jackson visibility does: public getters, setters and fields
+     * @param type DTO type
+     * @return properties
+     */
+    private List<CodecProperty> getProperties(final TypeElement type) {
+        Map<String, CodecProperty> properties = new LinkedHashMap<>();
+        List<? extends Element> members = processingEnv.getElementUtils().getAllMembers(type);
+        for (VariableElement field : ElementFilter.fieldsIn(members)) {
+            if (!field.getModifiers().contains(Modifier.STATIC)) {
+                properties.computeIfAbsent(field.getSimpleName().toString(), CodecProperty::new).field = field;
+            }
+        }
+        for (ExecutableElement method : ElementFilter.methodsIn(members)) {
+            Set<Modifier> modifiers = method.getModifiers();
+            if (modifiers.contains(Modifier.STATIC) || !modifiers.contains(Modifier.PUBLIC)) {
+                continue;
+            }
+            String name = method.getSimpleName().toString();
+            int params = method.getParameters().size();
+            TypeKind returnKind = method.getReturnType().getKind();
+            if (params == 0 && name.startsWith("get") && name.length() > 3 && returnKind != TypeKind.VOID
+                && !"getClass".equals(name)) {
+                properties.computeIfAbsent(mangle(name.substring(3)), CodecProperty::new).getter = method;
+            } else if (params == 0 && name.startsWith("is") && name.length() > 2 && returnKind == TypeKind.BOOLEAN) {
+                properties.computeIfAbsent(mangle(name.substring(2)), CodecProperty::new).getter = method;
+            } else if (params == 1 && name.startsWith("set") && name.length() > 3) {
+                CodecProperty property = properties.computeIfAbsent(mangle(name.substring(3)), CodecProperty::new);
+                if (isNull(property.setter) || isNull(property.getter) || processingEnv.getTypeUtils().isSameType(
+                    method.getParameters().get(0).asType(), property.getter.getReturnType()
+                )) {
+                    property.setter = method;
+                }
+            }
+        }
+        List<CodecProperty> result = new ArrayList<>();
+        for (CodecProperty property : properties.values()) {
+            for (Element element : Arrays.asList(property.field, property.getter, property.setter)) {
+                if (isNull(element)) {
+                    continue;
+                }
+                JsonProperty jsonProperty = element.getAnnotation(JsonProperty.class);
+                if (nonNull(jsonProperty) && !jsonProperty.value().isEmpty()) {
+                    property.jsonName = jsonProperty.value();
+                }
+                JsonIgnore jsonIgnore = element.getAnnotation(JsonIgnore.class);
+                property.ignored |= nonNull(jsonIgnore) && jsonIgnore.value();
+            }
+            boolean accessible = nonNull(property.getter) || nonNull(property.setter)
+                || isReadableField(property.field);
+            if (!accessible && nonNull(property.field) && nonNull(property.field.getAnnotation(JsonProperty.class))) {
+                throw new IllegalArgumentException(
+                    "@JsonProperty field " + property.javaName + " needs to be public or to have accessors"
+                );
+            }
+            if (accessible) {
+                result.add(property);
+            }
+        }
+        return result;
+    }
+
+    private String getCodecName(final TypeElement type) {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        return packageElement.isUnnamed()
+            ? binaryName.replace('$', '_') + JsonCodecs.CODEC_SUFFIX
+            : JsonCodecs.getCodecClassName(binaryName);
+    }
+
+    /**
+     * Checks a property has a getter only, without a setter or a field Jackson could write
+     * @param property property
+     * @return true if the property is setterless
+     */
+    private static boolean isSetterless(final CodecProperty property) {
+        return isNull(property.setter) && isNull(property.field);
+    }
+
+    /**
+     * Checks a type is a collection or a map, Jackson reads them through the getter with
+     * MapperFeature.USE_GETTERS_AS_SETTERS
+     * @param t type
+     * @return true if the type is a collection or a map
+     */
+    private boolean isContainer(final TypeMirror t) {
+        TypeMirror erasure = processingEnv.getTypeUtils().erasure(t);
+        for (Class<?> container : Arrays.asList(Collection.class, Map.class)) {
+            TypeElement element = processingEnv.getElementUtils().getTypeElement(container.getName());
+            if (processingEnv.getTypeUtils().isAssignable(
+                erasure, processingEnv.getTypeUtils().erasure(element.asType())
+            )) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isReadableField(final VariableElement field) {
+        return nonNull(field) && field.getModifiers().contains(Modifier.PUBLIC);
+    }
+
+    private static boolean isWritableField(final VariableElement field) {
+        return isReadableField(field) && !field.getModifiers().contains(Modifier.FINAL);
+    }
+
+    /**
+     * Converts an accessor suffix to a property name like Jackson: leading upper case chars are lower-cased
+     * @param suffix accessor suffix, e.g. "URLValue"
+     * @return property name, e.g. "urlvalue"
+     */
+    static String mangle(final String suffix) {
+        StringBuilder sb = new StringBuilder(suffix);
+        for (int i = 0; i < sb.length(); i++) {
+            char lower = Character.toLowerCase(sb.charAt(i));
+            if (lower == sb.charAt(i)) {
+                break;
+            }
+            sb.setCharAt(i, lower);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns a Java string literal
+     * @param s string
+     * @return literal
+     */
+    public static String literal(final String s) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7E) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * Constants, helper methods and read/write code of a generated codec
+     */
+    private final class Source {
+
+        /** Constant names by initializer */
+        private final Map<String, String> constants = new LinkedHashMap<>();
+
+        /** Constant declarations */
+        private final StringBuilder constantDeclarations = new StringBuilder();
+
+        /** Helper method names by key */
+        private final Map<String, String> methodNames = new HashMap<>();
+
+        /** Helper methods */
+        private final StringBuilder methods = new StringBuilder();
+
+        String constant(final String type, final String initializer) {
+            String existing = constants.get(initializer);
+            if (nonNull(existing)) {
+                return existing;
+            }
+            String name = "CONSTANT_" + constants.size();
+            constants.put(initializer, name);
+            constantDeclarations.append("    private static final ").append(type).append(' ').append(name)
+                .append(" = ").append(initializer).append(";\n\n");
+            return name;
+        }
+
+        void appendConstants(final StringBuilder code) {
+            code.append(constantDeclarations);
+        }
+
+        void appendMethods(final StringBuilder code) {
+            code.append(methods);
+        }
+
+        /**
+         * Returns an expression reading a value of the type at the current token
+         * @param t type
+         * @return expression
+         */
+        String read(final TypeMirror t) {
+            String reader = READERS.get(t.toString());
+            if (nonNull(reader)) {
+                return SUPPORT + "." + reader + "(parser)";
+            }
+            String arrayReader = ARRAY_READERS.get(t.toString());
+            if (nonNull(arrayReader)) {
+                return arrayReader + "(parser)";
+            }
+            String codec = getNestedCodec(t);
+            if (nonNull(codec)) {
+                return codec + ".INSTANCE.read(parser)";
+            }
+            TypeMirror element = getListElement(t);
+            if (nonNull(element)) {
+                return readList(t, element) + "(parser)";
+            }
+            return "parser.readValueAs(" + typeToken(t) + ")";
+        }
+
+        /**
+         * Returns a statement writing a value of the type
+         * @param t type
+         * @param v variable
+         * @return statement
+         */
+        String write(final TypeMirror t, final String v) {
+            switch (t.toString()) {
+                case "int":
+                case "long":
+                case "short":
+                case "double":
+                case "float":
+                    return "generator.writeNumber(" + v + ");";
+                case "byte":
+                    return "generator.writeNumber((int) " + v + ");";
+                case "boolean":
+                    return "generator.writeBoolean(" + v + ");";
+                case "char":
+                    return "generator.writeString(String.valueOf(" + v + "));";
+                case "java.lang.Integer":
+                case "java.lang.Long":
+                case "java.lang.Short":
+                case "java.lang.Double":
+                case "java.lang.Float":
+                    return "if (" + v + " == null) { generator.writeNull(); } else { generator.writeNumber(" + v + "); }";
+                case "java.lang.Byte":
+                    return "if (" + v + " == null) { generator.writeNull(); } else { generator.writeNumber(" + v + ".intValue()); }";
+                case "java.lang.Boolean":
+                    return "if (" + v + " == null) { generator.writeNull(); } else { generator.writeBoolean(" + v + "); }";
+                case "java.lang.Character":
+                    return "if (" + v + " == null) { generator.writeNull(); } else { generator.writeString(" + v + ".toString()); }";
+                case "java.lang.String":
+                    return "generator.writeString(" + v + ");";
+                case "double[]":
+                case "long[]":
+                case "int[]":
+                    return "if (" + v + " == null) { generator.writeNull(); } else { generator.writeArray(" + v + ", 0, " + v + ".length); }";
+                default:
+                    break;
+            }
+            String codec = getNestedCodec(t);
+            if (nonNull(codec)) {
+                return codec + ".INSTANCE.write(generator, " + v + ");";
+            }
+            TypeMirror element = getListElement(t);
+            if (nonNull(element)) {
+                return writeList(t, element) + "(generator, " + v + ");";
+            }
+            return "generator.writeObject(" + v + ");";
+        }
+
+        private String readList(final TypeMirror t, final TypeMirror element) {
+            String key = "read " + t;
+            String existing = methodNames.get(key);
+            if (nonNull(existing)) {
+                return existing;
+            }
+            String name = "readList" + methodNames.size();
+            methodNames.put(key, name);
+            String itemRead = read(element);
+            methods.append('\n')
+                .append("    private static ").append(t).append(" ").append(name)
+                .append("(final JsonParser parser) throws IOException {\n")
+                .append("        JsonToken token = parser.currentToken();\n")
+                .append("        if (token == JsonToken.VALUE_NULL) {\n")
+                .append("            return null;\n")
+                .append("        }\n")
+                .append("        if (token != JsonToken.START_ARRAY) {\n")
+                .append("            return parser.readValueAs(").append(typeToken(t)).append(");\n")
+                .append("        }\n")
+                .append("        java.util.ArrayList<").append(element).append("> list = new java.util.ArrayList<>();\n")
+                .append("        while (parser.nextToken() != JsonToken.END_ARRAY) {\n")
+                .append("            list.add(").append(itemRead).append(");\n")
+                .append("        }\n")
+                .append("        return list;\n")
+                .append("    }\n");
+            return name;
+        }
+
+        private String writeList(final TypeMirror t, final TypeMirror element) {
+            String key = "write " + t;
+            String existing = methodNames.get(key);
+            if (nonNull(existing)) {
+                return existing;
+            }
+            String name = "writeList" + methodNames.size();
+            methodNames.put(key, name);
+            String itemWrite = write(element, "item");
+            methods.append('\n')
+                .append("    private static void ").append(name).append("(final JsonGenerator generator, final ")
+                .append(t).append(" list) throws IOException {\n")
+                .append("        if (list == null) {\n")
+                .append("            generator.writeNull();\n")
+                .append("            return;\n")
+                .append("        }\n")
+                .append("        generator.writeStartArray();\n")
+                .append("        for (").append(element).append(" item : list) {\n")
+                .append("            ").append(itemWrite).append('\n')
+                .append("        }\n")
+                .append("        generator.writeEndArray();\n")
+                .append("    }\n");
+            return name;
+        }
+
+        /**
+         * Returns a class literal or a TypeReference constant of the type
+         * @param t type
+         * @return expression
+         */
+        private String typeToken(final TypeMirror t) {
+            TypeMirror erasure = processingEnv.getTypeUtils().erasure(t);
+            if (processingEnv.getTypeUtils().isSameType(t, erasure)) {
+                return erasure + ".class";
+            }
+            return constant(
+                "com.fasterxml.jackson.core.type.TypeReference<" + t + ">",
+                "new com.fasterxml.jackson.core.type.TypeReference<" + t + ">() { }"
+            );
+        }
+
+        /**
+         * Returns a java.lang.reflect.Type expression of the type
+         * @param t type
+         * @return expression
+         */
+        private String reflectType(final TypeMirror t) {
+            String token = typeToken(t);
+            return token.endsWith(".class") ? token : token + ".getType()";
+        }
+
+        private String getNestedCodec(final TypeMirror t) {
+            if (t.getKind() != TypeKind.DECLARED) {
+                return null;
+            }
+            TypeElement element = (TypeElement) ((DeclaredType) t).asElement();
+            return nonNull(element.getAnnotation(GenerateJsonCodec.class)) && element.getTypeParameters().isEmpty()
+                ? getCodecName(element)
+                : null;
+        }
+
+        private TypeMirror getListElement(final TypeMirror t) {
+            if (t.getKind() != TypeKind.DECLARED) {
+                return null;
+            }
+            DeclaredType declared = (DeclaredType) t;
+            String name = ((TypeElement) declared.asElement()).getQualifiedName().toString();
+            if (!LIST_TYPES.contains(name) || declared.getTypeArguments().size() != 1) {
+                return null;
+            }
+            TypeMirror element = declared.getTypeArguments().get(0);
+            return element.getKind() == TypeKind.DECLARED ? element : null;
+        }
+    }
+}
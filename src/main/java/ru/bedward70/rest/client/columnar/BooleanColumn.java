@@ -0,0 +1,69 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.columnar;
+
+import java.util.BitSet;
+
+/**
+ * Column of boolean values, a null row is false
+ */
+public class BooleanColumn extends Column {
+
+    /** True rows */
+    private final BitSet values;
+
+    /**
+     * Constructor
+     *
+     * @param pointer pointer of the column
+     * @param size number of rows
+     * @param values true rows
+     * @param nulls null rows
+     */
+    public BooleanColumn(final String pointer, final int size, final BitSet values, final BitSet nulls) {
+        super(pointer, size, nulls);
+        this.values = values;
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.BOOLEAN;
+    }
+
+    /**
+     * @param row row index
+     * @return value, false for a null row
+     */
+    public boolean get(final int row) {
+        return values.get(row);
+    }
+
+    /**
+     * @return number of true rows
+     */
+    public int getTrueCount() {
+        return values.cardinality();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.columnar;
+
+import java.util.BitSet;
+
+/**
+ * Column vector of a {@link ColumnBatch}.
+ * A row is null if the field is null or absent, or its parent object is absent.
+ */
+public abstract class Column {
+
+    /** Pointer of the column */
+    private final String pointer;
+
+    /** Number of rows */
+    private final int size;
+
+    /** Null rows */
+    private final BitSet nulls;
+
+    /**
+     * Constructor
+     *
+     * @param pointer pointer of the column
+     * @param size number of rows
+     * @param nulls null rows
+     */
+    protected Column(final String pointer, final int size, final BitSet nulls) {
+        this.pointer = pointer;
+        this.size = size;
+        this.nulls = nulls;
+    }
+
+    /**
+     * @return pointer of the column
+     */
+    public String getPointer() {
+        return pointer;
+    }
+
+    /**
+     * @return type of the column
+     */
+    public abstract ColumnType getType();
+
+    /**
+     * @return number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param row row index
+     * @return true if the row is null
+     */
+    public boolean isNull(final int row) {
+        return nulls.get(row);
+    }
+
+    /**
+     * @return number of null rows
+     */
+    public int getNullCount() {
+        return nulls.cardinality();
+    }
+
+    /**
+     * @return copy of the null rows
+     */
+    public BitSet getNulls() {
+        return (BitSet) nulls.clone();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" + pointer + ", size=" + size + ", nulls=" + getNullCount() + "}";
+    }
+}
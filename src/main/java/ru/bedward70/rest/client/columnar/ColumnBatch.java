@@ -0,0 +1,138 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.columnar;
+
+import java.util.List;
+
+/**
+ * Batch of rows decoded into column vectors, one column per column of the {@link ColumnSchema}
+ */
+public class ColumnBatch {
+
+    /** Schema */
+    private final ColumnSchema schema;
+
+    /** Columns in the schema order */
+    private final List<Column> columns;
+
+    /** Number of rows */
+    private final int size;
+
+    /**
+     * Constructor
+     *
+     * @param schema schema
+     * @param columns columns in the schema order
+     * @param size number of rows
+     */
+    public ColumnBatch(final ColumnSchema schema, final List<Column> columns, final int size) {
+        this.schema = schema;
+        this.columns = List.copyOf(columns);
+        this.size = size;
+    }
+
+    /**
+     * @return schema
+     */
+    public ColumnSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * @return columns in the schema order
+     */
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param pointer column pointer
+     * @return column
+     * @throws IllegalArgumentException if the column is not declared
+     */
+    public Column getColumn(final String pointer) {
+        int index = schema.indexOf(pointer);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown column: " + pointer);
+        }
+        return columns.get(index);
+    }
+
+    /**
+     * @param pointer column pointer
+     * @return column
+     * @throws IllegalArgumentException if the column is not declared or is not LONG
+     */
+    public LongColumn getLongColumn(final String pointer) {
+        return getColumn(pointer, LongColumn.class);
+    }
+
+    /**
+     * @param pointer column pointer
+     * @return column
+     * @throws IllegalArgumentException if the column is not declared or is not DOUBLE
+     */
+    public DoubleColumn getDoubleColumn(final String pointer) {
+        return getColumn(pointer, DoubleColumn.class);
+    }
+
+    /**
+     * @param pointer column pointer
+     * @return column
+     * @throws IllegalArgumentException if the column is not declared or is not BOOLEAN
+     */
+    public BooleanColumn getBooleanColumn(final String pointer) {
+        return getColumn(pointer, BooleanColumn.class);
+    }
+
+    /**
+     * @param pointer column pointer
+     * @return column
+     * @throws IllegalArgumentException if the column is not declared or is not STRING
+     */
+    public StringColumn getStringColumn(final String pointer) {
+        return getColumn(pointer, StringColumn.class);
+    }
+
+    private <C extends Column> C getColumn(final String pointer, final Class<C> clazz) {
+        Column column = getColumn(pointer);
+        if (!clazz.isInstance(column)) {
+            throw new IllegalArgumentException("The column " + pointer + " is " + column.getType());
+        }
+        return clazz.cast(column);
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnBatch{size=" + size + ", columns=" + columns + "}";
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.columnar;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Declared columns of a {@link ColumnBatch}.
+ * <p>
+ * A column is a JSON Pointer (RFC 6901) into a row object, e.g. "/id" or "/status/activeThreadCount".
+ * The pointers form a trie of field names, so the reader matches a field of a row by one map lookup
+ * and skips fields and subtrees which are not declared.
+ */
+public class ColumnSchema {
+
+    /** Column types by pointer, in the declaration order */
+    private final Map<String, ColumnType> columns;
+
+    /** Column indexes by pointer */
+    private final Map<String, Integer> indexes = new HashMap<>();
+
+    /** Root of the trie */
+    private final Node root = new Node();
+
+    /**
+     * Constructor
+     *
+     * @param columns column types by pointer, the iteration order is the column order
+     * @throws IllegalArgumentException if a pointer is invalid or is a prefix of another one
+     */
+    public ColumnSchema(final Map<String, ColumnType> columns) {
+        this.columns = Collections.unmodifiableMap(new LinkedHashMap<>(columns));
+        int index = 0;
+        for (Map.Entry<String, ColumnType> entry : this.columns.entrySet()) {
+            if (isNull(entry.getValue())) {
+                throw new IllegalArgumentException("The column " + entry.getKey() + " has no type");
+            }
+            List<String> tokens = parsePointer(entry.getKey());
+            if (tokens.isEmpty()) {
+                throw new IllegalArgumentException("A column needs a field, the pointer is empty");
+            }
+            Node node = root;
+            for (String token : tokens) {
+                if (node.column >= 0) {
+                    throw new IllegalArgumentException("The column " + entry.getKey() + " is nested in a column");
+                }
+                node = node.children.computeIfAbsent(token, t -> new Node());
+            }
+            if (node.column >= 0 || !node.children.isEmpty()) {
+                throw new IllegalArgumentException("The column " + entry.getKey() + " overlaps another column");
+            }
+            node.column = index;
+            indexes.put(entry.getKey(), index++);
+        }
+    }
+
+    /**
+     * @return column types by pointer, in the column order
+     */
+    public Map<String, ColumnType> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the index of a column
+     * @param pointer column pointer
+     * @return index or -1
+     */
+    public int indexOf(final String pointer) {
+        Integer index = indexes.get(pointer);
+        return nonNull(index) ? index : -1;
+    }
+
+    /**
+     * @return root of the trie
+     */
+    Node getRoot() {
+        return root;
+    }
+
+    /**
+     * Splits a JSON Pointer into unescaped tokens
+     * @param pointer pointer, "" is the root
+     * @return tokens
+     * @throws IllegalArgumentException if the pointer does not start with "/"
+     */
+    static List<String> parsePointer(final String pointer) {
+        List<String> tokens = new ArrayList<>();
+        if (pointer.isEmpty()) {
+            return tokens;
+        }
+        if (pointer.charAt(0) != '/') {
+            throw new IllegalArgumentException("Invalid JSON Pointer: " + pointer);
+        }
+        int start = 1;
+        while (true) {
+            int slash = pointer.indexOf('/', start);
+            String token = pointer.substring(start, slash < 0 ? pointer.length() : slash);
+            tokens.add(token.replace("~1", "/").replace("~0", "~"));
+            if (slash < 0) {
+                return tokens;
+            }
+            start = slash + 1;
+        }
+    }
+
+    /**
+     * Node of the trie, a column or an object with declared fields
+     */
+    static final class Node {
+
+        /** Children by field name */
+        final Map<String, Node> children = new HashMap<>();
+
+        /** Column index or -1 */
+        int column = -1;
+    }
+}
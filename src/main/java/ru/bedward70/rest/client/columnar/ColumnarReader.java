@@ -0,0 +1,501 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.columnar;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import ru.bedward70.rest.client.codec.JsonCodecSupport;
+import ru.bedward70.rest.client.numeric.DoubleArrayBuilder;
+import ru.bedward70.rest.client.numeric.IntArrayBuilder;
+import ru.bedward70.rest.client.numeric.LongArrayBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Streaming reader of a JSON array of objects into a {@link ColumnBatch}.
+ * <p>
+ * Rows are not bound to objects: every declared field is appended to its column vector straight from the parser,
+ * undeclared fields and subtrees are skipped. A null row and a missing field are null in the columns,
+ * a repeated field keeps its first value. Numbers and booleans are read by the {@link JsonCodecSupport} readers,
+ * so coercible values, e.g. numeric strings, are accepted as Jackson accepts them.
+ * The array may be nested in the document, it is found by a JSON Pointer without reading the other fields.
+ */
+public final class ColumnarReader {
+
+    /** Schema */
+    private final ColumnSchema schema;
+
+    /** Tokens of the array pointer */
+    private final List<String> arrayPath;
+
+    /**
+     * Constructor of a reader of a root array
+     *
+     * @param schema schema
+     */
+    public ColumnarReader(final ColumnSchema schema) {
+        this(schema, "");
+    }
+
+    /**
+     * Constructor
+     *
+     * @param schema schema
+     * @param arrayPointer JSON Pointer of the array in the document, "" is the root
+     */
+    public ColumnarReader(final ColumnSchema schema, final String arrayPointer) {
+        this.schema = schema;
+        this.arrayPath = ColumnSchema.parsePointer(arrayPointer);
+    }
+
+    /**
+     * @return schema
+     */
+    public ColumnSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Reads the array
+     * @param parser parser at the document root or before it
+     * @return batch, it is empty if the array is null or absent
+     * @throws IOException IO Exception, MismatchedInputException if the value is not an array of objects
+     */
+    public ColumnBatch read(final JsonParser parser) throws IOException {
+        ColumnBuilder[] builders = createBuilders();
+        JsonCodecSupport.currentToken(parser);
+        int rows = 0;
+        if (moveToArray(parser) && parser.currentToken() != JsonToken.VALUE_NULL) {
+            if (parser.currentToken() != JsonToken.START_ARRAY) {
+                throw MismatchedInputException.from(
+                    parser, ColumnBatch.class, "Expected an array of rows, found " + parser.currentToken()
+                );
+            }
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token == JsonToken.START_OBJECT) {
+                    readObject(parser, schema.getRoot(), builders, rows);
+                } else if (token != JsonToken.VALUE_NULL) {
+                    throw MismatchedInputException.from(
+                        parser, ColumnBatch.class, "Expected an object row, found " + token
+                    );
+                }
+                rows++;
+                for (ColumnBuilder builder : builders) {
+                    builder.fill(rows);
+                }
+            }
+        }
+        List<Column> columns = new ArrayList<>(builders.length);
+        for (ColumnBuilder builder : builders) {
+            columns.add(builder.build());
+        }
+        return new ColumnBatch(schema, columns, rows);
+    }
+
+    private ColumnBuilder[] createBuilders() {
+        ColumnBuilder[] builders = new ColumnBuilder[schema.getColumns().size()];
+        int index = 0;
+        for (Map.Entry<String, ColumnType> entry : schema.getColumns().entrySet()) {
+            String pointer = entry.getKey();
+            switch (entry.getValue()) {
+                case LONG:
+                    builders[index++] = new LongColumnBuilder(pointer);
+                    break;
+                case DOUBLE:
+                    builders[index++] = new DoubleColumnBuilder(pointer);
+                    break;
+                case BOOLEAN:
+                    builders[index++] = new BooleanColumnBuilder(pointer);
+                    break;
+                default:
+                    builders[index++] = new StringColumnBuilder(pointer);
+                    break;
+            }
+        }
+        return builders;
+    }
+
+    private boolean moveToArray(final JsonParser parser) throws IOException {
+        for (String token : arrayPath) {
+            JsonToken current = parser.currentToken();
+            if (current == JsonToken.START_OBJECT) {
+                if (!moveToField(parser, token)) {
+                    return false;
+                }
+            } else if (current == JsonToken.START_ARRAY && isIndex(token)) {
+                if (!moveToElement(parser, Integer.parseInt(token))) {
+                    return false;
+                }
+            } else {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean moveToField(final JsonParser parser, final String field) throws IOException {
+        for (String name = parser.nextFieldName(); nonNull(name); name = parser.nextFieldName()) {
+            parser.nextToken();
+            if (name.equals(field)) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    private static boolean moveToElement(final JsonParser parser, final int index) throws IOException {
+        for (int i = 0; ; i++) {
+            if (parser.nextToken() == JsonToken.END_ARRAY) {
+                return false;
+            }
+            if (i == index) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+    }
+
+    private static boolean isIndex(final String token) {
+        if (token.isEmpty() || token.length() > 9 || (token.length() > 1 && token.charAt(0) == '0')) {
+            return false;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (token.charAt(i) < '0' || token.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void readObject(
+        final JsonParser parser,
+        final ColumnSchema.Node node,
+        final ColumnBuilder[] builders,
+        final int row
+    ) throws IOException {
+        for (String name = parser.nextFieldName(); nonNull(name); name = parser.nextFieldName()) {
+            JsonToken token = parser.nextToken();
+            ColumnSchema.Node child = node.children.get(name);
+            if (isNull(child)) {
+                parser.skipChildren();
+            } else if (child.column >= 0) {
+                ColumnBuilder builder = builders[child.column];
+                if (builder.size() > row) {
+                    parser.skipChildren();
+                } else {
+                    builder.read(parser);
+                }
+            } else if (token == JsonToken.START_OBJECT) {
+                readObject(parser, child, builders, row);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Builder of a column vector
+     */
+    private abstract static class ColumnBuilder {
+
+        /** Pointer of the column */
+        final String pointer;
+
+        /** Null rows */
+        final BitSet nulls = new BitSet();
+
+        ColumnBuilder(final String pointer) {
+            this.pointer = pointer;
+        }
+
+        /**
+         * @return number of rows
+         */
+        abstract int size();
+
+        /**
+         * Appends a null row
+         */
+        abstract void appendNull();
+
+        /**
+         * Appends the current value, the parser is at its token
+         * @param parser parser
+         * @throws IOException IO Exception
+         */
+        abstract void read(JsonParser parser) throws IOException;
+
+        /**
+         * @return column
+         */
+        abstract Column build();
+
+        /**
+         * Appends null rows up to the size
+         * @param size number of rows
+         */
+        void fill(final int size) {
+            for (int row = size(); row < size; row++) {
+                nulls.set(row);
+                appendNull();
+            }
+        }
+
+        /**
+         * Appends a null row if the current value is null
+         * @param parser parser
+         * @return true if the value is null
+         */
+        boolean readNull(final JsonParser parser) {
+            if (parser.currentToken() != JsonToken.VALUE_NULL) {
+                return false;
+            }
+            nulls.set(size());
+            appendNull();
+            return true;
+        }
+    }
+
+    /**
+     * Builder of a LONG column
+     */
+    private static final class LongColumnBuilder extends ColumnBuilder {
+
+        /** Values */
+        private final LongArrayBuilder values = new LongArrayBuilder();
+
+        LongColumnBuilder(final String pointer) {
+            super(pointer);
+        }
+
+        @Override
+        int size() {
+            return values.size();
+        }
+
+        @Override
+        void appendNull() {
+            values.add(0L);
+        }
+
+        @Override
+        void read(final JsonParser parser) throws IOException {
+            if (!readNull(parser)) {
+                values.add(JsonCodecSupport.readLong(parser));
+            }
+        }
+
+        @Override
+        Column build() {
+            return new LongColumn(pointer, values.toArray(), nulls);
+        }
+    }
+
+    /**
+     * Builder of a DOUBLE column
+     */
+    private static final class DoubleColumnBuilder extends ColumnBuilder {
+
+        /** Values */
+        private final DoubleArrayBuilder values = new DoubleArrayBuilder();
+
+        DoubleColumnBuilder(final String pointer) {
+            super(pointer);
+        }
+
+        @Override
+        int size() {
+            return values.size();
+        }
+
+        @Override
+        void appendNull() {
+            values.add(0.0);
+        }
+
+        @Override
+        void read(final JsonParser parser) throws IOException {
+            if (!readNull(parser)) {
+                values.add(JsonCodecSupport.readDouble(parser));
+            }
+        }
+
+        @Override
+        Column build() {
+            return new DoubleColumn(pointer, values.toArray(), nulls);
+        }
+    }
+
+    /**
+     * Builder of a BOOLEAN column
+     */
+    private static final class BooleanColumnBuilder extends ColumnBuilder {
+
+        /** True rows */
+        private final BitSet values = new BitSet();
+
+        /** Number of rows */
+        private int size;
+
+        BooleanColumnBuilder(final String pointer) {
+            super(pointer);
+        }
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        void appendNull() {
+            size++;
+        }
+
+        @Override
+        void read(final JsonParser parser) throws IOException {
+            if (!readNull(parser)) {
+                values.set(size++, JsonCodecSupport.readBoolean(parser));
+            }
+        }
+
+        @Override
+        Column build() {
+            return new BooleanColumn(pointer, size, values, nulls);
+        }
+    }
+
+    /**
+     * Builder of a STRING column.
+     * The dictionary is an open addressing table which is probed by the characters of the parser text buffer,
+     * so a String is created for the first occurrence of a value only.
+     */
+    private static final class StringColumnBuilder extends ColumnBuilder {
+
+        /** Initial capacity of the table */
+        private static final int INITIAL_CAPACITY = 16;
+
+        /** Codes */
+        private final IntArrayBuilder codes = new IntArrayBuilder();
+
+        /** Distinct values */
+        private final List<String> dictionary = new ArrayList<>();
+
+        /** Hashes of the distinct values by code */
+        private final IntArrayBuilder hashes = new IntArrayBuilder();
+
+        /** Table of codes plus one, 0 is an empty slot */
+        private int[] table = new int[INITIAL_CAPACITY];
+
+        StringColumnBuilder(final String pointer) {
+            super(pointer);
+        }
+
+        @Override
+        int size() {
+            return codes.size();
+        }
+
+        @Override
+        void appendNull() {
+            codes.add(StringColumn.NULL_CODE);
+        }
+
+        @Override
+        void read(final JsonParser parser) throws IOException {
+            if (readNull(parser)) {
+                return;
+            }
+            if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                codes.add(getCode(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength()));
+            } else {
+                char[] chars = JsonCodecSupport.readString(parser).toCharArray();
+                codes.add(getCode(chars, 0, chars.length));
+            }
+        }
+
+        @Override
+        Column build() {
+            return new StringColumn(pointer, codes.toArray(), dictionary.toArray(new String[0]), nulls);
+        }
+
+        private int getCode(final char[] chars, final int offset, final int length) {
+            int hash = 0;
+            for (int i = offset; i < offset + length; i++) {
+                hash = 31 * hash + chars[i];
+            }
+            int mask = table.length - 1;
+            for (int slot = (hash ^ (hash >>> 16)) & mask; ; slot = (slot + 1) & mask) {
+                int code = table[slot] - 1;
+                if (code < 0) {
+                    code = dictionary.size();
+                    dictionary.add(new String(chars, offset, length));
+                    hashes.add(hash);
+                    table[slot] = code + 1;
+                    if (dictionary.size() * 2 > table.length) {
+                        rehash();
+                    }
+                    return code;
+                }
+                if (hashes.get(code) == hash && matches(dictionary.get(code), chars, offset, length)) {
+                    return code;
+                }
+            }
+        }
+
+        private void rehash() {
+            table = new int[table.length * 2];
+            int mask = table.length - 1;
+            for (int code = 0; code < hashes.size(); code++) {
+                int hash = hashes.get(code);
+                int slot = (hash ^ (hash >>> 16)) & mask;
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = code + 1;
+            }
+        }
+
+        private static boolean matches(final String value, final char[] chars, final int offset, final int length) {
+            if (value.length() != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (value.charAt(i) != chars[offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
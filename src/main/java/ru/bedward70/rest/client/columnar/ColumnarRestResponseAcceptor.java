@@ -0,0 +1,87 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.columnar;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import ru.bedward70.rest.client.response.acceptor.RestResponseAcceptor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+
+import static java.util.Objects.isNull;
+
+/**
+ * RestResponseAcceptor which decodes a JSON array of objects into a {@link ColumnBatch} by a {@link ColumnarReader}
+ */
+public class ColumnarRestResponseAcceptor implements RestResponseAcceptor<ColumnBatch> {
+
+    /** Object mapper, it creates parsers and reads coerced values */
+    private final ObjectMapper objectMapper;
+
+    /** Reader */
+    private final ColumnarReader reader;
+
+    /**
+     * Constructor
+     *
+     * @param objectMapper object mapper
+     * @param reader reader
+     */
+    public ColumnarRestResponseAcceptor(final ObjectMapper objectMapper, final ColumnarReader reader) {
+        this.objectMapper = objectMapper;
+        this.reader = reader;
+    }
+
+    /**
+     * Constructor of an acceptor of a root array
+     *
+     * @param objectMapper object mapper
+     * @param schema schema
+     */
+    public ColumnarRestResponseAcceptor(final ObjectMapper objectMapper, final ColumnSchema schema) {
+        this(objectMapper, new ColumnarReader(schema));
+    }
+
+    @Override
+    public void setAcceptProperty(final URLConnection con) {
+        con.setRequestProperty(ACCEPT_HEADER_KEY, "application/json");
+    }
+
+    @Override
+    public ColumnBatch readValue(
+        final InputStream inputStream,
+        final Class<ColumnBatch> responseClazz
+    ) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(inputStream)) {
+            if (isNull(parser.nextToken())) {
+                throw MismatchedInputException.from(parser, responseClazz, "No content to map due to end-of-input");
+            }
+            return reader.read(parser);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.columnar;
+
+import java.util.BitSet;
+
+/**
+ * Column of long values, a null row is 0
+ */
+public class LongColumn extends Column {
+
+    /** Values */
+    private final long[] values;
+
+    /**
+     * Constructor
+     *
+     * @param pointer pointer of the column
+     * @param values values, the array length is the number of rows
+     * @param nulls null rows
+     */
+    public LongColumn(final String pointer, final long[] values, final BitSet nulls) {
+        super(pointer, values.length, nulls);
+        this.values = values;
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.LONG;
+    }
+
+    /**
+     * @param row row index
+     * @return value, 0 for a null row
+     */
+    public long get(final int row) {
+        return values[row];
+    }
+
+    /**
+     * @return values, the array is not copied
+     */
+    public long[] getValues() {
+        return values;
+    }
+
+    /**
+     * @return sum of the non-null values
+     */
+    public long sum() {
+        long sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+}
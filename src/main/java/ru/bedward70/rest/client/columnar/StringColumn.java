@@ -0,0 +1,108 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.columnar;
+
+import java.util.BitSet;
+
+/**
+ * Dictionary-encoded column of strings.
+ * A row holds the code of its value in the dictionary, a null row holds -1.
+ * Every distinct value is decoded and stored once, the dictionary is in the order of the first occurrence.
+ */
+public class StringColumn extends Column {
+
+    /** Code of a null row */
+    public static final int NULL_CODE = -1;
+
+    /** Codes */
+    private final int[] codes;
+
+    /** Distinct values */
+    private final String[] dictionary;
+
+    /**
+     * Constructor
+     *
+     * @param pointer pointer of the column
+     * @param codes codes, the array length is the number of rows
+     * @param dictionary distinct values
+     * @param nulls null rows
+     */
+    public StringColumn(final String pointer, final int[] codes, final String[] dictionary, final BitSet nulls) {
+        super(pointer, codes.length, nulls);
+        this.codes = codes;
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public ColumnType getType() {
+        return ColumnType.STRING;
+    }
+
+    /**
+     * @param row row index
+     * @return value or null
+     */
+    public String get(final int row) {
+        int code = codes[row];
+        return code == NULL_CODE ? null : dictionary[code];
+    }
+
+    /**
+     * @param row row index
+     * @return code or {@link #NULL_CODE}
+     */
+    public int getCode(final int row) {
+        return codes[row];
+    }
+
+    /**
+     * @return codes, the array is not copied
+     */
+    public int[] getCodes() {
+        return codes;
+    }
+
+    /**
+     * @return distinct values, the array is not copied
+     */
+    public String[] getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Counts the rows of every distinct value
+     * @return counts by code
+     */
+    public int[] countByCode() {
+        int[] counts = new int[dictionary.length];
+        for (int code : codes) {
+            if (code != NULL_CODE) {
+                counts[code]++;
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.deadline;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static java.util.Objects.isNull;
+
+/**
+ * An end-to-end deadline of a request on the monotonic clock.
+ * <p>
+ * The current deadline of a thread is applied to all requests of the thread, including retries and nested
+ * calls, so they share the remaining budget. A nested deadline never extends the outer one. The remaining
+ * budget is propagated to servers with the deadline header, a server may continue it with fromHeader.
+ */
+public final class Deadline {
+
+    /** Deadline header key, the value is the remaining budget in milliseconds */
+    public static final String HEADER_KEY = "X-Request-Timeout-Ms";
+
+    /** Current deadline of the thread */
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    /** Deadline, nano time */
+    private final long deadlineNanos;
+
+    /**
+     * Constructor
+     *
+     * @param deadlineNanos deadline, nano time
+     */
+    private Deadline(final long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Creates a deadline after the timeout from now
+     * @param timeout timeout, a huge one saturates to Long.MAX_VALUE nanoseconds
+     * @return deadline
+     */
+    public static Deadline after(final Duration timeout) {
+        return new Deadline(System.nanoTime() + toNanos(timeout));
+    }
+
+    /**
+     * Creates a deadline from the deadline header value
+     * @param value remaining budget in milliseconds
+     * @return deadline or null if the value is absent or malformed
+     */
+    public static Deadline fromHeader(final String value) {
+        if (isNull(value)) {
+            return null;
+        }
+        try {
+            return after(Duration.ofMillis(Math.max(0L, Long.parseLong(value.trim()))));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return current deadline of the thread or null
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Returns the earlier deadline
+     * @param first deadline or null
+     * @param second deadline or null
+     * @return earlier deadline or null if both are null
+     */
+    public static Deadline earliest(final Deadline first, final Deadline second) {
+        if (isNull(first)) {
+            return second;
+        }
+        if (isNull(second)) {
+            return first;
+        }
+        return first.deadlineNanos - second.deadlineNanos <= 0 ? first : second;
+    }
+
+    /**
+     * Calls the supplier with this deadline, or the outer one if it is earlier, as the current deadline of the thread
+     * @param supplier supplier
+     * @return result of the supplier
+     *
+     * @param <T> generic type of the result
+     */
+    public <T> T call(final Supplier<T> supplier) {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(earliest(previous, this));
+        try {
+            return supplier.get();
+        } finally {
+            if (isNull(previous)) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Runs the task with this deadline, or the outer one if it is earlier, as the current deadline of the thread
+     * @param task task
+     */
+    public void run(final Runnable task) {
+        call(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * @return remaining time, nanoseconds, negative if the deadline passed
+     */
+    public long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    /**
+     * @return remaining time, milliseconds rounded up, 0 if the deadline passed
+     */
+    public long remainingMillis() {
+        long nanos = remainingNanos();
+        return nanos <= 0 ? 0L : TimeUnit.NANOSECONDS.toMillis(nanos - 1) + 1;
+    }
+
+    /**
+     * @return true if the deadline passed
+     */
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * Converts a timeout to nanoseconds without overflow. A negative timeout is kept far enough from
+     * Long.MIN_VALUE, so the remaining time of the deadline does not wrap around while it grows negative
+     * @param timeout timeout
+     * @return nanoseconds
+     */
+    private static long toNanos(final Duration timeout) {
+        try {
+            return Math.max(Long.MIN_VALUE / 2, timeout.toNanos());
+        } catch (ArithmeticException e) {
+            return timeout.isNegative() ? Long.MIN_VALUE / 2 : Long.MAX_VALUE;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline{remaining=" + remainingMillis() + "ms}";
+    }
+}
@@ -0,0 +1,409 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.deadline;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A hashed timing wheel: one worker thread expires all timeouts with the tick precision.
+ * <p>
+ * Adding and cancelling a timeout is O(1) and lock-free, new and cancelled timeouts are queued and
+ * moved into wheel buckets by the worker, so tens of thousands of pending timeouts cost one list node each.
+ * Tasks run on the worker thread and must be short.
+ */
+public class HashedWheelTimer {
+
+    /** Default tick duration */
+    public static final Duration DEFAULT_TICK = Duration.ofMillis(10);
+
+    /** Default count of buckets */
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    /** Maximal count of new timeouts moved into the wheel per tick */
+    private static final int MAX_TRANSFER_PER_TICK = 100_000;
+
+    /** Not started state */
+    private static final int INIT = 0;
+
+    /** Started state */
+    private static final int STARTED = 1;
+
+    /** Stopped state */
+    private static final int STOPPED = 2;
+
+    /** Default instance */
+    private static final class DefaultHolder {
+        /** Default instance */
+        private static final HashedWheelTimer INSTANCE = new HashedWheelTimer(DEFAULT_TICK, DEFAULT_WHEEL_SIZE);
+    }
+
+    /** Tick duration, nanoseconds */
+    private final long tickNanos;
+
+    /** Buckets */
+    private final Bucket[] wheel;
+
+    /** Mask of bucket indexes */
+    private final int mask;
+
+    /** New timeouts */
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+
+    /** Cancelled timeouts */
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+
+    /** Count of pending timeouts */
+    private final AtomicLong pending = new AtomicLong();
+
+    /** State */
+    private final AtomicInteger state = new AtomicInteger(INIT);
+
+    /** Worker thread */
+    private final Thread worker;
+
+    /** Start time, nano time */
+    private volatile long startTime;
+
+    /**
+     * Constructor
+     *
+     * @param tick tick duration
+     * @param wheelSize count of buckets, it is rounded up to a power of two
+     */
+    public HashedWheelTimer(final Duration tick, final int wheelSize) {
+        this.tickNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(1), tick.toNanos());
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.worker = new Thread(this::work, "rest-deadline-timer");
+        this.worker.setDaemon(true);
+    }
+
+    /**
+     * @return default instance, its worker thread starts with the first timeout
+     */
+    public static HashedWheelTimer getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Schedules a task
+     * @param task task
+     * @param delay delay
+     * @param unit unit of the delay
+     * @return timeout
+     */
+    public Timeout newTimeout(final Runnable task, final long delay, final TimeUnit unit) {
+        start();
+        long elapsed = System.nanoTime() - startTime;
+        long delayNanos = unit.toNanos(delay);
+        // A huge delay saturates instead of overflowing into the past
+        long deadline = delayNanos > Long.MAX_VALUE - elapsed ? Long.MAX_VALUE : elapsed + delayNanos;
+        Timeout timeout = new Timeout(this, task, deadline);
+        pending.incrementAndGet();
+        added.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * @return count of pending timeouts
+     */
+    public long getPendingTimeouts() {
+        return pending.get();
+    }
+
+    /**
+     * Stops the worker thread, pending timeouts never expire
+     */
+    public void stop() {
+        if (state.getAndSet(STOPPED) == STARTED) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * Starts the worker thread once
+     */
+    private void start() {
+        int current = state.get();
+        if (current == INIT && state.compareAndSet(INIT, STARTED)) {
+            startTime = System.nanoTime();
+            worker.start();
+        } else if (current == STOPPED) {
+            throw new IllegalStateException("The timer is stopped");
+        }
+        while (startTime == 0L) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Worker loop
+     */
+    private void work() {
+        long tick = 0L;
+        while (state.get() == STARTED) {
+            long deadline = waitForNextTick(tick);
+            if (deadline < 0) {
+                break;
+            }
+            removeCancelled();
+            transferAdded(tick);
+            wheel[(int) (tick & mask)].expire(deadline);
+            tick++;
+        }
+    }
+
+    /**
+     * Sleeps until the end of the tick
+     * @param tick tick
+     * @return time of the tick end relative to the start time, or -1 if the timer is stopped
+     */
+    private long waitForNextTick(final long tick) {
+        long deadline = tickNanos * (tick + 1);
+        while (true) {
+            long current = System.nanoTime() - startTime;
+            long sleepNanos = deadline - current;
+            if (sleepNanos <= 0) {
+                return current;
+            }
+            LockSupport.parkNanos(this, sleepNanos);
+            if (state.get() != STARTED) {
+                return -1L;
+            }
+        }
+    }
+
+    /**
+     * Moves new timeouts into buckets
+     * @param tick current tick
+     */
+    private void transferAdded(final long tick) {
+        for (int i = 0; i < MAX_TRANSFER_PER_TICK; i++) {
+            Timeout timeout = added.poll();
+            if (isNull(timeout)) {
+                return;
+            }
+            if (timeout.state.get() != Timeout.ACTIVE) {
+                continue;
+            }
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * Removes cancelled timeouts from buckets
+     */
+    private void removeCancelled() {
+        Timeout timeout;
+        while (nonNull(timeout = cancelled.poll())) {
+            if (nonNull(timeout.bucket)) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    /**
+     * A scheduled task
+     */
+    public static final class Timeout {
+
+        /** Active state */
+        private static final int ACTIVE = 0;
+
+        /** Cancelled state */
+        private static final int CANCELLED = 1;
+
+        /** Expired state */
+        private static final int EXPIRED = 2;
+
+        /** Timer */
+        private final HashedWheelTimer timer;
+
+        /** Task */
+        private final Runnable task;
+
+        /** Deadline relative to the timer start time, nanoseconds */
+        private final long deadline;
+
+        /** State */
+        private final AtomicInteger state = new AtomicInteger(ACTIVE);
+
+        /** Remaining rounds of the wheel, the worker thread only */
+        private long remainingRounds;
+
+        /** Bucket, the worker thread only */
+        private Bucket bucket;
+
+        /** Next timeout in the bucket, the worker thread only */
+        private Timeout next;
+
+        /** Previous timeout in the bucket, the worker thread only */
+        private Timeout prev;
+
+        /**
+         * Constructor
+         *
+         * @param timer timer
+         * @param task task
+         * @param deadline deadline relative to the timer start time, nanoseconds
+         */
+        private Timeout(final HashedWheelTimer timer, final Runnable task, final long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the timeout
+         * @return true if the timeout is cancelled, false if it is already expired or cancelled
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(ACTIVE, CANCELLED)) {
+                return false;
+            }
+            timer.pending.decrementAndGet();
+            timer.cancelled.add(this);
+            return true;
+        }
+
+        /**
+         * @return true if the task is run
+         */
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        /**
+         * @return true if the timeout is cancelled
+         */
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        /**
+         * Runs the task
+         */
+        private void expire() {
+            if (state.compareAndSet(ACTIVE, EXPIRED)) {
+                timer.pending.decrementAndGet();
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    // A failed task must not stop the worker
+                }
+            }
+        }
+    }
+
+    /**
+     * A doubly linked list of timeouts, the worker thread only
+     */
+    private static final class Bucket {
+
+        /** Head */
+        private Timeout head;
+
+        /** Tail */
+        private Timeout tail;
+
+        /**
+         * Adds a timeout
+         * @param timeout timeout
+         */
+        void add(final Timeout timeout) {
+            timeout.bucket = this;
+            if (isNull(head)) {
+                head = timeout;
+                tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        /**
+         * Expires timeouts of the tick
+         * @param deadline time of the tick end relative to the timer start time
+         */
+        void expire(final long deadline) {
+            Timeout timeout = head;
+            while (nonNull(timeout)) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                    remove(timeout);
+                    timeout.expire();
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else if (timeout.remainingRounds > 0) {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        /**
+         * Removes a timeout
+         * @param timeout timeout
+         */
+        void remove(final Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            Timeout next = timeout.next;
+            if (nonNull(timeout.prev)) {
+                timeout.prev.next = next;
+            }
+            if (nonNull(next)) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.declarative;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.bedward70.rest.client.RestClient;
+import ru.bedward70.rest.client.exception.NoContentRestClientException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Factory of generated {@link RestApi} implementations and helpers of the generated code
+ */
+public final class RestApis {
+
+    /** Suffix of generated implementation classes */
+    public static final String IMPLEMENTATION_SUFFIX = "_RestApi";
+
+    /** Hex digits of percent-encoding */
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    /** Unreserved URI chars (RFC 3986) which are not encoded */
+    private static final boolean[] UNRESERVED = new boolean[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            UNRESERVED[c] = true;
+            UNRESERVED[Character.toUpperCase(c)] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            UNRESERVED[c] = true;
+        }
+        UNRESERVED['-'] = true;
+        UNRESERVED['.'] = true;
+        UNRESERVED['_'] = true;
+        UNRESERVED['~'] = true;
+    }
+
+    private RestApis() {
+    }
+
+    /**
+     * Creates the generated implementation, async methods run on the default executor
+     * @param api annotated interface
+     * @param restClient rest client
+     * @param objectMapper object mapper of bodies and responses
+     * @return implementation
+     * @param <T> generic type
+     */
+    public static <T> T create(final Class<T> api, final RestClient restClient, final ObjectMapper objectMapper) {
+        return create(api, restClient, objectMapper, getDefaultExecutor());
+    }
+
+    /**
+     * Creates the generated implementation.
+     * The class is found by reflection once, calls of the instance do not use reflection.
+     * @param api annotated interface
+     * @param restClient rest client
+     * @param objectMapper object mapper of bodies and responses
+     * @param executor executor of async methods, not null
+     * @return implementation
+     * @param <T> generic type
+     */
+    public static <T> T create(
+        final Class<T> api,
+        final RestClient restClient,
+        final ObjectMapper objectMapper,
+        final Executor executor
+    ) {
+        if (!api.isAnnotationPresent(RestApi.class)) {
+            throw new IllegalArgumentException(api.getName() + " is not annotated with @RestApi");
+        }
+        if (isNull(executor)) {
+            throw new IllegalArgumentException("The executor of " + api.getName() + " is null");
+        }
+        try {
+            Class<?> implementation = Class.forName(
+                getImplementationClassName(api.getName()), true, api.getClassLoader()
+            );
+            return api.cast(
+                implementation.getConstructor(RestClient.class, ObjectMapper.class, Executor.class)
+                    .newInstance(restClient, objectMapper, executor)
+            );
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("No generated implementation of " + api.getName(), e);
+        }
+    }
+
+    /**
+     * Returns the default executor of async methods, a shared pool of daemon threads.
+     * The calls block on IO, so they do not run on the common ForkJoinPool of CPU-bound tasks.
+     * @return executor
+     */
+    public static Executor getDefaultExecutor() {
+        return DefaultExecutorHolder.INSTANCE;
+    }
+
+    /**
+     * Returns the response of a method with a primitive return type
+     * @param response response or null
+     * @param methodName method name
+     * @return response
+     * @param <T> generic type
+     */
+    public static <T> T requireResponse(final T response, final String methodName) {
+        if (isNull(response)) {
+            throw new NoContentRestClientException("No response value of the method " + methodName);
+        }
+        return response;
+    }
+
+    /**
+     * Returns the name of the generated implementation class
+     * @param binaryName binary name of the interface, e.g. "p.Outer$Api"
+     * @return class name, e.g. "p.Outer_Api_RestApi"
+     */
+    public static String getImplementationClassName(final String binaryName) {
+        int dot = binaryName.lastIndexOf('.');
+        return binaryName.substring(0, dot + 1)
+            + binaryName.substring(dot + 1).replace('$', '_')
+            + IMPLEMENTATION_SUFFIX;
+    }
+
+    /**
+     * Appends an encoded path variable
+     * @param url url suffix
+     * @param name variable name
+     * @param value value
+     */
+    public static void appendPathVariable(final StringBuilder url, final String name, final Object value) {
+        if (isNull(value)) {
+            throw new IllegalArgumentException("The path variable " + name + " is null");
+        }
+        appendEncoded(url, value.toString());
+    }
+
+    /**
+     * Appends a query parameter, a null value is skipped, values of an iterable or an array are repeated
+     * @param url url suffix
+     * @param encodedName encoded parameter name
+     * @param value value
+     */
+    public static void appendQueryParameter(final StringBuilder url, final String encodedName, final Object value) {
+        if (isNull(value)) {
+            return;
+        }
+        if (value instanceof Iterable) {
+            for (Object item : (Iterable<?>) value) {
+                appendQueryParameter(url, encodedName, item);
+            }
+        } else if (value instanceof Object[]) {
+            for (Object item : (Object[]) value) {
+                appendQueryParameter(url, encodedName, item);
+            }
+        } else {
+            url.append(url.indexOf("?") < 0 ? '?' : '&').append(encodedName).append('=');
+            appendEncoded(url, value.toString());
+        }
+    }
+
+    /**
+     * Puts a header, a null value is skipped
+     * @param headers headers
+     * @param name header name
+     * @param value value
+     */
+    public static void putHeader(final Map<String, String> headers, final String name, final Object value) {
+        if (nonNull(value)) {
+            headers.put(name, value.toString());
+        }
+    }
+
+    /**
+     * Percent-encodes all chars except the unreserved ones, the space is "%20"
+     * @param s string
+     * @return encoded string
+     */
+    public static String encode(final String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 128 || !UNRESERVED[c]) {
+                return appendEncoded(new StringBuilder(s.length() + 16), s).toString();
+            }
+        }
+        return s;
+    }
+
+    private static StringBuilder appendEncoded(final StringBuilder url, final String s) {
+        int length = s.length();
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c < 128 && UNRESERVED[c]) {
+                url.append(c);
+                continue;
+            }
+            int codePoint = c;
+            if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                codePoint = Character.toCodePoint(c, s.charAt(++i));
+            } else if (Character.isSurrogate(c)) {
+                // A lone surrogate is encoded like String.getBytes does
+                codePoint = '?';
+            }
+            if (codePoint < 128) {
+                appendByte(url, codePoint);
+            } else {
+                for (byte b : new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8)) {
+                    appendByte(url, b);
+                }
+            }
+        }
+        return url;
+    }
+
+    private static void appendByte(final StringBuilder url, final int b) {
+        url.append('%').append(HEX[(b >> 4) & 0x0F]).append(HEX[b & 0x0F]);
+    }
+
+    /**
+     * Holder of the default executor, it is created on the first async call
+     */
+    private static final class DefaultExecutorHolder {
+
+        /** Executor with daemon threads */
+        private static final ExecutorService INSTANCE = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "rest-api-async");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
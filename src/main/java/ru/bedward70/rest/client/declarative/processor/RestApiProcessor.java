@@ -0,0 +1,410 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.declarative.processor;
+
+import ru.bedward70.rest.client.declarative.Body;
+import ru.bedward70.rest.client.declarative.HeaderParam;
+import ru.bedward70.rest.client.declarative.PathParam;
+import ru.bedward70.rest.client.declarative.QueryParam;
+import ru.bedward70.rest.client.declarative.RestApi;
+import ru.bedward70.rest.client.declarative.RestApis;
+import ru.bedward70.rest.client.declarative.RestCall;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static ru.bedward70.rest.client.codec.processor.JsonCodecProcessor.literal;
+
+/**
+ * Generates implementations of {@link RestApi} interfaces.
+ * <p>
+ * Path templates are split at compile time, so a method appends constant segments and encoded variables
+ * to one StringBuilder, or uses a constant url suffix without variables and query parameters.
+ * Every method calls {@link ru.bedward70.rest.client.RestClient#execute} directly with a class literal of the response,
+ * async methods run the same call on the executor of the implementation.
+ */
+@SupportedAnnotationTypes("ru.bedward70.rest.client.declarative.RestApi")
+public class RestApiProcessor extends AbstractProcessor {
+
+    /** Helpers of generated implementations */
+    private static final String HELPERS = "ru.bedward70.rest.client.declarative.RestApis";
+
+    /** Async return types */
+    private static final Set<String> FUTURE_TYPES = Set.of(
+        "java.util.concurrent.CompletableFuture", "java.util.concurrent.CompletionStage"
+    );
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(RestApi.class)) {
+            TypeElement type = (TypeElement) element;
+            try {
+                validate(type);
+                generate(type);
+            } catch (IllegalArgumentException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), type);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(
+                    Diagnostic.Kind.ERROR, "Can not write the implementation: " + e.getMessage(), type
+                );
+            }
+        }
+        return true;
+    }
+
+    private void validate(final TypeElement type) {
+        if (type.getKind() != ElementKind.INTERFACE) {
+            throw new IllegalArgumentException("@RestApi needs an interface");
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            throw new IllegalArgumentException("@RestApi does not support generic interfaces");
+        }
+        for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                throw new IllegalArgumentException("@RestApi needs a non-private interface");
+            }
+        }
+    }
+
+    private void generate(final TypeElement type) throws IOException {
+        String implementationName = getImplementationName(type);
+        int dot = implementationName.lastIndexOf('.');
+        String packageName = dot < 0 ? "" : implementationName.substring(0, dot);
+        String simpleName = implementationName.substring(dot + 1);
+        String api = type.getQualifiedName().toString();
+        String prefix = type.getAnnotation(RestApi.class).value();
+
+        StringBuilder constants = new StringBuilder();
+        StringBuilder methods = new StringBuilder();
+        int index = 0;
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            TypeElement owner = (TypeElement) method.getEnclosingElement();
+            if (!method.getModifiers().contains(Modifier.ABSTRACT)
+                || "java.lang.Object".equals(owner.getQualifiedName().toString())) {
+                continue;
+            }
+            generateMethod(method, prefix, index++, constants, methods);
+        }
+
+        StringBuilder code = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            code.append("package ").append(packageName).append(";\n\n");
+        }
+        code.append("/**\n * Generated implementation of {@link ").append(api).append("}\n */\n")
+            .append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+            .append("public final class ").append(simpleName).append(" implements ").append(api).append(" {\n\n")
+            .append("    /** Default successful HTTP codes of the rest client */\n")
+            .append("    private static final Integer[] NO_CODES = {};\n\n")
+            .append(constants)
+            .append("    /** Rest client */\n")
+            .append("    private final ru.bedward70.rest.client.RestClient restClient;\n\n")
+            .append("    /** Rest body maker */\n")
+            .append("    private final ru.bedward70.rest.client.body.maker.RestBodyMaker<Object> bodyMaker;\n\n")
+            .append("    /** Rest response acceptor */\n")
+            .append("    private final ru.bedward70.rest.client.response.acceptor.JsonRestResponseAcceptor<?> responseAcceptor;\n\n")
+            .append("    /** Executor of async methods */\n")
+            .append("    private final java.util.concurrent.Executor executor;\n\n")
+            .append("    /**\n")
+            .append("     * Constructor\n")
+            .append("     *\n")
+            .append("     * @param restClient rest client\n")
+            .append("     * @param objectMapper object mapper of bodies and responses\n")
+            .append("     * @param executor executor of async methods\n")
+            .append("     */\n")
+            .append("    public ").append(simpleName).append("(\n")
+            .append("        final ru.bedward70.rest.client.RestClient restClient,\n")
+            .append("        final com.fasterxml.jackson.databind.ObjectMapper objectMapper,\n")
+            .append("        final java.util.concurrent.Executor executor\n")
+            .append("    ) {\n")
+            .append("        this.restClient = restClient;\n")
+            .append("        this.bodyMaker = new ru.bedward70.rest.client.body.maker.JsonRestBodyMaker(objectMapper);\n")
+            .append("        this.responseAcceptor = new ru.bedward70.rest.client.response.acceptor.JsonRestResponseAcceptor<>(objectMapper);\n")
+            .append("        this.executor = java.util.Objects.requireNonNull(executor, \"executor\");\n")
+            .append("    }\n\n")
+            .append("    /**\n")
+            .append("     * Constructor, async methods run on the default executor of RestApis\n")
+            .append("     *\n")
+            .append("     * @param restClient rest client\n")
+            .append("     * @param objectMapper object mapper of bodies and responses\n")
+            .append("     */\n")
+            .append("    public ").append(simpleName).append("(\n")
+            .append("        final ru.bedward70.rest.client.RestClient restClient,\n")
+            .append("        final com.fasterxml.jackson.databind.ObjectMapper objectMapper\n")
+            .append("    ) {\n")
+            .append("        this(restClient, objectMapper, ").append(HELPERS).append(".getDefaultExecutor());\n")
+            .append("    }\n")
+            .append(methods)
+            .append("}\n");
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(implementationName, type).openWriter()) {
+            writer.write(code.toString());
+        }
+    }
+
+    private void generateMethod(
+        final ExecutableElement method,
+        final String prefix,
+        final int index,
+        final StringBuilder constants,
+        final StringBuilder methods
+    ) {
+        String methodName = method.getSimpleName().toString();
+        RestCall call = method.getAnnotation(RestCall.class);
+        if (isNull(call)) {
+            throw new IllegalArgumentException("@RestCall is missing on the method " + methodName);
+        }
+        if (!method.getTypeParameters().isEmpty()) {
+            throw new IllegalArgumentException("@RestApi does not support the generic method " + methodName);
+        }
+
+        // Response
+        TypeMirror returnType = method.getReturnType();
+        TypeMirror responseType = returnType;
+        boolean async = false;
+        if (returnType.getKind() == TypeKind.DECLARED && FUTURE_TYPES.contains(
+            ((TypeElement) ((DeclaredType) returnType).asElement()).getQualifiedName().toString()
+        )) {
+            List<? extends TypeMirror> arguments = ((DeclaredType) returnType).getTypeArguments();
+            if (arguments.size() != 1) {
+                throw new IllegalArgumentException("The method " + methodName + " needs a type argument of the future");
+            }
+            async = true;
+            responseType = arguments.get(0);
+        }
+        String responseGeneric;
+        String responseClass;
+        if (responseType.getKind() == TypeKind.VOID) {
+            responseGeneric = "Object";
+            responseClass = null;
+        } else if ("java.lang.Void".equals(responseType.toString())) {
+            responseGeneric = "Void";
+            responseClass = null;
+        } else if (responseType.getKind().isPrimitive()) {
+            responseGeneric = processingEnv.getTypeUtils().boxedClass((PrimitiveType) responseType)
+                .getQualifiedName().toString();
+            responseClass = responseGeneric + ".class";
+        } else if ((responseType.getKind() == TypeKind.DECLARED || responseType.getKind() == TypeKind.ARRAY)
+            && processingEnv.getTypeUtils().isSameType(
+                responseType, processingEnv.getTypeUtils().erasure(responseType)
+            )) {
+            responseGeneric = responseType.toString();
+            responseClass = responseGeneric + ".class";
+        } else {
+            throw new IllegalArgumentException(
+                "The method " + methodName + " needs a class or an array response type, e.g. Dto[] instead of List<Dto>"
+            );
+        }
+
+        // Parameters
+        StringBuilder signature = new StringBuilder();
+        Map<String, VariableElement> pathVariables = new HashMap<>();
+        Map<String, String> pathArguments = new HashMap<>();
+        StringBuilder queries = new StringBuilder();
+        StringBuilder headers = new StringBuilder();
+        int headerCount = 0;
+        String body = null;
+        List<? extends VariableElement> parameters = method.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            VariableElement parameter = parameters.get(i);
+            String argument = "p" + i;
+            String parameterType = parameter.asType().toString();
+            if (method.isVarArgs() && i == parameters.size() - 1) {
+                parameterType = parameterType.substring(0, parameterType.length() - 2) + "...";
+            }
+            signature.append(i == 0 ? "" : ", ").append("final ").append(parameterType).append(' ').append(argument);
+
+            PathParam pathParam = parameter.getAnnotation(PathParam.class);
+            QueryParam queryParam = parameter.getAnnotation(QueryParam.class);
+            HeaderParam headerParam = parameter.getAnnotation(HeaderParam.class);
+            Body bodyParam = parameter.getAnnotation(Body.class);
+            int bindings = (nonNull(pathParam) ? 1 : 0) + (nonNull(queryParam) ? 1 : 0)
+                + (nonNull(headerParam) ? 1 : 0) + (nonNull(bodyParam) ? 1 : 0);
+            if (bindings != 1) {
+                throw new IllegalArgumentException(
+                    "The parameter " + parameter.getSimpleName() + " of the method " + methodName
+                        + " needs one of @PathParam, @QueryParam, @HeaderParam or @Body"
+                );
+            }
+            if (nonNull(pathParam)) {
+                if (nonNull(pathVariables.put(pathParam.value(), parameter))) {
+                    throw new IllegalArgumentException(
+                        "The path variable " + pathParam.value() + " of the method " + methodName + " is duplicated"
+                    );
+                }
+                pathArguments.put(pathParam.value(), argument);
+            } else if (nonNull(queryParam)) {
+                queries.append("        ").append(HELPERS).append(".appendQueryParameter(url, ")
+                    .append(literal(RestApis.encode(queryParam.value()))).append(", ").append(argument).append(");\n");
+            } else if (nonNull(headerParam)) {
+                headerCount++;
+                headers.append("        ").append(HELPERS).append(".putHeader(headers, ")
+                    .append(literal(headerParam.value())).append(", ").append(argument).append(");\n");
+            } else {
+                if (nonNull(body)) {
+                    throw new IllegalArgumentException("The method " + methodName + " has more than one @Body");
+                }
+                body = argument;
+            }
+        }
+
+        // Url suffix
+        String path = prefix + call.path();
+        StringBuilder url = new StringBuilder();
+        Set<String> usedVariables = new HashSet<>();
+        int capacity = 0;
+        int position = 0;
+        while (position < path.length()) {
+            int open = path.indexOf('{', position);
+            String segment = path.substring(position, open < 0 ? path.length() : open);
+            if (!segment.isEmpty()) {
+                url.append("        url.append(").append(literal(segment)).append(");\n");
+                capacity += segment.length();
+            }
+            if (open < 0) {
+                break;
+            }
+            int close = path.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("The path of the method " + methodName + " has an unclosed {");
+            }
+            String name = path.substring(open + 1, close);
+            VariableElement variable = pathVariables.get(name);
+            if (isNull(variable)) {
+                throw new IllegalArgumentException(
+                    "The path variable " + name + " of the method " + methodName + " has no @PathParam"
+                );
+            }
+            usedVariables.add(name);
+            TypeKind kind = variable.asType().getKind();
+            if (kind.isPrimitive() && kind != TypeKind.CHAR) {
+                // Numbers and booleans do not need encoding
+                url.append("        url.append(").append(pathArguments.get(name)).append(");\n");
+            } else {
+                url.append("        ").append(HELPERS).append(".appendPathVariable(url, ").append(literal(name))
+                    .append(", ").append(pathArguments.get(name)).append(");\n");
+            }
+            capacity += 16;
+            position = close + 1;
+        }
+        for (String name : pathVariables.keySet()) {
+            if (!usedVariables.contains(name)) {
+                throw new IllegalArgumentException(
+                    "The path variable " + name + " of the method " + methodName + " is not in the path"
+                );
+            }
+        }
+        capacity += queries.length() > 0 ? 32 : 0;
+
+        // Successful codes
+        String codes = "NO_CODES";
+        int[] successfulResponseCodes = call.successfulResponseCodes();
+        if (successfulResponseCodes.length > 0) {
+            codes = "CODES_" + index;
+            constants.append("    /** Successful HTTP codes of ").append(methodName).append(" */\n")
+                .append("    private static final Integer[] ").append(codes).append(" = {");
+            for (int i = 0; i < successfulResponseCodes.length; i++) {
+                constants.append(i == 0 ? "" : ", ").append(successfulResponseCodes[i]);
+            }
+            constants.append("};\n\n");
+        }
+
+        methods.append('\n')
+            .append("    @Override\n")
+            .append("    public ").append(returnType).append(' ').append(methodName).append('(').append(signature)
+            .append(") {\n");
+        if (pathArguments.isEmpty() && queries.length() == 0) {
+            methods.append("        String urlSuffix = ").append(literal(path)).append(";\n");
+        } else {
+            methods.append("        StringBuilder url = new StringBuilder(").append(capacity).append(");\n")
+                .append(url)
+                .append(queries)
+                .append("        String urlSuffix = url.toString();\n");
+        }
+        String headersArgument = "null";
+        if (headerCount > 0) {
+            headersArgument = "headers";
+            methods.append("        java.util.Map<String, String> headers = new java.util.HashMap<>(")
+                .append(headerCount * 2).append(");\n")
+                .append(headers);
+        }
+        String execute = "restClient.<Object, " + responseGeneric + ">execute("
+            + literal(call.method()) + ", urlSuffix, "
+            + (nonNull(body) ? body + ", bodyMaker, " : "null, null, ")
+            + (nonNull(responseClass) ? responseClass + ", responseAcceptor.getGenericInstance(), " : "null, null, ")
+            + headersArgument + ", " + codes + ")";
+        if (async) {
+            methods.append("        return java.util.concurrent.CompletableFuture.supplyAsync(\n")
+                .append("            () -> ").append(execute).append(",\n")
+                .append("            executor\n")
+                .append("        );\n");
+        } else if (returnType.getKind() == TypeKind.VOID) {
+            methods.append("        ").append(execute).append(";\n");
+        } else if (returnType.getKind().isPrimitive()) {
+            // A null or empty body can not be unboxed
+            methods.append("        return ").append(HELPERS).append(".requireResponse(").append(execute).append(", ")
+                .append(literal(methodName)).append(");\n");
+        } else {
+            methods.append("        return ").append(execute).append(";\n");
+        }
+        methods.append("    }\n");
+    }
+
+    private String getImplementationName(final TypeElement type) {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        return packageElement.isUnnamed()
+            ? binaryName.replace('$', '_') + RestApis.IMPLEMENTATION_SUFFIX
+            : RestApis.getImplementationClassName(binaryName);
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.download;
+
+import ru.bedward70.rest.client.buffer.BufferPool;
+import ru.bedward70.rest.client.response.acceptor.ContextRestResponseAcceptor;
+import ru.bedward70.rest.client.response.acceptor.RestResponseContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Byte range implementation of RestResponseAcceptor.
+ * Requests the range with the "Range" header and writes the response at its offset of the shared file channel.
+ * An instance serves one request at a time.
+ */
+class RangeRestResponseAcceptor implements ContextRestResponseAcceptor<Long> {
+
+    /** Partial Content HTTP response code */
+    static final int PARTIAL_CONTENT_RESPONSE_CODE = 206;
+
+    /** Mime accept */
+    private final String mimeAccept;
+
+    /** Shared output channel */
+    private final FileChannel channel;
+
+    /** Size of the transfer buffer */
+    private final int bufferSize;
+
+    /** First byte position of the range */
+    private final long start;
+
+    /** Last byte position of the range (inclusive) or -1 if the range is open */
+    private final long end;
+
+    /** False if the whole resource is requested without the "Range" header */
+    private final boolean ranged;
+
+    /** Count of bytes written at the range start */
+    private long written;
+
+    /** Context of the last response */
+    private RestResponseContext context = RestResponseContext.EMPTY;
+
+    /**
+     * Constructor
+     *
+     * @param mimeAccept mime accept
+     * @param channel shared output channel
+     * @param bufferSize size of the transfer buffer
+     * @param start first byte position of the range
+     * @param end last byte position of the range (inclusive) or -1 if the range is open
+     */
+    RangeRestResponseAcceptor(
+        final String mimeAccept,
+        final FileChannel channel,
+        final int bufferSize,
+        final long start,
+        final long end
+    ) {
+        this.mimeAccept = mimeAccept;
+        this.channel = channel;
+        this.bufferSize = bufferSize;
+        this.start = start;
+        this.end = end;
+        this.ranged = true;
+    }
+
+    /**
+     * Constructor of an acceptor of the whole resource, it does not send the "Range" header
+     *
+     * @param mimeAccept mime accept
+     * @param channel shared output channel
+     * @param bufferSize size of the transfer buffer
+     */
+    RangeRestResponseAcceptor(final String mimeAccept, final FileChannel channel, final int bufferSize) {
+        this.mimeAccept = mimeAccept;
+        this.channel = channel;
+        this.bufferSize = bufferSize;
+        this.start = 0L;
+        this.end = -1L;
+        this.ranged = false;
+    }
+
+    @Override
+    public void setAcceptProperty(final URLConnection con) {
+        if (nonNull(mimeAccept)) {
+            con.setRequestProperty(ACCEPT_HEADER_KEY, mimeAccept);
+        }
+        if (ranged) {
+            con.setRequestProperty("Range", "bytes=" + (start + written) + "-" + (end >= 0 ? String.valueOf(end) : ""));
+        }
+    }
+
+    /**
+     * A range response cannot be read without its context: "Range" is always sent and the response code
+     * and the "Content-Range" header tell where the body belongs in the file
+     * @param inputStream input stream
+     * @param responseClazz response class
+     * @return nothing
+     * @throws IOException always
+     */
+    @Override
+    public Long readValue(final InputStream inputStream, final Class<Long> responseClazz) throws IOException {
+        throw new IOException("A range response needs the response context");
+    }
+
+    @Override
+    public Long readValue(
+        final InputStream inputStream,
+        final Class<Long> responseClazz,
+        final RestResponseContext context
+    ) throws IOException {
+        this.context = context;
+        boolean partial = isPartialContent();
+        if (partial && !ranged) {
+            throw new IOException("Unexpected partial content of a request without a range");
+        } else if (partial) {
+            String contentRange = context.getHeader("Content-Range");
+            if (isNull(contentRange) || !contentRange.trim().startsWith("bytes " + (start + written) + "-")) {
+                throw new IOException("Unexpected partial content: " + contentRange);
+            }
+        } else if (start != 0) {
+            throw new IOException("The server ignored the range request");
+        } else {
+            // The whole resource is sent from the beginning
+            written = 0L;
+        }
+
+        BufferPool pool = BufferPool.getDefault();
+        byte[] buffer = pool.acquire(bufferSize);
+        ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+        try {
+            long position = start + written;
+            long limit = partial && end >= 0 ? end + 1 : Long.MAX_VALUE;
+            int read;
+            while (position < limit
+                && (read = inputStream.readNBytes(buffer, 0, (int) Math.min(bufferSize, limit - position))) > 0) {
+                byteBuffer.clear().limit(read);
+                while (byteBuffer.hasRemaining()) {
+                    int count = channel.write(byteBuffer, position);
+                    position += count;
+                    written += count;
+                }
+            }
+        } finally {
+            pool.release(buffer);
+        }
+        long expected = partial ? (end >= 0 ? end + 1 - start : -1L) : context.getContentLength();
+        if (expected >= 0 && written != expected) {
+            throw new IOException("Truncated response: " + written + " of " + expected + " bytes received");
+        }
+        return written;
+    }
+
+    /**
+     * @return true if the last response is 206 Partial Content
+     */
+    boolean isPartialContent() {
+        return context.getResponseCode() == PARTIAL_CONTENT_RESPONSE_CODE;
+    }
+
+    /**
+     * Returns the total length of the resource from the "Content-Range" header of the last response
+     * @return total length or -1 if it is unknown
+     */
+    long getTotalLength() {
+        String contentRange = context.getHeader("Content-Range");
+        if (nonNull(contentRange)) {
+            int slash = contentRange.lastIndexOf('/');
+            if (slash >= 0) {
+                try {
+                    return Long.parseLong(contentRange.substring(slash + 1).trim());
+                } catch (NumberFormatException e) {
+                    return -1L;
+                }
+            }
+        }
+        return -1L;
+    }
+
+    /**
+     * @return true if the server does not support range requests of the resource
+     */
+    boolean isRangeUnsupported() {
+        return "none".equalsIgnoreCase(context.getHeader("Accept-Ranges"));
+    }
+
+    /**
+     * @return count of bytes written at the range start
+     */
+    long getWritten() {
+        return written;
+    }
+
+}
@@ -0,0 +1,379 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.download;
+
+import ru.bedward70.rest.client.RestClient;
+import ru.bedward70.rest.client.buffer.BufferPool;
+import ru.bedward70.rest.client.exception.ErrorCodeRestClientException;
+import ru.bedward70.rest.client.exception.ErrorRestClientException;
+import ru.bedward70.rest.client.exception.RestClientException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Downloads a large file with several parallel range requests.
+ * <p>
+ * The first request asks for the first byte and finds out the total length from the "Content-Range" header.
+ * If the server does not support range requests, the whole file is received by the first request.
+ * If the total length is unknown ("bytes 0-0/*") or the resource has "Accept-Ranges: none",
+ * the whole file is fetched by a single request without a range.
+ * Otherwise the rest of the file is split into segments which are fetched over separate connections
+ * and written at their offsets by positional FileChannel writes.
+ * The download starts with a few parallel workers and adds a worker while the observed
+ * throughput keeps growing. A failed segment is retried from the last received byte.
+ * The file is written to the "{file}.part" temporary file which is atomically renamed on success.
+ */
+public class SegmentedFileDownloader {
+
+    /** Default initial count of parallel segments */
+    public static final int DEFAULT_INITIAL_SEGMENTS = 2;
+
+    /** Default maximal count of parallel segments */
+    public static final int DEFAULT_MAX_SEGMENTS = 8;
+
+    /** Default minimal segment size */
+    public static final long DEFAULT_MIN_SEGMENT_SIZE = 1024L * 1024L;
+
+    /** Default count of retries of a segment */
+    public static final int DEFAULT_MAX_RETRIES = 3;
+
+    /** Server errors are retried, client errors are not */
+    private static final int SERVER_ERROR_RESPONSE_CODE = 500;
+
+    /** Size of the transfer buffer of a segment */
+    private static final int BUFFER_SIZE = BufferPool.DEFAULT_BUFFER_SIZE;
+
+    /** Count of segments per worker, more segments give more points to adapt the parallelism */
+    private static final int SEGMENTS_PER_WORKER = 4;
+
+    /** A worker is added if the throughput grows at least by this factor */
+    private static final double THROUGHPUT_GROWTH_FACTOR = 1.1;
+
+    /** Rest client */
+    private final RestClient restClient;
+
+    /** Initial count of parallel segments */
+    private final int initialSegments;
+
+    /** Maximal count of parallel segments */
+    private final int maxSegments;
+
+    /** Minimal segment size */
+    private final long minSegmentSize;
+
+    /** Count of retries of a segment */
+    private final int maxRetries;
+
+    /**
+     * Constructor
+     *
+     * @param restClient rest client
+     */
+    public SegmentedFileDownloader(final RestClient restClient) {
+        this(restClient, DEFAULT_INITIAL_SEGMENTS, DEFAULT_MAX_SEGMENTS, DEFAULT_MIN_SEGMENT_SIZE, DEFAULT_MAX_RETRIES);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param restClient rest client
+     * @param initialSegments initial count of parallel segments
+     * @param maxSegments maximal count of parallel segments
+     * @param minSegmentSize minimal segment size
+     * @param maxRetries count of retries of a segment
+     */
+    public SegmentedFileDownloader(
+        final RestClient restClient,
+        final int initialSegments,
+        final int maxSegments,
+        final long minSegmentSize,
+        final int maxRetries
+    ) {
+        if (initialSegments <= 0 || maxSegments < initialSegments) {
+            throw new IllegalArgumentException("Invalid segments: " + initialSegments + ", " + maxSegments);
+        }
+        if (minSegmentSize <= 0 || maxRetries < 0) {
+            throw new IllegalArgumentException("Invalid segment size or retries: " + minSegmentSize + ", " + maxRetries);
+        }
+        this.restClient = restClient;
+        this.initialSegments = initialSegments;
+        this.maxSegments = maxSegments;
+        this.minSegmentSize = minSegmentSize;
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * Downloads a file
+     * @param urlSuffix suffix url
+     * @param mimeAccept mime accept or null
+     * @param headers headers
+     * @param file output file
+     * @return output file
+     */
+    public File download(
+        final String urlSuffix,
+        final String mimeAccept,
+        final Map<String, String> headers,
+        final File file
+    ) {
+        Path part = file.toPath().resolveSibling(file.getName() + ".part");
+        try {
+            try (FileChannel channel = FileChannel.open(
+                part,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING
+            )) {
+                RangeRestResponseAcceptor probe = new RangeRestResponseAcceptor(mimeAccept, channel, BUFFER_SIZE, 0L, 0L);
+                fetch(urlSuffix, headers, probe);
+                long total = probe.getTotalLength();
+                if (probe.isPartialContent()) {
+                    if (total == 0) {
+                        throw new IOException("Invalid total length of partial content: " + total);
+                    } else if (total < 0 || (total > 1 && probe.isRangeUnsupported())) {
+                        // The file cannot be split into ranges, it is fetched by a single request without a range
+                        channel.truncate(0L);
+                        fetch(urlSuffix, headers, new RangeRestResponseAcceptor(mimeAccept, channel, BUFFER_SIZE));
+                    } else if (total > 1) {
+                        new Download(urlSuffix, mimeAccept, headers, channel, total).run();
+                    }
+                }
+                channel.force(false);
+            }
+            try {
+                Files.move(part, file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(part, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new ErrorRestClientException(e);
+        }
+        return file;
+    }
+
+    /**
+     * Executes one range request with retries of IO failures and server errors
+     * @param urlSuffix suffix url
+     * @param headers headers
+     * @param acceptor range acceptor
+     */
+    private void fetch(
+        final String urlSuffix,
+        final Map<String, String> headers,
+        final RangeRestResponseAcceptor acceptor
+    ) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                restClient.execute(
+                    "GET",
+                    urlSuffix,
+                    Long.class,
+                    acceptor,
+                    headers,
+                    RangeRestResponseAcceptor.PARTIAL_CONTENT_RESPONSE_CODE,
+                    200
+                );
+                return;
+            } catch (ErrorRestClientException e) {
+                if (attempt >= maxRetries) {
+                    throw e;
+                }
+            } catch (ErrorCodeRestClientException e) {
+                if (attempt >= maxRetries || e.getResponseCode() < SERVER_ERROR_RESPONSE_CODE) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * State of one segmented download
+     */
+    private class Download {
+
+        /** Suffix url */
+        private final String urlSuffix;
+
+        /** Mime accept */
+        private final String mimeAccept;
+
+        /** Headers */
+        private final Map<String, String> headers;
+
+        /** Output channel */
+        private final FileChannel channel;
+
+        /** Not started segments, each one is {start, end} */
+        private final Queue<long[]> segments = new ConcurrentLinkedQueue<>();
+
+        /** Count of started workers */
+        private final AtomicInteger workers = new AtomicInteger();
+
+        /** First failure */
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        /** Executor of workers */
+        private final ExecutorService executor;
+
+        /** Received bytes since the last adaptation */
+        private long receivedBytes;
+
+        /** Time of the last adaptation */
+        private long adaptedNanos = System.nanoTime();
+
+        /** Throughput at the last adaptation, bytes per second */
+        private double throughput;
+
+        /**
+         * Constructor
+         *
+         * @param urlSuffix suffix url
+         * @param mimeAccept mime accept
+         * @param headers headers
+         * @param channel output channel
+         * @param total total length of the file
+         */
+        Download(
+            final String urlSuffix,
+            final String mimeAccept,
+            final Map<String, String> headers,
+            final FileChannel channel,
+            final long total
+        ) {
+            this.urlSuffix = urlSuffix;
+            this.mimeAccept = mimeAccept;
+            this.headers = headers;
+            this.channel = channel;
+            this.executor = Executors.newFixedThreadPool(maxSegments, runnable -> {
+                Thread thread = new Thread(runnable, "segmented-download");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            // The first byte is received by the probe request
+            long remaining = total - 1;
+            long segmentSize = Math.max(minSegmentSize, remaining / ((long) maxSegments * SEGMENTS_PER_WORKER));
+            for (long start = 1; start < total; start += segmentSize) {
+                segments.add(new long[] {start, Math.min(total, start + segmentSize) - 1});
+            }
+        }
+
+        /**
+         * Runs the download and waits for its completion
+         * @throws IOException IO Exception
+         */
+        void run() throws IOException {
+            try {
+                synchronized (this) {
+                    for (int i = 0; i < initialSegments; i++) {
+                        startWorker();
+                    }
+                    while (workers.get() > 0) {
+                        wait();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("The download is interrupted", e);
+            } finally {
+                executor.shutdownNow();
+            }
+            RuntimeException e = failure.get();
+            if (nonNull(e)) {
+                throw e;
+            }
+        }
+
+        /**
+         * Starts a new worker if there are not started segments
+         */
+        private synchronized void startWorker() {
+            if (!segments.isEmpty() && workers.get() < maxSegments) {
+                workers.incrementAndGet();
+                executor.execute(this::work);
+            }
+        }
+
+        /**
+         * Worker loop, fetches segments until the queue is empty
+         */
+        private void work() {
+            try {
+                long[] segment;
+                while (failure.get() == null && (segment = segments.poll()) != null) {
+                    RangeRestResponseAcceptor acceptor =
+                        new RangeRestResponseAcceptor(mimeAccept, channel, BUFFER_SIZE, segment[0], segment[1]);
+                    fetch(urlSuffix, headers, acceptor);
+                    adapt(acceptor.getWritten());
+                }
+            } catch (RestClientException e) {
+                failure.compareAndSet(null, e);
+                segments.clear();
+            } finally {
+                synchronized (this) {
+                    workers.decrementAndGet();
+                    notifyAll();
+                }
+            }
+        }
+
+        /**
+         * Adds a worker while the observed throughput keeps growing
+         * @param bytes received bytes of the completed segment
+         */
+        private synchronized void adapt(final long bytes) {
+            receivedBytes += bytes;
+            long now = System.nanoTime();
+            long elapsed = Math.max(1L, now - adaptedNanos);
+            // Waits for each worker to complete a segment before the next measurement
+            if (receivedBytes < minSegmentSize * workers.get()) {
+                return;
+            }
+            double current = receivedBytes * 1_000_000_000.0 / elapsed;
+            if (current > throughput * THROUGHPUT_GROWTH_FACTOR) {
+                startWorker();
+            }
+            throughput = current;
+            receivedBytes = 0L;
+            adaptedNanos = now;
+        }
+    }
+}
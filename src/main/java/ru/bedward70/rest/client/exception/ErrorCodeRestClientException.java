@@ -24,9 +24,13 @@
  */
 package ru.bedward70.rest.client.exception;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 import java.util.function.Function;
 
+import static java.util.Objects.nonNull;
+
 public class ErrorCodeRestClientException extends RestClientException {
 
     /** Response code */
@@ -35,6 +39,17 @@ public class ErrorCodeRestClientException extends RestClientException {
     private final String responseMessage;
     /** Error stream bytes */
     private final byte[] errorStreamBytes;
+    /** The error stream is longer than errorStreamBytes */
+    private final boolean errorStreamTruncated;
+    /** Charset name of the error stream, a name keeps the exception serializable */
+    private final String errorStreamCharsetName;
+
+    /** Lazily decoded error stream */
+    private transient volatile String errorString;
+    /** Function of the cached error object, null if the error object is not calculated */
+    private transient Function<byte[], ?> errorObjectFunction;
+    /** Cached error object */
+    private transient Object errorObject;
 
     /**
      * Constructor
@@ -48,10 +63,33 @@ public class ErrorCodeRestClientException extends RestClientException {
         final String responseMessage,
         final byte[] errorStreamBytes
     ) {
-        super(responseCode + ", " + responseMessage);
+        this(responseCode, responseMessage, errorStreamBytes, false, StandardCharsets.UTF_8, true);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param responseCode response Code
+     * @param responseMessage response Message
+     * @param errorStreamBytes error stream bytes, may be a prefix of the error stream
+     * @param errorStreamTruncated true if the error stream is longer than errorStreamBytes
+     * @param errorStreamCharset charset of the error stream
+     * @param writableStackTrace false creates a lightweight exception without a stack trace
+     */
+    public ErrorCodeRestClientException(
+        final Integer responseCode,
+        final String responseMessage,
+        final byte[] errorStreamBytes,
+        final boolean errorStreamTruncated,
+        final Charset errorStreamCharset,
+        final boolean writableStackTrace
+    ) {
+        super(responseCode + ", " + responseMessage, writableStackTrace);
         this.responseCode = responseCode;
         this.responseMessage = responseMessage;
         this.errorStreamBytes = errorStreamBytes;
+        this.errorStreamTruncated = errorStreamTruncated;
+        this.errorStreamCharsetName = errorStreamCharset.name();
     }
 
     /**
@@ -76,12 +114,43 @@ public class ErrorCodeRestClientException extends RestClientException {
     }
 
     /**
-     * Returns error object
+     * @return true if the error stream is longer than the captured error stream bytes
+     */
+    public boolean isErrorStreamTruncated() {
+        return errorStreamTruncated;
+    }
+
+    /**
+     * Returns the error stream decoded with its charset, it is decoded on the first call
+     * @return decoded error stream or null
+     */
+    public String getErrorString() {
+        String result = errorString;
+        if (result == null && nonNull(errorStreamBytes)) {
+            result = new String(errorStreamBytes, Charset.forName(errorStreamCharsetName));
+            errorString = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns error object, the object of the last used function is cached
      * @param function transformation function
      * @return error object or null
      * @param <T> generic type
      */
+    @SuppressWarnings("unchecked")
     public <T> T getErrorObject(Function<byte[], T> function) {
-        return Optional.ofNullable(errorStreamBytes).map(function).orElse(null);
+        synchronized (this) {
+            if (nonNull(errorObjectFunction) && errorObjectFunction == function) {
+                return (T) errorObject;
+            }
+        }
+        T result = Optional.ofNullable(errorStreamBytes).map(function).orElse(null);
+        synchronized (this) {
+            errorObjectFunction = function;
+            errorObject = result;
+        }
+        return result;
     }
 }
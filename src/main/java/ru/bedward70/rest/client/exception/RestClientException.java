@@ -46,4 +46,24 @@ public abstract class RestClientException extends RuntimeException {
     public RestClientException(final Throwable cause) {
         super(cause);
     }
+
+    /**
+     * Constructor
+     *
+     * @param message message
+     * @param cause cause
+     */
+    public RestClientException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param message message
+     * @param writableStackTrace false creates a lightweight exception without a stack trace
+     */
+    protected RestClientException(final String message, final boolean writableStackTrace) {
+        super(message, null, true, writableStackTrace);
+    }
 }
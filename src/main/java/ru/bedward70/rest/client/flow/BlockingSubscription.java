@@ -0,0 +1,237 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.flow;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * A Flow.Subscription for a producer which reads blocking IO on its own thread.
+ * The producer thread waits for the subscriber demand before it reads and emits the next element,
+ * so nothing is read ahead of the demand and a slow subscriber slows the reading down.
+ * All signals to the subscriber are sent by the producer thread.
+ * @param <T> generic type of elements
+ */
+public class BlockingSubscription<T> implements Flow.Subscription {
+
+    /** Subscriber */
+    private final Flow.Subscriber<? super T> subscriber;
+
+    /** Lock */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Demand or cancellation condition */
+    private final Condition signalled = lock.newCondition();
+
+    /** Outstanding demand */
+    private long demand;
+
+    /** Cancelled flag */
+    private boolean cancelled;
+
+    /** Terminated flag, onComplete or onError was sent */
+    private boolean terminated;
+
+    /** Error of an illegal request, sent by the producer thread */
+    private IllegalArgumentException illegalRequest;
+
+    /**
+     * Constructor
+     *
+     * @param subscriber subscriber
+     */
+    public BlockingSubscription(final Flow.Subscriber<? super T> subscriber) {
+        this.subscriber = Objects.requireNonNull(subscriber, "subscriber");
+    }
+
+    /**
+     * Sends onSubscribe to the subscriber, must be called by the producer thread before other signals
+     */
+    public void start() {
+        subscriber.onSubscribe(this);
+    }
+
+    @Override
+    public void request(final long n) {
+        lock.lock();
+        try {
+            if (n <= 0) {
+                if (!cancelled && !terminated) {
+                    illegalRequest = new IllegalArgumentException("Non-positive request: " + n);
+                    cancelled = true;
+                }
+            } else {
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            }
+            signalled.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void cancel() {
+        lock.lock();
+        try {
+            cancelled = true;
+            signalled.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return true if the subscription is cancelled or terminated
+     */
+    public boolean isCancelled() {
+        lock.lock();
+        try {
+            return cancelled || terminated;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits for the subscriber demand
+     * @return true if there is demand, false if the subscription is cancelled
+     * @throws InterruptedException if the producer thread is interrupted
+     */
+    public boolean awaitDemand() throws InterruptedException {
+        lock.lock();
+        try {
+            while (demand == 0 && !cancelled && !terminated) {
+                signalled.await();
+            }
+            if (cancelled || terminated) {
+                sendIllegalRequest();
+                return false;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits the timeout unless the subscription is cancelled, it is used for delays between reconnects
+     * @param timeoutNanos timeout, nanoseconds
+     * @return true if the timeout passed, false if the subscription is cancelled
+     * @throws InterruptedException if the producer thread is interrupted
+     */
+    public boolean await(final long timeoutNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            long nanos = timeoutNanos;
+            while (nanos > 0 && !cancelled && !terminated) {
+                nanos = signalled.awaitNanos(nanos);
+            }
+            if (cancelled || terminated) {
+                sendIllegalRequest();
+                return false;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits for the demand and sends the element to the subscriber
+     * @param item element
+     * @return true if the element is sent, false if the subscription is cancelled
+     * @throws InterruptedException if the producer thread is interrupted
+     */
+    public boolean emit(final T item) throws InterruptedException {
+        if (!awaitDemand()) {
+            return false;
+        }
+        lock.lock();
+        try {
+            demand--;
+        } finally {
+            lock.unlock();
+        }
+        subscriber.onNext(item);
+        return true;
+    }
+
+    /**
+     * Sends onComplete to the subscriber unless the subscription is cancelled or terminated
+     */
+    public void complete() {
+        if (terminate()) {
+            subscriber.onComplete();
+        }
+    }
+
+    /**
+     * Sends onError to the subscriber unless the subscription is cancelled or terminated
+     * @param throwable error
+     */
+    public void error(final Throwable throwable) {
+        if (terminate()) {
+            subscriber.onError(throwable);
+        }
+    }
+
+    /**
+     * Marks the subscription terminated
+     * @return true if terminal signal should be sent
+     */
+    private boolean terminate() {
+        lock.lock();
+        try {
+            if (nonNull(illegalRequest)) {
+                sendIllegalRequest();
+                return false;
+            }
+            if (cancelled || terminated) {
+                return false;
+            }
+            terminated = true;
+            signalled.signalAll();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sends onError for an illegal request once, the lock is held by the producer thread
+     */
+    private void sendIllegalRequest() {
+        IllegalArgumentException error = illegalRequest;
+        if (nonNull(error) && !terminated) {
+            illegalRequest = null;
+            terminated = true;
+            subscriber.onError(error);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.flow;
+
+import ru.bedward70.rest.client.response.acceptor.RestResponseAcceptor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * The RestResponseAcceptor which sends the body to the subscription as ByteBuffer chunks,
+ * a chunk is read only when the subscriber has demand for it.
+ * Every chunk is a new buffer owned by the subscriber, the value of the response is the count of sent chunks.
+ */
+public class ByteBufferRestResponseAcceptor implements RestResponseAcceptor<Long> {
+
+    /** Default chunk size */
+    public static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+
+    /** Subscription */
+    private final BlockingSubscription<ByteBuffer> subscription;
+
+    /** Accept mime type, or null */
+    private final String mimeAccept;
+
+    /** Maximal chunk size */
+    private final int bufferSize;
+
+    /**
+     * Constructor
+     *
+     * @param subscription subscription
+     * @param mimeAccept accept mime type, or null
+     * @param bufferSize maximal chunk size
+     */
+    public ByteBufferRestResponseAcceptor(
+        final BlockingSubscription<ByteBuffer> subscription,
+        final String mimeAccept,
+        final int bufferSize
+    ) {
+        this.subscription = subscription;
+        this.mimeAccept = mimeAccept;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public void setAcceptProperty(final URLConnection con) {
+        if (nonNull(mimeAccept)) {
+            con.setRequestProperty(ACCEPT_HEADER_KEY, mimeAccept);
+        }
+    }
+
+    @Override
+    public Long readValue(final InputStream inputStream, final Class<Long> responseClazz) throws IOException {
+        long count = 0L;
+        try {
+            while (subscription.awaitDemand()) {
+                byte[] chunk = new byte[bufferSize];
+                int length = inputStream.read(chunk);
+                if (length < 0 || !subscription.emit(ByteBuffer.wrap(chunk, 0, length))) {
+                    break;
+                }
+                count++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the subscriber demand");
+        }
+        return count;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.flow;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import ru.bedward70.rest.client.response.acceptor.RestResponseAcceptor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URLConnection;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * The RestResponseAcceptor which decodes elements of a JSON array, or a sequence of root JSON values like NDJSON,
+ * and sends them to the subscription. The next element is parsed only when the subscriber has demand for it,
+ * so at most one parser buffer is read ahead. The value of the response is the count of sent elements.
+ * A null element, e.g. JSON {@code null}, fails the stream, as Reactive Streams forbids null elements.
+ * @param <T> generic type of elements
+ */
+public class JsonElementRestResponseAcceptor<T> implements RestResponseAcceptor<Long> {
+
+    /** Subscription */
+    private final BlockingSubscription<T> subscription;
+
+    /** Object mapper */
+    private final ObjectMapper objectMapper;
+
+    /** Element class */
+    private final Class<T> elementClazz;
+
+    /**
+     * Constructor
+     *
+     * @param subscription subscription
+     * @param objectMapper object mapper
+     * @param elementClazz element class
+     */
+    public JsonElementRestResponseAcceptor(
+        final BlockingSubscription<T> subscription,
+        final ObjectMapper objectMapper,
+        final Class<T> elementClazz
+    ) {
+        this.subscription = subscription;
+        this.objectMapper = objectMapper;
+        this.elementClazz = elementClazz;
+    }
+
+    @Override
+    public void setAcceptProperty(final URLConnection con) {
+        con.setRequestProperty(ACCEPT_HEADER_KEY, "application/json");
+    }
+
+    @Override
+    public Long readValue(final InputStream inputStream, final Class<Long> responseClazz) throws IOException {
+        long count = 0L;
+        try (JsonParser parser = objectMapper.createParser(inputStream)) {
+            if (!subscription.awaitDemand()) {
+                return count;
+            }
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (nonNull(token) && !(array && token == JsonToken.END_ARRAY)) {
+                T element = objectMapper.readValue(parser, elementClazz);
+                if (isNull(element)) {
+                    // Reactive Streams rule 2.13 forbids null elements
+                    throw MismatchedInputException.from(
+                        parser, elementClazz, "Null element " + count + " can not be sent to the subscriber"
+                    );
+                }
+                if (!subscription.emit(element)) {
+                    break;
+                }
+                count++;
+                if (!subscription.awaitDemand()) {
+                    break;
+                }
+                token = parser.nextToken();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the subscriber demand");
+        }
+        return count;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.flow;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.bedward70.rest.client.RestClient;
+import ru.bedward70.rest.client.response.acceptor.RestResponseAcceptor;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * A Flow.Publisher of decoded elements of a JSON array or NDJSON response body
+ * @param <T> generic type of elements
+ */
+public class JsonElementRestResponsePublisher<T> extends RestResponsePublisher<T> {
+
+    /** Object mapper */
+    private final ObjectMapper objectMapper;
+
+    /** Element class */
+    private final Class<T> elementClazz;
+
+    /**
+     * Constructor
+     *
+     * @param restClient rest client
+     * @param objectMapper object mapper
+     * @param elementClazz element class
+     * @param httpMethod http method
+     * @param urlSuffix url suffix
+     * @param headers headers
+     * @param executor executor of request tasks
+     * @param successfulResponseCodes array of successful HTTP codes
+     */
+    public JsonElementRestResponsePublisher(
+        final RestClient restClient,
+        final ObjectMapper objectMapper,
+        final Class<T> elementClazz,
+        final String httpMethod,
+        final String urlSuffix,
+        final Map<String, String> headers,
+        final Executor executor,
+        final Integer... successfulResponseCodes
+    ) {
+        super(restClient, httpMethod, urlSuffix, headers, executor, successfulResponseCodes);
+        this.objectMapper = objectMapper;
+        this.elementClazz = elementClazz;
+    }
+
+    @Override
+    protected RestResponseAcceptor<Long> createAcceptor(final BlockingSubscription<T> subscription) {
+        return new JsonElementRestResponseAcceptor<>(subscription, objectMapper, elementClazz);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.flow;
+
+import ru.bedward70.rest.client.RestClient;
+import ru.bedward70.rest.client.response.acceptor.RestResponseAcceptor;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A Flow.Publisher of a response body. Every subscriber gets its own request which is executed by a task
+ * of the executor when the first demand arrives, the acceptor reads the body only as the subscriber demand arrives,
+ * so a slow subscriber never makes the client buffer the whole body.
+ * The publisher completes at the end of the body and fails with the exception of the request.
+ * @param <T> generic type of elements
+ */
+public abstract class RestResponsePublisher<T> implements Flow.Publisher<T> {
+
+    /** Rest client */
+    private final RestClient restClient;
+
+    /** Http method */
+    private final String httpMethod;
+
+    /** Url suffix */
+    private final String urlSuffix;
+
+    /** Headers */
+    private final Map<String, String> headers;
+
+    /** Executor of request tasks */
+    private final Executor executor;
+
+    /** Successful response codes */
+    private final Integer[] successfulResponseCodes;
+
+    /**
+     * Constructor
+     *
+     * @param restClient rest client
+     * @param httpMethod http method
+     * @param urlSuffix url suffix
+     * @param headers headers
+     * @param executor executor of request tasks
+     * @param successfulResponseCodes array of successful HTTP codes
+     */
+    protected RestResponsePublisher(
+        final RestClient restClient,
+        final String httpMethod,
+        final String urlSuffix,
+        final Map<String, String> headers,
+        final Executor executor,
+        final Integer... successfulResponseCodes
+    ) {
+        this.restClient = restClient;
+        this.httpMethod = httpMethod;
+        this.urlSuffix = urlSuffix;
+        this.headers = headers;
+        this.executor = executor;
+        this.successfulResponseCodes = successfulResponseCodes;
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super T> subscriber) {
+        BlockingSubscription<T> subscription = new BlockingSubscription<>(subscriber);
+        try {
+            executor.execute(() -> run(subscription));
+        } catch (RejectedExecutionException e) {
+            subscription.start();
+            subscription.error(e);
+        }
+    }
+
+    /**
+     * Creates the acceptor which sends the body to the subscription
+     * @param subscription subscription
+     * @return acceptor, its value is the count of sent elements
+     */
+    protected abstract RestResponseAcceptor<Long> createAcceptor(BlockingSubscription<T> subscription);
+
+    /**
+     * Executes the request
+     * @param subscription subscription
+     */
+    private void run(final BlockingSubscription<T> subscription) {
+        subscription.start();
+        try {
+            // The request is not sent until the first demand
+            if (!subscription.awaitDemand()) {
+                return;
+            }
+            restClient.execute(
+                httpMethod,
+                urlSuffix,
+                Long.class,
+                createAcceptor(subscription),
+                headers,
+                successfulResponseCodes
+            );
+            subscription.complete();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            subscription.error(e);
+        } catch (RuntimeException e) {
+            subscription.error(e);
+        }
+    }
+}
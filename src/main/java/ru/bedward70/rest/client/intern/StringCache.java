@@ -0,0 +1,317 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.intern;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * A bounded, lock-striped canonicalizing cache of strings.
+ * <p>
+ * A string is looked up by its characters, e.g. by the text buffer of a JSON parser, so a repeated value
+ * is neither copied into a new String nor kept twice on the heap. The cache is split into stripes by the hash,
+ * each stripe is a set-associative table guarded by its own lock: a set keeps {@link #WAYS} strings and
+ * a miss in a full set evicts one of them in round-robin order, so the memory is bounded by the capacity.
+ * Strings longer than the maximal length are not cached, long values are rarely repeated.
+ */
+public class StringCache {
+
+    /** Default capacity */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    /** Default count of stripes */
+    public static final int DEFAULT_STRIPES = 16;
+
+    /** Default maximal length of a cached string */
+    public static final int DEFAULT_MAX_LENGTH = 64;
+
+    /** Count of strings in a set */
+    static final int WAYS = 4;
+
+    /** Stripes */
+    private final Stripe[] stripes;
+
+    /** Maximal length of a cached string */
+    private final int maxLength;
+
+    /** Count of strings which were not cached because of their length */
+    private final LongAdder bypasses = new LongAdder();
+
+    /**
+     * Constructor of a cache with the default capacity, stripes and maximal length
+     */
+    public StringCache() {
+        this(DEFAULT_CAPACITY, DEFAULT_STRIPES, DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param capacity maximal count of strings, it is rounded up to a power of two
+     * @param stripeCount count of stripes, it is rounded up to a power of two
+     * @param maxLength maximal length of a cached string
+     */
+    public StringCache(final int capacity, final int stripeCount, final int maxLength) {
+        if (capacity <= 0 || stripeCount <= 0 || maxLength < 0) {
+            throw new IllegalArgumentException(
+                "Invalid cache size: " + capacity + ", " + stripeCount + ", " + maxLength
+            );
+        }
+        int stripeSize = Math.max(WAYS, powerOfTwo(capacity) / powerOfTwo(stripeCount));
+        this.stripes = new Stripe[powerOfTwo(stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(stripeSize);
+        }
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Returns the canonical string of characters
+     * @param chars characters
+     * @param offset offset of the first character
+     * @param length count of characters
+     * @return cached string or a new one
+     */
+    public String intern(final char[] chars, final int offset, final int length) {
+        if (length > maxLength) {
+            bypasses.increment();
+            return new String(chars, offset, length);
+        }
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        hash ^= hash >>> 16;
+        Stripe stripe = stripes[hash & (stripes.length - 1)];
+        synchronized (stripe) {
+            int set = (hash >>> Integer.numberOfTrailingZeros(stripes.length)) & (stripe.values.length / WAYS - 1);
+            int first = set * WAYS;
+            for (int slot = first; slot < first + WAYS; slot++) {
+                char[] key = stripe.keys[slot];
+                if (nonNull(key) && stripe.hashes[slot] == hash
+                    && Arrays.equals(key, 0, key.length, chars, offset, offset + length)) {
+                    stripe.hits++;
+                    stripe.savedChars += length;
+                    return stripe.values[slot];
+                }
+            }
+            String value = new String(chars, offset, length);
+            int slot = first;
+            while (slot < first + WAYS && nonNull(stripe.values[slot])) {
+                slot++;
+            }
+            if (slot == first + WAYS) {
+                slot = first + (stripe.victims[set]++ & (WAYS - 1));
+                stripe.evictions++;
+            }
+            stripe.values[slot] = value;
+            stripe.keys[slot] = Arrays.copyOfRange(chars, offset, offset + length);
+            stripe.hashes[slot] = hash;
+            stripe.misses++;
+            return value;
+        }
+    }
+
+    /**
+     * Returns the canonical string of a value
+     * @param value value
+     * @return cached string, the value itself or null for null
+     */
+    public String intern(final String value) {
+        if (isNull(value)) {
+            return null;
+        }
+        if (value.length() > maxLength) {
+            bypasses.increment();
+            return value;
+        }
+        char[] chars = value.toCharArray();
+        return intern(chars, 0, chars.length);
+    }
+
+    /**
+     * Removes all cached strings, the metrics are kept
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Arrays.fill(stripe.values, null);
+                Arrays.fill(stripe.keys, null);
+            }
+        }
+    }
+
+    /**
+     * @return count of cached strings
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (String value : stripe.values) {
+                    if (nonNull(value)) {
+                        size++;
+                    }
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return maximal count of strings
+     */
+    public int getCapacity() {
+        return stripes.length * stripes[0].values.length;
+    }
+
+    /**
+     * @return maximal length of a cached string
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * @return count of lookups which returned a cached string
+     */
+    public long getHits() {
+        long sum = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                sum += stripe.hits;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * @return count of lookups which created a cached string
+     */
+    public long getMisses() {
+        long sum = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                sum += stripe.misses;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * @return count of strings which were not cached because of their length
+     */
+    public long getBypasses() {
+        return bypasses.sum();
+    }
+
+    /**
+     * @return count of evicted strings
+     */
+    public long getEvictions() {
+        long sum = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                sum += stripe.evictions;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * @return count of characters which were not copied into new strings because of hits
+     */
+    public long getSavedChars() {
+        long sum = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                sum += stripe.savedChars;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * @return ratio of strings which were shared instead of created, 0 if there were no strings
+     */
+    public double getDedupRatio() {
+        long hitCount = getHits();
+        long total = hitCount + getMisses() + bypasses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return "StringCache{hits=" + getHits()
+            + ", misses=" + getMisses()
+            + ", bypasses=" + getBypasses()
+            + ", evictions=" + getEvictions()
+            + ", dedupRatio=" + getDedupRatio() + "}";
+    }
+
+    private static int powerOfTwo(final int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    /**
+     * Stripe of the cache, it is its own lock and guards its counters
+     */
+    private static final class Stripe {
+
+        /** Strings by slot */
+        final String[] values;
+
+        /** Characters of the strings by slot, they are compared with the looked up characters */
+        final char[][] keys;
+
+        /** Hashes by slot */
+        final int[] hashes;
+
+        /** Next victims by set */
+        final int[] victims;
+
+        /** Count of lookups which returned a cached string */
+        long hits;
+
+        /** Count of lookups which created a cached string */
+        long misses;
+
+        /** Count of evicted strings */
+        long evictions;
+
+        /** Count of characters which were not copied into new strings because of hits */
+        long savedChars;
+
+        Stripe(final int size) {
+            this.values = new String[size];
+            this.keys = new char[size][];
+            this.hashes = new int[size];
+            this.victims = new int[size / WAYS];
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.intern;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * Jackson module which registers a {@link StringCacheDeserializer}, so String properties, elements of collections
+ * and arrays, and the strings of untyped values (Object, Map of Object) are canonicalized by a {@link StringCache}
+ */
+public class StringCacheModule extends SimpleModule {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Cache */
+    private final transient StringCache cache;
+
+    /**
+     * Constructor
+     *
+     * @param cache cache
+     */
+    public StringCacheModule(final StringCache cache) {
+        super(StringCacheModule.class.getSimpleName());
+        this.cache = cache;
+        addDeserializer(String.class, new StringCacheDeserializer(cache));
+    }
+
+    /**
+     * @return cache
+     */
+    public StringCache getCache() {
+        return cache;
+    }
+}
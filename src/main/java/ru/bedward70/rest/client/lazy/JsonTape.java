@@ -0,0 +1,270 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.lazy;
+
+import com.fasterxml.jackson.core.JsonParseException;
+
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Structural index of a JSON document.
+ * <p>
+ * One pass over the bytes records every token in parallel arrays: its type, the byte range and,
+ * for objects and arrays, the tape index after the last child, so a lookup skips whole subtrees.
+ * Object keys are entries followed by the entry of their value. Strings are located but not decoded,
+ * numbers and literals are not parsed. Only the nesting is validated, values are validated when decoded.
+ */
+final class JsonTape {
+
+    /** Object, the range includes the braces */
+    static final byte OBJECT = 1;
+
+    /** Array, the range includes the brackets */
+    static final byte ARRAY = 2;
+
+    /** Object key without escapes, the range excludes the quotes */
+    static final byte KEY = 3;
+
+    /** Object key with escapes, the range excludes the quotes */
+    static final byte ESCAPED_KEY = 4;
+
+    /** String without escapes, the range excludes the quotes */
+    static final byte STRING = 5;
+
+    /** String with escapes, the range excludes the quotes */
+    static final byte ESCAPED_STRING = 6;
+
+    /** Number */
+    static final byte NUMBER = 7;
+
+    /** true */
+    static final byte TRUE = 8;
+
+    /** false */
+    static final byte FALSE = 9;
+
+    /** null */
+    static final byte NULL = 10;
+
+    /** Initial depth of the container stack */
+    private static final int INITIAL_DEPTH = 32;
+
+    /** Token types */
+    private byte[] types;
+
+    /** Start offsets */
+    private int[] starts;
+
+    /** End offsets, exclusive */
+    private int[] ends;
+
+    /** Tape indexes after the entry and its children */
+    private int[] skips;
+
+    /** Count of entries */
+    private int size;
+
+    private JsonTape(final int capacity) {
+        this.types = new byte[capacity];
+        this.starts = new int[capacity];
+        this.ends = new int[capacity];
+        this.skips = new int[capacity];
+    }
+
+    /**
+     * Indexes the bytes
+     * @param bytes bytes
+     * @param length length of the document
+     * @return tape, its entry 0 is the root value
+     * @throws UncheckedIOException with a JsonParseException if the structure is malformed
+     */
+    static JsonTape build(final byte[] bytes, final int length) {
+        // About one token per 8 bytes of a typical pretty or compact document
+        JsonTape tape = new JsonTape(Math.max(16, length >> 3));
+        int[] stack = new int[INITIAL_DEPTH];
+        int depth = 0;
+        int p = 0;
+        while (p < length) {
+            byte c = bytes[p];
+            switch (c) {
+                case ' ':
+                case '\t':
+                case '\n':
+                case '\r':
+                case ',':
+                case ':':
+                    p++;
+                    break;
+                case '{':
+                case '[':
+                    if (depth == 0 && tape.size > 0) {
+                        throw error("Unexpected value after the root value", p);
+                    }
+                    if (depth == stack.length) {
+                        stack = Arrays.copyOf(stack, depth * 2);
+                    }
+                    stack[depth++] = tape.add(c == '{' ? OBJECT : ARRAY, p, p);
+                    p++;
+                    break;
+                case '}':
+                case ']':
+                    if (depth == 0 || tape.types[stack[depth - 1]] != (c == '}' ? OBJECT : ARRAY)) {
+                        throw error("Unexpected '" + (char) c + "'", p);
+                    }
+                    int container = stack[--depth];
+                    tape.ends[container] = ++p;
+                    tape.skips[container] = tape.size;
+                    break;
+                case '"':
+                    if (depth == 0 && tape.size > 0) {
+                        throw error("Unexpected value after the root value", p);
+                    }
+                    p = tape.addString(bytes, length, p, depth > 0 && tape.types[stack[depth - 1]] == OBJECT);
+                    break;
+                default:
+                    if (depth == 0 && tape.size > 0) {
+                        throw error("Unexpected value after the root value", p);
+                    }
+                    p = tape.addScalar(bytes, length, p);
+                    break;
+            }
+        }
+        if (depth > 0) {
+            throw error("Unexpected end of the document in an unclosed container", length);
+        }
+        if (tape.size == 0) {
+            throw error("No content", 0);
+        }
+        return tape;
+    }
+
+    byte getType(final int index) {
+        return types[index];
+    }
+
+    int getStart(final int index) {
+        return starts[index];
+    }
+
+    int getEnd(final int index) {
+        return ends[index];
+    }
+
+    int getSkip(final int index) {
+        return skips[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int add(final byte type, final int start, final int end) {
+        if (size == types.length) {
+            int capacity = size + (size >> 1);
+            types = Arrays.copyOf(types, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            skips = Arrays.copyOf(skips, capacity);
+        }
+        types[size] = type;
+        starts[size] = start;
+        ends[size] = end;
+        skips[size] = size + 1;
+        return size++;
+    }
+
+    private int addString(final byte[] bytes, final int length, final int quote, final boolean inObject) {
+        boolean escaped = false;
+        int p = quote + 1;
+        while (p < length && bytes[p] != '"') {
+            if (bytes[p] == '\\') {
+                escaped = true;
+                p++;
+            }
+            p++;
+        }
+        if (p >= length) {
+            throw error("Unterminated string", quote);
+        }
+        int next = p + 1;
+        boolean key = false;
+        if (inObject) {
+            int q = next;
+            while (q < length && isWhitespace(bytes[q])) {
+                q++;
+            }
+            key = q < length && bytes[q] == ':';
+        }
+        add(key ? (escaped ? ESCAPED_KEY : KEY) : (escaped ? ESCAPED_STRING : STRING), quote + 1, p);
+        return next;
+    }
+
+    private int addScalar(final byte[] bytes, final int length, final int start) {
+        int p = start;
+        while (p < length && !isDelimiter(bytes[p])) {
+            p++;
+        }
+        byte type;
+        byte c = bytes[start];
+        if (c == '-' || (c >= '0' && c <= '9')) {
+            type = NUMBER;
+        } else if (c == 't' && equals(bytes, start, p, "true")) {
+            type = TRUE;
+        } else if (c == 'f' && equals(bytes, start, p, "false")) {
+            type = FALSE;
+        } else if (c == 'n' && equals(bytes, start, p, "null")) {
+            type = NULL;
+        } else {
+            throw error("Unexpected token '" + new String(bytes, start, Math.min(p - start, 32)) + "'", start);
+        }
+        add(type, start, p);
+        return p;
+    }
+
+    private static boolean equals(final byte[] bytes, final int start, final int end, final String literal) {
+        if (end - start != literal.length()) {
+            return false;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (bytes[start + i] != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWhitespace(final byte c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+
+    private static boolean isDelimiter(final byte c) {
+        return isWhitespace(c) || c == ',' || c == ':' || c == ']' || c == '}' || c == '[' || c == '{' || c == '"';
+    }
+
+    static UncheckedIOException error(final String message, final int offset) {
+        return new UncheckedIOException(new JsonParseException(null, message + " at the offset " + offset));
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.lazy;
+
+import ru.bedward70.rest.client.buffer.BufferPool;
+
+import java.io.Closeable;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Raw JSON bytes with a lazily built structural index.
+ * <p>
+ * Nothing is parsed until the first access, then {@link JsonTape} indexes the structure in one pass
+ * and values are decoded only when they are read, e.g. {@code document.at("/stats/0/count").asLong()}.
+ * A document read into a pooled buffer has to be closed, values can not be read after that.
+ */
+public class LazyJsonDocument implements Closeable {
+
+    /** Bytes, the array may be larger than the document */
+    private final byte[] bytes;
+
+    /** Length of the document */
+    private final int length;
+
+    /** Pool of the bytes or null */
+    private final BufferPool pool;
+
+    /** Index, null until the first access */
+    private volatile JsonTape tape;
+
+    /** Closed flag */
+    private volatile boolean closed;
+
+    /**
+     * Constructor
+     *
+     * @param bytes bytes
+     */
+    public LazyJsonDocument(final byte[] bytes) {
+        this(bytes, bytes.length, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param bytes bytes, the array may be larger than the document
+     * @param length length of the document
+     * @param pool pool which the bytes are released to on close, or null
+     */
+    public LazyJsonDocument(final byte[] bytes, final int length, final BufferPool pool) {
+        if (length < 0 || length > bytes.length) {
+            throw new IllegalArgumentException("Illegal length " + length + " of " + bytes.length + " bytes");
+        }
+        this.bytes = bytes;
+        this.length = length;
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the root value, the first call indexes the document
+     * @return root value
+     * @throws java.io.UncheckedIOException with a JsonParseException if the structure is malformed
+     */
+    public LazyJsonValue getRoot() {
+        getTape();
+        return new LazyJsonValue(this, 0);
+    }
+
+    /**
+     * Returns the value of a JSON Pointer (RFC 6901)
+     * @param pointer pointer, e.g. "/items/0/name", "" is the root
+     * @return value, a missing one if the pointer does not match
+     */
+    public LazyJsonValue at(final String pointer) {
+        return getRoot().at(pointer);
+    }
+
+    /**
+     * @return length of the document in bytes
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * @return true if the index is built
+     */
+    public boolean isIndexed() {
+        return nonNull(tape);
+    }
+
+    /**
+     * Releases pooled bytes
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            if (nonNull(pool)) {
+                pool.release(bytes);
+            }
+        }
+    }
+
+    /**
+     * Returns the bytes
+     * @return bytes
+     * @throws IllegalStateException if the document is closed
+     */
+    byte[] getBytes() {
+        if (closed) {
+            throw new IllegalStateException("The document is closed");
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the index, builds it on the first call
+     * @return index
+     */
+    JsonTape getTape() {
+        JsonTape result = tape;
+        if (isNull(result)) {
+            synchronized (this) {
+                result = tape;
+                if (isNull(result)) {
+                    result = JsonTape.build(getBytes(), length);
+                    tape = result;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.lazy;
+
+import ru.bedward70.rest.client.buffer.BufferPool;
+import ru.bedward70.rest.client.response.acceptor.ContextRestResponseAcceptor;
+import ru.bedward70.rest.client.response.acceptor.ResponseBodyReader;
+import ru.bedward70.rest.client.response.acceptor.RestResponseContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.util.Arrays;
+
+/**
+ * Lazy JSON implementation of RestResponseAcceptor.
+ * <p>
+ * The body is kept as raw bytes in a {@link LazyJsonDocument} and is not parsed by the acceptor.
+ * A body which fits a buffer of the pool is read into a pooled buffer, the document has to be closed to release it.
+ * A larger body grows a heap array which is left to the garbage collector, as data arrives rather than
+ * by the content length header, see {@link ResponseBodyReader#readRemaining}.
+ */
+public class LazyJsonRestResponseAcceptor implements ContextRestResponseAcceptor<LazyJsonDocument> {
+
+    /** Mime accept */
+    private static final String MIME_ACCEPT = "application/json";
+
+    /** Buffer pool */
+    private final BufferPool pool;
+
+    /**
+     * Constructor, uses the default buffer pool
+     */
+    public LazyJsonRestResponseAcceptor() {
+        this(BufferPool.getDefault());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param pool buffer pool
+     */
+    public LazyJsonRestResponseAcceptor(final BufferPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void setAcceptProperty(final URLConnection con) {
+        con.setRequestProperty(ACCEPT_HEADER_KEY, MIME_ACCEPT);
+    }
+
+    @Override
+    public LazyJsonDocument readValue(
+        final InputStream inputStream,
+        final Class<LazyJsonDocument> responseClazz
+    ) throws IOException {
+        return read(inputStream, RestResponseContext.UNKNOWN);
+    }
+
+    @Override
+    public LazyJsonDocument readValue(
+        final InputStream inputStream,
+        final Class<LazyJsonDocument> responseClazz,
+        final RestResponseContext context
+    ) throws IOException {
+        return read(inputStream, context.getContentLength());
+    }
+
+    private LazyJsonDocument read(final InputStream inputStream, final long contentLength) throws IOException {
+        if (contentLength > pool.getBufferSize()) {
+            // The header is not trusted, the array starts at the buffer size and grows as data arrives
+            return toDocument(ResponseBodyReader.readRemaining(
+                inputStream, new byte[pool.getBufferSize()], 0, contentLength
+            ));
+        }
+
+        byte[] buffer = pool.acquire();
+        boolean release = true;
+        try {
+            int length = inputStream.readNBytes(buffer, 0, buffer.length);
+            int next = length == buffer.length ? inputStream.read() : -1;
+            if (next < 0) {
+                if (contentLength >= 0 && length != contentLength) {
+                    throw new IOException(
+                        "Truncated response: " + length + " of " + contentLength + " bytes received"
+                    );
+                }
+                release = false;
+                return new LazyJsonDocument(buffer, length, pool);
+            }
+            // The body is larger than a pooled buffer
+            byte[] bytes = Arrays.copyOf(buffer, 2 * buffer.length);
+            bytes[length++] = (byte) next;
+            return toDocument(ResponseBodyReader.readRemaining(inputStream, bytes, length, contentLength));
+        } finally {
+            if (release) {
+                pool.release(buffer);
+            }
+        }
+    }
+
+    private static LazyJsonDocument toDocument(final ResponseBodyReader.Body body) {
+        return new LazyJsonDocument(body.getBytes(), body.getLength(), null);
+    }
+}
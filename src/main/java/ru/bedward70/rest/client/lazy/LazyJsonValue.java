@@ -0,0 +1,527 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.lazy;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeType;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static ru.bedward70.rest.client.lazy.JsonTape.ARRAY;
+import static ru.bedward70.rest.client.lazy.JsonTape.ESCAPED_KEY;
+import static ru.bedward70.rest.client.lazy.JsonTape.ESCAPED_STRING;
+import static ru.bedward70.rest.client.lazy.JsonTape.FALSE;
+import static ru.bedward70.rest.client.lazy.JsonTape.KEY;
+import static ru.bedward70.rest.client.lazy.JsonTape.NULL;
+import static ru.bedward70.rest.client.lazy.JsonTape.NUMBER;
+import static ru.bedward70.rest.client.lazy.JsonTape.OBJECT;
+import static ru.bedward70.rest.client.lazy.JsonTape.STRING;
+import static ru.bedward70.rest.client.lazy.JsonTape.TRUE;
+
+/**
+ * A value of a {@link LazyJsonDocument}, a position in its index.
+ * <p>
+ * Navigation skips subtrees by the index without decoding them, scalars are decoded by the as-methods
+ * with the conversions of JsonNode, e.g. asLong() of a missing value is 0.
+ * A subtree can be bound by an ObjectMapper without binding the rest of the document.
+ */
+public class LazyJsonValue {
+
+    /** Index of a missing value */
+    private static final int MISSING = -1;
+
+    /** Maximal count of digits of a long parsed without overflow checks */
+    private static final int MAX_FAST_DIGITS = 18;
+
+    /** Document */
+    private final LazyJsonDocument document;
+
+    /** Index in the tape or MISSING */
+    private final int index;
+
+    /**
+     * Constructor
+     *
+     * @param document document
+     * @param index index in the tape or MISSING
+     */
+    LazyJsonValue(final LazyJsonDocument document, final int index) {
+        this.document = document;
+        this.index = index;
+    }
+
+    /**
+     * @return node type, MISSING for a not existing value
+     */
+    public JsonNodeType getNodeType() {
+        if (index == MISSING) {
+            return JsonNodeType.MISSING;
+        }
+        switch (type()) {
+            case OBJECT:
+                return JsonNodeType.OBJECT;
+            case ARRAY:
+                return JsonNodeType.ARRAY;
+            case STRING:
+            case ESCAPED_STRING:
+                return JsonNodeType.STRING;
+            case NUMBER:
+                return JsonNodeType.NUMBER;
+            case TRUE:
+            case FALSE:
+                return JsonNodeType.BOOLEAN;
+            default:
+                return JsonNodeType.NULL;
+        }
+    }
+
+    /**
+     * @return true if the value does not exist
+     */
+    public boolean isMissing() {
+        return index == MISSING;
+    }
+
+    /**
+     * @return true if the value is null
+     */
+    public boolean isNull() {
+        return index != MISSING && type() == NULL;
+    }
+
+    /**
+     * Returns a field of an object
+     * @param name field name
+     * @return value, a missing one if the value is not an object or has no the field
+     */
+    public LazyJsonValue get(final String name) {
+        if (index == MISSING) {
+            return this;
+        }
+        JsonTape tape = document.getTape();
+        if (tape.getType(index) != OBJECT) {
+            return missing();
+        }
+        byte[] bytes = document.getBytes();
+        for (int key = index + 1, end = tape.getSkip(index); key < end; key = tape.getSkip(key + 1)) {
+            byte keyType = tape.getType(key);
+            boolean matches;
+            if (keyType == KEY) {
+                matches = keyEquals(bytes, tape.getStart(key), tape.getEnd(key), name);
+            } else if (keyType == ESCAPED_KEY) {
+                matches = decodeString(bytes, tape, key).equals(name);
+            } else {
+                throw JsonTape.error("Expected a field name", tape.getStart(key));
+            }
+            if (matches) {
+                return new LazyJsonValue(document, key + 1);
+            }
+        }
+        return missing();
+    }
+
+    /**
+     * Returns an element of an array
+     * @param position element position
+     * @return value, a missing one if the value is not an array or has no the element
+     */
+    public LazyJsonValue get(final int position) {
+        if (index == MISSING) {
+            return this;
+        }
+        JsonTape tape = document.getTape();
+        if (tape.getType(index) != ARRAY || position < 0) {
+            return missing();
+        }
+        int element = index + 1;
+        int end = tape.getSkip(index);
+        for (int i = 0; i < position && element < end; i++) {
+            element = tape.getSkip(element);
+        }
+        return element < end ? new LazyJsonValue(document, element) : missing();
+    }
+
+    /**
+     * Returns the value of a JSON Pointer (RFC 6901) relative to this value
+     * @param pointer pointer, e.g. "/items/0/name", "" is this value
+     * @return value, a missing one if the pointer does not match
+     */
+    public LazyJsonValue at(final String pointer) {
+        if (pointer.isEmpty()) {
+            return this;
+        }
+        if (pointer.charAt(0) != '/') {
+            throw new IllegalArgumentException("Invalid JSON Pointer: " + pointer);
+        }
+        LazyJsonValue value = this;
+        int start = 1;
+        while (!value.isMissing()) {
+            int slash = pointer.indexOf('/', start);
+            String token = pointer.substring(start, slash < 0 ? pointer.length() : slash);
+            if (token.indexOf('~') >= 0) {
+                token = token.replace("~1", "/").replace("~0", "~");
+            }
+            int position = value.type() == ARRAY ? parseIndex(token) : MISSING;
+            value = position >= 0 ? value.get(position) : value.get(token);
+            if (slash < 0) {
+                break;
+            }
+            start = slash + 1;
+        }
+        return value;
+    }
+
+    /**
+     * @return count of fields of an object or elements of an array, otherwise 0
+     */
+    public int size() {
+        if (index == MISSING) {
+            return 0;
+        }
+        JsonTape tape = document.getTape();
+        byte type = tape.getType(index);
+        if (type != OBJECT && type != ARRAY) {
+            return 0;
+        }
+        int count = 0;
+        for (int child = index + 1, end = tape.getSkip(index); child < end; child = tape.getSkip(child)) {
+            count++;
+            if (type == OBJECT) {
+                child++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return field names of an object, otherwise an empty list
+     */
+    public List<String> getFieldNames() {
+        List<String> result = new ArrayList<>();
+        if (index != MISSING && type() == OBJECT) {
+            JsonTape tape = document.getTape();
+            byte[] bytes = document.getBytes();
+            for (int key = index + 1, end = tape.getSkip(index); key < end; key = tape.getSkip(key + 1)) {
+                result.add(decodeString(bytes, tape, key));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return elements of an array, otherwise an empty list
+     */
+    public List<LazyJsonValue> getElements() {
+        List<LazyJsonValue> result = new ArrayList<>();
+        if (index != MISSING && type() == ARRAY) {
+            JsonTape tape = document.getTape();
+            for (int element = index + 1, end = tape.getSkip(index); element < end; element = tape.getSkip(element)) {
+                result.add(new LazyJsonValue(document, element));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return decoded string, the text of a number, boolean or null, otherwise ""
+     */
+    public String asText() {
+        if (index == MISSING) {
+            return "";
+        }
+        JsonTape tape = document.getTape();
+        switch (tape.getType(index)) {
+            case OBJECT:
+            case ARRAY:
+                return "";
+            case STRING:
+            case ESCAPED_STRING:
+                return decodeString(document.getBytes(), tape, index);
+            default:
+                return raw(tape);
+        }
+    }
+
+    /**
+     * @return long value of a number (truncated), a numeric string or a boolean, otherwise 0
+     */
+    public long asLong() {
+        if (index == MISSING) {
+            return 0L;
+        }
+        JsonTape tape = document.getTape();
+        switch (tape.getType(index)) {
+            case NUMBER:
+                return parseLong(document.getBytes(), tape.getStart(index), tape.getEnd(index));
+            case STRING:
+            case ESCAPED_STRING:
+                try {
+                    return new BigDecimal(asText().trim()).longValue();
+                } catch (NumberFormatException e) {
+                    return 0L;
+                }
+            case TRUE:
+                return 1L;
+            default:
+                return 0L;
+        }
+    }
+
+    /**
+     * @return int value, see asLong()
+     */
+    public int asInt() {
+        return (int) asLong();
+    }
+
+    /**
+     * @return double value of a number, a numeric string or a boolean, otherwise 0.0
+     */
+    public double asDouble() {
+        if (index == MISSING) {
+            return 0.0;
+        }
+        JsonTape tape = document.getTape();
+        switch (tape.getType(index)) {
+            case NUMBER:
+                try {
+                    return Double.parseDouble(raw(tape));
+                } catch (NumberFormatException e) {
+                    throw JsonTape.error("Malformed number", tape.getStart(index));
+                }
+            case STRING:
+            case ESCAPED_STRING:
+                try {
+                    return Double.parseDouble(asText().trim());
+                } catch (NumberFormatException e) {
+                    return 0.0;
+                }
+            case TRUE:
+                return 1.0;
+            default:
+                return 0.0;
+        }
+    }
+
+    /**
+     * @return true for true, the "true" string or a non-zero number, otherwise false
+     */
+    public boolean asBoolean() {
+        if (index == MISSING) {
+            return false;
+        }
+        switch (type()) {
+            case TRUE:
+                return true;
+            case STRING:
+            case ESCAPED_STRING:
+                return "true".equals(asText().trim());
+            case NUMBER:
+                return asDouble() != 0.0;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Binds the subtree of the value
+     * @param objectMapper object mapper
+     * @param clazz class
+     * @return value or null if the value is missing
+     * @param <T> generic type
+     * @throws IOException IO Exception
+     */
+    public <T> T readValue(final ObjectMapper objectMapper, final Class<T> clazz) throws IOException {
+        if (index == MISSING) {
+            return null;
+        }
+        JsonTape tape = document.getTape();
+        int start = rawStart(tape);
+        return objectMapper.readValue(document.getBytes(), start, rawEnd(tape) - start, clazz);
+    }
+
+    /**
+     * Builds the tree of the value
+     * @param objectMapper object mapper
+     * @return tree, MissingNode if the value is missing
+     * @throws IOException IO Exception
+     */
+    public JsonNode toJsonNode(final ObjectMapper objectMapper) throws IOException {
+        if (index == MISSING) {
+            return MissingNode.getInstance();
+        }
+        JsonTape tape = document.getTape();
+        int start = rawStart(tape);
+        return objectMapper.readTree(document.getBytes(), start, rawEnd(tape) - start);
+    }
+
+    /**
+     * @return raw JSON of the value, "" if it is missing
+     */
+    @Override
+    public String toString() {
+        return index == MISSING ? "" : raw(document.getTape());
+    }
+
+    private byte type() {
+        return document.getTape().getType(index);
+    }
+
+    private LazyJsonValue missing() {
+        return new LazyJsonValue(document, MISSING);
+    }
+
+    private String raw(final JsonTape tape) {
+        int start = rawStart(tape);
+        return new String(document.getBytes(), start, rawEnd(tape) - start, StandardCharsets.UTF_8);
+    }
+
+    private int rawStart(final JsonTape tape) {
+        byte type = tape.getType(index);
+        return tape.getStart(index) - (type == STRING || type == ESCAPED_STRING ? 1 : 0);
+    }
+
+    private int rawEnd(final JsonTape tape) {
+        byte type = tape.getType(index);
+        return tape.getEnd(index) + (type == STRING || type == ESCAPED_STRING ? 1 : 0);
+    }
+
+    private static int parseIndex(final String token) {
+        if (token.isEmpty() || token.length() > 9 || (token.length() > 1 && token.charAt(0) == '0')) {
+            return MISSING;
+        }
+        int result = 0;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c < '0' || c > '9') {
+                return MISSING;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static boolean keyEquals(final byte[] bytes, final int start, final int end, final String name) {
+        int length = name.length();
+        for (int i = 0; i < length; i++) {
+            char c = name.charAt(i);
+            if (c >= 0x80) {
+                return new String(bytes, start, end - start, StandardCharsets.UTF_8).equals(name);
+            }
+            if (start + i >= end || bytes[start + i] != c) {
+                return false;
+            }
+        }
+        return end - start == length;
+    }
+
+    private static long parseLong(final byte[] bytes, final int start, final int end) {
+        int p = start;
+        boolean negative = p < end && bytes[p] == '-';
+        if (negative) {
+            p++;
+        }
+        if (end - p > 0 && end - p <= MAX_FAST_DIGITS) {
+            long result = 0L;
+            for (; p < end; p++) {
+                int digit = bytes[p] - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                result = result * 10 + digit;
+            }
+            if (p == end) {
+                return negative ? -result : result;
+            }
+        }
+        // A fraction, an exponent or a long number
+        try {
+            return new BigDecimal(new String(bytes, start, end - start, StandardCharsets.ISO_8859_1)).longValue();
+        } catch (NumberFormatException e) {
+            throw JsonTape.error("Malformed number", start);
+        }
+    }
+
+    private static String decodeString(final byte[] bytes, final JsonTape tape, final int index) {
+        int start = tape.getStart(index);
+        String s = new String(bytes, start, tape.getEnd(index) - start, StandardCharsets.UTF_8);
+        byte type = tape.getType(index);
+        return type == ESCAPED_STRING || type == ESCAPED_KEY ? unescape(s, start) : s;
+    }
+
+    private static String unescape(final String s, final int offset) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            char e = ++i < s.length() ? s.charAt(i) : 0;
+            switch (e) {
+                case '"':
+                case '\\':
+                case '/':
+                    sb.append(e);
+                    break;
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'u':
+                    if (i + 4 >= s.length()) {
+                        throw JsonTape.error("Malformed unicode escape", offset);
+                    }
+                    try {
+                        sb.append((char) Integer.parseInt(s.substring(i + 1, i + 5), 16));
+                    } catch (NumberFormatException ex) {
+                        throw JsonTape.error("Malformed unicode escape", offset);
+                    }
+                    i += 4;
+                    break;
+                default:
+                    throw JsonTape.error("Unrecognized escape '\\" + e + "'", offset);
+            }
+        }
+        return sb.toString();
+    }
+}
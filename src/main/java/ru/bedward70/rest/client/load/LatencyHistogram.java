@@ -0,0 +1,159 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.load;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear latency histogram in the spirit of HdrHistogram.
+ * Values are grouped by powers of two, every group is split into 1024 linear sub-buckets,
+ * so a recorded value keeps about 0.1% precision over the whole long range.
+ */
+public class LatencyHistogram {
+
+    /** Bits of the linear part */
+    private static final int SUB_BUCKET_BITS = 11;
+
+    /** Values below it are recorded exactly */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /** Sub-buckets of every power of two above SUB_BUCKET_COUNT */
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+
+    /** Counts by index */
+    private final AtomicLongArray counts = new AtomicLongArray(indexOf(Long.MAX_VALUE) + 1);
+
+    /** Total count */
+    private final LongAdder totalCount = new LongAdder();
+
+    /** Sum of values */
+    private final LongAdder totalSum = new LongAdder();
+
+    /** Max value */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a value
+     * @param value non-negative value
+     */
+    public void recordValue(final long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+        counts.incrementAndGet(indexOf(value));
+        totalCount.increment();
+        totalSum.add(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Records a value and backfills the values a closed-loop client did not send while it waited,
+     * correcting the coordinated omission
+     * @param value non-negative value
+     * @param expectedInterval expected interval between requests, 0 - no correction
+     */
+    public void recordValueWithExpectedInterval(final long value, final long expectedInterval) {
+        recordValue(value);
+        if (expectedInterval <= 0) {
+            return;
+        }
+        for (long missing = value - expectedInterval; missing >= expectedInterval; missing -= expectedInterval) {
+            recordValue(missing);
+        }
+    }
+
+    /**
+     * Adds all values of other histogram
+     * @param other other histogram
+     */
+    public void add(final LatencyHistogram other) {
+        for (int i = 0; i < counts.length(); i++) {
+            long count = other.counts.get(i);
+            if (count > 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        totalCount.add(other.getTotalCount());
+        totalSum.add(other.totalSum.sum());
+        max.accumulateAndGet(other.getMax(), Math::max);
+    }
+
+    public long getTotalCount() {
+        return totalCount.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns mean of the recorded values
+     * @return mean or 0 for an empty histogram
+     */
+    public double getMean() {
+        long count = getTotalCount();
+        return count == 0 ? 0.0 : (double) totalSum.sum() / count;
+    }
+
+    /**
+     * Returns the value at a percentile
+     * @param percentile percentile from 0 to 100
+     * @return highest value equivalent to the recorded one at the percentile, 0 for an empty histogram
+     */
+    public long getValueAtPercentile(final double percentile) {
+        long total = getTotalCount();
+        if (total == 0) {
+            return 0L;
+        }
+        long countAtPercentile = Math.max(1L, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * total));
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+            if (count >= countAtPercentile) {
+                return Math.min(highestEquivalentValue(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    static int indexOf(final long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift);
+    }
+
+    static long highestEquivalentValue(final int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_HALF_COUNT - 1;
+        long subBucket = index - (long) shift * SUB_BUCKET_HALF_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
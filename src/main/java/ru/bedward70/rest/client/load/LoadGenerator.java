@@ -0,0 +1,320 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.load;
+
+import ru.bedward70.rest.client.BaseRestClient;
+import ru.bedward70.rest.client.RestClient;
+import ru.bedward70.rest.client.exception.DeadlineExceededRestClientException;
+import ru.bedward70.rest.client.exception.ErrorCodeRestClientException;
+import ru.bedward70.rest.client.response.acceptor.BytesRestResponseAcceptor;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Load generator of a {@link RestClient}.
+ * <p>
+ * The open loop sends requests at a constant arrival rate whatever the responses are, and measures
+ * the response time from the intended start, so a stalled server can not hide its queue (no coordinated omission).
+ * The closed loop keeps a fixed number of requests in flight, optionally paced, and corrects its response time
+ * by the expected interval.
+ * Both loops measure the service time from the actual start, the client CPU time and allocation per request.
+ */
+public class LoadGenerator {
+
+    /** Default time to wait for requests in flight after the end of a run */
+    public static final Duration DEFAULT_DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    /** Max concurrency of the open loop started from the command line */
+    public static final int DEFAULT_MAX_CONCURRENCY = 256;
+
+    /** Nanoseconds per second */
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /** Not supported marker of CPU time and allocation */
+    private static final long NOT_SUPPORTED = -1L;
+
+    /** Tested rest client */
+    private final RestClient restClient;
+
+    /** Request of the scenario */
+    private final LoadRequest request;
+
+    /** Time to wait for requests in flight after the end of a run */
+    private final Duration drainTimeout;
+
+    /**
+     * Constructor
+     * @param restClient tested rest client
+     * @param request request of the scenario
+     */
+    public LoadGenerator(final RestClient restClient, final LoadRequest request) {
+        this(restClient, request, DEFAULT_DRAIN_TIMEOUT);
+    }
+
+    /**
+     * Constructor
+     * @param restClient tested rest client
+     * @param request request of the scenario
+     * @param drainTimeout time to wait for requests in flight after the end of a run
+     */
+    public LoadGenerator(final RestClient restClient, final LoadRequest request, final Duration drainTimeout) {
+        this.restClient = restClient;
+        this.request = request;
+        this.drainTimeout = drainTimeout;
+    }
+
+    /**
+     * Runs the open loop
+     * @param requestsPerSecond target arrival rate
+     * @param duration duration of arrivals
+     * @param maxConcurrency max requests in flight, late requests wait in a queue
+     * @return report
+     */
+    public LoadReport runOpenLoop(final double requestsPerSecond, final Duration duration, final int maxConcurrency) {
+        if (requestsPerSecond <= 0 || maxConcurrency <= 0) {
+            throw new IllegalArgumentException("The rate and concurrency must be positive");
+        }
+        Run run = new Run();
+        ExecutorService executor = newExecutor(maxConcurrency);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long i = 0; ; i++) {
+            long intendedStart = start + (long) (i * NANOS_PER_SECOND / requestsPerSecond);
+            if (intendedStart >= end || !parkUntil(intendedStart)) {
+                break;
+            }
+            executor.execute(() -> run.execute(intendedStart, 0L));
+        }
+        long notSent = drain(executor);
+        return run.report(LoadReport.OPEN_LOOP, requestsPerSecond, maxConcurrency, start, notSent);
+    }
+
+    /**
+     * Runs the closed loop
+     * @param concurrency requests in flight
+     * @param duration duration
+     * @param expectedInterval interval between requests of a worker, {@link Duration#ZERO} - no pacing and correction
+     * @return report
+     */
+    public LoadReport runClosedLoop(final int concurrency, final Duration duration, final Duration expectedInterval) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("The concurrency must be positive");
+        }
+        Run run = new Run();
+        ExecutorService executor = newExecutor(concurrency);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long interval = expectedInterval.toNanos();
+        for (int i = 0; i < concurrency; i++) {
+            executor.execute(() -> {
+                for (long started = System.nanoTime(); started < end; started = System.nanoTime()) {
+                    run.execute(started, interval);
+                    if (interval > 0 && !parkUntil(Math.min(end, started + interval))) {
+                        break;
+                    }
+                }
+            });
+        }
+        long notSent = drain(executor);
+        return run.report(LoadReport.CLOSED_LOOP, null, concurrency, start, notSent);
+    }
+
+    /**
+     * Runs a GET load from the command line and prints the report
+     * @param args base url, "open" or "closed", rate or concurrency, seconds, optional url suffix
+     * @throws IOException IO Exception
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length < 4) {
+            System.err.println("Usage: LoadGenerator <url> <open|closed> <rate|concurrency> <seconds> [urlSuffix]");
+            System.exit(1);
+        }
+        String urlSuffix = args.length > 4 ? args[4] : "";
+        BytesRestResponseAcceptor acceptor = new BytesRestResponseAcceptor(null);
+        LoadGenerator generator = new LoadGenerator(
+            new BaseRestClient(args[0]),
+            restClient -> restClient.execute("GET", urlSuffix, byte[].class, acceptor, null)
+        );
+        Duration duration = Duration.ofSeconds(Long.parseLong(args[3]));
+        LoadReport report = "open".equals(args[1])
+            ? generator.runOpenLoop(Double.parseDouble(args[2]), duration, DEFAULT_MAX_CONCURRENCY)
+            : generator.runClosedLoop(Integer.parseInt(args[2]), duration, Duration.ZERO);
+        report.writeJson(System.out);
+        System.out.println();
+    }
+
+    private ExecutorService newExecutor(final int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "load-generator-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Waits for requests in flight
+     * @param executor executor
+     * @return number of not sent requests
+     */
+    private long drain(final ExecutorService executor) {
+        executor.shutdown();
+        try {
+            if (executor.awaitTermination(drainTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                return 0L;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return executor.shutdownNow().size();
+    }
+
+    /**
+     * Parks the current thread until the time
+     * @param time nano time
+     * @return false if the thread is interrupted
+     */
+    private static boolean parkUntil(final long time) {
+        for (long wait = time - System.nanoTime(); wait > 0; wait = time - System.nanoTime()) {
+            LockSupport.parkNanos(wait);
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+        }
+        return !Thread.currentThread().isInterrupted();
+    }
+
+    private static String getErrorKind(final RuntimeException e) {
+        if (e instanceof ErrorCodeRestClientException) {
+            return "HTTP " + ((ErrorCodeRestClientException) e).getResponseCode();
+        }
+        if (e instanceof DeadlineExceededRestClientException) {
+            return "DEADLINE_EXCEEDED";
+        }
+        return nonNull(e.getCause()) ? e.getCause().getClass().getSimpleName() : e.getClass().getSimpleName();
+    }
+
+    /**
+     * Measurements of a single run
+     */
+    private final class Run {
+
+        /** Thread MX bean */
+        private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+        /** CPU time support flag */
+        private final boolean cpuTimeSupported = threadMXBean.isCurrentThreadCpuTimeSupported()
+            && threadMXBean.isThreadCpuTimeEnabled();
+
+        /** Allocation support flag */
+        private final boolean allocationSupported = threadMXBean instanceof com.sun.management.ThreadMXBean
+            && ((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemorySupported()
+            && ((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemoryEnabled();
+
+        /** Response time */
+        private final LatencyHistogram responseTime = new LatencyHistogram();
+
+        /** Service time */
+        private final LatencyHistogram serviceTime = new LatencyHistogram();
+
+        /** Successful requests */
+        private final LongAdder successes = new LongAdder();
+
+        /** Errors by kind */
+        private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        /** Client CPU time */
+        private final LongAdder cpuNanos = new LongAdder();
+
+        /** Client allocation */
+        private final LongAdder allocatedBytes = new LongAdder();
+
+        void execute(final long intendedStart, final long expectedInterval) {
+            long cpu = getCpuNanos();
+            long allocated = getAllocatedBytes();
+            long started = System.nanoTime();
+            try {
+                request.execute(restClient);
+                successes.increment();
+            } catch (RuntimeException e) {
+                errors.computeIfAbsent(getErrorKind(e), kind -> new LongAdder()).increment();
+            }
+            long finished = System.nanoTime();
+            serviceTime.recordValue(finished - started);
+            responseTime.recordValueWithExpectedInterval(finished - intendedStart, expectedInterval);
+            cpuNanos.add(getCpuNanos() - cpu);
+            allocatedBytes.add(getAllocatedBytes() - allocated);
+        }
+
+        LoadReport report(
+            final String scenario,
+            final Double targetRate,
+            final int concurrency,
+            final long start,
+            final long notSent
+        ) {
+            long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            long requests = serviceTime.getTotalCount();
+            return new LoadReport(
+                scenario,
+                restClient.getClass().getName(),
+                targetRate,
+                concurrency,
+                durationMillis,
+                successes.sum(),
+                notSent,
+                errors.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum())),
+                responseTime,
+                serviceTime,
+                cpuTimeSupported && requests > 0 ? cpuNanos.sum() / requests : NOT_SUPPORTED,
+                allocationSupported && requests > 0 ? allocatedBytes.sum() / requests : NOT_SUPPORTED
+            );
+        }
+
+        private long getCpuNanos() {
+            return cpuTimeSupported ? threadMXBean.getCurrentThreadCpuTime() : 0L;
+        }
+
+        private long getAllocatedBytes() {
+            return allocationSupported
+                ? ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(Thread.currentThread().getId())
+                : 0L;
+        }
+    }
+}
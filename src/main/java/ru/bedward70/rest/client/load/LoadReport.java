@@ -0,0 +1,305 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.load;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Machine-readable result of a {@link LoadGenerator} run, latencies are in microseconds
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({
+    "scenario", "transport", "javaVersion", "targetRate", "concurrency", "durationMillis",
+    "requests", "successes", "notSent", "errors", "throughput", "responseTime", "serviceTime",
+    "cpuNanosPerRequest", "allocatedBytesPerRequest"
+})
+public class LoadReport {
+
+    /** Open-loop scenario name */
+    public static final String OPEN_LOOP = "open-loop";
+
+    /** Closed-loop scenario name */
+    public static final String CLOSED_LOOP = "closed-loop";
+
+    /** Writer of reports */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /** Scenario name */
+    private final String scenario;
+
+    /** Class of the tested rest client */
+    private final String transport;
+
+    /** Java version of the client */
+    private final String javaVersion = System.getProperty("java.version");
+
+    /** Target request rate per second or null for the closed loop */
+    private final Double targetRate;
+
+    /** Concurrency */
+    private final int concurrency;
+
+    /** Actual duration */
+    private final long durationMillis;
+
+    /** Completed requests */
+    private final long requests;
+
+    /** Successful requests */
+    private final long successes;
+
+    /** Scheduled requests not sent before the end of the run */
+    private final long notSent;
+
+    /** Error counts by kind */
+    private final Map<String, Long> errors;
+
+    /** Latency from the intended start, corrected for the coordinated omission */
+    private final Latency responseTime;
+
+    /** Latency from the actual start */
+    private final Latency serviceTime;
+
+    /** Client CPU time per request or -1 if not supported */
+    private final long cpuNanosPerRequest;
+
+    /** Client allocation per request or -1 if not supported */
+    private final long allocatedBytesPerRequest;
+
+    /**
+     * Constructor
+     * @param scenario scenario name
+     * @param transport class of the tested rest client
+     * @param targetRate target request rate per second or null for the closed loop
+     * @param concurrency concurrency
+     * @param durationMillis actual duration
+     * @param successes successful requests
+     * @param notSent scheduled requests not sent before the end of the run
+     * @param errors error counts by kind
+     * @param responseTime latency from the intended start
+     * @param serviceTime latency from the actual start
+     * @param cpuNanosPerRequest client CPU time per request or -1
+     * @param allocatedBytesPerRequest client allocation per request or -1
+     */
+    public LoadReport(
+        final String scenario,
+        final String transport,
+        final Double targetRate,
+        final int concurrency,
+        final long durationMillis,
+        final long successes,
+        final long notSent,
+        final Map<String, Long> errors,
+        final LatencyHistogram responseTime,
+        final LatencyHistogram serviceTime,
+        final long cpuNanosPerRequest,
+        final long allocatedBytesPerRequest
+    ) {
+        this.scenario = scenario;
+        this.transport = transport;
+        this.targetRate = targetRate;
+        this.concurrency = concurrency;
+        this.durationMillis = durationMillis;
+        this.successes = successes;
+        this.notSent = notSent;
+        this.errors = Collections.unmodifiableMap(new TreeMap<>(errors));
+        this.requests = successes + this.errors.values().stream().mapToLong(Long::longValue).sum();
+        this.responseTime = new Latency(responseTime);
+        this.serviceTime = new Latency(serviceTime);
+        this.cpuNanosPerRequest = cpuNanosPerRequest;
+        this.allocatedBytesPerRequest = allocatedBytesPerRequest;
+    }
+
+    public String getScenario() {
+        return scenario;
+    }
+
+    public String getTransport() {
+        return transport;
+    }
+
+    public String getJavaVersion() {
+        return javaVersion;
+    }
+
+    public Double getTargetRate() {
+        return targetRate;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getSuccesses() {
+        return successes;
+    }
+
+    public long getNotSent() {
+        return notSent;
+    }
+
+    public Map<String, Long> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Returns completed requests per second
+     * @return throughput
+     */
+    public double getThroughput() {
+        return durationMillis == 0 ? 0.0 : requests * 1000.0 / durationMillis;
+    }
+
+    public Latency getResponseTime() {
+        return responseTime;
+    }
+
+    public Latency getServiceTime() {
+        return serviceTime;
+    }
+
+    public long getCpuNanosPerRequest() {
+        return cpuNanosPerRequest;
+    }
+
+    public long getAllocatedBytesPerRequest() {
+        return allocatedBytesPerRequest;
+    }
+
+    /**
+     * Writes the report as JSON
+     * @param outputStream output stream, it is not closed
+     * @throws IOException IO Exception
+     */
+    public void writeJson(final OutputStream outputStream) throws IOException {
+        OBJECT_MAPPER.writerWithDefaultPrettyPrinter()
+            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .writeValue(outputStream, this);
+    }
+
+    /**
+     * Returns the report as JSON
+     * @return JSON
+     * @throws IOException IO Exception
+     */
+    public String toJson() throws IOException {
+        return OBJECT_MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(this);
+    }
+
+    /**
+     * Latency percentiles in microseconds
+     */
+    @JsonPropertyOrder({"count", "mean", "p50", "p90", "p99", "p999", "p9999", "max"})
+    public static class Latency {
+
+        /** Recorded values */
+        private final long count;
+
+        /** Mean */
+        private final double mean;
+
+        /** 50th percentile */
+        private final double p50;
+
+        /** 90th percentile */
+        private final double p90;
+
+        /** 99th percentile */
+        private final double p99;
+
+        /** 99.9th percentile */
+        private final double p999;
+
+        /** 99.99th percentile */
+        private final double p9999;
+
+        /** Max */
+        private final double max;
+
+        /**
+         * Constructor
+         * @param histogram histogram of nanoseconds
+         */
+        public Latency(final LatencyHistogram histogram) {
+            this.count = histogram.getTotalCount();
+            this.mean = histogram.getMean() / 1000.0;
+            this.p50 = histogram.getValueAtPercentile(50.0) / 1000.0;
+            this.p90 = histogram.getValueAtPercentile(90.0) / 1000.0;
+            this.p99 = histogram.getValueAtPercentile(99.0) / 1000.0;
+            this.p999 = histogram.getValueAtPercentile(99.9) / 1000.0;
+            this.p9999 = histogram.getValueAtPercentile(99.99) / 1000.0;
+            this.max = histogram.getMax() / 1000.0;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public double getP50() {
+            return p50;
+        }
+
+        public double getP90() {
+            return p90;
+        }
+
+        public double getP99() {
+            return p99;
+        }
+
+        public double getP999() {
+            return p999;
+        }
+
+        public double getP9999() {
+            return p9999;
+        }
+
+        public double getMax() {
+            return max;
+        }
+    }
+}
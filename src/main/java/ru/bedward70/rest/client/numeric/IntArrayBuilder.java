@@ -0,0 +1,114 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.numeric;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Growable int array without boxing
+ */
+public class IntArrayBuilder {
+
+    /** Default initial capacity */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /** Maximal array size */
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /** Values, the array may be larger than the size */
+    private int[] values;
+
+    /** Count of values */
+    private int size;
+
+    /**
+     * Constructor
+     */
+    public IntArrayBuilder() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param initialCapacity initial capacity
+     */
+    public IntArrayBuilder(final int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        }
+        this.values = new int[initialCapacity];
+    }
+
+    /**
+     * Appends a value, the capacity grows by half
+     * @param value value
+     */
+    public void add(final int value) {
+        if (size == values.length) {
+            grow();
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Returns a value
+     * @param index index
+     * @return value
+     */
+    public int get(final int index) {
+        return values[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * @return count of values
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all values and keeps the capacity
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return copy of the values
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    private void grow() {
+        if (values.length == MAX_ARRAY_SIZE) {
+            throw new OutOfMemoryError("Array size exceeds the limit");
+        }
+        long capacity = Math.max(DEFAULT_CAPACITY, values.length + (values.length >> 1));
+        values = Arrays.copyOf(values, (int) Math.min(MAX_ARRAY_SIZE, capacity));
+    }
+}
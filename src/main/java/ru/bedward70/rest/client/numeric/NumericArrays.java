@@ -0,0 +1,330 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.numeric;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import ru.bedward70.rest.client.codec.JsonCodec;
+import ru.bedward70.rest.client.codec.JsonCodecSupport;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decoding of JSON numeric arrays into primitive arrays and builders without boxing.
+ * <p>
+ * Elements are read from the parser tokens by the {@link JsonCodecSupport} readers: numbers take the fast path,
+ * a null element is 0 and other elements, e.g. numeric strings, are delegated to the parser codec.
+ * The codec constants read and write whole values, e.g. for a JsonCodecRestResponseAcceptor.
+ */
+public final class NumericArrays {
+
+    /** Codec of double[] */
+    public static final JsonCodec<double[]> DOUBLE_ARRAY = new JsonCodec<>() {
+        @Override
+        public void write(final JsonGenerator generator, final double[] value) throws IOException {
+            if (value == null) {
+                generator.writeNull();
+            } else {
+                generator.writeArray(value, 0, value.length);
+            }
+        }
+
+        @Override
+        public double[] read(final JsonParser parser) throws IOException {
+            return readDoubleArray(parser);
+        }
+    };
+
+    /** Codec of long[] */
+    public static final JsonCodec<long[]> LONG_ARRAY = new JsonCodec<>() {
+        @Override
+        public void write(final JsonGenerator generator, final long[] value) throws IOException {
+            if (value == null) {
+                generator.writeNull();
+            } else {
+                generator.writeArray(value, 0, value.length);
+            }
+        }
+
+        @Override
+        public long[] read(final JsonParser parser) throws IOException {
+            return readLongArray(parser);
+        }
+    };
+
+    /** Codec of int[] */
+    public static final JsonCodec<int[]> INT_ARRAY = new JsonCodec<>() {
+        @Override
+        public void write(final JsonGenerator generator, final int[] value) throws IOException {
+            if (value == null) {
+                generator.writeNull();
+            } else {
+                generator.writeArray(value, 0, value.length);
+            }
+        }
+
+        @Override
+        public int[] read(final JsonParser parser) throws IOException {
+            return readIntArray(parser);
+        }
+    };
+
+    /** Codec of double[][], e.g. [[1, 2.5], [3, 4]] */
+    public static final JsonCodec<double[][]> DOUBLE_MATRIX = new JsonCodec<>() {
+        @Override
+        public void write(final JsonGenerator generator, final double[][] value) throws IOException {
+            if (value == null) {
+                generator.writeNull();
+                return;
+            }
+            generator.writeStartArray();
+            for (double[] row : value) {
+                DOUBLE_ARRAY.write(generator, row);
+            }
+            generator.writeEndArray();
+        }
+
+        @Override
+        public double[][] read(final JsonParser parser) throws IOException {
+            return readDoubleMatrix(parser);
+        }
+    };
+
+    /** Codec of a time series [[timestamp, value], ...] */
+    public static final JsonCodec<TimeSeries> TIME_SERIES = new JsonCodec<>() {
+        @Override
+        public void write(final JsonGenerator generator, final TimeSeries value) throws IOException {
+            if (value == null) {
+                generator.writeNull();
+                return;
+            }
+            long[] timestamps = value.getTimestamps();
+            double[] values = value.getValues();
+            generator.writeStartArray();
+            for (int i = 0; i < timestamps.length; i++) {
+                generator.writeStartArray();
+                generator.writeNumber(timestamps[i]);
+                generator.writeNumber(values[i]);
+                generator.writeEndArray();
+            }
+            generator.writeEndArray();
+        }
+
+        @Override
+        public TimeSeries read(final JsonParser parser) throws IOException {
+            return readTimeSeries(parser);
+        }
+    };
+
+    private NumericArrays() {
+    }
+
+    /**
+     * Reads an array of numbers
+     * @param parser parser at the value or before it
+     * @return array or null for a null value
+     * @throws IOException IO Exception
+     */
+    public static double[] readDoubleArray(final JsonParser parser) throws IOException {
+        JsonToken token = JsonCodecSupport.currentToken(parser);
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.START_ARRAY) {
+            return parser.readValueAs(double[].class);
+        }
+        DoubleArrayBuilder builder = new DoubleArrayBuilder();
+        readDoubles(parser, builder);
+        return builder.toArray();
+    }
+
+    /**
+     * Reads an array of integers
+     * @param parser parser at the value or before it
+     * @return array or null for a null value
+     * @throws IOException IO Exception
+     */
+    public static long[] readLongArray(final JsonParser parser) throws IOException {
+        JsonToken token = JsonCodecSupport.currentToken(parser);
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.START_ARRAY) {
+            return parser.readValueAs(long[].class);
+        }
+        LongArrayBuilder builder = new LongArrayBuilder();
+        readLongs(parser, builder);
+        return builder.toArray();
+    }
+
+    /**
+     * Reads an array of integers
+     * @param parser parser at the value or before it
+     * @return array or null for a null value
+     * @throws IOException IO Exception
+     */
+    public static int[] readIntArray(final JsonParser parser) throws IOException {
+        JsonToken token = JsonCodecSupport.currentToken(parser);
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.START_ARRAY) {
+            return parser.readValueAs(int[].class);
+        }
+        IntArrayBuilder builder = new IntArrayBuilder();
+        readInts(parser, builder);
+        return builder.toArray();
+    }
+
+    /**
+     * Reads an array of number arrays, rows may have different lengths
+     * @param parser parser at the value or before it
+     * @return rows or null for a null value
+     * @throws IOException IO Exception
+     */
+    public static double[][] readDoubleMatrix(final JsonParser parser) throws IOException {
+        JsonToken token = JsonCodecSupport.currentToken(parser);
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.START_ARRAY) {
+            return parser.readValueAs(double[][].class);
+        }
+        // The builder of rows is reused, every row is copied once
+        List<double[]> rows = new ArrayList<>();
+        DoubleArrayBuilder builder = new DoubleArrayBuilder();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() == JsonToken.START_ARRAY) {
+                builder.clear();
+                readDoubles(parser, builder);
+                rows.add(builder.toArray());
+            } else {
+                rows.add(readDoubleArray(parser));
+            }
+        }
+        return rows.toArray(new double[0][]);
+    }
+
+    /**
+     * Reads a time series [[timestamp, value], ...], a fractional timestamp is truncated
+     * @param parser parser at the value or before it
+     * @return time series or null for a null value
+     * @throws IOException IO Exception
+     */
+    public static TimeSeries readTimeSeries(final JsonParser parser) throws IOException {
+        JsonToken token = JsonCodecSupport.currentToken(parser);
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        LongArrayBuilder timestamps = new LongArrayBuilder();
+        DoubleArrayBuilder values = new DoubleArrayBuilder();
+        readTimeSeries(parser, timestamps, values);
+        return new TimeSeries(timestamps.toArray(), values.toArray());
+    }
+
+    /**
+     * Appends the elements of the current array
+     * @param parser parser at the START_ARRAY token, it is left at the END_ARRAY token
+     * @param builder builder
+     * @throws IOException IO Exception
+     */
+    public static void readDoubles(final JsonParser parser, final DoubleArrayBuilder builder) throws IOException {
+        expectArray(parser, double[].class);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            builder.add(JsonCodecSupport.readDouble(parser));
+        }
+    }
+
+    /**
+     * Appends the elements of the current array
+     * @param parser parser at the START_ARRAY token, it is left at the END_ARRAY token
+     * @param builder builder
+     * @throws IOException IO Exception
+     */
+    public static void readLongs(final JsonParser parser, final LongArrayBuilder builder) throws IOException {
+        expectArray(parser, long[].class);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            builder.add(JsonCodecSupport.readLong(parser));
+        }
+    }
+
+    /**
+     * Appends the elements of the current array
+     * @param parser parser at the START_ARRAY token, it is left at the END_ARRAY token
+     * @param builder builder
+     * @throws IOException IO Exception
+     */
+    public static void readInts(final JsonParser parser, final IntArrayBuilder builder) throws IOException {
+        expectArray(parser, int[].class);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            builder.add(JsonCodecSupport.readInt(parser));
+        }
+    }
+
+    /**
+     * Appends the points of the current [[timestamp, value], ...] array
+     * @param parser parser at the START_ARRAY token, it is left at the END_ARRAY token
+     * @param timestamps builder of timestamps
+     * @param values builder of values
+     * @throws IOException IO Exception
+     */
+    public static void readTimeSeries(
+        final JsonParser parser,
+        final LongArrayBuilder timestamps,
+        final DoubleArrayBuilder values
+    ) throws IOException {
+        expectArray(parser, TimeSeries.class);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (parser.currentToken() != JsonToken.START_ARRAY) {
+                throw MismatchedInputException.from(
+                    parser, TimeSeries.class, "Expected a [timestamp, value] point, found " + parser.currentToken()
+                );
+            }
+            if (parser.nextToken() == JsonToken.END_ARRAY) {
+                throw MismatchedInputException.from(parser, TimeSeries.class, "Expected a timestamp of the point");
+            }
+            timestamps.add(JsonCodecSupport.readLong(parser));
+            if (parser.nextToken() == JsonToken.END_ARRAY) {
+                throw MismatchedInputException.from(parser, TimeSeries.class, "Expected a value of the point");
+            }
+            values.add(JsonCodecSupport.readDouble(parser));
+            if (parser.nextToken() != JsonToken.END_ARRAY) {
+                throw MismatchedInputException.from(
+                    parser, TimeSeries.class, "Expected the end of a [timestamp, value] point"
+                );
+            }
+        }
+    }
+
+    private static void expectArray(final JsonParser parser, final Class<?> clazz) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw MismatchedInputException.from(parser, clazz, "Expected an array, found " + parser.currentToken());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.numeric;
+
+/**
+ * Time series of primitive timestamps and values, e.g. decoded from [[timestamp, value], ...]
+ */
+public class TimeSeries {
+
+    /** Timestamps */
+    private final long[] timestamps;
+
+    /** Values */
+    private final double[] values;
+
+    /**
+     * Constructor
+     *
+     * @param timestamps timestamps
+     * @param values values of the same length
+     */
+    public TimeSeries(final long[] timestamps, final double[] values) {
+        if (timestamps.length != values.length) {
+            throw new IllegalArgumentException(
+                "Lengths of timestamps and values differ: " + timestamps.length + " and " + values.length
+            );
+        }
+        this.timestamps = timestamps;
+        this.values = values;
+    }
+
+    /**
+     * @return count of points
+     */
+    public int size() {
+        return timestamps.length;
+    }
+
+    /**
+     * @return timestamps
+     */
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    /**
+     * @return values
+     */
+    public double[] getValues() {
+        return values;
+    }
+}
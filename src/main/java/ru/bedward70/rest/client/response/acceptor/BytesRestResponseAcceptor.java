@@ -24,6 +24,8 @@
  */
 package ru.bedward70.rest.client.response.acceptor;
 
+import ru.bedward70.rest.client.buffer.BufferPool;
+
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -34,11 +36,14 @@ import java.util.function.Supplier;
 /**
  * OutputStream implementation of RestResponseAcceptor
  */
-public class BytesRestResponseAcceptor implements RestResponseAcceptor<byte[]> {
+public class BytesRestResponseAcceptor implements ContextRestResponseAcceptor<byte[]> {
 
     /** Mime accept */
     private final String mimeAccept;
 
+    /** Body reader */
+    private final ResponseBodyReader bodyReader = new ResponseBodyReader();
+
 
     /**
      * Constructor
@@ -57,7 +62,16 @@ public class BytesRestResponseAcceptor implements RestResponseAcceptor<byte[]> {
     @Override
     public byte[] readValue(InputStream inputStream, Class<byte[]> responseClazz) throws IOException {
         ByteArrayOutputStream os = new ByteArrayOutputStream();
-        inputStream.transferTo(os);
+        BufferPool.getDefault().copy(inputStream, os);
         return os.toByteArray();
     }
+
+    @Override
+    public byte[] readValue(
+        final InputStream inputStream,
+        final Class<byte[]> responseClazz,
+        final RestResponseContext context
+    ) throws IOException {
+        return bodyReader.read(inputStream, context).toByteArray();
+    }
 }
@@ -25,13 +25,22 @@
 package ru.bedward70.rest.client.response.acceptor;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import ru.bedward70.rest.client.codec.JsonCodec;
+import ru.bedward70.rest.client.codec.JsonCodecs;
+import ru.bedward70.rest.client.intern.StringCache;
+import ru.bedward70.rest.client.intern.StringCacheModule;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URLConnection;
 
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
 /**
- * JSON implementation of RestResponseAcceptor
+ * JSON implementation of RestResponseAcceptor.
+ * Classes with a generated {@link JsonCodec} are read by the codec, other classes by the object mapper.
  */
 public class JsonRestResponseAcceptor<T> implements RestResponseAcceptor<T> {
 
@@ -47,6 +56,17 @@ public class JsonRestResponseAcceptor<T> implements RestResponseAcceptor<T> {
         this.objectMapper = objectMapper;
     }
 
+    /**
+     * Constructor of an acceptor which canonicalizes the strings of responses by a cache.
+     * The object mapper is copied with a StringCacheModule, classes with a generated codec are not affected.
+     *
+     * @param objectMapper object mapper
+     * @param stringCache string cache
+     */
+    public JsonRestResponseAcceptor(final ObjectMapper objectMapper, final StringCache stringCache) {
+        this(objectMapper.copy().registerModule(new StringCacheModule(stringCache)));
+    }
+
     @Override
     public void setAcceptProperty(final URLConnection con) {
         con.setRequestProperty(ACCEPT_HEADER_KEY, "application/json");
@@ -54,7 +74,33 @@ public class JsonRestResponseAcceptor<T> implements RestResponseAcceptor<T> {
 
     @Override
     public T readValue(final InputStream inputStream, final Class<T> responseClazz) throws IOException {
-        return objectMapper.readValue(inputStream, responseClazz);
+        return read(inputStream, responseClazz);
+    }
+
+    /**
+     * Warms up deserialization of a class: resolves and caches its deserializer and, with a sample,
+     * reads the sample the count of iterations through the same path as readValue, so it is compiled before traffic
+     * @param clazz class
+     * @param sample sample JSON or null
+     * @param iterations count of iterations, 0 to only resolve the deserializer
+     * @throws IOException IO Exception
+     */
+    public void warmUp(final Class<?> clazz, final byte[] sample, final int iterations) throws IOException {
+        if (isNull(JsonCodecs.find(clazz))) {
+            objectMapper.readerFor(clazz);
+        }
+        if (nonNull(sample)) {
+            for (int i = 0; i < iterations; i++) {
+                read(new ByteArrayInputStream(sample), clazz);
+            }
+        }
+    }
+
+    private <E> E read(final InputStream inputStream, final Class<E> clazz) throws IOException {
+        JsonCodec<E> codec = JsonCodecs.find(clazz);
+        return nonNull(codec)
+            ? JsonCodecs.readValue(objectMapper, inputStream, codec, clazz)
+            : objectMapper.readValue(inputStream, clazz);
     }
 
     /**
@@ -0,0 +1,186 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.response.acceptor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Reads a response body into a byte array.
+ * A known content length up to the maximal initial size gives an exactly sized array which is filled in one pass,
+ * a larger one is not trusted before the data arrives and the array grows up to it.
+ * For an unknown length the initial buffer size is taken from the last response of the same endpoint.
+ */
+public class ResponseBodyReader {
+
+    /** Minimal initial buffer size */
+    static final int MIN_INITIAL_SIZE = 256;
+
+    /** Maximal initial buffer size */
+    static final int MAX_INITIAL_SIZE = 1024 * 1024;
+
+    /** Maximal count of remembered endpoints */
+    static final int MAX_ENDPOINTS = 1024;
+
+    /** Maximal array size */
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    /** Last body sizes by endpoints */
+    private final ConcurrentMap<String, Integer> sizes = new ConcurrentHashMap<>();
+
+    /**
+     * Reads the whole body
+     * @param inputStream input stream
+     * @param context response context
+     * @return body
+     * @throws IOException IO Exception
+     */
+    Body read(final InputStream inputStream, final RestResponseContext context) throws IOException {
+        long contentLength = context.getContentLength();
+        if (contentLength >= 0) {
+            // The header is not trusted beyond the maximal initial size, a larger array grows as data arrives
+            byte[] bytes = new byte[(int) Math.min(contentLength, MAX_INITIAL_SIZE)];
+            return readRemaining(inputStream, bytes, 0, contentLength);
+        }
+
+        String endpoint = context.getEndpoint();
+        Body body = readRemaining(inputStream, new byte[getInitialSize(endpoint)], 0, contentLength);
+        if (nonNull(endpoint) && (sizes.size() < MAX_ENDPOINTS || sizes.containsKey(endpoint))) {
+            sizes.put(endpoint, body.getLength());
+        }
+        return body;
+    }
+
+    /**
+     * Reads the rest of a body into an array which grows as data arrives
+     * @param inputStream input stream
+     * @param bytes array, it starts with the bytes read already
+     * @param length count of the bytes read already
+     * @param contentLength content length or -1 if it is unknown
+     * @return body
+     * @throws IOException if the body is truncated or too large
+     */
+    public static Body readRemaining(
+        final InputStream inputStream,
+        final byte[] bytes,
+        final int length,
+        final long contentLength
+    ) throws IOException {
+        if (contentLength > MAX_ARRAY_SIZE) {
+            throw new IOException("Response body is too large: " + contentLength);
+        }
+        long limit = contentLength >= 0 ? contentLength : MAX_ARRAY_SIZE;
+        byte[] result = bytes;
+        int count = length;
+        while (true) {
+            if (count == result.length) {
+                if (count == contentLength) {
+                    break;
+                }
+                // One byte of an unknown length detects the end of the stream without growing the array
+                int next = contentLength < 0 ? inputStream.read() : 0;
+                if (next < 0) {
+                    break;
+                }
+                if (result.length == MAX_ARRAY_SIZE) {
+                    throw new IOException("Response body is too large");
+                }
+                result = Arrays.copyOf(result, (int) Math.min(limit, Math.max(MIN_INITIAL_SIZE, 2L * result.length)));
+                if (contentLength < 0) {
+                    result[count++] = (byte) next;
+                }
+            }
+            int read = inputStream.readNBytes(result, count, result.length - count);
+            count += read;
+            if (count < result.length) {
+                break;
+            }
+        }
+        if (contentLength >= 0 && count != contentLength) {
+            throw new IOException("Truncated response: " + count + " of " + contentLength + " bytes received");
+        }
+        return new Body(result, count);
+    }
+
+    /**
+     * Returns the initial buffer size of an endpoint
+     * @param endpoint endpoint or null
+     * @return initial buffer size
+     */
+    int getInitialSize(final String endpoint) {
+        Integer size = nonNull(endpoint) ? sizes.get(endpoint) : null;
+        // One extra byte lets the reader detect the end of the stream without growing the buffer
+        return nonNull(size) ? Math.max(MIN_INITIAL_SIZE, Math.min(MAX_INITIAL_SIZE, size + 1)) : MIN_INITIAL_SIZE;
+    }
+
+    /**
+     * Read body, the bytes array may be larger than the body length
+     */
+    public static class Body {
+
+        /** Bytes */
+        private final byte[] bytes;
+
+        /** Body length */
+        private final int length;
+
+        /**
+         * Constructor
+         *
+         * @param bytes bytes
+         * @param length body length
+         */
+        Body(final byte[] bytes, final int length) {
+            this.bytes = bytes;
+            this.length = length;
+        }
+
+        /**
+         * @return bytes, the array may be larger than the body length
+         */
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        /**
+         * @return body length
+         */
+        public int getLength() {
+            return length;
+        }
+
+        /**
+         * @return exactly sized array, the internal array if it has the exact size
+         */
+        public byte[] toByteArray() {
+            return bytes.length == length ? bytes : Arrays.copyOf(bytes, length);
+        }
+    }
+}
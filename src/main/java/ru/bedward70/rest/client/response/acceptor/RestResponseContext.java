@@ -0,0 +1,181 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.response.acceptor;
+
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Response metadata which is passed to ContextRestResponseAcceptor
+ */
+public class RestResponseContext {
+
+    /** Unknown response code or content length */
+    public static final int UNKNOWN = -1;
+
+    /** Context of a response without metadata */
+    public static final RestResponseContext EMPTY = new RestResponseContext(UNKNOWN, null, UNKNOWN, null, null);
+
+    /** Response code */
+    private final int responseCode;
+
+    /** Case-insensitive headers map */
+    private final Map<String, List<String>> headers;
+
+    /** Content length */
+    private final long contentLength;
+
+    /** Content type */
+    private final String contentType;
+
+    /** Endpoint, the path of the request url */
+    private final String endpoint;
+
+    /** Charset of the content type */
+    private final Charset charset;
+
+    /**
+     * Constructor
+     *
+     * @param responseCode response code or UNKNOWN
+     * @param headers headers map or null
+     * @param contentLength content length or UNKNOWN
+     * @param contentType content type or null
+     * @param endpoint endpoint or null
+     */
+    public RestResponseContext(
+        final int responseCode,
+        final Map<String, List<String>> headers,
+        final long contentLength,
+        final String contentType,
+        final String endpoint
+    ) {
+        this.responseCode = responseCode;
+        Map<String, List<String>> map = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (nonNull(headers)) {
+            // The null key is the status line of HttpURLConnection
+            headers.forEach((name, values) -> {
+                if (nonNull(name)) {
+                    map.put(name, values);
+                }
+            });
+        }
+        this.headers = Collections.unmodifiableMap(map);
+        this.contentLength = contentLength;
+        this.contentType = contentType;
+        this.endpoint = endpoint;
+        this.charset = getCharset(contentType, null);
+    }
+
+    /**
+     * @return response code or UNKNOWN
+     */
+    public int getResponseCode() {
+        return responseCode;
+    }
+
+    /**
+     * @return unmodifiable case-insensitive headers map
+     */
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Returns the last value of a header
+     * @param name header name
+     * @return header value or null
+     */
+    public String getHeader(final String name) {
+        List<String> values = headers.get(name);
+        return isNull(values) || values.isEmpty() ? null : values.get(values.size() - 1);
+    }
+
+    /**
+     * @return content length or UNKNOWN
+     */
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * @return content type or null
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @return endpoint, the path of the request url, or null
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Returns the charset of the content type
+     * @param defaultCharset charset which is used if the content type does not declare a supported charset
+     * @return charset
+     */
+    public Charset getCharset(final Charset defaultCharset) {
+        return nonNull(charset) ? charset : defaultCharset;
+    }
+
+    /**
+     * Parses the charset parameter of a content type
+     * @param contentType content type or null
+     * @param defaultCharset charset which is returned if the content type does not declare a supported charset
+     * @return charset
+     */
+    public static Charset getCharset(final String contentType, final Charset defaultCharset) {
+        if (isNull(contentType)) {
+            return defaultCharset;
+        }
+        for (String parameter : contentType.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.toLowerCase(Locale.ROOT).startsWith("charset=")) {
+                String name = trimmed.substring("charset=".length()).trim();
+                if (name.length() > 1 && name.startsWith("\"") && name.endsWith("\"")) {
+                    name = name.substring(1, name.length() - 1);
+                }
+                try {
+                    return Charset.forName(name);
+                } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+                    return defaultCharset;
+                }
+            }
+        }
+        return defaultCharset;
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.response.acceptor;
+
+import ru.bedward70.rest.client.buffer.BufferPool;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Resumable file implementation of RestResponseAcceptor.
+ * The response is written to the "{file}.part" temporary file which is atomically renamed to the file on success.
+ * If a download fails, the next request with the same file sends "Range" and "If-Range" headers
+ * and continues the temporary file when the server responds with 206 Partial Content.
+ * So 206 should be added to successful response codes of the request.
+ * The instance keeps the resume offset of the current request and must not be shared between parallel requests.
+ */
+public class ResumableFileRestResponseAcceptor implements ContextRestResponseAcceptor<File> {
+
+    /** Default size of the transfer buffer */
+    public static final int DEFAULT_BUFFER_SIZE = BufferPool.DEFAULT_BUFFER_SIZE;
+
+    /** Partial Content HTTP response code */
+    public static final int PARTIAL_CONTENT_RESPONSE_CODE = 206;
+
+    /** Suffix of the temporary file */
+    public static final String PART_SUFFIX = ".part";
+
+    /** Suffix of the file which keeps the validator (ETag or Last-Modified) of the temporary file */
+    public static final String VALIDATOR_SUFFIX = ".part.validator";
+
+    /** Mime accept */
+    private final String mimeAccept;
+
+    /** Output file */
+    private final File file;
+
+    /** Size of the transfer buffer */
+    private final int bufferSize;
+
+    /** Requested resume offset of the current request */
+    private long resumeOffset;
+
+    /**
+     * Constructor
+     *
+     * @param mimeAccept mime accept
+     * @param file output file
+     */
+    public ResumableFileRestResponseAcceptor(final String mimeAccept, final File file) {
+        this(mimeAccept, file, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param mimeAccept mime accept
+     * @param file output file
+     * @param bufferSize size of the transfer buffer
+     */
+    public ResumableFileRestResponseAcceptor(final String mimeAccept, final File file, final int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive: " + bufferSize);
+        }
+        this.mimeAccept = mimeAccept;
+        this.file = file;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public void setAcceptProperty(final URLConnection con) {
+        con.setRequestProperty(ACCEPT_HEADER_KEY, mimeAccept);
+        resumeOffset = 0L;
+        try {
+            Path part = getPartPath();
+            Path validatorPath = getValidatorPath();
+            if (Files.isRegularFile(part) && Files.isRegularFile(validatorPath)) {
+                long size = Files.size(part);
+                String validator = Files.readString(validatorPath, StandardCharsets.UTF_8).trim();
+                if (size > 0 && !validator.isEmpty()) {
+                    con.setRequestProperty("Range", "bytes=" + size + "-");
+                    con.setRequestProperty("If-Range", validator);
+                    resumeOffset = size;
+                }
+            }
+        } catch (IOException e) {
+            // The download starts from the beginning
+            resumeOffset = 0L;
+        }
+    }
+
+    /**
+     * Reads a response without its context, e.g. when a RestClient does not pass it.
+     * A resumed request cannot be read this way: without the response code and the "Content-Range" header
+     * a 206 Partial Content response cannot be told from the whole file, so the method fails and keeps
+     * the temporary file instead of corrupting it.
+     * @param inputStream input stream
+     * @param responseClazz response class
+     * @return file
+     * @throws IOException IO Exception, if "Range" was sent
+     */
+    @Override
+    public File readValue(final InputStream inputStream, final Class<File> responseClazz) throws IOException {
+        if (resumeOffset > 0) {
+            throw new IOException("A resumed download needs the response context, \"Range\" was sent from "
+                + resumeOffset);
+        }
+        return readValue(inputStream, responseClazz, RestResponseContext.EMPTY);
+    }
+
+    @Override
+    public File readValue(
+        final InputStream inputStream,
+        final Class<File> responseClazz,
+        final RestResponseContext context
+    ) throws IOException {
+        long offset = isResumed(context) ? resumeOffset : 0L;
+        saveValidator(context);
+
+        Path part = getPartPath();
+        try (FileChannel channel = FileChannel.open(
+            part,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE
+        )) {
+            channel.truncate(offset);
+            long expected = context.getContentLength();
+            long written = transfer(inputStream, channel, offset, expected);
+            if (expected >= 0 && written != expected) {
+                throw new IOException("Truncated response: " + written + " of " + expected + " bytes received");
+            }
+            channel.force(false);
+        }
+        commit(part);
+        return file;
+    }
+
+    /**
+     * @return path of the temporary file
+     */
+    public Path getPartPath() {
+        return file.toPath().resolveSibling(file.getName() + PART_SUFFIX);
+    }
+
+    /**
+     * @return path of the file which keeps the validator of the temporary file
+     */
+    public Path getValidatorPath() {
+        return file.toPath().resolveSibling(file.getName() + VALIDATOR_SUFFIX);
+    }
+
+    /**
+     * Checks that the server continues the temporary file
+     * @param context response context
+     * @return true if the response is 206 Partial Content which starts from the requested offset
+     * @throws IOException IO Exception
+     */
+    private boolean isResumed(final RestResponseContext context) throws IOException {
+        if (context.getResponseCode() != PARTIAL_CONTENT_RESPONSE_CODE) {
+            return false;
+        }
+        String contentRange = context.getHeader("Content-Range");
+        if (resumeOffset <= 0 || isNull(contentRange) || !contentRange.trim().startsWith("bytes " + resumeOffset + "-")) {
+            throw new IOException("Unexpected partial content: " + contentRange);
+        }
+        return true;
+    }
+
+    /**
+     * Saves the strong ETag or Last-Modified of the response, they are used by the next "If-Range" header
+     * @param context response context
+     * @throws IOException IO Exception
+     */
+    private void saveValidator(final RestResponseContext context) throws IOException {
+        String etag = context.getHeader("ETag");
+        String validator = nonNull(etag) && !etag.startsWith("W/") ? etag : context.getHeader("Last-Modified");
+        if (isNull(validator)) {
+            Files.deleteIfExists(getValidatorPath());
+        } else {
+            Files.writeString(getValidatorPath(), validator, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Copies the input stream to the channel
+     * @param inputStream input stream
+     * @param channel file channel
+     * @param offset start position in the file
+     * @param expected expected count of bytes or -1
+     * @return count of written bytes
+     * @throws IOException IO Exception
+     */
+    private long transfer(
+        final InputStream inputStream,
+        final FileChannel channel,
+        final long offset,
+        final long expected
+    ) throws IOException {
+        int size = expected >= 0 ? (int) Math.max(1L, Math.min(bufferSize, expected)) : bufferSize;
+        BufferPool pool = BufferPool.getDefault();
+        byte[] buffer = pool.acquire(size);
+        ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+        try {
+            long position = offset;
+            int read;
+            while ((read = inputStream.readNBytes(buffer, 0, size)) > 0) {
+                byteBuffer.clear().limit(read);
+                while (byteBuffer.hasRemaining()) {
+                    position += channel.write(byteBuffer, position);
+                }
+            }
+            return position - offset;
+        } finally {
+            pool.release(buffer);
+        }
+    }
+
+    /**
+     * Renames the temporary file to the output file
+     * @param part temporary file
+     * @throws IOException IO Exception
+     */
+    private void commit(final Path part) throws IOException {
+        try {
+            Files.move(part, file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(part, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.deleteIfExists(getValidatorPath());
+    }
+}
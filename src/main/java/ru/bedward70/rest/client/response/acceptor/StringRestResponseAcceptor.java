@@ -32,7 +32,10 @@ import java.nio.charset.StandardCharsets;
 /**
  * String implementation of RestResponseAcceptor
  */
-public class StringRestResponseAcceptor implements RestResponseAcceptor<String> {
+public class StringRestResponseAcceptor implements ContextRestResponseAcceptor<String> {
+
+    /** Body reader */
+    private final ResponseBodyReader bodyReader = new ResponseBodyReader();
 
     @Override
     public void setAcceptProperty(final URLConnection con) {
@@ -43,4 +46,17 @@ public class StringRestResponseAcceptor implements RestResponseAcceptor<String>
     public String readValue(InputStream inputStream, Class<String> responseClazz) throws IOException {
         return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
     }
+
+    /**
+     * Decodes the body with the charset of the Content-Type header, UTF-8 is used by default
+     */
+    @Override
+    public String readValue(
+        final InputStream inputStream,
+        final Class<String> responseClazz,
+        final RestResponseContext context
+    ) throws IOException {
+        ResponseBodyReader.Body body = bodyReader.read(inputStream, context);
+        return new String(body.getBytes(), 0, body.getLength(), context.getCharset(StandardCharsets.UTF_8));
+    }
 }
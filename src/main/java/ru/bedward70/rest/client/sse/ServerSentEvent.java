@@ -0,0 +1,82 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.sse;
+
+/**
+ * A dispatched Server-Sent Event
+ */
+public class ServerSentEvent {
+
+    /** Default event type */
+    public static final String DEFAULT_EVENT = "message";
+
+    /** Last event id, or null */
+    private final String id;
+
+    /** Event type */
+    private final String event;
+
+    /** Data */
+    private final String data;
+
+    /**
+     * Constructor
+     *
+     * @param id last event id, or null
+     * @param event event type
+     * @param data data
+     */
+    public ServerSentEvent(final String id, final String event, final String data) {
+        this.id = id;
+        this.event = event;
+        this.data = data;
+    }
+
+    /**
+     * @return last event id, or null
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return event type
+     */
+    public String getEvent() {
+        return event;
+    }
+
+    /**
+     * @return data, lines are joined with LF
+     */
+    public String getData() {
+        return data;
+    }
+
+    @Override
+    public String toString() {
+        return "ServerSentEvent{id=" + id + ", event=" + event + ", data=" + data + "}";
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.sse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Incremental "text/event-stream" parser, it reads the stream only as far as the next event
+ */
+class ServerSentEventParser {
+
+    /** No retry hint */
+    static final long NO_RETRY = -1L;
+
+    /** Byte order mark */
+    private static final char BOM = '\uFEFF';
+
+    /** Input stream */
+    private final InputStream inputStream;
+
+    /** Stops the parser at a comment, e.g. a cancelled subscription */
+    private final BooleanSupplier stopped;
+
+    /** Maximal size of a line, bytes */
+    private final int maxLineSize;
+
+    /** Read buffer */
+    private final byte[] buffer;
+
+    /** Position in the read buffer */
+    private int position;
+
+    /** Limit of the read buffer */
+    private int limit;
+
+    /** Current line */
+    private byte[] line = new byte[128];
+
+    /** Length of the current line */
+    private int lineLength;
+
+    /** LF after CR must be skipped */
+    private boolean skipLf;
+
+    /** The first line is not read yet */
+    private boolean firstLine = true;
+
+    /** Last event id */
+    private String lastEventId;
+
+    /** Last event id buffer, it becomes the last event id when an event is dispatched */
+    private String idBuffer;
+
+    /** Retry hint, milliseconds */
+    private long retry = NO_RETRY;
+
+    /** Event type of the current event */
+    private String event;
+
+    /** Data of the current event */
+    private final StringBuilder data = new StringBuilder();
+
+    /**
+     * Constructor
+     *
+     * @param inputStream input stream
+     * @param lastEventId last event id of the previous connection, or null
+     * @param bufferSize read buffer size
+     * @param maxLineSize maximal size of a line, bytes
+     */
+    ServerSentEventParser(
+        final InputStream inputStream,
+        final String lastEventId,
+        final int bufferSize,
+        final int maxLineSize
+    ) {
+        this(inputStream, lastEventId, bufferSize, maxLineSize, () -> false);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param inputStream input stream
+     * @param lastEventId last event id of the previous connection, or null
+     * @param bufferSize read buffer size
+     * @param maxLineSize maximal size of a line, bytes
+     * @param stopped checked at every comment, true stops the parser
+     */
+    ServerSentEventParser(
+        final InputStream inputStream,
+        final String lastEventId,
+        final int bufferSize,
+        final int maxLineSize,
+        final BooleanSupplier stopped
+    ) {
+        this.inputStream = inputStream;
+        this.stopped = stopped;
+        this.lastEventId = lastEventId;
+        this.idBuffer = lastEventId;
+        this.buffer = new byte[bufferSize];
+        this.maxLineSize = maxLineSize;
+    }
+
+    /**
+     * Reads the next event.
+     * Comments, e.g. heartbeats, are not events, so the parser checks whether it is stopped at every comment.
+     * @return next event, or null at the end of the stream or at a comment after the parser is stopped
+     * @throws IOException IO Exception
+     */
+    ServerSentEvent next() throws IOException {
+        String value;
+        while (nonNull(value = readLine())) {
+            if (value.isEmpty()) {
+                ServerSentEvent dispatched = dispatch();
+                if (nonNull(dispatched)) {
+                    return dispatched;
+                }
+            } else if (value.charAt(0) == ':') {
+                if (stopped.getAsBoolean()) {
+                    return null;
+                }
+            } else {
+                int colon = value.indexOf(':');
+                if (colon < 0) {
+                    field(value, "");
+                } else {
+                    int start = colon + 1 < value.length() && value.charAt(colon + 1) == ' ' ? colon + 2 : colon + 1;
+                    field(value.substring(0, colon), value.substring(start));
+                }
+            }
+        }
+        // An incomplete event at the end of the stream is discarded
+        return null;
+    }
+
+    /**
+     * @return last event id, or null
+     */
+    String getLastEventId() {
+        return lastEventId;
+    }
+
+    /**
+     * @return retry hint, milliseconds, or NO_RETRY
+     */
+    long getRetry() {
+        return retry;
+    }
+
+    /**
+     * Processes a field
+     * @param name field name
+     * @param value field value
+     */
+    private void field(final String name, final String value) {
+        switch (name) {
+            case "event":
+                event = value;
+                break;
+            case "data":
+                data.append(value).append('\n');
+                break;
+            case "id":
+                if (value.indexOf('\0') < 0) {
+                    idBuffer = value;
+                }
+                break;
+            case "retry":
+                if (!value.isEmpty() && value.length() < 19 && value.chars().allMatch(c -> c >= '0' && c <= '9')) {
+                    retry = Long.parseLong(value);
+                }
+                break;
+            default:
+                // Unknown fields are ignored
+                break;
+        }
+    }
+
+    /**
+     * Dispatches the current event
+     * @return event, or null if the event has no data
+     */
+    private ServerSentEvent dispatch() {
+        lastEventId = idBuffer;
+        ServerSentEvent result = null;
+        if (data.length() > 0) {
+            result = new ServerSentEvent(
+                lastEventId,
+                isNull(event) || event.isEmpty() ? ServerSentEvent.DEFAULT_EVENT : event,
+                data.substring(0, data.length() - 1)
+            );
+        }
+        data.setLength(0);
+        event = null;
+        return result;
+    }
+
+    /**
+     * Reads a line terminated by CR, LF or CRLF
+     * @return line, or null at the end of the stream
+     * @throws IOException IO Exception
+     */
+    private String readLine() throws IOException {
+        lineLength = 0;
+        while (true) {
+            if (position == limit) {
+                int count = inputStream.read(buffer);
+                if (count < 0) {
+                    return null;
+                }
+                position = 0;
+                limit = count;
+            }
+            while (position < limit) {
+                byte b = buffer[position++];
+                if (skipLf) {
+                    skipLf = false;
+                    if (b == '\n') {
+                        continue;
+                    }
+                }
+                if (b == '\r' || b == '\n') {
+                    skipLf = b == '\r';
+                    return decodeLine();
+                }
+                append(b);
+            }
+        }
+    }
+
+    /**
+     * Appends a byte to the current line
+     * @param b byte
+     * @throws IOException if the line is too long
+     */
+    private void append(final byte b) throws IOException {
+        if (lineLength == line.length) {
+            if (lineLength >= maxLineSize) {
+                throw new IOException("Server-Sent Events line exceeds " + maxLineSize + " bytes");
+            }
+            line = Arrays.copyOf(line, Math.min(maxLineSize, lineLength * 2));
+        }
+        line[lineLength++] = b;
+    }
+
+    /**
+     * Decodes the current line
+     * @return line
+     */
+    private String decodeLine() {
+        String result = new String(line, 0, lineLength, StandardCharsets.UTF_8);
+        if (firstLine) {
+            firstLine = false;
+            if (!result.isEmpty() && result.charAt(0) == BOM) {
+                result = result.substring(1);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.sse;
+
+import ru.bedward70.rest.client.flow.BlockingSubscription;
+import ru.bedward70.rest.client.response.acceptor.ContextRestResponseAcceptor;
+import ru.bedward70.rest.client.response.acceptor.RestResponseContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.URLConnection;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * A "text/event-stream" implementation of RestResponseAcceptor interface.
+ * Events are parsed incrementally off the connection stream and sent to the subscription,
+ * the next event is read only when the subscriber has demand for it.
+ * The acceptor keeps the last event id and the retry hint between connections of the same stream,
+ * the value of the response is the count of sent events.
+ */
+public class ServerSentEventRestResponseAcceptor implements ContextRestResponseAcceptor<Long> {
+
+    /** Mime type */
+    public static final String EVENT_STREAM_MIME_TYPE = "text/event-stream";
+
+    /** Last event id header key */
+    public static final String LAST_EVENT_ID_HEADER_KEY = "Last-Event-ID";
+
+    /** Default read buffer size, small as many streams stay open at once */
+    public static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+
+    /** Default maximal line size */
+    public static final int DEFAULT_MAX_LINE_SIZE = 1024 * 1024;
+
+    /** Subscription */
+    private final BlockingSubscription<ServerSentEvent> subscription;
+
+    /** Read buffer size */
+    private final int bufferSize;
+
+    /** Maximal line size */
+    private final int maxLineSize;
+
+    /** Last event id, or null */
+    private volatile String lastEventId;
+
+    /** Retry hint, milliseconds, or -1 */
+    private volatile long retry = ServerSentEventParser.NO_RETRY;
+
+    /** The last response had no content, the server asked not to reconnect */
+    private volatile boolean noContent;
+
+    /**
+     * Constructor
+     *
+     * @param subscription subscription
+     */
+    public ServerSentEventRestResponseAcceptor(final BlockingSubscription<ServerSentEvent> subscription) {
+        this(subscription, null, DEFAULT_BUFFER_SIZE, DEFAULT_MAX_LINE_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param subscription subscription
+     * @param lastEventId last event id to resume from, or null
+     * @param bufferSize read buffer size
+     * @param maxLineSize maximal line size
+     */
+    public ServerSentEventRestResponseAcceptor(
+        final BlockingSubscription<ServerSentEvent> subscription,
+        final String lastEventId,
+        final int bufferSize,
+        final int maxLineSize
+    ) {
+        this.subscription = subscription;
+        this.lastEventId = lastEventId;
+        this.bufferSize = bufferSize;
+        this.maxLineSize = maxLineSize;
+    }
+
+    @Override
+    public void setAcceptProperty(final URLConnection con) {
+        con.setRequestProperty(ACCEPT_HEADER_KEY, EVENT_STREAM_MIME_TYPE);
+        con.setRequestProperty("Cache-Control", "no-cache");
+        String id = lastEventId;
+        if (nonNull(id) && !id.isEmpty()) {
+            con.setRequestProperty(LAST_EVENT_ID_HEADER_KEY, id);
+        }
+    }
+
+    @Override
+    public Long readValue(final InputStream inputStream, final Class<Long> responseClazz) throws IOException {
+        return readValue(inputStream, responseClazz, RestResponseContext.EMPTY);
+    }
+
+    @Override
+    public Long readValue(
+        final InputStream inputStream,
+        final Class<Long> responseClazz,
+        final RestResponseContext context
+    ) throws IOException {
+        noContent = context.getResponseCode() == HttpURLConnection.HTTP_NO_CONTENT;
+        if (noContent) {
+            return 0L;
+        }
+        ServerSentEventParser parser = new ServerSentEventParser(
+            inputStream, lastEventId, bufferSize, maxLineSize, subscription::isCancelled
+        );
+        long count = 0L;
+        try {
+            ServerSentEvent event;
+            while (subscription.awaitDemand() && nonNull(event = parser.next())) {
+                update(parser);
+                if (!subscription.emit(event)) {
+                    break;
+                }
+                count++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the subscriber demand");
+        } finally {
+            update(parser);
+        }
+        return count;
+    }
+
+    /**
+     * @return last event id, or null
+     */
+    public String getLastEventId() {
+        return lastEventId;
+    }
+
+    /**
+     * @return retry hint, milliseconds, or -1 if the server did not send it
+     */
+    public long getRetry() {
+        return retry;
+    }
+
+    /**
+     * @return true if the last response was "204 No Content"
+     */
+    public boolean isNoContent() {
+        return noContent;
+    }
+
+    /**
+     * Copies the connection state from the parser
+     * @param parser parser
+     */
+    private void update(final ServerSentEventParser parser) {
+        lastEventId = parser.getLastEventId();
+        retry = parser.getRetry() == ServerSentEventParser.NO_RETRY ? retry : parser.getRetry();
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.sse;
+
+import ru.bedward70.rest.client.RestClient;
+import ru.bedward70.rest.client.exception.ErrorCodeRestClientException;
+import ru.bedward70.rest.client.exception.ErrorRestClientException;
+import ru.bedward70.rest.client.flow.BlockingSubscription;
+
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+
+/**
+ * A Flow.Publisher of Server-Sent Events of an endpoint.
+ * Every subscriber gets its own stream which is read by a task of the executor. The stream reconnects
+ * after the end of the response or an IO error with the "Last-Event-ID" header, the delay is the "retry:" hint
+ * of the server or the default one, doubled after every failed connection up to the maximal delay.
+ * An error HTTP code fails the stream, "204 No Content" completes it.
+ * Cancellation takes effect at the next event or comment of the server, as a blocked read is not interrupted.
+ */
+public class ServerSentEventSource implements Flow.Publisher<ServerSentEvent> {
+
+    /** Default reconnect delay */
+    public static final Duration DEFAULT_RECONNECT_DELAY = Duration.ofSeconds(3);
+
+    /** Default maximal reconnect delay */
+    public static final Duration DEFAULT_MAX_RECONNECT_DELAY = Duration.ofSeconds(60);
+
+    /** Rest client */
+    private final RestClient restClient;
+
+    /** Url suffix */
+    private final String urlSuffix;
+
+    /** Headers */
+    private final Map<String, String> headers;
+
+    /** Executor of stream tasks */
+    private final Executor executor;
+
+    /** Reconnect delay */
+    private final Duration reconnectDelay;
+
+    /** Maximal reconnect delay */
+    private final Duration maxReconnectDelay;
+
+    /**
+     * Constructor
+     *
+     * @param restClient rest client
+     * @param urlSuffix url suffix
+     * @param headers headers
+     * @param executor executor of stream tasks
+     */
+    public ServerSentEventSource(
+        final RestClient restClient,
+        final String urlSuffix,
+        final Map<String, String> headers,
+        final Executor executor
+    ) {
+        this(restClient, urlSuffix, headers, executor, DEFAULT_RECONNECT_DELAY, DEFAULT_MAX_RECONNECT_DELAY);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param restClient rest client
+     * @param urlSuffix url suffix
+     * @param headers headers
+     * @param executor executor of stream tasks
+     * @param reconnectDelay reconnect delay used until the server sends a "retry:" hint
+     * @param maxReconnectDelay maximal reconnect delay after failed connections
+     */
+    public ServerSentEventSource(
+        final RestClient restClient,
+        final String urlSuffix,
+        final Map<String, String> headers,
+        final Executor executor,
+        final Duration reconnectDelay,
+        final Duration maxReconnectDelay
+    ) {
+        this.restClient = restClient;
+        this.urlSuffix = urlSuffix;
+        this.headers = headers;
+        this.executor = executor;
+        this.reconnectDelay = reconnectDelay;
+        this.maxReconnectDelay = maxReconnectDelay;
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super ServerSentEvent> subscriber) {
+        BlockingSubscription<ServerSentEvent> subscription = new BlockingSubscription<>(subscriber);
+        executor.execute(() -> run(subscription));
+    }
+
+    /**
+     * Reads the stream until it is completed, failed or cancelled
+     * @param subscription subscription
+     */
+    private void run(final BlockingSubscription<ServerSentEvent> subscription) {
+        subscription.start();
+        ServerSentEventRestResponseAcceptor acceptor = new ServerSentEventRestResponseAcceptor(subscription);
+        int failures = 0;
+        try {
+            while (!subscription.isCancelled()) {
+                try {
+                    long count = restClient.execute(
+                        "GET",
+                        urlSuffix,
+                        Long.class,
+                        acceptor,
+                        headers,
+                        HttpURLConnection.HTTP_OK,
+                        HttpURLConnection.HTTP_NO_CONTENT
+                    );
+                    if (acceptor.isNoContent()) {
+                        subscription.complete();
+                        return;
+                    }
+                    failures = count > 0 ? 0 : failures + 1;
+                } catch (ErrorCodeRestClientException e) {
+                    subscription.error(e);
+                    return;
+                } catch (ErrorRestClientException e) {
+                    failures++;
+                }
+                if (!subscription.await(getDelay(acceptor, failures).toNanos())) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            subscription.error(e);
+        } catch (RuntimeException e) {
+            subscription.error(e);
+        }
+    }
+
+    /**
+     * Calculates the reconnect delay
+     * @param acceptor acceptor
+     * @param failures count of failed connections in a row
+     * @return delay
+     */
+    private Duration getDelay(final ServerSentEventRestResponseAcceptor acceptor, final int failures) {
+        Duration delay = acceptor.getRetry() < 0 ? reconnectDelay : Duration.ofMillis(acceptor.getRetry());
+        for (int i = 1; i < failures && delay.compareTo(maxReconnectDelay) < 0; i++) {
+            delay = delay.multipliedBy(2);
+        }
+        return delay.compareTo(maxReconnectDelay) > 0 ? maxReconnectDelay : delay;
+    }
+}
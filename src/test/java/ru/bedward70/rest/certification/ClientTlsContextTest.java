@@ -0,0 +1,146 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.certification;
+
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.bedward70.rest.client.BaseRestClient;
+import ru.bedward70.rest.client.exception.ErrorRestClientException;
+import ru.bedward70.rest.client.response.acceptor.StringRestResponseAcceptor;
+
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs requests to a local HTTPS server and reports full and resumed handshakes
+ */
+public class ClientTlsContextTest {
+
+    private static final String PASSWORD = "changeit";
+
+    @TempDir
+    Path tempDir;
+
+    private HttpsServer server;
+    private ExecutorService serverExecutor;
+    private String keystore;
+
+    @BeforeEach
+    void startServer() throws IOException, InterruptedException {
+        keystore = tempDir.resolve("server.jks").toString();
+        Process keytool = new ProcessBuilder(
+            System.getProperty("java.home") + File.separator + "bin" + File.separator + "keytool",
+            "-genkeypair", "-alias", "server", "-keyalg", "EC", "-groupname", "secp256r1",
+            "-dname", "CN=localhost", "-ext", "SAN=dns:localhost,ip:127.0.0.1",
+            "-validity", "2", "-storetype", "JKS", "-keystore", keystore,
+            "-storepass", PASSWORD, "-keypass", PASSWORD
+        ).redirectErrorStream(true).start();
+        keytool.getInputStream().readAllBytes();
+        assertEquals(0, keytool.waitFor());
+
+        server = HttpsServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setHttpsConfigurator(new HttpsConfigurator(
+            new TrustKeystoreCertificate(keystore, PASSWORD, PASSWORD).getSSLContext()
+        ));
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/hello", exchange -> {
+            byte[] bytes = "hello".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(bytes);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void sessionResumption() {
+        // when
+        SSLSocketFactory defaultFactory = HttpsURLConnection.getDefaultSSLSocketFactory();
+        ClientTlsContext tlsContext = new ClientTlsContext(
+            new TrustKeystoreCertificate(keystore, PASSWORD, PASSWORD).getSSLContext()
+        );
+        BaseRestClient client = new BaseRestClient("https://localhost:" + server.getAddress().getPort());
+        client.setSSLSocketFactory(tlsContext.getSocketFactory());
+
+        // do
+        for (int i = 0; i < 10; i++) {
+            // Every request opens a new connection and a new handshake
+            assertEquals("hello", client.execute(
+                "GET", "/hello", String.class, new StringRestResponseAcceptor(), Map.of("Connection", "close")
+            ));
+        }
+
+        // then
+        assertEquals(1L, tlsContext.getFullHandshakes());
+        assertEquals(9L, tlsContext.getResumedHandshakes());
+        assertSame(defaultFactory, HttpsURLConnection.getDefaultSSLSocketFactory());
+    }
+
+    @Test
+    void otherClientsUseDefaults() {
+        // when
+        BaseRestClient configured = new BaseRestClient("https://localhost:" + server.getAddress().getPort());
+        configured.setSSLSocketFactory(new ClientTlsContext(
+            new TrustKeystoreCertificate(keystore, PASSWORD, PASSWORD).getSSLContext()
+        ).getSocketFactory());
+        BaseRestClient other = new BaseRestClient("https://localhost:" + server.getAddress().getPort());
+
+        // do
+        String configuredResponse = configured.execute("GET", "/hello", String.class, new StringRestResponseAcceptor(), null);
+
+        // then
+        assertEquals("hello", configuredResponse);
+        assertThrows(
+            ErrorRestClientException.class,
+            () -> other.execute("GET", "/hello", String.class, new StringRestResponseAcceptor(), null)
+        );
+    }
+}
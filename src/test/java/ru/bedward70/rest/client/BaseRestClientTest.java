@@ -25,21 +25,29 @@
 package ru.bedward70.rest.client;
 
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import ru.bedward70.rest.client.body.maker.RestBodyMaker;
 import ru.bedward70.rest.client.exception.ErrorCodeRestClientException;
+import ru.bedward70.rest.client.response.acceptor.ContextRestResponseAcceptor;
 import ru.bedward70.rest.client.response.acceptor.RestResponseAcceptor;
+import ru.bedward70.rest.client.response.acceptor.RestResponseContext;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
+import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.times;
@@ -146,4 +154,70 @@ public class BaseRestClientTest {
         assertEquals(responseMessages, exception.getResponseMessage());
         assertEquals(response, new String(exception.getErrorStreamBytes(), StandardCharsets.UTF_8));
     }
+
+    @Test
+    void testContextAcceptor() throws IOException {
+        // when
+        InputStream inputStream = Mockito.mock(InputStream.class);
+        HttpURLConnection con = Mockito.mock(HttpURLConnection.class);
+        BaseRestClient client = Mockito.spy(new BaseRestClient("http://localhost"));
+        ContextRestResponseAcceptor<String> responseAcceptor = Mockito.mock(ContextRestResponseAcceptor.class);
+        String expected = "result";
+
+        doReturn(con).when(client).getHttpURLConnection(anyString());
+        doReturn(inputStream).when(con).getInputStream();
+        doReturn(200).when(con).getResponseCode();
+        doReturn(Map.of("Content-Type", List.of("text/plain; charset=UTF-16"))).when(con).getHeaderFields();
+        doReturn(26L).when(con).getContentLengthLong();
+        doReturn("text/plain; charset=UTF-16").when(con).getContentType();
+        doReturn(new URL("http://localhost/nifi-api/flow/status")).when(con).getURL();
+        doReturn(expected).when(responseAcceptor).readValue(eq(inputStream), eq(String.class), any());
+
+        // do
+        String result = client.execute("GET", "/flow/status", String.class, responseAcceptor, null);
+
+        // then
+        ArgumentCaptor<RestResponseContext> context = ArgumentCaptor.forClass(RestResponseContext.class);
+        verify(responseAcceptor, times(1)).readValue(eq(inputStream), eq(String.class), context.capture());
+        verify(responseAcceptor, times(0)).readValue(inputStream, String.class);
+        assertEquals(expected, result);
+        assertEquals(200, context.getValue().getResponseCode());
+        assertEquals(26L, context.getValue().getContentLength());
+        assertEquals("text/plain; charset=UTF-16", context.getValue().getHeader("content-type"));
+        assertEquals(StandardCharsets.UTF_16, context.getValue().getCharset(StandardCharsets.UTF_8));
+        assertEquals("/nifi-api/flow/status", context.getValue().getEndpoint());
+    }
+
+    @Test
+    void testLightweightException() throws IOException {
+        // when
+        HttpURLConnection con = Mockito.mock(HttpURLConnection.class);
+        BaseRestClient client = Mockito.spy(new BaseRestClient("http://localhost"));
+        client.setErrorBodyLimit(4);
+        client.setErrorDrainLimit(1024);
+        client.setStacklessErrors(true);
+
+        ByteArrayInputStream responseStream = new ByteArrayInputStream("0123456789".getBytes(StandardCharsets.UTF_16LE));
+
+        doReturn(con).when(client).getHttpURLConnection(anyString());
+        doReturn(503).when(con).getResponseCode();
+        doReturn("Service Unavailable").when(con).getResponseMessage();
+        doReturn("text/html; charset=UTF-16LE").when(con).getContentType();
+        doReturn(responseStream).when(con).getErrorStream();
+
+        // do
+        ErrorCodeRestClientException exception = assertThrows(
+            ErrorCodeRestClientException.class,
+            () -> client.execute("GET", "/flow/status", String.class, null, null)
+        );
+
+        // then
+        assertEquals(503, exception.getResponseCode());
+        assertEquals(0, exception.getStackTrace().length);
+        assertEquals(4, exception.getErrorStreamBytes().length);
+        assertTrue(exception.isErrorStreamTruncated());
+        assertEquals("01", exception.getErrorString());
+        assertEquals(0, responseStream.available());
+        verify(con, times(1)).disconnect();
+    }
 }
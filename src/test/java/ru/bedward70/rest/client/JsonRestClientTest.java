@@ -0,0 +1,124 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.bedward70.rest.client.intern.StringCache;
+import ru.bedward70.rest.client.server.FaultInjectingServer;
+import ru.bedward70.rest.client.server.Route;
+import ru.bedward70.rest.client.server.ServerResponse;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class JsonRestClientTest {
+
+    private FaultInjectingServer server;
+    private JsonRestClient client;
+    private final Set<Integer> remotePorts = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new FaultInjectingServer().route("/ping", new Route(request -> {
+            remotePorts.add(request.getRemotePort());
+            return new ServerResponse(200, "{}");
+        }));
+        client = new JsonRestClient(
+            new BaseRestClient(server.getUrl()),
+            new ObjectMapper()
+        );
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void warmUp() throws IOException {
+        // when
+        int connections = 3;
+
+        // do
+        int succeeded = client.warmUp("GET", "/ping", connections, 100, Dto.class, Integer.class);
+        Dto result = client.execute("GET", "/ping", Dto.class, null);
+
+        // then
+        assertEquals(connections, succeeded);
+        assertEquals(connections + 1, server.getRequests());
+        assertEquals(connections, remotePorts.size());
+        assertEquals(0, result.getValue());
+    }
+
+    @Test
+    void warmUpWithFailedRequests() throws IOException {
+        // when
+        // do
+        int succeeded = client.warmUp("GET", "/missing", 2, 0, Dto.class);
+
+        // then
+        assertEquals(0, succeeded);
+    }
+
+    @Test
+    void executeWithStringCache() {
+        // when
+        server.route("/states", new Route(request -> new ServerResponse(200, "[\"RUNNING\",\"RUNNING\"]")));
+        StringCache cache = new StringCache();
+        JsonRestClient cachingClient = new JsonRestClient(
+            new BaseRestClient(server.getUrl()),
+            new ObjectMapper(),
+            cache
+        );
+
+        // do
+        String[] states = cachingClient.execute("GET", "/states", String[].class, null);
+
+        // then
+        assertSame(states[0], states[1]);
+        assertEquals(1, cache.getHits());
+        assertEquals(0.5, cache.getDedupRatio());
+    }
+
+    public static class Dto {
+
+        private int value;
+
+        public int getValue() {
+            return value;
+        }
+
+        public void setValue(final int value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.bedward70.rest.client.body.maker.XWwwFormUrlEncodedRestBodyMaker;
+import ru.bedward70.rest.client.response.acceptor.StringRestResponseAcceptor;
+import ru.bedward70.rest.client.server.FaultInjectingServer;
+import ru.bedward70.rest.client.server.LatencyDistribution;
+import ru.bedward70.rest.client.server.Route;
+import ru.bedward70.rest.client.server.ServerRequest;
+import ru.bedward70.rest.client.server.ServerResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The flow of {@link DemoNifiTest} against a local server imitating the NiFi API
+ */
+public class NifiFlowTest {
+
+    private static final String TOKEN = "local-token";
+
+    private FaultInjectingServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        LatencyDistribution latency = LatencyDistribution.logNormal(Duration.ofMillis(2), 0.5);
+        server = new FaultInjectingServer()
+            .route("/nifi-api/access/token", new Route(NifiFlowTest::token).latency(latency))
+            .route("/nifi-api/system-diagnostics", new Route(request -> authorized(
+                request,
+                new ServerResponse(200, "{\"systemDiagnostics\":{\"aggregateSnapshot\":{\"availableProcessors\":8}}}")
+                    .header("Content-Type", "application/json")
+            )).latency(latency).chunked(true))
+            .route("/nifi-api/access/logout", new Route(request -> authorized(request, new ServerResponse(200, ""))));
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void flow() {
+        // when
+        BaseRestClient client = new BaseRestClient(server.getUrl() + "/nifi-api");
+
+        // do
+        String token = client.execute(
+            "POST",
+            "/access/token",
+            Map.of("username", "admin", "password", "p@ss word"),
+            new XWwwFormUrlEncodedRestBodyMaker(),
+            String.class,
+            new StringRestResponseAcceptor(),
+            null,
+            201
+        );
+        client.setBearerToken(token);
+        JsonRestClient jsonClient = new JsonRestClient(client, new ObjectMapper());
+        Map<?, ?> systemDiagnostics = jsonClient.execute("GET", "/system-diagnostics", Map.class, null);
+        jsonClient.execute("DELETE", "/access/logout", null, null);
+
+        // then
+        assertEquals(TOKEN, token);
+        assertEquals(
+            Map.of("aggregateSnapshot", Map.of("availableProcessors", 8)),
+            systemDiagnostics.get("systemDiagnostics")
+        );
+        assertEquals(3, server.getRequests());
+    }
+
+    private static ServerResponse token(final ServerRequest request) {
+        String form = request.getBodyAsString();
+        return form.contains("username=admin") && form.contains("password=p%40ss+word")
+            ? new ServerResponse(201, TOKEN)
+            : new ServerResponse(400, "Invalid credentials");
+    }
+
+    private static ServerResponse authorized(final ServerRequest request, final ServerResponse response) {
+        return ("Bearer " + TOKEN).equals(request.getHeader("Authorization"))
+            ? response
+            : new ServerResponse(401, "Unauthorized");
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.balancer;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mockito;
+import ru.bedward70.rest.client.RestClient;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+
+public class ConsistentHashRestClientTest {
+
+    @Test
+    void pathSegment() {
+        // when
+        RequestKeyExtractor first = RequestKeyExtractor.pathSegment(0);
+        RequestKeyExtractor second = RequestKeyExtractor.pathSegment(1);
+        RequestKeyExtractor third = RequestKeyExtractor.pathSegment(2);
+
+        // do
+        long users = first.getKeyHash("GET", "/users/42?expand=true", null, null);
+        long id = second.getKeyHash("GET", "/users/42?expand=true", null, null);
+        long idWithTail = second.getKeyHash("GET", "users/42/orders", null, null);
+        long missing = third.getKeyHash("GET", "/users/42?expand=true", null, null);
+
+        // then
+        assertEquals(RequestKeyExtractor.hash("users", 0, 5), users);
+        assertEquals(RequestKeyExtractor.hash("42", 0, 2), id);
+        assertEquals(id, idWithTail);
+        assertEquals(RequestKeyExtractor.NO_KEY, missing);
+    }
+
+    @Test
+    void headerAndBodyField() {
+        // when
+        RequestKeyExtractor header = RequestKeyExtractor.header("X-Tenant");
+        RequestKeyExtractor bodyField = RequestKeyExtractor.bodyField(new ObjectMapper(), "tenant");
+
+        // do
+        long fromHeader = header.getKeyHash("GET", "/a", null, Map.of("X-Tenant", "acme"));
+        long fromMap = bodyField.getKeyHash("POST", "/a", Map.of("tenant", "acme"), null);
+        long fromBean = bodyField.getKeyHash("POST", "/a", new Tenant("acme"), null);
+        long noHeader = header.getKeyHash("GET", "/a", null, null);
+        long noField = bodyField.getKeyHash("POST", "/a", Map.of(), null);
+
+        // then
+        assertEquals(RequestKeyExtractor.hash("acme", 0, 4), fromHeader);
+        assertEquals(fromHeader, fromMap);
+        assertEquals(fromHeader, fromBean);
+        assertEquals(RequestKeyExtractor.NO_KEY, noHeader);
+        assertEquals(RequestKeyExtractor.NO_KEY, noField);
+    }
+
+    @Test
+    void bodyFieldOfBeans() {
+        // when
+        RequestKeyExtractor bodyField = RequestKeyExtractor.bodyField(new ObjectMapper(), "tenant");
+        RequestKeyExtractor renamed = RequestKeyExtractor.bodyField(new ObjectMapper(), "tenant_id");
+        RequestKeyExtractor typed = RequestKeyExtractor.body(Tenant.class, Tenant::getTenant);
+
+        // do
+        long first = bodyField.getKeyHash("POST", "/a", new Tenant("acme"), null);
+        long second = bodyField.getKeyHash("POST", "/a", new Tenant("acme"), null);
+        long fromField = renamed.getKeyHash("POST", "/a", new TenantId(42), null);
+        long fromTyped = typed.getKeyHash("POST", "/a", new Tenant("acme"), null);
+        long nullValue = bodyField.getKeyHash("POST", "/a", new Tenant(null), null);
+        long unknown = bodyField.getKeyHash("POST", "/a", new TenantId(42), null);
+        long otherClass = typed.getKeyHash("POST", "/a", "acme", null);
+
+        // then
+        long expected = RequestKeyExtractor.hash("acme", 0, 4);
+        assertEquals(expected, first);
+        assertEquals(expected, second);
+        assertEquals(expected, fromTyped);
+        assertEquals(RequestKeyExtractor.hash("42", 0, 2), fromField);
+        assertEquals(RequestKeyExtractor.NO_KEY, nullValue);
+        assertEquals(RequestKeyExtractor.NO_KEY, unknown);
+        assertEquals(RequestKeyExtractor.NO_KEY, otherClass);
+    }
+
+    @Test
+    void affinity() {
+        // when
+        List<Endpoint> endpoints = endpoints(3);
+        ConsistentHashRestClient client = client(endpoints);
+
+        // do
+        for (int i = 0; i < 10; i++) {
+            client.execute("GET", "/users/42", String.class, null, null);
+        }
+
+        // then
+        long hash = RequestKeyExtractor.hash("42", 0, 2);
+        assertEquals(10L, client.getEndpoint(hash).getRequests());
+        assertEquals(10L, endpoints.stream().mapToLong(Endpoint::getRequests).sum());
+    }
+
+    @Test
+    void minimalRemapping() {
+        // when
+        List<Endpoint> endpoints = endpoints(3);
+        ConsistentHashRestClient client = client(endpoints);
+        List<Long> keys = IntStream.range(0, 10_000)
+            .mapToObj(i -> RequestKeyExtractor.hash("key" + i, 0, ("key" + i).length()))
+            .collect(Collectors.toList());
+        Map<Long, Endpoint> before = new HashMap<>();
+        keys.forEach(key -> before.put(key, client.getEndpoint(key)));
+        Endpoint joined = endpoint(3);
+
+        // do
+        client.addEndpoint(joined);
+        long moved = keys.stream().filter(key -> client.getEndpoint(key) != before.get(key)).count();
+        boolean movedToJoined = keys.stream()
+            .filter(key -> client.getEndpoint(key) != before.get(key))
+            .allMatch(key -> client.getEndpoint(key) == joined);
+        client.removeEndpoint(joined.getUrl());
+        long restored = keys.stream().filter(key -> client.getEndpoint(key) == before.get(key)).count();
+
+        // then
+        assertTrue(moved > 1_500 && moved < 3_500, "moved: " + moved);
+        assertTrue(movedToJoined);
+        assertEquals(keys.size(), restored);
+    }
+
+    @Test
+    void boundedLoad() {
+        // when
+        List<Endpoint> endpoints = endpoints(3);
+        ConsistentHashRestClient client = client(endpoints);
+        long hash = RequestKeyExtractor.hash("42", 0, 2);
+        Endpoint home = client.getEndpoint(hash);
+        IntStream.range(0, 10).forEach(i -> home.onStart());
+
+        // do
+        client.execute("GET", "/users/42", String.class, null, null);
+
+        // then
+        assertEquals(10L, home.getRequests());
+        assertEquals(11L, endpoints.stream().mapToLong(Endpoint::getRequests).sum());
+    }
+
+    @Test
+    void ejectedHome() {
+        // when
+        List<Endpoint> endpoints = endpoints(3);
+        ConsistentHashRestClient client = client(endpoints);
+        long hash = RequestKeyExtractor.hash("42", 0, 2);
+        Endpoint home = client.getEndpoint(hash);
+        home.onStart();
+        home.onFailure(System.nanoTime(), 1, Duration.ofMinutes(1).toNanos(), Duration.ofMinutes(1).toNanos());
+
+        // do
+        client.execute("GET", "/users/42", String.class, null, null);
+        client.execute("GET", "/users/42", String.class, null, null);
+
+        // then
+        assertEquals(1L, home.getRequests());
+        Endpoint next = endpoints.stream().filter(endpoint -> endpoint.getRequests() == 2L).findFirst().orElseThrow();
+        assertNotSame(home, next);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {3, 70})
+    void walkChecksEveryEndpointOnce(final int count) {
+        // when
+        List<Endpoint> endpoints = endpoints(count);
+        AtomicInteger checks = new AtomicInteger();
+        ConsistentHashRestClient client = new ConsistentHashRestClient(
+            endpoints,
+            RequestKeyExtractor.pathSegment(1),
+            ConsistentHashRestClient.DEFAULT_REPLICAS,
+            ConsistentHashRestClient.DEFAULT_LOAD_FACTOR,
+            5,
+            Duration.ofSeconds(30),
+            Duration.ofSeconds(30),
+            Duration.ofSeconds(10)
+        ) {
+            @Override
+            protected double getWeight(final Endpoint endpoint, final long now) {
+                // Every endpoint is ejected
+                checks.incrementAndGet();
+                return 0.0;
+            }
+        };
+
+        // do
+        client.select(client.getEndpoints(), "GET", "/users/42", null, null);
+
+        // then
+        // The ring walk and the least outstanding fallback check every endpoint once
+        assertEquals(2 * count, checks.get());
+    }
+
+    @Test
+    void noKey() {
+        // when
+        List<Endpoint> endpoints = endpoints(3);
+        ConsistentHashRestClient client = client(endpoints);
+
+        // do
+        IntStream.range(0, 3).forEach(i -> client.execute("GET", "/", String.class, null, null));
+
+        // then
+        assertEquals(3L, endpoints.stream().mapToLong(Endpoint::getRequests).sum());
+        assertNotEquals(0L, RequestKeyExtractor.hash("", 0, 0));
+        assertSame(endpoints.get(0), client.getEndpoints().get(0));
+    }
+
+    private static ConsistentHashRestClient client(final List<Endpoint> endpoints) {
+        return new ConsistentHashRestClient(
+            endpoints,
+            RequestKeyExtractor.pathSegment(1),
+            ConsistentHashRestClient.DEFAULT_REPLICAS,
+            ConsistentHashRestClient.DEFAULT_LOAD_FACTOR,
+            5,
+            Duration.ofSeconds(30),
+            Duration.ofSeconds(30),
+            Duration.ofSeconds(10)
+        );
+    }
+
+    private static List<Endpoint> endpoints(final int count) {
+        return IntStream.range(0, count).mapToObj(ConsistentHashRestClientTest::endpoint).collect(Collectors.toList());
+    }
+
+    private static Endpoint endpoint(final int index) {
+        RestClient restClient = Mockito.mock(RestClient.class);
+        doReturn("ok").when(restClient).execute(anyString(), anyString(), any(), any(), any(), any(), any(), any());
+        return new Endpoint("http://node" + index, restClient);
+    }
+
+    public static class Tenant {
+
+        private final String tenant;
+
+        Tenant(final String tenant) {
+            this.tenant = tenant;
+        }
+
+        public String getTenant() {
+            return tenant;
+        }
+    }
+
+    public static class TenantId {
+
+        @JsonProperty("tenant_id")
+        private final int id;
+
+        TenantId(final int id) {
+            this.id = id;
+        }
+    }
+}
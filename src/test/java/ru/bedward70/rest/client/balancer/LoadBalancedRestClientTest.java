@@ -0,0 +1,255 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.balancer;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.bedward70.rest.client.RestClient;
+import ru.bedward70.rest.client.exception.ErrorCodeRestClientException;
+import ru.bedward70.rest.client.exception.ErrorRestClientException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class LoadBalancedRestClientTest {
+
+    @Test
+    void roundRobin() {
+        // when
+        List<Endpoint> endpoints = endpoints(3);
+        LoadBalancedRestClient client = client(endpoints, LoadBalancingStrategy.ROUND_ROBIN, Duration.ofSeconds(30));
+
+        // do
+        IntStream.range(0, 30).forEach(i -> client.execute("GET", "/a", String.class, null, null));
+
+        // then
+        endpoints.forEach(endpoint -> assertEquals(10L, endpoint.getRequests()));
+        endpoints.forEach(endpoint -> assertEquals(0, endpoint.getOutstanding()));
+    }
+
+    @Test
+    void leastOutstanding() {
+        // when
+        List<Endpoint> endpoints = endpoints(3);
+        LoadBalancedRestClient client = client(endpoints, LoadBalancingStrategy.LEAST_OUTSTANDING, Duration.ofSeconds(30));
+        endpoints.get(0).onStart();
+        endpoints.get(1).onStart();
+
+        // do
+        client.execute("GET", "/a", String.class, null, null);
+
+        // then
+        assertEquals(1L, endpoints.get(2).getRequests());
+        assertEquals(0, endpoints.get(2).getOutstanding());
+    }
+
+    @Test
+    void powerOfTwoChoices() {
+        // when
+        List<Endpoint> endpoints = endpoints(2);
+        LoadBalancedRestClient client = client(endpoints, LoadBalancingStrategy.POWER_OF_TWO_CHOICES, Duration.ofSeconds(30));
+        long now = System.nanoTime();
+        endpoints.get(0).onStart();
+        endpoints.get(0).onSuccess(now, 50_000_000L, 1L);
+        endpoints.get(1).onStart();
+        endpoints.get(1).onSuccess(now, 1_000_000L, 1L);
+
+        // do
+        IntStream.range(0, 20).forEach(i -> client.execute("GET", "/a", String.class, null, null));
+
+        // then
+        assertEquals(1L, endpoints.get(0).getRequests());
+        assertEquals(21L, endpoints.get(1).getRequests());
+        assertEquals(50_000_000.0, endpoints.get(0).getLatencyNanos());
+    }
+
+    @Test
+    void peakLatency() {
+        // when
+        Endpoint endpoint = endpoints(1).get(0);
+        long now = System.nanoTime();
+
+        // do
+        endpoint.onSuccess(now, 1_000L, 1_000_000L);
+        endpoint.onSuccess(now + 1_000L, 9_000L, 1_000_000L);
+        endpoint.onSuccess(now + 1_000_000_000L, 3_000L, 1_000_000L);
+
+        // then
+        assertEquals(3_000.0, endpoint.getLatencyNanos(), 1.0);
+    }
+
+    @Test
+    void outlierEjection() throws IOException {
+        // when
+        List<Endpoint> endpoints = endpoints(2);
+        LoadBalancedRestClient client = client(endpoints, LoadBalancingStrategy.ROUND_ROBIN, Duration.ofSeconds(30));
+        doThrow(new ErrorRestClientException(new IOException("refused")))
+            .when(endpoints.get(0).getRestClient())
+            .execute(anyString(), anyString(), any(), any(), any(), any(), any(), any());
+
+        // do
+        for (int i = 0; i < 10; i++) {
+            try {
+                client.execute("GET", "/a", String.class, null, null);
+            } catch (ErrorRestClientException e) {
+                // expected for the failed endpoint
+            }
+        }
+
+        // then
+        assertEquals(2L, endpoints.get(0).getRequests());
+        assertEquals(8L, endpoints.get(1).getRequests());
+        assertEquals(1, endpoints.get(0).getEjections());
+        assertTrue(endpoints.get(0).isEjected());
+        assertFalse(endpoints.get(1).isEjected());
+    }
+
+    @Test
+    void clientErrorsDoNotEject() {
+        // when
+        List<Endpoint> endpoints = endpoints(1);
+        LoadBalancedRestClient client = client(endpoints, LoadBalancingStrategy.ROUND_ROBIN, Duration.ofSeconds(30));
+        doThrow(new ErrorCodeRestClientException(404, "Not Found", new byte[0]))
+            .when(endpoints.get(0).getRestClient())
+            .execute(anyString(), anyString(), any(), any(), any(), any(), any(), any());
+
+        // do
+        IntStream.range(0, 5).forEach(i -> assertThrows(
+            ErrorCodeRestClientException.class,
+            () -> client.execute("GET", "/a", String.class, null, null)
+        ));
+
+        // then
+        assertEquals(0, endpoints.get(0).getEjections());
+        assertEquals(0L, endpoints.get(0).getFailures());
+    }
+
+    @Test
+    void slowStart() throws InterruptedException {
+        // when
+        Endpoint endpoint = endpoints(1).get(0);
+        long slowStart = Duration.ofSeconds(10).toNanos();
+        long now = System.nanoTime();
+
+        // do
+        endpoint.onStart();
+        endpoint.onFailure(now, 1, 1_000_000L, 1_000_000L);
+
+        // then
+        assertEquals(0.0, endpoint.getWeight(now, slowStart));
+        assertEquals(Endpoint.MIN_WEIGHT, endpoint.getWeight(now + 1_000_000L, slowStart));
+        assertEquals(0.5, endpoint.getWeight(now + 1_000_000L + slowStart / 2, slowStart), 0.001);
+        assertEquals(1.0, endpoint.getWeight(now + 1_000_000L + slowStart, slowStart));
+        assertEquals(1.0, endpoint.getWeight(now + 1_000_000L, slowStart));
+    }
+
+    @Test
+    void ejectionTimeResetsAfterHealthyPeriod() {
+        // when
+        Endpoint endpoint = endpoints(1).get(0);
+        long ejection = 1_000_000L;
+        long now = System.nanoTime();
+
+        // do
+        endpoint.onStart();
+        endpoint.onFailure(now, 1, ejection, 10 * ejection);
+        long second = endpoint.getAvailableFrom();
+        endpoint.onStart();
+        endpoint.onFailure(second, 1, ejection, 10 * ejection);
+        long healthy = endpoint.getAvailableFrom() + ejection;
+        endpoint.onStart();
+        endpoint.onFailure(healthy, 1, ejection, 10 * ejection);
+
+        // then
+        assertEquals(now + ejection, second);
+        assertEquals(healthy - ejection, second + 2 * ejection);
+        assertEquals(healthy + ejection, endpoint.getAvailableFrom());
+        assertEquals(3, endpoint.getEjections());
+    }
+
+    @Test
+    void allEjected() {
+        // when
+        List<Endpoint> endpoints = endpoints(2);
+        LoadBalancedRestClient client = client(endpoints, LoadBalancingStrategy.POWER_OF_TWO_CHOICES, Duration.ofSeconds(30));
+        long now = System.nanoTime();
+        endpoints.get(0).onStart();
+        endpoints.get(0).onFailure(now, 1, 2_000_000_000L, 2_000_000_000L);
+        endpoints.get(1).onStart();
+        endpoints.get(1).onFailure(now, 1, 1_000_000_000L, 1_000_000_000L);
+
+        // do
+        client.execute("GET", "/a", String.class, null, null);
+
+        // then
+        assertEquals(1L, endpoints.get(0).getRequests());
+        assertEquals(2L, endpoints.get(1).getRequests());
+    }
+
+    @Test
+    void setHeader() {
+        // when
+        List<Endpoint> endpoints = endpoints(2);
+        LoadBalancedRestClient client = client(endpoints, LoadBalancingStrategy.ROUND_ROBIN, Duration.ofSeconds(30));
+
+        // do
+        client.setHeader("X-Test", "1");
+
+        // then
+        endpoints.forEach(endpoint -> verify(endpoint.getRestClient(), times(1)).setHeader("X-Test", "1"));
+    }
+
+    private static LoadBalancedRestClient client(
+        final List<Endpoint> endpoints,
+        final LoadBalancingStrategy strategy,
+        final Duration ejectionTime
+    ) {
+        return new LoadBalancedRestClient(endpoints, strategy, 2, ejectionTime, ejectionTime, Duration.ofSeconds(10));
+    }
+
+    private static List<Endpoint> endpoints(final int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> {
+                RestClient restClient = Mockito.mock(RestClient.class);
+                doReturn("ok").when(restClient).execute(anyString(), anyString(), any(), any(), any(), any(), any(), any());
+                return new Endpoint("http://node" + i, restClient);
+            })
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.batch;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.bedward70.rest.client.RestClient;
+import ru.bedward70.rest.client.deadline.Deadline;
+import ru.bedward70.rest.client.exception.ErrorCodeRestClientException;
+import ru.bedward70.rest.client.response.acceptor.RestResponseAcceptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+public class RestBatchExecutorTest {
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+
+    @Test
+    void executeAll() {
+        // when
+        RestClient client = mockClient();
+        List<RestRequest<Void, String>> requests = requests(20);
+
+        // do
+        List<RestBatchResult<String>> results = new RestBatchExecutor(client, 3).executeAll(requests);
+
+        // then
+        assertEquals(20, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            RestBatchResult<String> result = results.get(i);
+            assertTrue(result.isSucceeded());
+            assertEquals("/processors/" + i, result.getValue());
+            assertTrue(result.getStartNanos() >= 0);
+            assertNotNull(result.getDuration());
+        }
+        assertTrue(maxActive.get() <= 3);
+        assertTrue(maxActive.get() > 1);
+    }
+
+    @Test
+    void executeAllCollectsFailures() {
+        // when
+        RestClient client = mockClient();
+        List<RestRequest<Void, String>> requests = requests(5);
+        requests.set(1, request("/fail"));
+        requests.set(3, request("/fail"));
+
+        // do
+        List<RestBatchResult<String>> results = new RestBatchExecutor(client, 2).executeAll(requests);
+
+        // then
+        assertEquals(RestBatchResult.Status.FAILED, results.get(1).getStatus());
+        assertEquals(RestBatchResult.Status.FAILED, results.get(3).getStatus());
+        assertSame(results.get(1).getException(), assertThrows(ErrorCodeRestClientException.class, results.get(1)::getValue));
+        assertEquals("/processors/4", results.get(4).getValue());
+    }
+
+    @Test
+    void executeAllFailFast() {
+        // when
+        RestClient client = mockClient();
+        List<RestRequest<Void, String>> requests = requests(10);
+        requests.set(0, request("/fail"));
+
+        // do
+        List<RestBatchResult<String>> results = new RestBatchExecutor(client, 1, null, true).executeAll(requests);
+
+        // then
+        assertEquals(RestBatchResult.Status.FAILED, results.get(0).getStatus());
+        for (int i = 1; i < results.size(); i++) {
+            assertEquals(RestBatchResult.Status.SKIPPED, results.get(i).getStatus());
+            assertEquals(-1, results.get(i).getStartNanos());
+            assertThrows(IllegalStateException.class, results.get(i)::getValue);
+        }
+    }
+
+    @Test
+    void executeAllWithDeadline() {
+        // when
+        RestClient client = mockClient();
+        List<RestRequest<Void, String>> requests = requests(3);
+        requests.set(1, request("/slow"));
+
+        // do
+        long start = System.nanoTime();
+        List<RestBatchResult<String>> results = new RestBatchExecutor(client, 1, Duration.ofMillis(200), false)
+            .executeAll(requests);
+
+        // then
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(2).toNanos());
+        assertTrue(results.get(0).isSucceeded());
+        assertEquals(RestBatchResult.Status.TIMED_OUT, results.get(1).getStatus());
+        assertTrue(results.get(1).getStartNanos() >= 0);
+        assertNull(results.get(1).getDuration());
+        assertEquals(RestBatchResult.Status.TIMED_OUT, results.get(2).getStatus());
+    }
+
+    @Test
+    void executeAllPropagatesDeadline() {
+        // when
+        RestClient client = Mockito.mock(RestClient.class);
+        List<Deadline> deadlines = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            deadlines.add(Deadline.current());
+            return "ok";
+        }).when(client).execute(anyString(), anyString(), any(), any(), any(), any(), any(), any(Integer[].class));
+        Deadline outer = Deadline.after(Duration.ofMillis(500));
+
+        // do
+        List<RestBatchResult<String>> results = outer.call(
+            () -> new RestBatchExecutor(client, 2, Duration.ofSeconds(30), false).executeAll(requests(4))
+        );
+
+        // then
+        assertEquals(4, results.size());
+        assertEquals(4, deadlines.size());
+        deadlines.forEach(deadline -> assertSame(outer, deadline));
+        assertNull(Deadline.current());
+    }
+
+    @Test
+    void executeAllEmpty() {
+        assertTrue(new RestBatchExecutor(mockClient(), 4).executeAll(Collections.<RestRequest<Void, String>>emptyList()).isEmpty());
+    }
+
+    private RestClient mockClient() {
+        RestClient client = Mockito.mock(RestClient.class);
+        doAnswer(invocation -> {
+            String urlSuffix = invocation.getArgument(1);
+            int current = active.incrementAndGet();
+            maxActive.accumulateAndGet(current, Math::max);
+            try {
+                if ("/fail".equals(urlSuffix)) {
+                    throw new ErrorCodeRestClientException(500, "Internal Server Error", null);
+                }
+                Thread.sleep("/slow".equals(urlSuffix) ? 5_000 : 20);
+                return urlSuffix;
+            } finally {
+                active.decrementAndGet();
+            }
+        }).when(client).execute(anyString(), anyString(), any(), any(), any(), any(), any(), any(Integer[].class));
+        return client;
+    }
+
+    private static List<RestRequest<Void, String>> requests(final int count) {
+        List<RestRequest<Void, String>> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            requests.add(request("/processors/" + i));
+        }
+        return requests;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RestRequest<Void, String> request(final String urlSuffix) {
+        return new RestRequest<>("GET", urlSuffix, String.class, Mockito.mock(RestResponseAcceptor.class), null);
+    }
+}
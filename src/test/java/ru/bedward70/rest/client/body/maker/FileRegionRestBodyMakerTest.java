@@ -0,0 +1,127 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.body.maker;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.Mockito;
+import ru.bedward70.rest.client.buffer.BufferPool;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class FileRegionRestBodyMakerTest {
+
+    private static final String CONTENT = "0123456789abcdefghij";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void setContentTypeProperty() {
+        // when
+        URLConnection con = Mockito.mock(URLConnection.class);
+        FileRegionRestBodyMaker maker = new FileRegionRestBodyMaker("application/octet-stream");
+
+        // do
+        maker.setContentTypeProperty(con, null);
+        maker.setContentTypeProperty(con, new FileRegion(tempDir));
+
+        // then
+        verify(con, times(1)).setRequestProperty(anyString(), anyString());
+        verify(con, times(1)).setRequestProperty("Content-Type", "application/octet-stream");
+    }
+
+    @Test
+    void writeWithNull() throws IOException {
+        // when
+        URLConnection con = Mockito.mock(URLConnection.class);
+
+        // do
+        new FileRegionRestBodyMaker("application/octet-stream").write(con, null);
+
+        // then
+        verify(con, times(0)).setDoOutput(anyBoolean());
+        verify(con, times(0)).getOutputStream();
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void write(
+        final long position,
+        final long count,
+        final int bufferSize,
+        final String expected
+    ) throws IOException {
+        // when
+        Path file = Files.writeString(tempDir.resolve("body.bin"), CONTENT);
+        HttpURLConnection con = Mockito.mock(HttpURLConnection.class);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        doReturn(outputStream).when(con).getOutputStream();
+
+        // do
+        new FileRegionRestBodyMaker("application/octet-stream", bufferSize)
+            .write(con, new FileRegion(file, position, count));
+
+        // then
+        verify(con, times(1)).setFixedLengthStreamingMode((long) expected.length());
+        verify(con, times(1)).setDoOutput(true);
+        assertEquals(expected, new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private static Stream<Arguments> write() {
+        return Stream.of(
+            Arguments.of(0L, FileRegion.TO_END_OF_FILE, 3, CONTENT),
+            Arguments.of(5L, 7L, 4, "56789ab"),
+            Arguments.of(15L, 100L, 1024, "fghij"),
+            Arguments.of(25L, FileRegion.TO_END_OF_FILE, 1024, ""),
+            Arguments.of(2L, 10L, BufferPool.getDefault().getBufferSize() + 1, "23456789ab")
+        );
+    }
+
+    @Test
+    void constructorValidation() {
+        assertThrows(IllegalArgumentException.class, () -> new FileRegion(tempDir, -1L, 1L));
+        assertThrows(IllegalArgumentException.class, () -> new FileRegion(tempDir, 0L, -2L));
+        assertThrows(IllegalArgumentException.class, () -> new FileRegionRestBodyMaker("text/plain", 0));
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.body.maker;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class FileRestBodyMakerTest {
+
+    private final FileRestBodyMaker maker = new FileRestBodyMaker("application/xml");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void setContentTypeProperty() {
+        // when
+        URLConnection con = Mockito.mock(URLConnection.class);
+
+        // do
+        maker.setContentTypeProperty(con, null);
+        maker.setContentTypeProperty(con, tempDir.toFile());
+
+        // then
+        verify(con, times(1)).setRequestProperty(anyString(), anyString());
+        verify(con, times(1)).setRequestProperty("Content-Type", "application/xml");
+    }
+
+    @Test
+    void writeWithNull() throws IOException {
+        // when
+        URLConnection con = Mockito.mock(URLConnection.class);
+
+        // do
+        maker.write(con, null);
+
+        // then
+        verify(con, times(0)).setDoOutput(anyBoolean());
+        verify(con, times(0)).getOutputStream();
+    }
+
+    @Test
+    void write() throws IOException {
+        // when
+        byte[] expected = new byte[200_000];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = (byte) i;
+        }
+        Path file = Files.write(tempDir.resolve("body.bin"), expected);
+        HttpURLConnection con = Mockito.mock(HttpURLConnection.class);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        doReturn(outputStream).when(con).getOutputStream();
+
+        // do
+        maker.write(con, file.toFile());
+
+        // then
+        verify(con, times(1)).setFixedLengthStreamingMode((long) expected.length);
+        verify(con, times(1)).setDoOutput(true);
+        assertArrayEquals(expected, outputStream.toByteArray());
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.body.maker;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.bedward70.rest.client.buffer.BufferPool;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FormUrlEncoderTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "", "abcXYZ019", ".-*_", " ", "~!@#$%^&()+=[]{}|\\:;\"'<>,/?", "\u007f\u0080", "é", "ключ", "€", "😀",
+        "\ud83d", "\ude00", "a\ud83dz", "\ude00\ud83d"
+    })
+    void encodeLikeUrlEncoder(final String value) throws IOException {
+        // when
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // do
+        try (FormUrlEncoder encoder = new FormUrlEncoder(outputStream)) {
+            encoder.writeParameter(value, value);
+        }
+
+        // then
+        String expected = URLEncoder.encode(value, StandardCharsets.UTF_8);
+        assertEquals(expected + "=" + expected, outputStream.toString(StandardCharsets.US_ASCII));
+        assertEquals(expected.length(), FormUrlEncoder.getEncodedLength(value));
+    }
+
+    @Test
+    void encodeRandomStrings() throws IOException {
+        // when
+        Random random = new Random(44);
+        StringBuilder expected = new StringBuilder();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        long length = 0;
+
+        // do
+        // A small pool buffer makes the encoder flush in the middle of strings
+        try (FormUrlEncoder encoder = new FormUrlEncoder(outputStream, new BufferPool(64, 1, false))) {
+            for (int i = 0; i < 1_000; i++) {
+                String name = randomString(random);
+                String value = randomString(random);
+                encoder.writeParameter(name, value);
+                expected.append(i == 0 ? "" : "&")
+                    .append(URLEncoder.encode(name, StandardCharsets.UTF_8))
+                    .append('=')
+                    .append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+                length += (i == 0 ? 0 : 1) + FormUrlEncoder.getParameterLength(name, value);
+            }
+        }
+
+        // then
+        assertEquals(expected.toString(), outputStream.toString(StandardCharsets.US_ASCII));
+        assertEquals(expected.length(), length);
+    }
+
+    @Test
+    void writeAfterClose() throws IOException {
+        // when
+        FormUrlEncoder encoder = new FormUrlEncoder(new ByteArrayOutputStream());
+
+        // do
+        encoder.close();
+        encoder.close();
+
+        // then
+        assertThrows(IOException.class, () -> encoder.writeParameter("name", "value"));
+    }
+
+    private static String randomString(final Random random) {
+        char[] chars = new char[random.nextInt(40)];
+        for (int i = 0; i < chars.length; i++) {
+            switch (random.nextInt(4)) {
+                case 0:
+                    chars[i] = (char) random.nextInt(128);
+                    break;
+                case 1:
+                    chars[i] = (char) (0x80 + random.nextInt(0x780));
+                    break;
+                default:
+                    chars[i] = (char) random.nextInt(0x10000);
+            }
+        }
+        return new String(chars);
+    }
+}
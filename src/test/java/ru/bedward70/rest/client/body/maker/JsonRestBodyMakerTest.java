@@ -31,17 +31,22 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import ru.bedward70.rest.client.codec.CodecItem;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.Map;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -123,4 +128,53 @@ public class JsonRestBodyMakerTest {
             Arguments.of(Map.of("id", "1", "value",  "2"))
         );
     }
+
+    @Test
+    void writeWithGeneratedCodec() throws IOException {
+        // when
+        ObjectMapper spy = Mockito.spy(new ObjectMapper());
+        JsonRestBodyMaker codecMaker = new JsonRestBodyMaker(spy);
+
+        // do
+        byte[] bytes = codecMaker.warmUp(CodecItem.class, new CodecItem("n", 2.5), 1);
+
+        // then
+        assertEquals("{\"name\":\"n\",\"price\":2.5}", new String(bytes, StandardCharsets.UTF_8));
+        verify(spy, never()).writeValueAsBytes(any());
+    }
+
+    @Test
+    void warmUp() throws IOException {
+        // when
+        Map<String, Integer> sample = Map.of("value", 40);
+
+        // do
+        byte[] withSample = maker.warmUp(Map.class, sample, 10);
+        byte[] withoutSample = maker.warmUp(Map.class, null, 10);
+
+        // then
+        assertEquals("{\"value\":40}", new String(withSample, StandardCharsets.UTF_8));
+        assertNull(withoutSample);
+    }
+
+    @Test
+    void warmUpIterations() throws IOException {
+        // when
+        ObjectMapper spy = Mockito.spy(new ObjectMapper());
+        JsonRestBodyMaker spyMaker = new JsonRestBodyMaker(spy);
+        Map<String, Integer> sample = Map.of("value", 40);
+
+        // do
+        byte[] resolveOnly = spyMaker.warmUp(Map.class, sample, 0);
+
+        // then
+        assertEquals("{\"value\":40}", new String(resolveOnly, StandardCharsets.UTF_8));
+        verify(spy, times(1)).writeValueAsBytes(sample);
+
+        // do
+        spyMaker.warmUp(Map.class, sample, 10);
+
+        // then
+        verify(spy, times(12)).writeValueAsBytes(sample);
+    }
 }
@@ -0,0 +1,236 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.body.maker;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class JsonSequenceRestBodyMakerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void setContentTypeProperty() {
+        // when
+        URLConnection con = Mockito.mock(URLConnection.class);
+        JsonSequenceRestBodyMaker array = new JsonSequenceRestBodyMaker(objectMapper, JsonSequenceRestBodyMaker.Format.JSON_ARRAY);
+        JsonSequenceRestBodyMaker ndjson = new JsonSequenceRestBodyMaker(objectMapper, JsonSequenceRestBodyMaker.Format.NDJSON);
+
+        // do
+        array.setContentTypeProperty(con, null);
+        array.setContentTypeProperty(con, Collections.emptyIterator());
+        ndjson.setContentTypeProperty(con, Collections.emptyIterator());
+
+        // then
+        verify(con, times(2)).setRequestProperty(anyString(), anyString());
+        verify(con, times(1)).setRequestProperty("Content-Type", "application/json");
+        verify(con, times(1)).setRequestProperty("Content-Type", "application/x-ndjson");
+    }
+
+    @Test
+    void writeWithNull() throws IOException {
+        // when
+        URLConnection con = Mockito.mock(URLConnection.class);
+        JsonSequenceRestBodyMaker maker = new JsonSequenceRestBodyMaker(objectMapper, JsonSequenceRestBodyMaker.Format.JSON_ARRAY);
+
+        // do
+        maker.write(con, null);
+
+        // then
+        verify(con, times(0)).setDoOutput(anyBoolean());
+        verify(con, times(0)).getOutputStream();
+    }
+
+    @Test
+    void writeJsonArray() throws IOException {
+        // when
+        HttpURLConnection con = Mockito.mock(HttpURLConnection.class);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        doReturn(outputStream).when(con).getOutputStream();
+        JsonSequenceRestBodyMaker maker = new JsonSequenceRestBodyMaker(objectMapper, JsonSequenceRestBodyMaker.Format.JSON_ARRAY);
+
+        // do
+        maker.write(con, Arrays.asList(Map.of("a", 1), "b", 2).iterator());
+
+        // then
+        verify(con, times(1)).setChunkedStreamingMode(0);
+        verify(con, times(1)).setDoOutput(true);
+        assertEquals("[{\"a\":1},\"b\",2]", outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writeEmptyJsonArray() throws IOException {
+        // when
+        URLConnection con = Mockito.mock(URLConnection.class);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        doReturn(outputStream).when(con).getOutputStream();
+        JsonSequenceRestBodyMaker maker = new JsonSequenceRestBodyMaker(objectMapper, JsonSequenceRestBodyMaker.Format.JSON_ARRAY);
+
+        // do
+        maker.write(con, Collections.emptyIterator());
+
+        // then
+        assertEquals("[]", outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writeNdjsonFromStream() throws IOException {
+        // when
+        URLConnection con = Mockito.mock(URLConnection.class);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        doReturn(outputStream).when(con).getOutputStream();
+        JsonSequenceRestBodyMaker maker = new JsonSequenceRestBodyMaker(objectMapper, JsonSequenceRestBodyMaker.Format.NDJSON);
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<Integer> stream = Stream.of(1, 2, 3).onClose(() -> closed.set(true));
+
+        // do
+        maker.write(con, JsonSequenceRestBodyMaker.of(stream));
+
+        // then
+        assertEquals("1\n2\n3\n", outputStream.toString(StandardCharsets.UTF_8));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void writeNdjsonFromPublisher() throws IOException {
+        // when
+        URLConnection con = Mockito.mock(URLConnection.class);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        doReturn(outputStream).when(con).getOutputStream();
+        JsonSequenceRestBodyMaker maker = new JsonSequenceRestBodyMaker(objectMapper, JsonSequenceRestBodyMaker.Format.NDJSON);
+        SubmissionPublisher<String> publisher = new SubmissionPublisher<>();
+        Iterator<?> body = JsonSequenceRestBodyMaker.of(publisher);
+        Thread producer = new Thread(() -> {
+            IntStream.range(0, 100).forEach(i -> publisher.submit("v" + i));
+            publisher.close();
+        });
+        producer.start();
+
+        // do
+        maker.write(con, body);
+
+        // then
+        StringBuilder expected = new StringBuilder();
+        IntStream.range(0, 100).forEach(i -> expected.append("\"v").append(i).append("\"\n"));
+        assertEquals(expected.toString(), outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writeFailedPublisher() throws IOException {
+        // when
+        URLConnection con = Mockito.mock(URLConnection.class);
+        JsonSequenceRestBodyMaker maker = new JsonSequenceRestBodyMaker(objectMapper, JsonSequenceRestBodyMaker.Format.JSON_ARRAY);
+        SubmissionPublisher<String> publisher = new SubmissionPublisher<>();
+        Iterator<?> body = JsonSequenceRestBodyMaker.of(publisher);
+        publisher.closeExceptionally(new IllegalArgumentException("failed"));
+
+        // do
+        // then
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        doReturn(outputStream).when(con).getOutputStream();
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> maker.write(con, body));
+        assertEquals("failed", e.getMessage());
+        assertEquals("", outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writeFailedIterator() throws IOException {
+        // when
+        HttpURLConnection con = Mockito.mock(HttpURLConnection.class);
+        AtomicBoolean closed = new AtomicBoolean();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        doReturn(outputStream).when(con).getOutputStream();
+        JsonSequenceRestBodyMaker maker = new JsonSequenceRestBodyMaker(objectMapper, JsonSequenceRestBodyMaker.Format.JSON_ARRAY, 1);
+        Iterator<Integer> body = IntStream.range(0, 3).mapToObj(i -> {
+            if (i == 2) {
+                throw new IllegalStateException("source failed");
+            }
+            return i;
+        }).iterator();
+
+        // do
+        // then
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> maker.write(con, body));
+        assertEquals("source failed", e.getMessage());
+        assertEquals("[0,1", outputStream.toString(StandardCharsets.UTF_8));
+        assertThrows(JsonProcessingException.class, () -> objectMapper.readTree(outputStream.toByteArray()));
+        assertFalse(closed.get());
+        verify(con, times(1)).disconnect();
+    }
+
+    @Test
+    void flushThreshold() throws IOException {
+        // when
+        URLConnection con = Mockito.mock(URLConnection.class);
+        AtomicInteger flushes = new AtomicInteger();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes.incrementAndGet();
+            }
+        };
+        doReturn(outputStream).when(con).getOutputStream();
+        JsonSequenceRestBodyMaker maker = new JsonSequenceRestBodyMaker(objectMapper, JsonSequenceRestBodyMaker.Format.NDJSON, 100);
+
+        // do
+        maker.write(con, IntStream.range(0, 100).mapToObj(i -> "0123456789").iterator());
+
+        // then
+        assertEquals(100 * 13, outputStream.size());
+        assertTrue(flushes.get() >= 13, "flushes: " + flushes.get());
+    }
+}
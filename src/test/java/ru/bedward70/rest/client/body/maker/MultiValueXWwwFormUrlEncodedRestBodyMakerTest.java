@@ -0,0 +1,91 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.body.maker;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class MultiValueXWwwFormUrlEncodedRestBodyMakerTest {
+
+    @Test
+    void writeWithNull() throws IOException {
+        // when
+        URLConnection con = Mockito.mock(URLConnection.class);
+        MultiValueXWwwFormUrlEncodedRestBodyMaker maker = new MultiValueXWwwFormUrlEncodedRestBodyMaker();
+
+        // do
+        maker.setContentTypeProperty(con, null);
+        maker.write(con, null);
+
+        // then
+        verify(con, never()).setRequestProperty(anyString(), anyString());
+        verify(con, never()).setDoOutput(anyBoolean());
+        verify(con, never()).getOutputStream();
+    }
+
+    @Test
+    void write() throws IOException {
+        // when
+        HttpURLConnection con = Mockito.mock(HttpURLConnection.class);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        doReturn(outputStream).when(con).getOutputStream();
+        Map<String, Collection<String>> requestBody = new LinkedHashMap<>();
+        requestBody.put("scope", List.of("read", "write all"));
+        requestBody.put("none", Collections.emptyList());
+        requestBody.put("id", Arrays.asList("1", null));
+        MultiValueXWwwFormUrlEncodedRestBodyMaker maker = new MultiValueXWwwFormUrlEncodedRestBodyMaker(true);
+        String expected = "scope=read&scope=write+all&id=1&id=";
+
+        // do
+        maker.setContentTypeProperty(con, requestBody);
+        maker.write(con, requestBody);
+
+        // then
+        verify(con, times(1)).setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
+        verify(con, times(1)).setFixedLengthStreamingMode((long) expected.length());
+        assertEquals(expected, outputStream.toString(StandardCharsets.UTF_8));
+        assertEquals(0L, maker.getContentLength(Map.of("none", List.of())));
+    }
+}
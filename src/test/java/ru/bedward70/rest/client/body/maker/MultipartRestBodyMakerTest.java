@@ -0,0 +1,172 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.body.maker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class MultipartRestBodyMakerTest {
+
+    private final MultipartRestBodyMaker maker = new MultipartRestBodyMaker(new ObjectMapper());
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void setContentTypeProperty() {
+        // when
+        URLConnection con = Mockito.mock(URLConnection.class);
+
+        // do
+        maker.setContentTypeProperty(con, null);
+        maker.setContentTypeProperty(con, new MultipartBody("b0undary"));
+
+        // then
+        verify(con, times(1)).setRequestProperty(anyString(), anyString());
+        verify(con, times(1)).setRequestProperty("Content-Type", "multipart/form-data; boundary=b0undary");
+    }
+
+    @Test
+    void randomBoundary() {
+        assertNotEquals(new MultipartBody().getBoundary(), new MultipartBody().getBoundary());
+    }
+
+    @Test
+    void writeWithNull() throws IOException {
+        // when
+        URLConnection con = Mockito.mock(URLConnection.class);
+
+        // do
+        maker.write(con, null);
+
+        // then
+        verify(con, times(0)).setDoOutput(anyBoolean());
+        verify(con, times(0)).getOutputStream();
+    }
+
+    @Test
+    void writeFixedLength() throws IOException {
+        // when
+        Path file = Files.writeString(tempDir.resolve("flow.xml"), "<flow/>");
+        MultipartBody body = new MultipartBody("XyZ")
+            .addField("clientId", "client \"1\"")
+            .addFile("template", file.toFile(), "application/xml")
+            .addStream("nar", "a.nar", null, () -> new ByteArrayInputStream(new byte[] {1, 2, 3}), 3);
+        HttpURLConnection con = Mockito.mock(HttpURLConnection.class);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        doReturn(outputStream).when(con).getOutputStream();
+
+        // do
+        maker.write(con, body);
+
+        // then
+        String expected = "--XyZ\r\n"
+            + "Content-Disposition: form-data; name=\"clientId\"\r\n"
+            + "\r\n"
+            + "client \"1\"\r\n"
+            + "--XyZ\r\n"
+            + "Content-Disposition: form-data; name=\"template\"; filename=\"flow.xml\"\r\n"
+            + "Content-Type: application/xml\r\n"
+            + "\r\n"
+            + "<flow/>\r\n"
+            + "--XyZ\r\n"
+            + "Content-Disposition: form-data; name=\"nar\"; filename=\"a.nar\"\r\n"
+            + "Content-Type: application/octet-stream\r\n"
+            + "\r\n"
+            + "\u0001\u0002\u0003\r\n"
+            + "--XyZ--\r\n";
+        verify(con, times(1)).setFixedLengthStreamingMode((long) expected.length());
+        verify(con, times(0)).setChunkedStreamingMode(anyInt());
+        verify(con, times(1)).setDoOutput(true);
+        assertEquals(expected, new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(expected.length(), body.getContentLength());
+    }
+
+    @Test
+    void writeChunked() throws IOException {
+        // when
+        MultipartBody body = new MultipartBody("XyZ")
+            .addJson("entity", Map.of("id", 26))
+            .addStream("data", null, "text/plain", () -> new ByteArrayInputStream(new byte[] {'a'}), MultipartBody.UNKNOWN_LENGTH);
+        HttpURLConnection con = Mockito.mock(HttpURLConnection.class);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        doReturn(outputStream).when(con).getOutputStream();
+
+        // do
+        maker.write(con, body);
+
+        // then
+        String expected = "--XyZ\r\n"
+            + "Content-Disposition: form-data; name=\"entity\"\r\n"
+            + "Content-Type: application/json\r\n"
+            + "\r\n"
+            + "{\"id\":26}\r\n"
+            + "--XyZ\r\n"
+            + "Content-Disposition: form-data; name=\"data\"\r\n"
+            + "Content-Type: text/plain\r\n"
+            + "\r\n"
+            + "a\r\n"
+            + "--XyZ--\r\n";
+        verify(con, times(1)).setChunkedStreamingMode(0);
+        verify(con, times(0)).setFixedLengthStreamingMode(anyLong());
+        assertEquals(expected, new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(MultipartBody.UNKNOWN_LENGTH, body.getContentLength());
+    }
+
+    @Test
+    void writeWrongStreamLength() throws IOException {
+        // when
+        MultipartBody body = new MultipartBody()
+            .addStream("data", null, null, () -> new ByteArrayInputStream(new byte[] {'a'}), 2);
+        HttpURLConnection con = Mockito.mock(HttpURLConnection.class);
+        doReturn(new ByteArrayOutputStream()).when(con).getOutputStream();
+
+        // do, then
+        assertThrows(IOException.class, () -> maker.write(con, body));
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.body.maker;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the streaming {@link FormUrlEncoder} with the former stream pipeline of URLEncoder calls.
+ * Run: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=ru.bedward70.rest.client.body.maker.XWwwFormUrlEncodedBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XWwwFormUrlEncodedBenchmark {
+
+    @Param({"4", "1000"})
+    private int parameters;
+
+    @Param({"ascii", "unicode"})
+    private String alphabet;
+
+    private Map<String, String> form;
+
+    private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(1024 * 1024);
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(44);
+        String chars = "ascii".equals(alphabet)
+            ? "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789._-+/= "
+            : "abcdefghijklmnopqrstuvwxyzабвгдеёжзийклмнопрстуфхцчшщъыьэюя€ ";
+        form = new LinkedHashMap<>();
+        for (int i = 0; i < parameters; i++) {
+            StringBuilder value = new StringBuilder();
+            for (int j = 0; j < 64; j++) {
+                value.append(chars.charAt(random.nextInt(chars.length())));
+            }
+            form.put("parameter_" + i, value.toString());
+        }
+    }
+
+    @Benchmark
+    public int streamPipeline() throws IOException {
+        outputStream.reset();
+        byte[] input = form.entrySet()
+            .stream()
+            .map(
+                (e) ->
+                    URLEncoder.encode(e.getKey(), StandardCharsets.UTF_8)
+                    + "="
+                    + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8)
+            )
+            .collect(Collectors.joining("&"))
+            .getBytes(StandardCharsets.UTF_8);
+        outputStream.write(input);
+        return outputStream.size();
+    }
+
+    @Benchmark
+    public int formUrlEncoder() throws IOException {
+        outputStream.reset();
+        write(outputStream);
+        return outputStream.size();
+    }
+
+    @Benchmark
+    public long formUrlEncoderWithContentLength() throws IOException {
+        outputStream.reset();
+        long length = new XWwwFormUrlEncodedRestBodyMaker(true).getContentLength(form);
+        write(outputStream);
+        return length + outputStream.size();
+    }
+
+    private void write(final OutputStream os) throws IOException {
+        try (FormUrlEncoder encoder = new FormUrlEncoder(os)) {
+            for (Map.Entry<String, String> entry : form.entrySet()) {
+                encoder.writeParameter(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(XWwwFormUrlEncodedBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -32,7 +32,8 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import java.io.IOException;
-import java.io.OutputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.HttpURLConnection;
 import java.net.URLConnection;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
@@ -102,7 +103,7 @@ public class XWwwFormUrlEncodedRestBodyMakerTest {
     ) throws IOException {
         // when
         URLConnection con = Mockito.mock(URLConnection.class);
-        OutputStream outputStream = Mockito.mock(OutputStream.class);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
         doReturn(outputStream).when(con).getOutputStream();
 
@@ -112,19 +113,41 @@ public class XWwwFormUrlEncodedRestBodyMakerTest {
         // then
         verify(con, times(1)).setDoOutput(anyBoolean());
         verify(con, times(1)).getOutputStream();
-
-        ArgumentCaptor<byte[]> bytes = ArgumentCaptor.forClass(byte[].class) ;
-        verify(outputStream, times(1)).write(bytes.capture());
-        assertEquals(expected, new String(bytes.getValue(), StandardCharsets.UTF_8));
+        assertEquals(expected, outputStream.toString(StandardCharsets.UTF_8));
+        assertEquals(expected.length(), maker.getContentLength(requestBody));
     }
 
     private static Stream<Arguments> write() {
         LinkedHashMap<String, String> map = new LinkedHashMap<>();
         map.put("id", "1");
         map.put("value",  "2");
+        LinkedHashMap<String, String> encoded = new LinkedHashMap<>();
+        encoded.put("user name", "a+b&c=d");
+        encoded.put("ключ", "😀 ~*");
+        encoded.put("empty", null);
         return Stream.of(
             Arguments.of(Collections.emptyMap(), ""),
-            Arguments.of(map, "id=1&value=2")
+            Arguments.of(map, "id=1&value=2"),
+            Arguments.of(
+                encoded,
+                "user+name=a%2Bb%26c%3Dd&%D0%BA%D0%BB%D1%8E%D1%87=%F0%9F%98%80+%7E*&empty="
+            )
         );
     }
+
+    @Test
+    void writeWithFixedLength() throws IOException {
+        // when
+        HttpURLConnection con = Mockito.mock(HttpURLConnection.class);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        doReturn(outputStream).when(con).getOutputStream();
+        Map<String, String> requestBody = Map.of("token", "été 2023");
+
+        // do
+        new XWwwFormUrlEncodedRestBodyMaker(true).write(con, requestBody);
+
+        // then
+        verify(con, times(1)).setFixedLengthStreamingMode(24L);
+        assertEquals("token=%C3%A9t%C3%A9+2023", outputStream.toString(StandardCharsets.UTF_8));
+    }
 }
@@ -0,0 +1,138 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.buffer;
+
+import org.junit.jupiter.api.Test;
+import ru.bedward70.rest.client.response.acceptor.BytesRestResponseAcceptor;
+import ru.bedward70.rest.client.response.acceptor.OutputStreamRestResponseAcceptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BufferPoolTest {
+
+    @Test
+    void acquireAndRelease() {
+        // when
+        BufferPool pool = new BufferPool(16, 1, true);
+
+        // do
+        byte[] first = pool.acquire();
+        byte[] second = pool.acquire();
+        pool.release(first);
+        pool.release(second);
+        byte[] third = pool.acquire();
+        byte[] fourth = pool.acquire();
+        byte[] fifth = pool.acquire();
+        pool.release(third);
+        pool.release(fourth);
+        pool.release(fifth);
+
+        // then
+        assertEquals(16, first.length);
+        assertNotSame(first, second);
+        assertSame(first, third);
+        assertSame(second, fourth);
+        assertEquals(2, pool.getHits());
+        assertEquals(3, pool.getMisses());
+        assertEquals(1, pool.getDrops());
+        assertEquals(0.4, pool.getHitRate(), 0.0001);
+        assertTrue(pool.getLeaks().isEmpty());
+    }
+
+    @Test
+    void acquireLarge() {
+        // when
+        BufferPool pool = new BufferPool(16, 1, true);
+
+        // do
+        byte[] buffer = pool.acquire(17);
+        pool.release(buffer);
+
+        // then
+        assertEquals(17, buffer.length);
+        assertEquals(0, pool.getHits());
+        assertEquals(1, pool.getDrops());
+    }
+
+    @Test
+    void leakDetection() {
+        // when
+        BufferPool pool = new BufferPool(16, 1, true);
+
+        // do
+        byte[] leaked = pool.acquire();
+        pool.release(pool.acquire());
+
+        // then
+        assertEquals(1, pool.getLeaks().size());
+        pool.release(leaked);
+        assertTrue(pool.getLeaks().isEmpty());
+        assertThrows(IllegalStateException.class, () -> pool.release(leaked));
+    }
+
+    @Test
+    void copy() throws IOException {
+        // when
+        BufferPool pool = new BufferPool(16, 1, true);
+        byte[] expected = new byte[100];
+        new Random(31).nextBytes(expected);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // do
+        long copied = pool.copy(new ByteArrayInputStream(expected), outputStream);
+
+        // then
+        assertEquals(expected.length, copied);
+        assertArrayEquals(expected, outputStream.toByteArray());
+        assertTrue(pool.getLeaks().isEmpty());
+    }
+
+    @Test
+    void defaultPoolIsReleasedByAcceptors() throws IOException {
+        // when
+        BufferPool pool = BufferPool.getDefault();
+        byte[] expected = new byte[200_000];
+
+        // do
+        new BytesRestResponseAcceptor(null).readValue(new ByteArrayInputStream(expected), byte[].class);
+        new OutputStreamRestResponseAcceptor(null, ByteArrayOutputStream::new)
+            .readValue(new ByteArrayInputStream(expected), Boolean.class);
+
+        // then
+        assertTrue(pool.isLeakDetection());
+        assertTrue(pool.getLeaks().isEmpty());
+        assertTrue(pool.getHits() > 0);
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.codec;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@GenerateJsonCodec
+public class CodecDto {
+
+    public enum Status {
+        NEW, DONE
+    }
+
+    private long id;
+    private int count;
+    private Integer optional;
+    private boolean active;
+    private Boolean flag;
+    private double ratio;
+    private String title;
+    @JsonProperty("display_name")
+    private String displayName;
+    private String secret;
+    private String url;
+    private Status status;
+    private BigDecimal amount;
+    private CodecItem item;
+    private List<CodecItem> items;
+    private List<List<Integer>> matrix;
+    private Map<String, Long> counters;
+    private int[] codes;
+    public char letter;
+    public double[] weights;
+    public long[] offsets;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(final long id) {
+        this.id = id;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(final int count) {
+        this.count = count;
+    }
+
+    public Integer getOptional() {
+        return optional;
+    }
+
+    public void setOptional(final Integer optional) {
+        this.optional = optional;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(final boolean active) {
+        this.active = active;
+    }
+
+    public Boolean getFlag() {
+        return flag;
+    }
+
+    public void setFlag(final Boolean flag) {
+        this.flag = flag;
+    }
+
+    public double getRatio() {
+        return ratio;
+    }
+
+    public void setRatio(final double ratio) {
+        this.ratio = ratio;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(final String title) {
+        this.title = title;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public void setDisplayName(final String displayName) {
+        this.displayName = displayName;
+    }
+
+    @JsonIgnore
+    public String getSecret() {
+        return secret;
+    }
+
+    public void setSecret(final String secret) {
+        this.secret = secret;
+    }
+
+    public String getURL() {
+        return url;
+    }
+
+    public void setURL(final String url) {
+        this.url = url;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(final Status status) {
+        this.status = status;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(final BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public CodecItem getItem() {
+        return item;
+    }
+
+    public void setItem(final CodecItem item) {
+        this.item = item;
+    }
+
+    public List<CodecItem> getItems() {
+        return items;
+    }
+
+    public void setItems(final List<CodecItem> items) {
+        this.items = items;
+    }
+
+    public List<List<Integer>> getMatrix() {
+        return matrix;
+    }
+
+    public void setMatrix(final List<List<Integer>> matrix) {
+        this.matrix = matrix;
+    }
+
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    public void setCounters(final Map<String, Long> counters) {
+        this.counters = counters;
+    }
+
+    public int[] getCodes() {
+        return codes;
+    }
+
+    public void setCodes(final int[] codes) {
+        this.codes = codes;
+    }
+
+    public int getLength() {
+        return title == null ? 0 : title.length();
+    }
+
+    @GenerateJsonCodec
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Summary {
+
+        public String title;
+
+        public Integer total;
+    }
+
+    @GenerateJsonCodec
+    public static class Tagged {
+
+        private final List<String> values = new ArrayList<>();
+
+        public List<String> getTags() {
+            return values;
+        }
+    }
+}
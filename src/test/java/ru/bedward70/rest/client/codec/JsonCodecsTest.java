@@ -0,0 +1,281 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.codec;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JsonCodecsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void find() {
+        // when
+        // do
+        JsonCodec<CodecDto> codec = JsonCodecs.find(CodecDto.class);
+        JsonCodec<CodecDto.Summary> nested = JsonCodecs.find(CodecDto.Summary.class);
+
+        // then
+        assertSame(CodecDto_JsonCodec.INSTANCE, codec);
+        assertSame(CodecDto_Summary_JsonCodec.INSTANCE, nested);
+        assertSame(codec, JsonCodecs.find(CodecDto.class));
+        assertNull(JsonCodecs.find(String.class));
+        assertNull(JsonCodecs.find(null));
+        assertEquals("p.Outer_Dto_JsonCodec", JsonCodecs.getCodecClassName("p.Outer$Dto"));
+    }
+
+    @Test
+    void writeLikeObjectMapper() throws IOException {
+        // when
+        CodecDto dto = createDto();
+
+        // do
+        byte[] bytes = JsonCodecs.writeValueAsBytes(objectMapper, CodecDto_JsonCodec.INSTANCE, dto);
+
+        // then
+        JsonNode json = objectMapper.readTree(bytes);
+        assertEquals(objectMapper.readTree(objectMapper.writeValueAsBytes(dto)), json);
+        assertEquals("Name", json.get("display_name").asText());
+        assertFalse(json.has("secret"));
+        assertEquals(5, json.get("length").asInt());
+        assertEquals("https://localhost", json.get("url").asText());
+    }
+
+    @Test
+    void readLikeObjectMapper() throws IOException {
+        // when
+        byte[] bytes = createJson(objectMapper);
+
+        // do
+        CodecDto dto = JsonCodecs.readValue(
+            objectMapper, new ByteArrayInputStream(bytes), CodecDto_JsonCodec.INSTANCE, CodecDto.class
+        );
+
+        // then
+        assertEquals(
+            objectMapper.readTree(objectMapper.writeValueAsBytes(createDto())),
+            objectMapper.readTree(objectMapper.writeValueAsBytes(dto))
+        );
+        assertNull(dto.getSecret());
+        assertEquals(List.of(List.of(1, 2), List.of()), dto.getMatrix());
+        assertArrayEquals(new int[] {200, 204}, dto.getCodes());
+        assertArrayEquals(new double[] {0.5, 1e-3}, dto.weights);
+        assertArrayEquals(new long[] {Long.MAX_VALUE}, dto.offsets);
+    }
+
+    @Test
+    void readNullsAndCoercions() throws IOException {
+        // when
+        String json = "{\"id\":\"17\",\"count\":null,\"optional\":null,\"ratio\":2,\"title\":42,"
+            + "\"active\":\"true\",\"item\":null,\"items\":null,\"secret\":\"s\"}";
+
+        // do
+        CodecDto dto = read(objectMapper, json, CodecDto_JsonCodec.INSTANCE, CodecDto.class);
+
+        // then
+        assertEquals(17L, dto.getId());
+        assertEquals(0, dto.getCount());
+        assertNull(dto.getOptional());
+        assertEquals(2.0, dto.getRatio());
+        assertEquals("42", dto.getTitle());
+        assertTrue(dto.isActive());
+        assertNull(dto.getItem());
+        assertNull(dto.getItems());
+        assertNull(dto.getSecret());
+        assertNull(read(objectMapper, "null", CodecDto_JsonCodec.INSTANCE, CodecDto.class));
+    }
+
+    @Test
+    void unknownProperties() throws IOException {
+        // when
+        String json = "{\"title\":\"t\",\"unknown\":{\"a\":[1,2]},\"total\":3}";
+        ObjectMapper lenient = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        // do
+        UnrecognizedPropertyException exception = assertThrows(
+            UnrecognizedPropertyException.class,
+            () -> read(objectMapper, json, CodecDto_JsonCodec.INSTANCE, CodecDto.class)
+        );
+        CodecDto dto = read(lenient, json, CodecDto_JsonCodec.INSTANCE, CodecDto.class);
+        CodecItem item = read(
+            objectMapper, "{\"name\":\"n\",\"other\":[{}],\"price\":1.5}", CodecItem_JsonCodec.INSTANCE, CodecItem.class
+        );
+
+        // then
+        assertEquals("unknown", exception.getPropertyName());
+        assertEquals("t", dto.getTitle());
+        assertEquals("n", item.name);
+        assertEquals(1.5, item.price);
+    }
+
+    @Test
+    void setterlessProperties() throws IOException {
+        // when
+        String json = "{\"title\":\"t\",\"length\":3}";
+        String tags = "{\"tags\":[\"a\",\"b\"]}";
+        ObjectMapper lenient = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        ObjectMapper noGetters = JsonMapper.builder().disable(MapperFeature.USE_GETTERS_AS_SETTERS).build();
+
+        // do
+        UnrecognizedPropertyException expected = assertThrows(
+            UnrecognizedPropertyException.class, () -> objectMapper.readValue(json, CodecDto.class)
+        );
+        UnrecognizedPropertyException exception = assertThrows(
+            UnrecognizedPropertyException.class,
+            () -> read(objectMapper, json, CodecDto_JsonCodec.INSTANCE, CodecDto.class)
+        );
+        CodecDto dto = read(lenient, json, CodecDto_JsonCodec.INSTANCE, CodecDto.class);
+        CodecDto.Tagged tagged = read(objectMapper, tags, CodecDto_Tagged_JsonCodec.INSTANCE, CodecDto.Tagged.class);
+        assertThrows(UnrecognizedPropertyException.class, () -> noGetters.readValue(tags, CodecDto.Tagged.class));
+        assertThrows(
+            UnrecognizedPropertyException.class,
+            () -> read(noGetters, tags, CodecDto_Tagged_JsonCodec.INSTANCE, CodecDto.Tagged.class)
+        );
+
+        // then
+        assertEquals("length", exception.getPropertyName());
+        assertEquals(new HashSet<>(expected.getKnownPropertyIds()), new HashSet<>(exception.getKnownPropertyIds()));
+        assertEquals("t", dto.getTitle());
+        assertEquals(objectMapper.readValue(tags, CodecDto.Tagged.class).getTags(), tagged.getTags());
+        assertEquals(List.of("a", "b"), tagged.getTags());
+    }
+
+    @Test
+    void nonNullInclude() throws IOException {
+        // when
+        CodecDto.Summary summary = new CodecDto.Summary();
+        summary.title = "t";
+
+        // do
+        byte[] bytes = JsonCodecs.writeValueAsBytes(objectMapper, CodecDto_Summary_JsonCodec.INSTANCE, summary);
+
+        // then
+        assertEquals("{\"title\":\"t\"}", new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void noContent() {
+        // when
+        // do
+        // then
+        assertThrows(
+            MismatchedInputException.class,
+            () -> read(objectMapper, "", CodecDto_JsonCodec.INSTANCE, CodecDto.class)
+        );
+    }
+
+    @Test
+    void readNested() throws IOException {
+        // when
+        try (JsonParser parser = objectMapper.createParser("[{\"name\":\"a\",\"price\":1},{\"name\":\"b\"}]")) {
+            parser.nextToken();
+
+            // do
+            parser.nextToken();
+            CodecItem first = CodecItem_JsonCodec.INSTANCE.read(parser);
+            parser.nextToken();
+            CodecItem second = CodecItem_JsonCodec.INSTANCE.read(parser);
+
+            // then
+            assertEquals("a", first.name);
+            assertEquals("b", second.name);
+            assertEquals(JsonToken.END_ARRAY, parser.nextToken());
+        }
+    }
+
+    /**
+     * Returns JSON of the DTO without its read-only "length" property, so ObjectMapper can read it back
+     * @param objectMapper object mapper
+     * @return JSON
+     * @throws IOException IO Exception
+     */
+    static byte[] createJson(final ObjectMapper objectMapper) throws IOException {
+        ObjectNode tree = objectMapper.valueToTree(createDto());
+        tree.remove("length");
+        return objectMapper.writeValueAsBytes(tree);
+    }
+
+    static CodecDto createDto() {
+        CodecDto dto = new CodecDto();
+        dto.setId(Long.MAX_VALUE);
+        dto.setCount(-3);
+        dto.setOptional(null);
+        dto.setActive(true);
+        dto.setFlag(Boolean.FALSE);
+        dto.setRatio(0.25);
+        dto.setTitle("Title");
+        dto.setDisplayName("Name");
+        dto.setSecret("secret");
+        dto.setURL("https://localhost");
+        dto.setStatus(CodecDto.Status.DONE);
+        dto.setAmount(new BigDecimal("12.50"));
+        dto.setItem(new CodecItem("single", 1.0));
+        dto.setItems(List.of(new CodecItem("first", 2.5), new CodecItem("ключ \"quoted\"", -1)));
+        dto.setMatrix(List.of(List.of(1, 2), List.of()));
+        dto.setCounters(Map.of("a", 1L));
+        dto.setCodes(new int[] {200, 204});
+        dto.letter = 'x';
+        dto.weights = new double[] {0.5, 1e-3};
+        dto.offsets = new long[] {Long.MAX_VALUE};
+        return dto;
+    }
+
+    private static <T> T read(
+        final ObjectMapper objectMapper,
+        final String json,
+        final JsonCodec<T> codec,
+        final Class<T> clazz
+    ) throws IOException {
+        return JsonCodecs.readValue(
+            objectMapper, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), codec, clazz
+        );
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.columnar;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ColumnSchemaTest {
+
+    @Test
+    void indexOf() {
+        // when
+        Map<String, ColumnType> columns = new LinkedHashMap<>();
+        columns.put("/b", ColumnType.LONG);
+        columns.put("/a~1b/c~0", ColumnType.STRING);
+
+        // do
+        ColumnSchema schema = new ColumnSchema(columns);
+
+        // then
+        assertEquals(List.of("/b", "/a~1b/c~0"), List.copyOf(schema.getColumns().keySet()));
+        assertEquals(0, schema.indexOf("/b"));
+        assertEquals(1, schema.indexOf("/a~1b/c~0"));
+        assertEquals(-1, schema.indexOf("/c"));
+        assertEquals(1, schema.getRoot().children.get("a/b").children.get("c~").column);
+    }
+
+    @Test
+    void parsePointer() {
+        // when
+        // do
+        // then
+        assertEquals(List.of(), ColumnSchema.parsePointer(""));
+        assertEquals(List.of(""), ColumnSchema.parsePointer("/"));
+        assertEquals(List.of("a", "0", "b/c"), ColumnSchema.parsePointer("/a/0/b~1c"));
+        assertThrows(IllegalArgumentException.class, () -> ColumnSchema.parsePointer("a"));
+    }
+
+    @Test
+    void invalidColumns() {
+        // when
+        Map<String, ColumnType> overlap = new LinkedHashMap<>();
+        overlap.put("/a/b", ColumnType.LONG);
+        overlap.put("/a", ColumnType.LONG);
+        Map<String, ColumnType> nested = new LinkedHashMap<>();
+        nested.put("/a", ColumnType.LONG);
+        nested.put("/a/b", ColumnType.LONG);
+
+        // do
+        // then
+        assertThrows(IllegalArgumentException.class, () -> new ColumnSchema(overlap));
+        assertThrows(IllegalArgumentException.class, () -> new ColumnSchema(nested));
+        assertThrows(IllegalArgumentException.class, () -> new ColumnSchema(Map.of("", ColumnType.LONG)));
+        assertThrows(IllegalArgumentException.class, () -> new ColumnSchema(Map.of("a", ColumnType.LONG)));
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.columnar;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares binding of status records to one DTO per row with the columnar decoding of {@link ColumnarReader}.
+ * Both benchmarks sum the active threads by the run status, the GC profiler reports the allocated bytes per operation.
+ * Run: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=ru.bedward70.rest.client.columnar.ColumnarBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnarBenchmark {
+
+    private static final String[] RUN_STATUSES = {"Running", "Stopped", "Invalid", "Disabled"};
+
+    private static final TypeReference<List<StatusRow>> ROW_LIST = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ColumnarReader reader = new ColumnarReader(ColumnarReaderTest.createSchema());
+
+    @Param({"10000"})
+    private int size;
+
+    private byte[] json;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(49);
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            builder.append(i == 0 ? "" : ",")
+                .append("{\"id\":\"").append(new UUID(random.nextLong(), random.nextLong()))
+                .append("\",\"name\":\"Processor ").append(i)
+                .append("\",\"groupId\":\"root\",\"status\":{\"runStatus\":\"")
+                .append(RUN_STATUSES[random.nextInt(RUN_STATUSES.length)])
+                .append("\",\"threads\":").append(random.nextInt(16))
+                .append(",\"bytesRead\":").append(random.nextInt(1_000_000) / 10.0)
+                .append(",\"valid\":").append(random.nextBoolean())
+                .append(",\"flowFilesIn\":").append(random.nextInt(1000))
+                .append(",\"flowFilesOut\":").append(random.nextInt(1000))
+                .append("}}");
+        }
+        json = builder.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Map<String, Long> rowsAsDto() throws IOException {
+        Map<String, Long> threads = new HashMap<>();
+        for (StatusRow row : objectMapper.readValue(json, ROW_LIST)) {
+            threads.merge(row.status.runStatus, (long) row.status.threads, Long::sum);
+        }
+        return threads;
+    }
+
+    @Benchmark
+    public long[] columnar() throws IOException {
+        ColumnBatch batch;
+        try (JsonParser parser = objectMapper.createParser(json)) {
+            batch = reader.read(parser);
+        }
+        StringColumn runStatus = batch.getStringColumn("/status/runStatus");
+        long[] threads = batch.getLongColumn("/status/threads").getValues();
+        int[] codes = runStatus.getCodes();
+        long[] sums = new long[runStatus.getDictionary().length];
+        for (int row = 0; row < codes.length; row++) {
+            if (codes[row] != StringColumn.NULL_CODE) {
+                sums[codes[row]] += threads[row];
+            }
+        }
+        return sums;
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(
+            new OptionsBuilder()
+                .include(ColumnarBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()
+        ).run();
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class StatusRow {
+
+        public String id;
+
+        public String name;
+
+        public String groupId;
+
+        public Status status;
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Status {
+
+        public String runStatus;
+
+        public int threads;
+
+        public double bytesRead;
+
+        public boolean valid;
+
+        public long flowFilesIn;
+
+        public long flowFilesOut;
+    }
+}
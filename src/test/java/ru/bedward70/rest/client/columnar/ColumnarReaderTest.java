@@ -0,0 +1,182 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.columnar;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ColumnarReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void read() throws IOException {
+        // when
+        String json = "["
+            + "{\"id\":\"p1\",\"ignored\":{\"a\":[1,2]},\"status\":{\"runStatus\":\"Running\",\"threads\":2,"
+            + "\"bytesRead\":1.5,\"valid\":true}},"
+            + "{\"status\":{\"threads\":\"3\",\"runStatus\":\"Stopped\",\"bytesRead\":null},\"id\":\"p2\"},"
+            + "null,"
+            + "{\"id\":\"p3\",\"status\":\"n/a\"},"
+            + "{\"id\":\"p4\",\"id\":\"dup\","
+            + "\"status\":{\"runStatus\":\"R\\u0075nning\",\"threads\":4,\"valid\":false}}"
+            + "]";
+
+        // do
+        ColumnBatch batch = read(new ColumnarReader(createSchema()), json);
+
+        // then
+        assertEquals(5, batch.size());
+        StringColumn ids = batch.getStringColumn("/id");
+        assertEquals("p1", ids.get(0));
+        assertEquals("p2", ids.get(1));
+        assertNull(ids.get(2));
+        assertEquals(StringColumn.NULL_CODE, ids.getCode(2));
+        assertEquals("p4", ids.get(4));
+
+        StringColumn runStatus = batch.getStringColumn("/status/runStatus");
+        assertArrayEquals(new String[] {"Running", "Stopped"}, runStatus.getDictionary());
+        assertArrayEquals(new int[] {0, 1, -1, -1, 0}, runStatus.getCodes());
+        assertArrayEquals(new int[] {2, 1}, runStatus.countByCode());
+        assertEquals(2, runStatus.getNullCount());
+
+        LongColumn threads = batch.getLongColumn("/status/threads");
+        assertArrayEquals(new long[] {2, 3, 0, 0, 4}, threads.getValues());
+        assertEquals(9, threads.sum());
+        assertTrue(threads.isNull(3));
+        assertFalse(threads.isNull(1));
+
+        DoubleColumn bytesRead = batch.getDoubleColumn("/status/bytesRead");
+        assertEquals(1.5, bytesRead.get(0));
+        assertTrue(bytesRead.isNull(1));
+        assertEquals(4, bytesRead.getNullCount());
+
+        BooleanColumn valid = batch.getBooleanColumn("/status/valid");
+        assertTrue(valid.get(0));
+        assertFalse(valid.get(4));
+        assertFalse(valid.isNull(4));
+        assertEquals(1, valid.getTrueCount());
+        assertEquals(3, valid.getNullCount());
+    }
+
+    @Test
+    void readNestedArray() throws IOException {
+        // when
+        String json = "{\"skip\":[{\"id\":\"x\"}],\"group\":{\"snapshots\":[{\"id\":\"a\"},{\"id\":\"b\"}]},"
+            + "\"tail\":1}";
+        ColumnSchema schema = new ColumnSchema(Map.of("/id", ColumnType.STRING));
+
+        // do
+        ColumnBatch batch = read(new ColumnarReader(schema, "/group/snapshots"), json);
+        ColumnBatch element = read(new ColumnarReader(schema, "/1"), "[[{\"id\":\"x\"}],[{\"id\":\"y\"}]]");
+        ColumnBatch absent = read(new ColumnarReader(schema, "/group/other"), json);
+        ColumnBatch nullArray = read(new ColumnarReader(schema), "null");
+
+        // then
+        assertEquals(2, batch.size());
+        assertArrayEquals(new String[] {"a", "b"}, batch.getStringColumn("/id").getDictionary());
+        assertEquals("y", element.getStringColumn("/id").get(0));
+        assertEquals(0, absent.size());
+        assertEquals(0, absent.getStringColumn("/id").size());
+        assertEquals(0, nullArray.size());
+    }
+
+    @Test
+    void readLargeArray() throws IOException {
+        // when
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 10_000; i++) {
+            json.append(i == 0 ? "" : ",")
+                .append("{\"id\":\"p").append(i % 1000).append("\",\"status\":{\"threads\":").append(i).append("}}");
+        }
+        json.append(']');
+
+        // do
+        ColumnBatch batch = read(new ColumnarReader(createSchema()), json.toString());
+
+        // then
+        assertEquals(10_000, batch.size());
+        StringColumn ids = batch.getStringColumn("/id");
+        assertEquals(1000, ids.getDictionary().length);
+        assertEquals("p999", ids.get(9_999));
+        assertEquals(ids.getCode(999), ids.getCode(1999));
+        assertEquals(49_995_000L, batch.getLongColumn("/status/threads").sum());
+        assertEquals(10_000, batch.getDoubleColumn("/status/bytesRead").getNullCount());
+    }
+
+    @Test
+    void readInvalid() {
+        // when
+        ColumnarReader reader = new ColumnarReader(createSchema());
+
+        // do
+        // then
+        assertThrows(MismatchedInputException.class, () -> read(reader, "{\"id\":\"p1\"}"));
+        assertThrows(MismatchedInputException.class, () -> read(reader, "[1]"));
+        assertThrows(MismatchedInputException.class, () -> read(reader, "[{\"status\":{\"threads\":{}}}]"));
+    }
+
+    @Test
+    void getColumn() throws IOException {
+        // when
+        ColumnBatch batch = read(new ColumnarReader(createSchema()), "[]");
+
+        // do
+        // then
+        assertEquals(5, batch.getColumns().size());
+        assertEquals(ColumnType.LONG, batch.getColumn("/status/threads").getType());
+        assertThrows(IllegalArgumentException.class, () -> batch.getColumn("/unknown"));
+        assertThrows(IllegalArgumentException.class, () -> batch.getLongColumn("/id"));
+    }
+
+    static ColumnSchema createSchema() {
+        Map<String, ColumnType> columns = new LinkedHashMap<>();
+        columns.put("/id", ColumnType.STRING);
+        columns.put("/status/runStatus", ColumnType.STRING);
+        columns.put("/status/threads", ColumnType.LONG);
+        columns.put("/status/bytesRead", ColumnType.DOUBLE);
+        columns.put("/status/valid", ColumnType.BOOLEAN);
+        return new ColumnSchema(columns);
+    }
+
+    private ColumnBatch read(final ColumnarReader reader, final String json) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(json)) {
+            return reader.read(parser);
+        }
+    }
+}
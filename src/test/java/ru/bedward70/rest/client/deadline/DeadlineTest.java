@@ -0,0 +1,184 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.deadline;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.bedward70.rest.client.BaseRestClient;
+import ru.bedward70.rest.client.exception.DeadlineExceededRestClientException;
+import ru.bedward70.rest.client.response.acceptor.StringRestResponseAcceptor;
+import ru.bedward70.rest.client.server.FaultInjectingServer;
+import ru.bedward70.rest.client.server.LatencyDistribution;
+import ru.bedward70.rest.client.server.Route;
+import ru.bedward70.rest.client.server.ServerResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DeadlineTest {
+
+    private FaultInjectingServer server;
+    private BaseRestClient client;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new FaultInjectingServer()
+            .route("/echo", new Route(request -> {
+                String value = request.getHeader(Deadline.HEADER_KEY);
+                return new ServerResponse(200, value == null ? "none" : value);
+            }))
+            .route("/slow", new Route(200, "slow").latency(LatencyDistribution.fixed(Duration.ofSeconds(2))))
+            // Every byte comes before the read timeout, only the deadline stops the body
+            .route("/trickle", new Route(200, "x".repeat(40)).chunked(true).bandwidth(20));
+        client = new BaseRestClient(server.getUrl());
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void callNested() {
+        // when
+        Deadline outer = Deadline.after(Duration.ofSeconds(1));
+        Deadline inner = Deadline.after(Duration.ofSeconds(10));
+        Deadline shorter = Deadline.after(Duration.ofMillis(100));
+
+        // do
+        Deadline nestedLonger = outer.call(() -> inner.call(Deadline::current));
+        Deadline nestedShorter = outer.call(() -> shorter.call(Deadline::current));
+
+        // then
+        assertSame(outer, nestedLonger);
+        assertSame(shorter, nestedShorter);
+        assertNull(Deadline.current());
+    }
+
+    @Test
+    void afterHugeTimeout() {
+        // when
+        Deadline soon = Deadline.after(Duration.ofSeconds(1));
+
+        // do
+        Deadline huge = Deadline.after(Duration.ofSeconds(Long.MAX_VALUE));
+        Deadline past = Deadline.after(Duration.ofSeconds(Long.MIN_VALUE));
+
+        // then
+        assertFalse(huge.isExpired());
+        assertTrue(huge.remainingNanos() > Duration.ofDays(365 * 100).toNanos());
+        assertTrue(huge.remainingMillis() > 0);
+        assertSame(soon, Deadline.earliest(huge, soon));
+        assertTrue(past.isExpired());
+        assertEquals(0L, past.remainingMillis());
+        assertSame(past, Deadline.earliest(soon, past));
+    }
+
+    @Test
+    void fromHeader() {
+        // when
+        // do
+        Deadline deadline = Deadline.fromHeader("1500");
+
+        // then
+        assertTrue(deadline.remainingMillis() > 1000 && deadline.remainingMillis() <= 1500);
+        assertNull(Deadline.fromHeader("soon"));
+        assertNull(Deadline.fromHeader(null));
+        assertTrue(Deadline.fromHeader("-5").isExpired());
+        assertEquals(0L, Deadline.fromHeader("0").remainingMillis());
+    }
+
+    @Test
+    void propagation() {
+        // when
+        StringRestResponseAcceptor acceptor = new StringRestResponseAcceptor();
+
+        // do
+        String withDeadline = Deadline.after(Duration.ofSeconds(5))
+            .call(() -> client.execute("GET", "/echo", String.class, acceptor, null));
+        String withoutDeadline = client.execute("GET", "/echo", String.class, acceptor, null);
+        client.setDeadlinePropagation(false);
+        String notPropagated = Deadline.after(Duration.ofSeconds(5))
+            .call(() -> client.execute("GET", "/echo", String.class, acceptor, null));
+
+        // then
+        long remaining = Long.parseLong(withDeadline);
+        assertTrue(remaining > 4_000 && remaining <= 5_000, "remaining: " + remaining);
+        assertEquals("none", withoutDeadline);
+        assertEquals("none", notPropagated);
+    }
+
+    @Test
+    void timeToFirstByte() {
+        // when
+        client.setRequestTimeout(Duration.ofMillis(200));
+        long start = System.nanoTime();
+
+        // do
+        // then
+        assertThrows(
+            DeadlineExceededRestClientException.class,
+            () -> client.execute("GET", "/slow", String.class, new StringRestResponseAcceptor(), null)
+        );
+        assertTrue(System.nanoTime() - start < Duration.ofMillis(1_500).toNanos());
+    }
+
+    @Test
+    void slowBody() {
+        // when
+        long start = System.nanoTime();
+
+        // do
+        // then
+        assertThrows(
+            DeadlineExceededRestClientException.class,
+            () -> Deadline.after(Duration.ofMillis(300))
+                .call(() -> client.execute("GET", "/trickle", String.class, new StringRestResponseAcceptor(), null))
+        );
+        assertTrue(System.nanoTime() - start < Duration.ofMillis(1_500).toNanos());
+    }
+
+    @Test
+    void expiredBeforeStart() {
+        // when
+        Deadline deadline = Deadline.after(Duration.ZERO);
+
+        // do
+        // then
+        assertThrows(
+            DeadlineExceededRestClientException.class,
+            () -> deadline.call(() -> client.execute("GET", "/echo", String.class, new StringRestResponseAcceptor(), null))
+        );
+        assertEquals(0, server.getRequests());
+    }
+}
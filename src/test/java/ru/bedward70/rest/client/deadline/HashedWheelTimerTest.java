@@ -0,0 +1,137 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.deadline;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HashedWheelTimerTest {
+
+    private final HashedWheelTimer timer = new HashedWheelTimer(Duration.ofMillis(5), 64);
+
+    @AfterEach
+    void stopTimer() {
+        timer.stop();
+    }
+
+    @Test
+    void newTimeout() throws InterruptedException {
+        // when
+        int count = 20_000;
+        CountDownLatch expired = new CountDownLatch(count);
+        long start = System.nanoTime();
+
+        // do
+        List<HashedWheelTimer.Timeout> timeouts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // Delays up to 1 second span several rounds of the wheel
+            timeouts.add(timer.newTimeout(expired::countDown, 50 + i % 1000, TimeUnit.MILLISECONDS));
+        }
+
+        // then
+        assertTrue(expired.await(10, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(1000));
+        assertTrue(timeouts.stream().allMatch(HashedWheelTimer.Timeout::isExpired));
+        assertEquals(0L, timer.getPendingTimeouts());
+    }
+
+    @Test
+    void hugeDelay() throws InterruptedException {
+        // when
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch expired = new CountDownLatch(1);
+
+        // do
+        HashedWheelTimer.Timeout huge = timer.newTimeout(runs::incrementAndGet, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        timer.newTimeout(expired::countDown, 100, TimeUnit.MILLISECONDS);
+
+        // then
+        assertTrue(expired.await(5, TimeUnit.SECONDS));
+        assertEquals(0, runs.get());
+        assertFalse(huge.isExpired());
+        assertTrue(huge.cancel());
+    }
+
+    @Test
+    void cancel() throws InterruptedException {
+        // when
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch expired = new CountDownLatch(1);
+
+        // do
+        HashedWheelTimer.Timeout cancelled = timer.newTimeout(runs::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+        HashedWheelTimer.Timeout active = timer.newTimeout(expired::countDown, 100, TimeUnit.MILLISECONDS);
+        boolean first = cancelled.cancel();
+        boolean second = cancelled.cancel();
+
+        // then
+        assertTrue(expired.await(5, TimeUnit.SECONDS));
+        assertTrue(first);
+        assertFalse(second);
+        assertTrue(cancelled.isCancelled());
+        assertFalse(active.cancel());
+        assertEquals(0, runs.get());
+        assertEquals(0L, timer.getPendingTimeouts());
+    }
+
+    @Test
+    void failedTask() throws InterruptedException {
+        // when
+        CountDownLatch expired = new CountDownLatch(1);
+
+        // do
+        timer.newTimeout(() -> {
+            throw new IllegalStateException("failed");
+        }, 10, TimeUnit.MILLISECONDS);
+        timer.newTimeout(expired::countDown, 30, TimeUnit.MILLISECONDS);
+
+        // then
+        assertTrue(expired.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void stop() {
+        // when
+        timer.newTimeout(() -> { }, 10, TimeUnit.MILLISECONDS);
+
+        // do
+        timer.stop();
+
+        // then
+        assertThrows(IllegalStateException.class, () -> timer.newTimeout(() -> { }, 10, TimeUnit.MILLISECONDS));
+    }
+}
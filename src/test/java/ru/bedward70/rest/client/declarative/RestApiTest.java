@@ -0,0 +1,229 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.declarative;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.bedward70.rest.client.BaseRestClient;
+import ru.bedward70.rest.client.exception.ErrorCodeRestClientException;
+import ru.bedward70.rest.client.exception.NoContentRestClientException;
+import ru.bedward70.rest.client.server.FaultInjectingServer;
+import ru.bedward70.rest.client.server.Route;
+import ru.bedward70.rest.client.server.ServerRequest;
+import ru.bedward70.rest.client.server.ServerResponse;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RestApiTest {
+
+    private final AtomicReference<ServerRequest> lastRequest = new AtomicReference<>();
+    private final AtomicReference<ServerResponse> nextResponse = new AtomicReference<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private FaultInjectingServer server;
+    private UserApi api;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new FaultInjectingServer().route("/api", new Route(request -> {
+            lastRequest.set(request);
+            return nextResponse.get();
+        }));
+        api = RestApis.create(UserApi.class, new BaseRestClient(server.getUrl()), new ObjectMapper(), executor);
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void create() {
+        // when
+        // do
+        // then
+        assertInstanceOf(UserApi_RestApi.class, api);
+        assertEquals("p.Outer_Api_RestApi", RestApis.getImplementationClassName("p.Outer$Api"));
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> RestApis.create(Runnable.class, new BaseRestClient(server.getUrl()), new ObjectMapper())
+        );
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> RestApis.create(UserApi.class, new BaseRestClient(server.getUrl()), new ObjectMapper(), null)
+        );
+    }
+
+    @Test
+    void defaultExecutor() throws ExecutionException, InterruptedException, TimeoutException {
+        // when
+        UserApi defaultApi = RestApis.create(UserApi.class, new BaseRestClient(server.getUrl()), new ObjectMapper());
+        nextResponse.set(new ServerResponse(204, ""));
+
+        // do
+        defaultApi.deleteUsers().get(10, TimeUnit.SECONDS);
+        Thread thread = CompletableFuture.supplyAsync(Thread::currentThread, RestApis.getDefaultExecutor())
+            .get(10, TimeUnit.SECONDS);
+
+        // then
+        assertEquals("DELETE", lastRequest.get().getMethod());
+        assertEquals("rest-api-async", thread.getName());
+        assertTrue(thread.isDaemon());
+    }
+
+    @Test
+    void pathVariable() {
+        // when
+        nextResponse.set(new ServerResponse(200, "{\"id\":7,\"name\":\"seven\"}"));
+
+        // do
+        UserApi.User user = api.getUser(7, "trace-1");
+        UserApi.User withDefault = api.getUser(7);
+
+        // then
+        assertEquals(7, user.id);
+        assertEquals("seven", user.name);
+        assertEquals("seven", withDefault.name);
+        assertEquals("GET", lastRequest.get().getMethod());
+        assertEquals("/api/users/7", lastRequest.get().getPath());
+        assertNull(lastRequest.get().getHeader("X-Trace"));
+    }
+
+    @Test
+    void header() {
+        // when
+        nextResponse.set(new ServerResponse(200, "{}"));
+
+        // do
+        api.getUser(1, "trace-1");
+
+        // then
+        assertEquals("trace-1", lastRequest.get().getHeader("X-Trace"));
+        assertEquals("application/json", lastRequest.get().getHeader("Accept"));
+    }
+
+    @Test
+    void queryParameters() {
+        // when
+        nextResponse.set(new ServerResponse(200, "[{\"id\":1},{\"id\":2}]"));
+
+        // do
+        UserApi.User[] users = api.findUsers("a b&c", List.of("x", "ю"), null);
+
+        // then
+        assertEquals(2, users.length);
+        assertEquals(2, users[1].id);
+        assertEquals("/api/users", lastRequest.get().getPath());
+        assertEquals("name=a%20b%26c&tag=x&tag=%D1%8E", lastRequest.get().getQuery());
+    }
+
+    @Test
+    void asyncBody() throws ExecutionException, InterruptedException, TimeoutException {
+        // when
+        nextResponse.set(new ServerResponse(201, "{\"id\":3,\"name\":\"new\"}"));
+
+        // do
+        UserApi.User user = api.createUser(new UserApi.User(0, "new")).get(10, TimeUnit.SECONDS);
+
+        // then
+        assertEquals(3, user.id);
+        assertEquals("POST", lastRequest.get().getMethod());
+        assertEquals("{\"id\":0,\"name\":\"new\"}", lastRequest.get().getBodyAsString());
+        assertEquals("application/json", lastRequest.get().getHeader("Content-Type"));
+    }
+
+    @Test
+    void encodedPathVariablesWithoutResponse() {
+        // when
+        nextResponse.set(new ServerResponse(204, ""));
+
+        // do
+        api.deleteSession(5, "a/b c");
+
+        // then
+        assertEquals("DELETE", lastRequest.get().getMethod());
+        assertEquals("/api/users/a%2Fb%20c/sessions/5", lastRequest.get().getPath());
+        assertThrows(IllegalArgumentException.class, () -> api.deleteSession(5, null));
+    }
+
+    @Test
+    void successfulResponseCodes() throws ExecutionException, InterruptedException, TimeoutException {
+        // when
+        nextResponse.set(new ServerResponse(204, ""));
+
+        // do
+        Void result = api.deleteUsers().get(10, TimeUnit.SECONDS);
+        nextResponse.set(new ServerResponse(200, "{}"));
+        ExecutionException exception = assertThrows(
+            ExecutionException.class,
+            () -> api.deleteUsers().get(10, TimeUnit.SECONDS)
+        );
+
+        // then
+        assertNull(result);
+        assertInstanceOf(ErrorCodeRestClientException.class, exception.getCause());
+        assertEquals(200, ((ErrorCodeRestClientException) exception.getCause()).getResponseCode());
+    }
+
+    @Test
+    void primitiveResponse() {
+        // when
+        nextResponse.set(new ServerResponse(200, "42"));
+
+        // do
+        int count = api.count();
+
+        // then
+        assertEquals(42, count);
+    }
+
+    @Test
+    void primitiveResponseWithoutValue() {
+        // when
+        nextResponse.set(new ServerResponse(200, "null"));
+
+        // do
+        NoContentRestClientException exception = assertThrows(NoContentRestClientException.class, () -> api.count());
+
+        // then
+        assertEquals("No response value of the method count", exception.getMessage());
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.declarative;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RestApisTest {
+
+    @ParameterizedTest
+    @MethodSource
+    void encode(final String value, final String expected) {
+        // when
+        // do
+        String result = RestApis.encode(value);
+
+        // then
+        assertEquals(expected, result);
+    }
+
+    private static Stream<Arguments> encode() {
+        return Stream.of(
+            Arguments.of("", ""),
+            Arguments.of("aZ09-._~", "aZ09-._~"),
+            Arguments.of("a b+c/d?e=f&g", "a%20b%2Bc%2Fd%3Fe%3Df%26g"),
+            Arguments.of("ключ", "%D0%BA%D0%BB%D1%8E%D1%87"),
+            Arguments.of("€😀", "%E2%82%AC%F0%9F%98%80"),
+            Arguments.of("\uD83D", "%3F")
+        );
+    }
+
+    @Test
+    void encodeUnreservedReturnsSameString() {
+        // when
+        String value = "plain";
+
+        // do
+        // then
+        assertSame(value, RestApis.encode(value));
+    }
+
+    @Test
+    void appendQueryParameter() {
+        // when
+        StringBuilder url = new StringBuilder("/items?fixed=1");
+
+        // do
+        RestApis.appendQueryParameter(url, "a", null);
+        RestApis.appendQueryParameter(url, "a", 5);
+        RestApis.appendQueryParameter(url, "b", List.of("x y", "z"));
+        RestApis.appendQueryParameter(url, "c", new String[] {"1", null, "2"});
+
+        // then
+        assertEquals("/items?fixed=1&a=5&b=x%20y&b=z&c=1&c=2", url.toString());
+    }
+
+    @Test
+    void appendPathVariable() {
+        // when
+        StringBuilder url = new StringBuilder("/items/");
+
+        // do
+        RestApis.appendPathVariable(url, "id", "a/b");
+
+        // then
+        assertEquals("/items/a%2Fb", url.toString());
+        assertThrows(IllegalArgumentException.class, () -> RestApis.appendPathVariable(url, "id", null));
+    }
+
+    @Test
+    void putHeader() {
+        // when
+        Map<String, String> headers = new HashMap<>();
+
+        // do
+        RestApis.putHeader(headers, "A", 1);
+        RestApis.putHeader(headers, "B", null);
+
+        // then
+        assertEquals(Map.of("A", "1"), headers);
+    }
+}
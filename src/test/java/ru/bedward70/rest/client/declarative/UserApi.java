@@ -0,0 +1,76 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.declarative;
+
+import ru.bedward70.rest.client.codec.GenerateJsonCodec;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@RestApi("/api")
+public interface UserApi {
+
+    @RestCall(method = "GET", path = "/users/{id}")
+    User getUser(@PathParam("id") long id, @HeaderParam("X-Trace") String trace);
+
+    @RestCall(method = "GET", path = "/users")
+    User[] findUsers(
+        @QueryParam("name") String name,
+        @QueryParam("tag") List<String> tags,
+        @QueryParam("limit") Integer limit
+    );
+
+    @RestCall(method = "POST", path = "/users", successfulResponseCodes = 201)
+    CompletableFuture<User> createUser(@Body User user);
+
+    @RestCall(method = "DELETE", path = "/users/{login}/sessions/{session}", successfulResponseCodes = {200, 204})
+    void deleteSession(@PathParam("session") int session, @PathParam("login") String login);
+
+    @RestCall(method = "DELETE", path = "/users", successfulResponseCodes = 204)
+    CompletableFuture<Void> deleteUsers();
+
+    @RestCall(method = "GET", path = "/users/count")
+    int count();
+
+    default User getUser(final long id) {
+        return getUser(id, null);
+    }
+
+    @GenerateJsonCodec
+    class User {
+
+        public long id;
+
+        public String name;
+
+        public User() {
+        }
+
+        public User(final long id, final String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.download;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.bedward70.rest.client.BaseRestClient;
+import ru.bedward70.rest.client.exception.ErrorCodeRestClientException;
+import ru.bedward70.rest.client.exception.ErrorRestClientException;
+import ru.bedward70.rest.client.server.Fault;
+import ru.bedward70.rest.client.server.FaultInjectingServer;
+import ru.bedward70.rest.client.server.Route;
+import ru.bedward70.rest.client.server.ServerRequest;
+import ru.bedward70.rest.client.server.ServerResponse;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SegmentedFileDownloaderTest {
+
+    private static final byte[] CONTENT = new byte[3 * 1024 * 1024 + 17];
+
+    static {
+        new Random(26).nextBytes(CONTENT);
+    }
+
+    @TempDir
+    Path tempDir;
+
+    private FaultInjectingServer server;
+    private BaseRestClient client;
+    private final AtomicInteger rangeRequests = new AtomicInteger();
+    private final Set<String> failedRanges = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new FaultInjectingServer()
+            .route("/ranges", new Route(this::countRange).ranges(true))
+            // Sends a half of a range and closes the connection once per range
+            .route("/flaky", new Route(this::countRange).ranges(true).faults(this::failOnce))
+            .route("/plain", new Route(200, CONTENT));
+        client = new BaseRestClient(server.getUrl());
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void download() {
+        // when
+        File file = tempDir.resolve("export.bin").toFile();
+        SegmentedFileDownloader downloader = new SegmentedFileDownloader(client, 2, 4, 256 * 1024, 0);
+
+        // do
+        File result = downloader.download("/ranges", "application/octet-stream", null, file);
+
+        // then
+        assertEquals(file, result);
+        assertArrayEquals(CONTENT, readAllBytes(file));
+        assertTrue(rangeRequests.get() > 2);
+        assertFalse(Files.exists(tempDir.resolve("export.bin.part")));
+    }
+
+    @Test
+    void downloadWithRetries() {
+        // when
+        File file = tempDir.resolve("export.bin").toFile();
+        SegmentedFileDownloader downloader = new SegmentedFileDownloader(client, 2, 4, 256 * 1024, 2);
+
+        // do
+        downloader.download("/flaky", null, null, file);
+
+        // then
+        assertArrayEquals(CONTENT, readAllBytes(file));
+        assertFalse(failedRanges.isEmpty());
+    }
+
+    @Test
+    void downloadWithUnknownTotalLength() {
+        // when
+        File file = tempDir.resolve("export.bin").toFile();
+        AtomicInteger requests = new AtomicInteger();
+        server.route("/unknown", new Route(request -> {
+            requests.incrementAndGet();
+            return request.getHeader("Range") == null
+                ? new ServerResponse(200, CONTENT)
+                : new ServerResponse(206, new byte[] {CONTENT[0]}).header("Content-Range", "bytes 0-0/*");
+        }));
+
+        // do
+        new SegmentedFileDownloader(client).download("/unknown", null, null, file);
+
+        // then
+        assertArrayEquals(CONTENT, readAllBytes(file));
+        assertEquals(2, requests.get());
+        assertFalse(Files.exists(tempDir.resolve("export.bin.part")));
+    }
+
+    @Test
+    void downloadWithZeroTotalLength() {
+        // when
+        File file = tempDir.resolve("export.bin").toFile();
+        server.route("/zero", new Route(
+            request -> new ServerResponse(206, new byte[] {0}).header("Content-Range", "bytes 0-0/0")
+        ));
+
+        // do
+        // then
+        assertThrows(
+            ErrorRestClientException.class,
+            () -> new SegmentedFileDownloader(client).download("/zero", null, null, file)
+        );
+        assertFalse(file.exists());
+    }
+
+    @Test
+    void downloadWithoutRangeSupport() {
+        // when
+        File file = tempDir.resolve("export.bin").toFile();
+
+        // do
+        new SegmentedFileDownloader(client).download("/plain", null, null, file);
+
+        // then
+        assertArrayEquals(CONTENT, readAllBytes(file));
+    }
+
+    @Test
+    void downloadFailure() {
+        // when
+        File file = tempDir.resolve("export.bin").toFile();
+
+        // do
+        ErrorCodeRestClientException exception = assertThrows(
+            ErrorCodeRestClientException.class,
+            () -> new SegmentedFileDownloader(client).download("/missing", null, null, file)
+        );
+
+        // then
+        assertEquals(404, exception.getResponseCode());
+        assertFalse(file.exists());
+    }
+
+    private ServerResponse countRange(final ServerRequest request) {
+        if (request.getHeader("Range") != null) {
+            rangeRequests.incrementAndGet();
+        }
+        return new ServerResponse(200, CONTENT);
+    }
+
+    private Fault failOnce(final ServerRequest request) {
+        String range = request.getHeader("Range");
+        if (range == null || range.startsWith("bytes=0-")) {
+            return Fault.NONE;
+        }
+        return failedRanges.add(range.substring(range.indexOf('-') + 1)) ? Fault.TRUNCATE : Fault.NONE;
+    }
+
+    private static byte[] readAllBytes(final File file) {
+        try {
+            return Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.exception;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ErrorCodeRestClientExceptionTest {
+
+    @Test
+    void defaultException() {
+        // do
+        ErrorCodeRestClientException exception = new ErrorCodeRestClientException(404, "Not Found", null);
+
+        // then
+        assertEquals("404, Not Found", exception.getMessage());
+        assertTrue(exception.getStackTrace().length > 0);
+        assertFalse(exception.isErrorStreamTruncated());
+        assertNull(exception.getErrorString());
+        assertNull(exception.getErrorObject(bytes -> "unused"));
+    }
+
+    @Test
+    void getErrorObjectIsCached() {
+        // when
+        AtomicInteger calls = new AtomicInteger();
+        Function<byte[], String> decoder = bytes -> {
+            calls.incrementAndGet();
+            return new String(bytes, StandardCharsets.UTF_8);
+        };
+        Function<byte[], Integer> length = bytes -> bytes.length;
+        ErrorCodeRestClientException exception = new ErrorCodeRestClientException(
+            500,
+            "Internal Server Error",
+            "error".getBytes(StandardCharsets.UTF_8),
+            true,
+            StandardCharsets.UTF_8,
+            false
+        );
+
+        // do
+        String first = exception.getErrorObject(decoder);
+        String second = exception.getErrorObject(decoder);
+        Integer size = exception.getErrorObject(length);
+        String third = exception.getErrorObject(decoder);
+
+        // then
+        assertEquals("error", first);
+        assertSame(first, second);
+        assertEquals(5, size);
+        assertEquals("error", third);
+        assertEquals(2, calls.get());
+        assertSame(exception.getErrorString(), exception.getErrorString());
+        assertTrue(exception.isErrorStreamTruncated());
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
+    @Test
+    void serialization() throws IOException, ClassNotFoundException {
+        // when
+        ErrorCodeRestClientException exception = new ErrorCodeRestClientException(
+            500,
+            "Internal Server Error",
+            "ошибка".getBytes(StandardCharsets.UTF_16BE),
+            true,
+            StandardCharsets.UTF_16BE,
+            false
+        );
+        Function<byte[], Integer> length = bytes -> bytes.length;
+        exception.getErrorString();
+        exception.getErrorObject(length);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        // do
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(exception);
+        }
+        ErrorCodeRestClientException copy;
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (ErrorCodeRestClientException) input.readObject();
+        }
+
+        // then
+        assertEquals("500, Internal Server Error", copy.getMessage());
+        assertEquals(500, copy.getResponseCode());
+        assertEquals("Internal Server Error", copy.getResponseMessage());
+        assertArrayEquals(exception.getErrorStreamBytes(), copy.getErrorStreamBytes());
+        assertTrue(copy.isErrorStreamTruncated());
+        assertEquals("ошибка", copy.getErrorString());
+        assertEquals(12, copy.getErrorObject(length));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.flow;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class BlockingSubscriptionTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void emit() throws InterruptedException {
+        // when
+        Flow.Subscriber<String> subscriber = Mockito.mock(Flow.Subscriber.class);
+        BlockingSubscription<String> subscription = new BlockingSubscription<>(subscriber);
+        doAnswer(invocation -> {
+            subscription.request(Long.MAX_VALUE);
+            subscription.request(Long.MAX_VALUE);
+            return null;
+        }).when(subscriber).onSubscribe(subscription);
+
+        // do
+        subscription.start();
+        boolean first = subscription.emit("a");
+        boolean second = subscription.emit("b");
+        subscription.complete();
+        subscription.complete();
+
+        // then
+        assertTrue(first);
+        assertTrue(second);
+        verify(subscriber, times(1)).onNext("a");
+        verify(subscriber, times(1)).onNext("b");
+        verify(subscriber, times(1)).onComplete();
+        assertTrue(subscription.isCancelled());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void emitWhenCancelled() throws InterruptedException {
+        // when
+        Flow.Subscriber<String> subscriber = Mockito.mock(Flow.Subscriber.class);
+        BlockingSubscription<String> subscription = new BlockingSubscription<>(subscriber);
+        Thread canceller = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            subscription.cancel();
+        });
+
+        // do
+        subscription.start();
+        canceller.start();
+        boolean emitted = subscription.emit("a");
+        subscription.complete();
+
+        // then
+        assertFalse(emitted);
+        verify(subscriber, never()).onNext(any());
+        verify(subscriber, never()).onComplete();
+        verify(subscriber, never()).onError(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void requestNonPositive() throws InterruptedException {
+        // when
+        Flow.Subscriber<String> subscriber = Mockito.mock(Flow.Subscriber.class);
+        BlockingSubscription<String> subscription = new BlockingSubscription<>(subscriber);
+
+        // do
+        subscription.start();
+        subscription.request(0);
+        boolean emitted = subscription.emit("a");
+        subscription.complete();
+
+        // then
+        assertFalse(emitted);
+        verify(subscriber, never()).onNext(any());
+        verify(subscriber, times(1)).onError(any(IllegalArgumentException.class));
+        verify(subscriber, never()).onComplete();
+    }
+}
@@ -0,0 +1,386 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.flow;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.bedward70.rest.client.BaseRestClient;
+import ru.bedward70.rest.client.exception.ErrorCodeRestClientException;
+import ru.bedward70.rest.client.exception.ErrorRestClientException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the publishers against the Reactive Streams rules, the rule numbers are given in test names
+ */
+public class RestResponsePublisherTest {
+
+    private static final byte[] CONTENT = new byte[100_000];
+    private static final long LARGE_LENGTH = 256L * 1024 * 1024;
+
+    static {
+        new Random(36).nextBytes(CONTENT);
+    }
+
+    private HttpServer server;
+    private BaseRestClient client;
+    private ExecutorService executor;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicLong largeWritten = new AtomicLong();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/bytes", exchange -> send(exchange, 200, CONTENT));
+        server.createContext("/large", this::sendLarge);
+        server.createContext("/json", exchange -> send(
+            exchange, 200, "[{\"id\":1},{\"id\":2},{\"id\":3}]".getBytes(StandardCharsets.UTF_8)
+        ));
+        server.createContext("/ndjson", exchange -> send(
+            exchange, 200, "{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8)
+        ));
+        server.createContext("/nulls", exchange -> send(
+            exchange, 200, "[{\"id\":1},null,{\"id\":3}]".getBytes(StandardCharsets.UTF_8)
+        ));
+        server.createContext("/missing", exchange -> send(exchange, 404, new byte[0]));
+        server.start();
+        client = new BaseRestClient("http://localhost:" + server.getAddress().getPort());
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void stopServer() {
+        executor.shutdownNow();
+        server.stop(0);
+    }
+
+    @Test
+    void rule102CompletesAfterBody() throws InterruptedException {
+        // when
+        TestSubscriber<ByteBuffer> subscriber = new TestSubscriber<>(s -> s.request(1), true);
+
+        // do
+        bytes("/bytes").subscribe(subscriber);
+
+        // then
+        assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+        assertNull(subscriber.error.get());
+        assertEquals(1, subscriber.completions.get());
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        subscriber.items.forEach(buffer -> body.write(buffer.array(), buffer.arrayOffset(), buffer.remaining()));
+        assertArrayEquals(CONTENT, body.toByteArray());
+    }
+
+    @Test
+    void rule101ReadsOnlyOnDemand() throws InterruptedException {
+        // when
+        TestSubscriber<ByteBuffer> subscriber = new TestSubscriber<>(s -> s.request(3), false);
+
+        // do
+        bytes("/large").subscribe(subscriber);
+        Thread.sleep(500);
+
+        // then
+        assertEquals(3, subscriber.items.size());
+        assertEquals(0, subscriber.completions.get());
+        assertTrue(largeWritten.get() < LARGE_LENGTH / 2, "written: " + largeWritten.get());
+        subscriber.subscription.cancel();
+    }
+
+    @Test
+    void rule106CancelStopsSignals() throws InterruptedException {
+        // when
+        TestSubscriber<ByteBuffer> subscriber = new TestSubscriber<>(s -> s.request(2), false);
+
+        // do
+        bytes("/large").subscribe(subscriber);
+        subscriber.subscribed.await(10, TimeUnit.SECONDS);
+        Thread.sleep(200);
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(10);
+        Thread.sleep(200);
+
+        // then
+        assertEquals(2, subscriber.items.size());
+        assertEquals(0, subscriber.completions.get());
+        assertNull(subscriber.error.get());
+    }
+
+    @Test
+    void rule109OnSubscribeBeforeError() throws InterruptedException {
+        // when
+        TestSubscriber<ByteBuffer> subscriber = new TestSubscriber<>(s -> s.request(1), true);
+        ByteBufferRestResponsePublisher publisher = new ByteBufferRestResponsePublisher(
+            client, "GET", "/bytes", null, null, command -> {
+                throw new RejectedExecutionException("rejected");
+            }, 200
+        );
+
+        // do
+        publisher.subscribe(subscriber);
+
+        // then
+        assertTrue(subscriber.done.await(1, TimeUnit.SECONDS));
+        assertTrue(subscriber.subscribedFirst.get());
+        assertInstanceOf(RejectedExecutionException.class, subscriber.error.get());
+    }
+
+    @Test
+    void rule109ErrorCode() throws InterruptedException {
+        // when
+        TestSubscriber<ByteBuffer> subscriber = new TestSubscriber<>(s -> s.request(1), true);
+
+        // do
+        bytes("/missing").subscribe(subscriber);
+
+        // then
+        assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+        assertTrue(subscriber.subscribedFirst.get());
+        assertInstanceOf(ErrorCodeRestClientException.class, subscriber.error.get());
+    }
+
+    @Test
+    void rule213NullSubscriber() {
+        // when
+        ByteBufferRestResponsePublisher publisher = bytes("/bytes");
+
+        // do
+        // then
+        assertThrows(NullPointerException.class, () -> publisher.subscribe(null));
+    }
+
+    @Test
+    void rule306RequestAfterCancelInOnSubscribe() throws InterruptedException {
+        // when
+        TestSubscriber<ByteBuffer> subscriber = new TestSubscriber<>(s -> {
+            s.cancel();
+            s.request(1);
+        }, true);
+
+        // do
+        bytes("/bytes").subscribe(subscriber);
+        subscriber.subscribed.await(10, TimeUnit.SECONDS);
+        Thread.sleep(200);
+
+        // then
+        assertTrue(subscriber.items.isEmpty());
+        assertEquals(0, subscriber.completions.get());
+        assertNull(subscriber.error.get());
+        assertEquals(0, requests.get());
+    }
+
+    @Test
+    void rule309NonPositiveRequest() throws InterruptedException {
+        // when
+        TestSubscriber<ByteBuffer> subscriber = new TestSubscriber<>(s -> s.request(-1), false);
+
+        // do
+        bytes("/bytes").subscribe(subscriber);
+
+        // then
+        assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+        assertTrue(subscriber.items.isEmpty());
+        assertInstanceOf(IllegalArgumentException.class, subscriber.error.get());
+        assertEquals(0, subscriber.completions.get());
+    }
+
+    @Test
+    void rule317UnboundedDemand() throws InterruptedException {
+        // when
+        TestSubscriber<ByteBuffer> subscriber = new TestSubscriber<>(s -> {
+            s.request(Long.MAX_VALUE);
+            s.request(Long.MAX_VALUE);
+        }, false);
+
+        // do
+        bytes("/bytes").subscribe(subscriber);
+
+        // then
+        assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+        assertEquals(1, subscriber.completions.get());
+        assertEquals(CONTENT.length, subscriber.items.stream().mapToInt(ByteBuffer::remaining).sum());
+    }
+
+    @Test
+    void jsonElements() throws InterruptedException {
+        // when
+        TestSubscriber<Map> subscriber = new TestSubscriber<>(s -> s.request(1), true);
+        JsonElementRestResponsePublisher<Map> publisher = new JsonElementRestResponsePublisher<>(
+            client, new ObjectMapper(), Map.class, "GET", "/json", null, executor, 200
+        );
+
+        // do
+        publisher.subscribe(subscriber);
+
+        // then
+        assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+        assertEquals(List.of(Map.of("id", 1), Map.of("id", 2), Map.of("id", 3)), subscriber.items);
+        assertEquals(1, subscriber.completions.get());
+    }
+
+    @Test
+    void ndjsonElements() throws InterruptedException {
+        // when
+        TestSubscriber<Map> subscriber = new TestSubscriber<>(s -> s.request(1), true);
+        JsonElementRestResponsePublisher<Map> publisher = new JsonElementRestResponsePublisher<>(
+            client, new ObjectMapper(), Map.class, "GET", "/ndjson", null, executor, 200
+        );
+
+        // do
+        publisher.subscribe(subscriber);
+
+        // then
+        assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+        assertEquals(List.of(Map.of("id", 1), Map.of("id", 2)), subscriber.items);
+        assertFalse(subscriber.error.get() != null);
+    }
+
+    @Test
+    void rule213NullElement() throws InterruptedException {
+        // when
+        TestSubscriber<Map> subscriber = new TestSubscriber<>(s -> s.request(1), true);
+        JsonElementRestResponsePublisher<Map> publisher = new JsonElementRestResponsePublisher<>(
+            client, new ObjectMapper(), Map.class, "GET", "/nulls", null, executor, 200
+        );
+
+        // do
+        publisher.subscribe(subscriber);
+
+        // then
+        assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+        assertEquals(List.of(Map.of("id", 1)), subscriber.items);
+        assertEquals(0, subscriber.completions.get());
+        assertInstanceOf(ErrorRestClientException.class, subscriber.error.get());
+        assertInstanceOf(MismatchedInputException.class, subscriber.error.get().getCause());
+    }
+
+    private ByteBufferRestResponsePublisher bytes(final String urlSuffix) {
+        return new ByteBufferRestResponsePublisher(
+            client, "GET", urlSuffix, "application/octet-stream", 4096, null, executor, 200
+        );
+    }
+
+    private void send(final HttpExchange exchange, final int code, final byte[] body) throws IOException {
+        requests.incrementAndGet();
+        exchange.sendResponseHeaders(code, body.length == 0 ? -1 : body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+
+    private void sendLarge(final HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        exchange.sendResponseHeaders(200, LARGE_LENGTH);
+        byte[] chunk = new byte[64 * 1024];
+        try (OutputStream os = exchange.getResponseBody()) {
+            while (largeWritten.get() < LARGE_LENGTH) {
+                os.write(chunk);
+                largeWritten.addAndGet(chunk.length);
+            }
+        } catch (IOException e) {
+            // The client cancelled the download
+        }
+    }
+
+    private static class TestSubscriber<T> implements Flow.Subscriber<T> {
+
+        private final Consumer<Flow.Subscription> onSubscribe;
+        private final boolean requestOnNext;
+        private final List<T> items = new CopyOnWriteArrayList<>();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        private final AtomicInteger completions = new AtomicInteger();
+        private final AtomicReference<Boolean> subscribedFirst = new AtomicReference<>(false);
+        private final CountDownLatch subscribed = new CountDownLatch(1);
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile Flow.Subscription subscription;
+
+        TestSubscriber(final Consumer<Flow.Subscription> onSubscribe, final boolean requestOnNext) {
+            this.onSubscribe = onSubscribe;
+            this.requestOnNext = requestOnNext;
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscribedFirst.set(items.isEmpty() && done.getCount() == 1);
+            subscribed.countDown();
+            onSubscribe.accept(subscription);
+        }
+
+        @Override
+        public void onNext(final T item) {
+            items.add(item);
+            if (requestOnNext) {
+                subscription.request(1);
+            }
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            error.set(throwable);
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completions.incrementAndGet();
+            done.countDown();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.intern;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares binding of processors with repeated string values by a plain object mapper
+ * and by an object mapper with a {@link StringCacheModule}.
+ * The GC profiler reports the allocated bytes per operation, the dedup ratio is printed on tear down.
+ * Run: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=ru.bedward70.rest.client.intern.StringCacheBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringCacheBenchmark {
+
+    private static final String[] TYPES = {
+        "org.apache.nifi.processors.standard.GenerateFlowFile",
+        "org.apache.nifi.processors.standard.LogAttribute",
+        "org.apache.nifi.processors.standard.RouteOnAttribute",
+        "org.apache.nifi.processors.standard.UpdateAttribute"
+    };
+
+    private static final String[] STATES = {"RUNNING", "STOPPED", "DISABLED"};
+
+    private static final TypeReference<List<StringCacheModuleTest.Processor>> PROCESSOR_LIST =
+        new TypeReference<>() {
+        };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final StringCache cache = new StringCache();
+
+    private final ObjectMapper cachingObjectMapper = new ObjectMapper().registerModule(new StringCacheModule(cache));
+
+    @Param({"10000"})
+    private int size;
+
+    private byte[] json;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(50);
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            builder.append(i == 0 ? "" : ",")
+                .append("{\"type\":\"").append(TYPES[random.nextInt(TYPES.length)])
+                .append("\",\"state\":\"").append(STATES[random.nextInt(STATES.length)])
+                .append("\",\"tags\":[\"group-").append(random.nextInt(20)).append("\"]}");
+        }
+        json = builder.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.println(cache);
+    }
+
+    @Benchmark
+    public List<StringCacheModuleTest.Processor> plain() throws IOException {
+        return objectMapper.readValue(json, PROCESSOR_LIST);
+    }
+
+    @Benchmark
+    public List<StringCacheModuleTest.Processor> cached() throws IOException {
+        return cachingObjectMapper.readValue(json, PROCESSOR_LIST);
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(
+            new OptionsBuilder()
+                .include(StringCacheBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.intern;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class StringCacheModuleTest {
+
+    private final StringCache cache = new StringCache();
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new StringCacheModule(cache));
+
+    @Test
+    void readBeans() throws IOException {
+        // when
+        String json = "[{\"type\":\"org.apache.nifi.GenerateFlowFile\",\"state\":\"RUNNING\",\"tags\":[\"RUNNING\"]},"
+            + "{\"type\":\"org.apache.nifi.GenerateFlowFile\",\"state\":\"STOPPED\",\"tags\":[]},"
+            + "{\"type\":\"org.apache.nifi.Log\\u0041ttribute\",\"state\":\"RUNNING\",\"tags\":null}]";
+
+        // do
+        List<Processor> processors = objectMapper.readValue(json, new TypeReference<>() {
+        });
+
+        // then
+        assertEquals(3, processors.size());
+        assertSame(processors.get(0).type, processors.get(1).type);
+        assertEquals("org.apache.nifi.LogAttribute", processors.get(2).type);
+        assertSame(processors.get(0).state, processors.get(2).state);
+        assertSame(processors.get(0).state, processors.get(0).tags[0]);
+        assertNull(processors.get(2).tags);
+        assertEquals(4, cache.getMisses());
+        assertEquals(3, cache.getHits());
+    }
+
+    @Test
+    void readUntyped() throws IOException {
+        // when
+        String json = "{\"a\":{\"state\":\"RUNNING\"},\"b\":{\"state\":\"RUNNING\"},\"c\":[\"RUNNING\", 1]}";
+
+        // do
+        Map<String, Map<String, String>> map = objectMapper.readValue(json, Map.class);
+        List<?> list = (List<?>) ((Map<?, ?>) map).get("c");
+
+        // then
+        assertSame(map.get("a").get("state"), map.get("b").get("state"));
+        assertSame(map.get("a").get("state"), list.get(0));
+        assertEquals(1, list.get(1));
+    }
+
+    @Test
+    void readCoercedValues() throws IOException {
+        // when
+        String json = "{\"type\":42,\"state\":null,\"tags\":[true]}";
+
+        // do
+        Processor processor = objectMapper.readValue(json, Processor.class);
+
+        // then
+        assertEquals("42", processor.type);
+        assertNull(processor.state);
+        assertArrayEquals(new String[] {"true"}, processor.tags);
+        assertEquals(0, cache.getMisses());
+    }
+
+    public static class Processor {
+
+        public String type;
+
+        public String state;
+
+        public String[] tags;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.intern;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StringCacheTest {
+
+    @Test
+    void intern() {
+        // when
+        StringCache cache = new StringCache();
+        char[] chars = "xRUNNINGx".toCharArray();
+
+        // do
+        String first = cache.intern(chars, 1, 7);
+        String second = cache.intern(chars, 1, 7);
+        String third = cache.intern(new String("RUNNING"));
+        String other = cache.intern(chars, 1, 6);
+
+        // then
+        assertEquals("RUNNING", first);
+        assertSame(first, second);
+        assertSame(first, third);
+        assertEquals("RUNNIN", other);
+        assertEquals(2, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(14, cache.getSavedChars());
+        assertEquals(0.5, cache.getDedupRatio());
+        assertEquals(2, cache.size());
+        assertNull(cache.intern(null));
+    }
+
+    @Test
+    void bypass() {
+        // when
+        StringCache cache = new StringCache(16, 1, 4);
+        String value = "too long";
+
+        // do
+        String interned = cache.intern(value);
+        String created = cache.intern(value.toCharArray(), 0, value.length());
+
+        // then
+        assertSame(value, interned);
+        assertNotSame(value, created);
+        assertEquals(value, created);
+        assertEquals(2, cache.getBypasses());
+        assertEquals(0, cache.size());
+        assertEquals(0.0, cache.getDedupRatio());
+    }
+
+    @Test
+    void bounded() {
+        // when
+        StringCache cache = new StringCache(64, 4, 16);
+
+        // do
+        for (int i = 0; i < 10_000; i++) {
+            cache.intern("value" + i);
+        }
+
+        // then
+        assertEquals(64, cache.getCapacity());
+        assertTrue(cache.size() <= 64);
+        assertEquals(10_000, cache.getMisses());
+        assertEquals(10_000 - cache.size(), cache.getEvictions());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(10_000, cache.getMisses());
+    }
+
+    @Test
+    void concurrentIntern() throws Exception {
+        // when
+        StringCache cache = new StringCache(1024, 8, 16);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // do
+        List<Future<List<String>>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            futures.add(executor.submit(() -> {
+                List<String> values = new ArrayList<>();
+                for (int i = 0; i < 10_000; i++) {
+                    values.add(cache.intern(new String("state" + i % 100)));
+                }
+                return values;
+            }));
+        }
+        List<List<String>> results = new ArrayList<>();
+        for (Future<List<String>> future : futures) {
+            results.add(future.get());
+        }
+        executor.shutdown();
+
+        // then
+        assertEquals(100, cache.size());
+        assertEquals(100, cache.getMisses());
+        assertEquals(40_000 - 100, cache.getHits());
+        for (List<String> values : results) {
+            for (int i = 0; i < 100; i++) {
+                assertSame(results.get(0).get(i), values.get(i));
+            }
+        }
+    }
+
+    @Test
+    void invalidSize() {
+        // when
+        // do
+        // then
+        assertThrows(IllegalArgumentException.class, () -> new StringCache(0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new StringCache(1, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new StringCache(1, 1, -1));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.lazy;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading three numbers of a 2 MB diagnostics-like document by full binding and by a lazy document.
+ * Run: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=ru.bedward70.rest.client.lazy.LazyJsonBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LazyJsonBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private byte[] json;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(47);
+        StringBuilder sb = new StringBuilder("{\"systemDiagnostics\":{\"aggregateSnapshot\":{")
+            .append("\"totalThreads\":").append(random.nextInt(1000))
+            .append(",\"heapUtilization\":").append(random.nextDouble())
+            .append(",\"processors\":[");
+        while (sb.length() < 2 * 1024 * 1024) {
+            sb.append("{\"id\":\"").append(Long.toHexString(random.nextLong()))
+                .append("\",\"name\":\"processor ").append(random.nextInt())
+                .append("\",\"bytesRead\":").append(random.nextLong())
+                .append(",\"flowFiles\":").append(random.nextInt())
+                .append(",\"ratio\":").append(random.nextDouble())
+                .append(",\"tags\":[\"a\",\"b\",\"c\"]},");
+        }
+        sb.setLength(sb.length() - 1);
+        sb.append("],\"uptime\":").append(random.nextLong()).append("}}}");
+        json = sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public double bindMap() throws IOException {
+        Map<?, ?> map = objectMapper.readValue(json, Map.class);
+        Map<?, ?> snapshot = (Map<?, ?>) ((Map<?, ?>) map.get("systemDiagnostics")).get("aggregateSnapshot");
+        return ((Number) snapshot.get("totalThreads")).doubleValue()
+            + ((Number) snapshot.get("heapUtilization")).doubleValue()
+            + ((Number) snapshot.get("uptime")).doubleValue();
+    }
+
+    @Benchmark
+    public double readTree() throws IOException {
+        JsonNode snapshot = objectMapper.readTree(json).at("/systemDiagnostics/aggregateSnapshot");
+        return snapshot.get("totalThreads").asDouble()
+            + snapshot.get("heapUtilization").asDouble()
+            + snapshot.get("uptime").asDouble();
+    }
+
+    @Benchmark
+    public double lazyDocument() {
+        LazyJsonValue snapshot = new LazyJsonDocument(json).at("/systemDiagnostics/aggregateSnapshot");
+        return snapshot.get("totalThreads").asDouble()
+            + snapshot.get("heapUtilization").asDouble()
+            + snapshot.get("uptime").asDouble();
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(LazyJsonBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.lazy;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LazyJsonDocumentTest {
+
+    private static final String JSON = "{\n"
+        + "  \"name\": \"flow\",\n"
+        + "  \"stats\": [{\"count\": 12, \"ratio\": 0.5}, {\"count\": -3, \"ratio\": 1e2}],\n"
+        + "  \"nested\": {\"deep\": {\"value\": 123456789012345678901}, \"empty\": {}, \"list\": []},\n"
+        + "  \"esc\\\"aped\": \"line\\nbreak \\u0416 \\\"q\\\"\",\n"
+        + "  \"a/b\": true, \"m~n\": false, \"none\": null,\n"
+        + "  \"ключ\": \"значение\", \"numeric\": \" 42 \"\n"
+        + "}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void lazyIndex() {
+        // when
+        LazyJsonDocument document = document(JSON);
+
+        // do
+        boolean before = document.isIndexed();
+        long count = document.at("/stats/1/count").asLong();
+
+        // then
+        assertFalse(before);
+        assertTrue(document.isIndexed());
+        assertEquals(-3L, count);
+    }
+
+    @Test
+    void navigation() {
+        // when
+        LazyJsonValue root = document(JSON).getRoot();
+
+        // do
+        // then
+        assertEquals(JsonNodeType.OBJECT, root.getNodeType());
+        assertEquals(9, root.size());
+        assertEquals(
+            List.of("name", "stats", "nested", "esc\"aped", "a/b", "m~n", "none", "ключ", "numeric"),
+            root.getFieldNames()
+        );
+        assertEquals("flow", root.get("name").asText());
+        assertEquals(2, root.get("stats").size());
+        assertEquals(2, root.get("stats").getElements().size());
+        assertEquals(0.5, root.get("stats").get(0).get("ratio").asDouble());
+        assertEquals(100.0, root.at("/stats/1/ratio").asDouble());
+        assertEquals(0, root.at("/nested/empty").size());
+        assertEquals(JsonNodeType.ARRAY, root.at("/nested/list").getNodeType());
+        assertEquals("значение", root.get("ключ").asText());
+        assertTrue(root.at("/a~1b").asBoolean());
+        assertFalse(root.at("/m~0n").asBoolean());
+        assertTrue(root.get("none").isNull());
+        assertEquals("null", root.get("none").asText());
+        assertEquals("line\nbreak Ж \"q\"", root.get("esc\"aped").asText());
+        assertSame(root, root.at(""));
+    }
+
+    @Test
+    void missingValues() {
+        // when
+        LazyJsonValue root = document(JSON).getRoot();
+
+        // do
+        LazyJsonValue missing = root.at("/stats/5/count");
+
+        // then
+        assertTrue(missing.isMissing());
+        assertEquals(JsonNodeType.MISSING, missing.getNodeType());
+        assertEquals(0L, missing.asLong());
+        assertEquals("", missing.asText());
+        assertTrue(root.get("name").get("x").isMissing());
+        assertTrue(root.get("stats").get(-1).isMissing());
+        assertTrue(root.at("/stats/01").isMissing());
+        assertTrue(root.at("/unknown/a/b").isMissing());
+        assertFalse(missing.isNull());
+        assertThrows(IllegalArgumentException.class, () -> root.at("name"));
+    }
+
+    @Test
+    void conversions() {
+        // when
+        LazyJsonValue root = document(JSON).getRoot();
+
+        // do
+        // then
+        assertEquals(42L, root.get("numeric").asLong());
+        assertEquals(42.0, root.get("numeric").asDouble());
+        assertEquals(0L, root.get("name").asLong());
+        assertEquals(100L, root.at("/stats/1/ratio").asLong());
+        assertEquals(new BigInteger("123456789012345678901").longValue(), root.at("/nested/deep/value").asLong());
+        assertEquals(12, root.at("/stats/0/count").asInt());
+        assertEquals(1L, root.get("a/b").asLong());
+        assertTrue(root.at("/stats/0/count").asBoolean());
+        assertEquals("12", root.at("/stats/0/count").asText());
+        assertEquals("{\"count\": 12, \"ratio\": 0.5}", root.at("/stats/0").toString());
+        assertEquals("\"flow\"", root.get("name").toString());
+    }
+
+    @Test
+    void bindSubtree() throws IOException {
+        // when
+        LazyJsonValue root = document(JSON).getRoot();
+
+        // do
+        Map<?, ?> stats = root.at("/stats/0").readValue(objectMapper, Map.class);
+        String name = root.get("name").readValue(objectMapper, String.class);
+        JsonNode tree = root.toJsonNode(objectMapper);
+
+        // then
+        assertEquals(Map.of("count", 12, "ratio", 0.5), stats);
+        assertEquals("flow", name);
+        assertEquals(objectMapper.readTree(JSON), tree);
+        assertNull(root.get("x").readValue(objectMapper, Map.class));
+        assertTrue(root.get("x").toJsonNode(objectMapper).isMissingNode());
+    }
+
+    @Test
+    void scalarRoot() {
+        // when
+        // do
+        // then
+        assertEquals(7L, document(" 7 ").getRoot().asLong());
+        assertEquals("s", document("\"s\"").getRoot().asText());
+        assertTrue(document("null").getRoot().isNull());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "  ", "{\"a\":1", "[1,2}", "}", "{\"a\":tru}", "\"open", "1 2", "{} []"})
+    void malformed(final String json) {
+        // when
+        LazyJsonDocument document = document(json);
+
+        // do
+        // then
+        assertThrows(UncheckedIOException.class, document::getRoot);
+        assertThrows(UncheckedIOException.class, () -> document.at("/a"));
+    }
+
+    @Test
+    void close() {
+        // when
+        LazyJsonDocument document = document(JSON);
+        document.close();
+
+        // do
+        // then
+        assertThrows(IllegalStateException.class, () -> document.at("/name"));
+        assertThrows(IllegalArgumentException.class, () -> new LazyJsonDocument(new byte[1], 2, null));
+    }
+
+    private static LazyJsonDocument document(final String json) {
+        return new LazyJsonDocument(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.lazy;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.bedward70.rest.client.buffer.BufferPool;
+import ru.bedward70.rest.client.response.acceptor.RestResponseContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static ru.bedward70.rest.client.response.acceptor.RestResponseAcceptor.ACCEPT_HEADER_KEY;
+
+public class LazyJsonRestResponseAcceptorTest {
+
+    private final BufferPool pool = new BufferPool(64, 4, true);
+    private final LazyJsonRestResponseAcceptor acceptor = new LazyJsonRestResponseAcceptor(pool);
+
+    @Test
+    void setAcceptProperty() {
+        // when
+        URLConnection con = Mockito.mock(URLConnection.class);
+
+        // do
+        acceptor.setAcceptProperty(con);
+
+        // then
+        verify(con, times(1)).setRequestProperty(ACCEPT_HEADER_KEY, "application/json");
+    }
+
+    @Test
+    void readPooled() throws IOException {
+        // when
+        byte[] json = "{\"a\":{\"b\":[1,2,3]}}".getBytes(StandardCharsets.UTF_8);
+
+        // do
+        LazyJsonDocument document = acceptor.readValue(new ByteArrayInputStream(json), LazyJsonDocument.class);
+
+        // then
+        assertFalse(document.isIndexed());
+        assertEquals(json.length, document.getLength());
+        assertEquals(3, document.at("/a/b/2").asInt());
+        assertEquals(1, pool.getLeaks().size());
+        document.close();
+        assertEquals(0, pool.getLeaks().size());
+    }
+
+    @Test
+    void readLargerThanBuffer() throws IOException {
+        // when
+        String json = "{\"values\":[" + "1,".repeat(100) + "2]}";
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        RestResponseContext known = new RestResponseContext(200, null, bytes.length, null, "/data");
+
+        // do
+        LazyJsonDocument unknownLength = acceptor.readValue(new ByteArrayInputStream(bytes), LazyJsonDocument.class);
+        LazyJsonDocument knownLength = acceptor.readValue(new ByteArrayInputStream(bytes), LazyJsonDocument.class, known);
+
+        // then
+        assertEquals(0, pool.getLeaks().size());
+        assertEquals(bytes.length, unknownLength.getLength());
+        assertEquals(101, unknownLength.at("/values").size());
+        assertEquals(2, unknownLength.at("/values/100").asInt());
+        assertEquals(json, knownLength.getRoot().toString());
+    }
+
+    @Test
+    void readExactlyBufferSize() throws IOException {
+        // when
+        String json = "[\"" + "x".repeat(60) + "\"]";
+
+        // do
+        LazyJsonDocument document = acceptor.readValue(
+            new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), LazyJsonDocument.class
+        );
+
+        // then
+        assertEquals(64, document.getLength());
+        assertEquals(60, document.at("/0").asText().length());
+        document.close();
+        assertEquals(0, pool.getLeaks().size());
+    }
+
+    @Test
+    void readTruncated() {
+        // when
+        RestResponseContext small = new RestResponseContext(200, null, 10, null, "/data");
+        RestResponseContext large = new RestResponseContext(200, null, 1000, null, "/data");
+
+        // do
+        // then
+        assertThrows(
+            IOException.class,
+            () -> acceptor.readValue(new ByteArrayInputStream(new byte[] {'{', '}'}), LazyJsonDocument.class, small)
+        );
+        assertThrows(
+            IOException.class,
+            () -> acceptor.readValue(new ByteArrayInputStream(new byte[] {'{', '}'}), LazyJsonDocument.class, large)
+        );
+        assertEquals(0, pool.getLeaks().size());
+    }
+
+    @Test
+    void readWithHostileContentLength() {
+        // when
+        RestResponseContext hostile = new RestResponseContext(200, null, Integer.MAX_VALUE - 8, null, "/data");
+
+        // do
+        IOException exception = assertThrows(
+            IOException.class,
+            () -> acceptor.readValue(new ByteArrayInputStream(new byte[] {'{', '}'}), LazyJsonDocument.class, hostile)
+        );
+
+        // then
+        assertEquals("Truncated response: 2 of 2147483639 bytes received", exception.getMessage());
+        assertEquals(0, pool.getLeaks().size());
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.load;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    void percentiles() {
+        // when
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // do
+        for (long value = 1; value <= 1_000_000; value++) {
+            histogram.recordValue(value * 1_000);
+        }
+
+        // then
+        assertEquals(1_000_000, histogram.getTotalCount());
+        assertEquals(500_000_500.0, histogram.getMean(), 0.001);
+        assertEquals(500_000_000, histogram.getValueAtPercentile(50.0), 500_000_000 * 0.001);
+        assertEquals(990_000_000, histogram.getValueAtPercentile(99.0), 990_000_000 * 0.001);
+        assertEquals(999_900_000, histogram.getValueAtPercentile(99.99), 999_900_000 * 0.001);
+        assertEquals(1_000_000_000, histogram.getValueAtPercentile(100.0));
+        assertEquals(1_000_000_000, histogram.getMax());
+    }
+
+    @Test
+    void exactSmallValues() {
+        // when
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // do
+        histogram.recordValue(0);
+        histogram.recordValue(7);
+        histogram.recordValue(2047);
+
+        // then
+        assertEquals(0, histogram.getValueAtPercentile(0.0));
+        assertEquals(7, histogram.getValueAtPercentile(50.0));
+        assertEquals(2047, histogram.getValueAtPercentile(100.0));
+        assertEquals(0, new LatencyHistogram().getValueAtPercentile(99.0));
+        assertThrows(IllegalArgumentException.class, () -> histogram.recordValue(-1));
+    }
+
+    @Test
+    void indexes() {
+        // when
+        // do
+        // then
+        for (long value : new long[] {0, 1, 2047, 2048, 2049, 4095, 4096, 123_456_789, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(value);
+            long highest = LatencyHistogram.highestEquivalentValue(index);
+            assertEquals(index, LatencyHistogram.indexOf(highest), "value: " + value);
+            assertTrue(highest >= value && highest - value <= value / 1024, "value: " + value);
+        }
+    }
+
+    @Test
+    void coordinatedOmissionCorrection() {
+        // when
+        LatencyHistogram raw = new LatencyHistogram();
+        LatencyHistogram corrected = new LatencyHistogram();
+
+        // do
+        // A 1 second stall among 99 fast requests sent every 10 ms
+        for (int i = 0; i < 99; i++) {
+            raw.recordValue(1_000_000);
+            corrected.recordValueWithExpectedInterval(1_000_000, 10_000_000);
+        }
+        raw.recordValue(1_000_000_000);
+        corrected.recordValueWithExpectedInterval(1_000_000_000, 10_000_000);
+
+        // then
+        assertEquals(100, raw.getTotalCount());
+        assertEquals(199, corrected.getTotalCount());
+        assertEquals(1_000_000, raw.getValueAtPercentile(99.0), 1_000);
+        assertEquals(990_000_000, corrected.getValueAtPercentile(99.0), 1_000_000);
+        assertEquals(510_000_000, corrected.getValueAtPercentile(75.0), 1_000_000);
+    }
+
+    @Test
+    void add() {
+        // when
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.recordValue(100);
+        second.recordValue(300);
+
+        // do
+        first.add(second);
+
+        // then
+        assertEquals(2, first.getTotalCount());
+        assertEquals(200.0, first.getMean());
+        assertEquals(300, first.getMax());
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.bedward70.rest.client.BaseRestClient;
+import ru.bedward70.rest.client.response.acceptor.StringRestResponseAcceptor;
+import ru.bedward70.rest.client.server.FaultInjectingServer;
+import ru.bedward70.rest.client.server.LatencyDistribution;
+import ru.bedward70.rest.client.server.Route;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoadGeneratorTest {
+
+    private FaultInjectingServer server;
+    private BaseRestClient client;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new FaultInjectingServer()
+            .route("/fast", new Route(200, "ok"))
+            .route("/slow", new Route(200, "ok").latency(LatencyDistribution.fixed(Duration.ofMillis(50))))
+            .route("/errors", new Route(200, "ok").errorRate(1.0, 503));
+        client = new BaseRestClient(server.getUrl());
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void openLoop() {
+        // when
+        LoadGenerator generator = new LoadGenerator(client, get("/fast"));
+
+        // do
+        LoadReport report = generator.runOpenLoop(200, Duration.ofMillis(500), 4);
+
+        // then
+        assertEquals(LoadReport.OPEN_LOOP, report.getScenario());
+        assertEquals(100, report.getRequests());
+        assertEquals(100, report.getSuccesses());
+        assertEquals(0, report.getNotSent());
+        assertEquals(Map.of(), report.getErrors());
+        assertEquals(100, report.getResponseTime().getCount());
+        assertTrue(report.getThroughput() > 100, "throughput: " + report.getThroughput());
+        assertTrue(report.getCpuNanosPerRequest() != 0);
+        assertTrue(report.getAllocatedBytesPerRequest() != 0);
+    }
+
+    @Test
+    void openLoopMeasuresQueueing() {
+        // when
+        // Every request takes 50 ms, the single connection can serve only 20 of 40 requests per second
+        LoadGenerator generator = new LoadGenerator(client, get("/slow"));
+
+        // do
+        LoadReport report = generator.runOpenLoop(40, Duration.ofMillis(500), 1);
+
+        // then
+        assertEquals(20, report.getRequests());
+        assertTrue(report.getServiceTime().getMax() < 200_000, "service: " + report.getServiceTime().getMax());
+        assertTrue(report.getResponseTime().getMax() > 400_000, "response: " + report.getResponseTime().getMax());
+        assertTrue(report.getResponseTime().getP50() > report.getServiceTime().getP50());
+    }
+
+    @Test
+    void closedLoopWithErrors() {
+        // when
+        LoadGenerator generator = new LoadGenerator(client, get("/errors"));
+
+        // do
+        LoadReport report = generator.runClosedLoop(2, Duration.ofMillis(200), Duration.ofMillis(10));
+
+        // then
+        assertEquals(LoadReport.CLOSED_LOOP, report.getScenario());
+        assertNull(report.getTargetRate());
+        assertEquals(0, report.getSuccesses());
+        assertEquals(Map.of("HTTP 503", report.getRequests()), report.getErrors());
+        assertTrue(report.getRequests() >= 2 && report.getRequests() <= 42, "requests: " + report.getRequests());
+    }
+
+    @Test
+    void closedLoopCorrection() {
+        // when
+        // Requests are expected every 10 ms, but every one takes 50 ms
+        LoadGenerator generator = new LoadGenerator(client, get("/slow"));
+
+        // do
+        LoadReport report = generator.runClosedLoop(1, Duration.ofMillis(300), Duration.ofMillis(10));
+
+        // then
+        assertTrue(report.getResponseTime().getCount() > report.getServiceTime().getCount());
+        assertTrue(report.getResponseTime().getP50() < report.getServiceTime().getP50());
+    }
+
+    @Test
+    void report() throws IOException {
+        // when
+        LoadReport report = new LoadGenerator(client, get("/fast")).runClosedLoop(1, Duration.ofMillis(50), Duration.ZERO);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // do
+        report.writeJson(outputStream);
+        JsonNode json = new ObjectMapper().readTree(outputStream.toByteArray());
+
+        // then
+        assertEquals("closed-loop", json.get("scenario").asText());
+        assertEquals(BaseRestClient.class.getName(), json.get("transport").asText());
+        assertEquals(report.getRequests(), json.get("requests").asLong());
+        assertTrue(json.get("responseTime").has("p999"));
+        assertTrue(json.has("allocatedBytesPerRequest"));
+        assertFalse(json.has("targetRate"));
+        assertEquals(json, new ObjectMapper().readTree(report.toJson()));
+    }
+
+    private static LoadRequest get(final String urlSuffix) {
+        StringRestResponseAcceptor acceptor = new StringRestResponseAcceptor();
+        return restClient -> restClient.execute("GET", urlSuffix, String.class, acceptor, null);
+    }
+}
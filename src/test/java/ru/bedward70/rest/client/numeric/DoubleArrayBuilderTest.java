@@ -0,0 +1,68 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.numeric;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DoubleArrayBuilderTest {
+
+    @Test
+    void add() {
+        // when
+        DoubleArrayBuilder builder = new DoubleArrayBuilder(0);
+
+        // do
+        for (int i = 0; i < 100; i++) {
+            builder.add(i * 0.5);
+        }
+
+        // then
+        assertEquals(100, builder.size());
+        assertEquals(49.5, builder.get(99));
+        assertEquals(100, builder.toArray().length);
+        assertThrows(IndexOutOfBoundsException.class, () -> builder.get(100));
+    }
+
+    @Test
+    void clear() {
+        // when
+        DoubleArrayBuilder builder = new DoubleArrayBuilder();
+        builder.add(1);
+        builder.add(2);
+
+        // do
+        builder.clear();
+        builder.add(3);
+
+        // then
+        assertArrayEquals(new double[] {3}, builder.toArray());
+        assertThrows(IndexOutOfBoundsException.class, () -> builder.get(1));
+        assertThrows(IllegalArgumentException.class, () -> new DoubleArrayBuilder(-1));
+    }
+}
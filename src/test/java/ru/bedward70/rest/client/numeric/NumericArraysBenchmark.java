@@ -0,0 +1,136 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.numeric;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.bedward70.rest.client.codec.JsonCodecs;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares boxed binding of numeric arrays and series with the primitive decoding of {@link NumericArrays}.
+ * The GC profiler reports the allocated bytes per operation (gc.alloc.rate.norm),
+ * the retained size follows from it: a boxed Double element takes about 20 bytes, a double[] element 8 bytes.
+ * Run: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=ru.bedward70.rest.client.numeric.NumericArraysBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumericArraysBenchmark {
+
+    private static final TypeReference<List<Double>> DOUBLE_LIST = new TypeReference<>() {
+    };
+
+    private static final TypeReference<List<List<Number>>> POINT_LIST = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Param({"100000"})
+    private int size;
+
+    private byte[] array;
+
+    private byte[] series;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(48);
+        StringBuilder arrayJson = new StringBuilder("[");
+        StringBuilder seriesJson = new StringBuilder("[");
+        long timestamp = 1_700_000_000_000L;
+        for (int i = 0; i < size; i++) {
+            String separator = i == 0 ? "" : ",";
+            double value = Math.round(random.nextGaussian() * 1_000_000) / 1000.0;
+            arrayJson.append(separator).append(value);
+            seriesJson.append(separator).append('[').append(timestamp + i * 1000L).append(',').append(value).append(']');
+        }
+        array = arrayJson.append(']').toString().getBytes(StandardCharsets.UTF_8);
+        series = seriesJson.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<Double> arrayAsList() throws IOException {
+        return objectMapper.readValue(array, DOUBLE_LIST);
+    }
+
+    @Benchmark
+    public double[] arrayByObjectMapper() throws IOException {
+        return objectMapper.readValue(array, double[].class);
+    }
+
+    @Benchmark
+    public double[] arrayByCodec() throws IOException {
+        return JsonCodecs.readValue(
+            objectMapper, new ByteArrayInputStream(array), NumericArrays.DOUBLE_ARRAY, double[].class
+        );
+    }
+
+    @Benchmark
+    public List<List<Number>> seriesAsLists() throws IOException {
+        return objectMapper.readValue(series, POINT_LIST);
+    }
+
+    @Benchmark
+    public TimeSeries seriesByCodec() throws IOException {
+        return JsonCodecs.readValue(
+            objectMapper, new ByteArrayInputStream(series), NumericArrays.TIME_SERIES, TimeSeries.class
+        );
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(
+            new OptionsBuilder()
+                .include(NumericArraysBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.numeric;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.junit.jupiter.api.Test;
+import ru.bedward70.rest.client.codec.JsonCodec;
+import ru.bedward70.rest.client.codec.JsonCodecs;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class NumericArraysTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void readArrays() throws IOException {
+        // when
+        String json = "[1, -2.5, 3e2, null, \"4.5\"]";
+
+        // do
+        double[] doubles = read(json, NumericArrays.DOUBLE_ARRAY, double[].class);
+        long[] longs = read("[1, -9223372036854775808, null, \"7\"]", NumericArrays.LONG_ARRAY, long[].class);
+        int[] ints = read("[]", NumericArrays.INT_ARRAY, int[].class);
+
+        // then
+        assertArrayEquals(new double[] {1, -2.5, 300, 0, 4.5}, doubles);
+        assertArrayEquals(new long[] {1, Long.MIN_VALUE, 0, 7}, longs);
+        assertArrayEquals(new int[0], ints);
+        assertNull(read("null", NumericArrays.DOUBLE_ARRAY, double[].class));
+    }
+
+    @Test
+    void readLargeArray() throws IOException {
+        // when
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 10_000; i++) {
+            json.append(i == 0 ? "" : ",").append(i);
+        }
+        json.append(']');
+
+        // do
+        int[] ints = read(json.toString(), NumericArrays.INT_ARRAY, int[].class);
+
+        // then
+        assertEquals(10_000, ints.length);
+        assertEquals(9_999, ints[9_999]);
+        assertArrayEquals(objectMapper.readValue(json.toString(), int[].class), ints);
+    }
+
+    @Test
+    void coercionsOfTheObjectMapper() throws IOException {
+        // when
+        ObjectMapper single = new ObjectMapper().enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY);
+
+        // do
+        long[] singleValue = JsonCodecs.readValue(single, stream("5"), NumericArrays.LONG_ARRAY, long[].class);
+
+        // then
+        assertArrayEquals(new long[] {5}, singleValue);
+        assertThrows(
+            MismatchedInputException.class,
+            () -> read("[1, \"x\"]", NumericArrays.INT_ARRAY, int[].class)
+        );
+    }
+
+    @Test
+    void readMatrix() throws IOException {
+        // when
+        String json = "[[1, 2.5], [], [3], null]";
+
+        // do
+        double[][] matrix = read(json, NumericArrays.DOUBLE_MATRIX, double[][].class);
+
+        // then
+        assertEquals(4, matrix.length);
+        assertArrayEquals(new double[] {1, 2.5}, matrix[0]);
+        assertArrayEquals(new double[0], matrix[1]);
+        assertArrayEquals(new double[] {3}, matrix[2]);
+        assertNull(matrix[3]);
+    }
+
+    @Test
+    void readTimeSeries() throws IOException {
+        // when
+        String json = "[[1700000000000, 0.5], [1700000001000, \"2\"], [1700000002000.9, null]]";
+
+        // do
+        TimeSeries series = read(json, NumericArrays.TIME_SERIES, TimeSeries.class);
+
+        // then
+        assertEquals(3, series.size());
+        assertArrayEquals(new long[] {1700000000000L, 1700000001000L, 1700000002000L}, series.getTimestamps());
+        assertArrayEquals(new double[] {0.5, 2, 0}, series.getValues());
+    }
+
+    @Test
+    void readMalformedTimeSeries() {
+        // when
+        // do
+        // then
+        assertThrows(MismatchedInputException.class, () -> read("[1, 2]", NumericArrays.TIME_SERIES, TimeSeries.class));
+        assertThrows(MismatchedInputException.class, () -> read("[[1]]", NumericArrays.TIME_SERIES, TimeSeries.class));
+        assertThrows(MismatchedInputException.class, () -> read("[[]]", NumericArrays.TIME_SERIES, TimeSeries.class));
+        assertThrows(
+            MismatchedInputException.class,
+            () -> read("[[1, 2, 3]]", NumericArrays.TIME_SERIES, TimeSeries.class)
+        );
+        assertThrows(MismatchedInputException.class, () -> read("{}", NumericArrays.TIME_SERIES, TimeSeries.class));
+    }
+
+    @Test
+    void readIntoReusedBuilder() throws IOException {
+        // when
+        DoubleArrayBuilder builder = new DoubleArrayBuilder(2);
+
+        // do
+        try (JsonParser parser = objectMapper.createParser("{\"a\": [1, 2], \"b\": [3, 4, 5]}")) {
+            parser.nextToken();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                parser.nextToken();
+                NumericArrays.readDoubles(parser, builder);
+            }
+        }
+
+        // then
+        assertArrayEquals(new double[] {1, 2, 3, 4, 5}, builder.toArray());
+    }
+
+    @Test
+    void write() throws IOException {
+        // when
+        TimeSeries series = new TimeSeries(new long[] {1, 2}, new double[] {0.5, -1});
+
+        // do
+        byte[] doubles = JsonCodecs.writeValueAsBytes(objectMapper, NumericArrays.DOUBLE_ARRAY, new double[] {1.5, 2});
+        byte[] longs = JsonCodecs.writeValueAsBytes(objectMapper, NumericArrays.LONG_ARRAY, new long[] {1, 2});
+        byte[] ints = JsonCodecs.writeValueAsBytes(objectMapper, NumericArrays.INT_ARRAY, null);
+        byte[] matrix = JsonCodecs.writeValueAsBytes(
+            objectMapper, NumericArrays.DOUBLE_MATRIX, new double[][] {{1}, null}
+        );
+        byte[] points = JsonCodecs.writeValueAsBytes(objectMapper, NumericArrays.TIME_SERIES, series);
+
+        // then
+        assertEquals("[1.5,2.0]", new String(doubles, StandardCharsets.UTF_8));
+        assertEquals("[1,2]", new String(longs, StandardCharsets.UTF_8));
+        assertEquals("null", new String(ints, StandardCharsets.UTF_8));
+        assertEquals("[[1.0],null]", new String(matrix, StandardCharsets.UTF_8));
+        assertEquals("[[1,0.5],[2,-1.0]]", new String(points, StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class, () -> new TimeSeries(new long[1], new double[2]));
+    }
+
+    private <T> T read(final String json, final JsonCodec<T> codec, final Class<T> clazz) throws IOException {
+        return JsonCodecs.readValue(objectMapper, stream(json), codec, clazz);
+    }
+
+    private static ByteArrayInputStream stream(final String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -34,8 +34,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URLConnection;
 import java.nio.charset.StandardCharsets;
+import java.util.Random;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -74,4 +77,71 @@ public class BytesRestResponseAcceptorTest {
         // then
         assertEquals(expected, new String(result, StandardCharsets.UTF_8));
     }
+
+    @Test
+    void readValueWithContentLength() throws IOException {
+        // when
+        byte[] expected = "test".getBytes(StandardCharsets.UTF_8);
+        InputStream inputStream = new ByteArrayInputStream(expected);
+        RestResponseContext context = new RestResponseContext(200, null, expected.length, null, "/data");
+
+        // do
+        byte[] result = new BytesRestResponseAcceptor(null).readValue(inputStream, byte[].class, context);
+
+        // then
+        assertArrayEquals(expected, result);
+    }
+
+    @Test
+    void readValueWithTruncatedContent() {
+        // when
+        InputStream inputStream = new ByteArrayInputStream(new byte[] {1, 2});
+        RestResponseContext context = new RestResponseContext(200, null, 3, null, "/data");
+
+        // do, then
+        assertThrows(
+            IOException.class,
+            () -> new BytesRestResponseAcceptor(null).readValue(inputStream, byte[].class, context)
+        );
+    }
+
+    @Test
+    void readValueWithLargeContentLength() throws IOException {
+        // when
+        byte[] expected = new byte[3 * ResponseBodyReader.MAX_INITIAL_SIZE + 5];
+        new Random(30).nextBytes(expected);
+        RestResponseContext context = new RestResponseContext(200, null, expected.length, null, "/data");
+        RestResponseContext hostile = new RestResponseContext(200, null, Integer.MAX_VALUE - 8, null, "/data");
+        BytesRestResponseAcceptor acceptor = new BytesRestResponseAcceptor(null);
+
+        // do
+        byte[] result = acceptor.readValue(new ByteArrayInputStream(expected), byte[].class, context);
+        IOException exception = assertThrows(
+            IOException.class,
+            () -> acceptor.readValue(new ByteArrayInputStream(new byte[] {1, 2}), byte[].class, hostile)
+        );
+
+        // then
+        assertArrayEquals(expected, result);
+        assertEquals("Truncated response: 2 of 2147483639 bytes received", exception.getMessage());
+    }
+
+    @Test
+    void readValueWithUnknownLength() throws IOException {
+        // when
+        byte[] expected = new byte[10_000];
+        new Random(30).nextBytes(expected);
+        RestResponseContext context = new RestResponseContext(200, null, RestResponseContext.UNKNOWN, null, "/data");
+        BytesRestResponseAcceptor acceptor = new BytesRestResponseAcceptor(null);
+
+        // do
+        byte[] first = acceptor.readValue(new ByteArrayInputStream(expected), byte[].class, context);
+        byte[] second = acceptor.readValue(new ByteArrayInputStream(expected), byte[].class, context);
+        byte[] empty = acceptor.readValue(new ByteArrayInputStream(new byte[0]), byte[].class, RestResponseContext.EMPTY);
+
+        // then
+        assertArrayEquals(expected, first);
+        assertArrayEquals(expected, second);
+        assertEquals(0, empty.length);
+    }
 }
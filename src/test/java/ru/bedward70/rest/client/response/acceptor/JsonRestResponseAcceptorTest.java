@@ -28,15 +28,23 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import ru.bedward70.rest.client.codec.CodecItem;
+import ru.bedward70.rest.client.intern.StringCache;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URLConnection;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static ru.bedward70.rest.client.response.acceptor.RestResponseAcceptor.ACCEPT_HEADER_KEY;
@@ -75,4 +83,72 @@ public class JsonRestResponseAcceptorTest {
         // then
         assertEquals(expected, result);
     }
+
+    @Test
+    void readValueWithStringCache() throws IOException {
+        // when
+        StringCache cache = new StringCache();
+        JsonRestResponseAcceptor<List> cachingAcceptor = new JsonRestResponseAcceptor<>(objectMapper, cache);
+        byte[] json = "[{\"state\":\"RUNNING\"},{\"state\":\"RUNNING\"}]".getBytes(StandardCharsets.UTF_8);
+
+        // do
+        List<Map<String, Object>> first = cachingAcceptor.readValue(new ByteArrayInputStream(json), List.class);
+        List<Map<String, Object>> second = cachingAcceptor.readValue(new ByteArrayInputStream(json), List.class);
+
+        // then
+        assertSame(first.get(0).get("state"), first.get(1).get("state"));
+        assertSame(first.get(0).get("state"), second.get(0).get("state"));
+        assertEquals(1, cache.getMisses());
+        assertEquals(3, cache.getHits());
+        List<Map<String, Object>> plain = objectMapper.readValue(json, List.class);
+        assertNotSame(plain.get(0).get("state"), plain.get(1).get("state"));
+    }
+
+    @Test
+    void readValueWithGeneratedCodec() throws IOException {
+        // when
+        ObjectMapper spy = Mockito.spy(new ObjectMapper());
+        JsonRestResponseAcceptor<CodecItem> codecAcceptor = new JsonRestResponseAcceptor<>(spy);
+        InputStream inputStream = new ByteArrayInputStream("{\"name\":\"n\",\"price\":2.5}".getBytes(StandardCharsets.UTF_8));
+
+        // do
+        CodecItem result = codecAcceptor.readValue(inputStream, CodecItem.class);
+
+        // then
+        assertEquals("n", result.name);
+        assertEquals(2.5, result.price);
+        verify(spy, never()).readValue(any(InputStream.class), any(Class.class));
+    }
+
+    @Test
+    void warmUp() throws IOException {
+        // when
+        byte[] sample = "{\"value\":40}".getBytes(StandardCharsets.UTF_8);
+
+        // do
+        // then
+        acceptor.warmUp(Map.class, sample, 10);
+        acceptor.warmUp(Map.class, null, 10);
+        assertThrows(IOException.class, () -> acceptor.warmUp(Map.class, "[".getBytes(StandardCharsets.UTF_8), 1));
+    }
+
+    @Test
+    void warmUpIterations() throws IOException {
+        // when
+        ObjectMapper spy = Mockito.spy(new ObjectMapper());
+        JsonRestResponseAcceptor<Object> spyAcceptor = new JsonRestResponseAcceptor<>(spy);
+        byte[] sample = "{\"value\":40}".getBytes(StandardCharsets.UTF_8);
+
+        // do
+        spyAcceptor.warmUp(Map.class, sample, 0);
+
+        // then
+        verify(spy, never()).readValue(any(InputStream.class), any(Class.class));
+
+        // do
+        spyAcceptor.warmUp(Map.class, sample, 10);
+
+        // then
+        verify(spy, times(10)).readValue(any(InputStream.class), any(Class.class));
+    }
 }
@@ -0,0 +1,207 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.response.acceptor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static ru.bedward70.rest.client.response.acceptor.RestResponseAcceptor.ACCEPT_HEADER_KEY;
+
+public class ResumableFileRestResponseAcceptorTest {
+
+    private static final String CONTENT = "0123456789";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readValue() throws IOException {
+        // when
+        File file = tempDir.resolve("download.bin").toFile();
+        ResumableFileRestResponseAcceptor acceptor = new ResumableFileRestResponseAcceptor("application/octet-stream", file, 4);
+        HttpURLConnection con = Mockito.mock(HttpURLConnection.class);
+        RestResponseContext context = context(200, CONTENT.length(), "\"v1\"", null);
+
+        // do
+        acceptor.setAcceptProperty(con);
+        File result = acceptor.readValue(stream(CONTENT), File.class, context);
+
+        // then
+        verify(con, times(1)).setRequestProperty(ACCEPT_HEADER_KEY, "application/octet-stream");
+        verify(con, times(0)).setRequestProperty(eq("Range"), anyString());
+        assertEquals(file, result);
+        assertEquals(CONTENT, Files.readString(file.toPath()));
+        assertFalse(Files.exists(acceptor.getPartPath()));
+        assertFalse(Files.exists(acceptor.getValidatorPath()));
+    }
+
+    @Test
+    void readValueFailureKeepsPartialFile() throws IOException {
+        // when
+        File file = tempDir.resolve("download.bin").toFile();
+        ResumableFileRestResponseAcceptor acceptor = new ResumableFileRestResponseAcceptor("application/octet-stream", file, 4);
+        HttpURLConnection con = Mockito.mock(HttpURLConnection.class);
+        RestResponseContext context = context(200, CONTENT.length(), "\"v1\"", null);
+        InputStream failing = new SequenceInputStream(stream("01234"), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        });
+
+        // do
+        acceptor.setAcceptProperty(con);
+        assertThrows(IOException.class, () -> acceptor.readValue(failing, File.class, context));
+
+        // then
+        assertFalse(file.exists());
+        assertEquals("0123", Files.readString(acceptor.getPartPath()));
+        assertEquals("\"v1\"", Files.readString(acceptor.getValidatorPath()));
+    }
+
+    @Test
+    void readValueTruncated() throws IOException {
+        // when
+        File file = tempDir.resolve("download.bin").toFile();
+        ResumableFileRestResponseAcceptor acceptor = new ResumableFileRestResponseAcceptor("application/octet-stream", file);
+        HttpURLConnection con = Mockito.mock(HttpURLConnection.class);
+        RestResponseContext context = context(200, CONTENT.length(), null, null);
+
+        // do
+        acceptor.setAcceptProperty(con);
+        assertThrows(IOException.class, () -> acceptor.readValue(stream("01234"), File.class, context));
+
+        // then
+        assertFalse(file.exists());
+        assertTrue(Files.exists(acceptor.getPartPath()));
+    }
+
+    @Test
+    void readValueWithoutContext() throws IOException {
+        // when
+        File file = tempDir.resolve("download.bin").toFile();
+        ResumableFileRestResponseAcceptor acceptor = new ResumableFileRestResponseAcceptor("application/octet-stream", file);
+        Files.writeString(acceptor.getPartPath(), "01234");
+        Files.writeString(acceptor.getValidatorPath(), "\"v1\"");
+        HttpURLConnection con = Mockito.mock(HttpURLConnection.class);
+        File fresh = tempDir.resolve("fresh.bin").toFile();
+        ResumableFileRestResponseAcceptor freshAcceptor = new ResumableFileRestResponseAcceptor("application/octet-stream", fresh);
+
+        // do
+        acceptor.setAcceptProperty(con);
+        freshAcceptor.setAcceptProperty(Mockito.mock(HttpURLConnection.class));
+
+        // then
+        verify(con, times(1)).setRequestProperty("Range", "bytes=5-");
+        assertThrows(IOException.class, () -> acceptor.readValue(stream("56789"), File.class));
+        assertFalse(file.exists());
+        assertEquals("01234", Files.readString(acceptor.getPartPath()));
+        assertEquals("\"v1\"", Files.readString(acceptor.getValidatorPath()));
+        assertEquals(fresh, freshAcceptor.readValue(stream(CONTENT), File.class));
+        assertEquals(CONTENT, Files.readString(fresh.toPath()));
+    }
+
+    @Test
+    void readValueResumed() throws IOException {
+        // when
+        File file = tempDir.resolve("download.bin").toFile();
+        ResumableFileRestResponseAcceptor acceptor = new ResumableFileRestResponseAcceptor("application/octet-stream", file);
+        Files.writeString(acceptor.getPartPath(), "01234");
+        Files.writeString(acceptor.getValidatorPath(), "\"v1\"");
+        HttpURLConnection con = Mockito.mock(HttpURLConnection.class);
+        RestResponseContext context = context(206, 5, "\"v1\"", "bytes 5-9/10");
+
+        // do
+        acceptor.setAcceptProperty(con);
+        acceptor.readValue(stream("56789"), File.class, context);
+
+        // then
+        verify(con, times(1)).setRequestProperty("Range", "bytes=5-");
+        verify(con, times(1)).setRequestProperty("If-Range", "\"v1\"");
+        assertEquals(CONTENT, Files.readString(file.toPath()));
+        assertFalse(Files.exists(acceptor.getPartPath()));
+    }
+
+    @Test
+    void readValueRestartedWhenValidatorChanged() throws IOException {
+        // when
+        File file = tempDir.resolve("download.bin").toFile();
+        ResumableFileRestResponseAcceptor acceptor = new ResumableFileRestResponseAcceptor("application/octet-stream", file);
+        Files.writeString(acceptor.getPartPath(), "xxxxx");
+        Files.writeString(acceptor.getValidatorPath(), "\"v0\"");
+        HttpURLConnection con = Mockito.mock(HttpURLConnection.class);
+        RestResponseContext context = context(200, CONTENT.length(), "\"v1\"", null);
+
+        // do
+        acceptor.setAcceptProperty(con);
+        acceptor.readValue(stream(CONTENT), File.class, context);
+
+        // then
+        verify(con, times(1)).setRequestProperty("Range", "bytes=5-");
+        assertEquals(CONTENT, Files.readString(file.toPath()));
+    }
+
+    private static RestResponseContext context(
+        final int responseCode,
+        final long contentLength,
+        final String etag,
+        final String contentRange
+    ) {
+        Map<String, List<String>> headers = new HashMap<>();
+        if (etag != null) {
+            headers.put("etag", List.of(etag));
+        }
+        if (contentRange != null) {
+            headers.put("Content-Range", List.of(contentRange));
+        }
+        return new RestResponseContext(responseCode, headers, contentLength, "application/octet-stream", "/download");
+    }
+
+    private static InputStream stream(final String value) {
+        return new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -25,13 +25,19 @@
 package ru.bedward70.rest.client.response.acceptor;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URLConnection;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.doReturn;
@@ -75,4 +81,39 @@ public class StringRestResponseAcceptorTest {
         verify(inputStream, times(1)).readAllBytes();
         assertEquals(expected, result);
     }
+
+    @ParameterizedTest
+    @MethodSource
+    void readValueWithContext(
+        final String contentType,
+        final long contentLength,
+        final Charset charset
+    ) throws IOException {
+        // when
+        String expected = "Größe ✓";
+        byte[] bytes = expected.getBytes(charset);
+        RestResponseContext context = new RestResponseContext(
+            200,
+            null,
+            contentLength < 0 ? contentLength : bytes.length,
+            contentType,
+            "/text"
+        );
+
+        // do
+        String result = acceptor.readValue(new ByteArrayInputStream(bytes), String.class, context);
+
+        // then
+        assertEquals(expected, result);
+    }
+
+    private static Stream<Arguments> readValueWithContext() {
+        return Stream.of(
+            Arguments.of("text/plain", 0L, StandardCharsets.UTF_8),
+            Arguments.of("text/plain; charset=UTF-16BE", 0L, StandardCharsets.UTF_16BE),
+            Arguments.of("text/plain;charset=\"utf-16le\"", RestResponseContext.UNKNOWN, StandardCharsets.UTF_16LE),
+            Arguments.of("text/plain; charset=unknown-charset", RestResponseContext.UNKNOWN, StandardCharsets.UTF_8),
+            Arguments.of(null, RestResponseContext.UNKNOWN, StandardCharsets.UTF_8)
+        );
+    }
 }
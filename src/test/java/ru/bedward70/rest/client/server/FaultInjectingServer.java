@@ -0,0 +1,386 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Embedded HTTP/1.1 server for offline integration, benchmark and soak tests.
+ * It works over plain sockets, so it can do what {@code com.sun.net.httpserver} can not:
+ * slow headers, throttled bodies, connection resets and truncated bodies.
+ * Routes are matched by the longest path prefix, unknown paths get 404.
+ */
+public class FaultInjectingServer implements Closeable {
+
+    /** Max size of a body slice written at once */
+    private static final int MAX_SLICE_SIZE = 8 * 1024;
+
+    /** Throttled body slices per second */
+    private static final int SLICES_PER_SECOND = 20;
+
+    /** Route of unknown paths */
+    private static final Route NOT_FOUND = new Route(404, "Not Found");
+
+    /** Server socket */
+    private final ServerSocket serverSocket;
+
+    /** Accept and connection threads */
+    private final ExecutorService executor;
+
+    /** Routes by path prefix */
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+
+    /** Open connections */
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+
+    /** Accepted connections */
+    private final AtomicInteger connections = new AtomicInteger();
+
+    /** Received requests */
+    private final AtomicInteger requests = new AtomicInteger();
+
+    /** Closed flag */
+    private volatile boolean closed;
+
+    /**
+     * Constructor, starts the server on a free loopback port
+     * @throws IOException on bind errors
+     */
+    public FaultInjectingServer() throws IOException {
+        this(0);
+    }
+
+    /**
+     * Constructor, starts the server
+     * @param port loopback port, 0 - any free port
+     * @throws IOException on bind errors
+     */
+    public FaultInjectingServer(final int port) throws IOException {
+        this.serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "fault-injecting-server-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(this::accept);
+    }
+
+    /**
+     * Adds or replaces a route
+     * @param path path prefix
+     * @param route route
+     * @return this server
+     */
+    public FaultInjectingServer route(final String path, final Route route) {
+        routes.put(path, route);
+        return this;
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns the base url of the server
+     * @return base url
+     */
+    public String getUrl() {
+        return "http://localhost:" + getPort();
+    }
+
+    public int getConnections() {
+        return connections.get();
+    }
+
+    public int getRequests() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        closeQuietly(serverSocket);
+        sockets.forEach(FaultInjectingServer::closeQuietly);
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void accept() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                sockets.add(socket);
+                connections.incrementAndGet();
+                executor.execute(() -> serve(socket));
+            } catch (IOException e) {
+                // The server socket is closed
+            }
+        }
+    }
+
+    private void serve(final Socket socket) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream(), MAX_SLICE_SIZE);
+            boolean keepAlive = true;
+            while (keepAlive && !closed) {
+                ServerRequest request = ServerRequest.read(in, socket.getPort());
+                if (isNull(request)) {
+                    break;
+                }
+                requests.incrementAndGet();
+                keepAlive = respond(request, socket, out);
+            }
+        } catch (IOException | InterruptedException e) {
+            // The client aborted the connection or the server is closed
+        } finally {
+            sockets.remove(socket);
+        }
+    }
+
+    private boolean respond(
+        final ServerRequest request,
+        final Socket socket,
+        final OutputStream out
+    ) throws IOException, InterruptedException {
+        Route route = findRoute(request.getPath());
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        sleepNanos(route.getLatency().nextNanos(random));
+        Fault fault = route.nextFault(request, random);
+        if (fault == Fault.RESET) {
+            socket.setSoLinger(true, 0);
+            socket.close();
+            return false;
+        }
+        ServerResponse response = fault == Fault.ERROR
+            ? new ServerResponse(route.getErrorStatus(), "Injected fault")
+            : route.handle(request);
+        int status = response.getStatus();
+        byte[] body = response.getBody();
+        Map<String, String> headers = new LinkedHashMap<>(response.getHeaders());
+        if (status == 200 && route.isRanges()) {
+            headers.put("Accept-Ranges", "bytes");
+            String range = request.getHeader("Range");
+            if (nonNull(range)) {
+                long[] bounds = parseRange(range, body.length);
+                if (isNull(bounds)) {
+                    status = 416;
+                    headers.put("Content-Range", "bytes */" + body.length);
+                    body = new byte[0];
+                } else {
+                    status = 206;
+                    headers.put("Content-Range", "bytes " + bounds[0] + "-" + bounds[1] + "/" + body.length);
+                    body = Arrays.copyOfRange(body, (int) bounds[0], (int) bounds[1] + 1);
+                }
+            }
+        }
+        String acceptEncoding = request.getHeader("Accept-Encoding");
+        if (route.isGzip() && body.length > 0 && nonNull(acceptEncoding) && acceptEncoding.contains("gzip")) {
+            body = gzip(body);
+            headers.put("Content-Encoding", "gzip");
+        }
+        boolean hasBody = status >= 200 && status != 204 && status != 304;
+        boolean chunked = hasBody && route.isChunked();
+        if (chunked) {
+            headers.put("Transfer-Encoding", "chunked");
+        } else if (hasBody) {
+            headers.put("Content-Length", Integer.toString(body.length));
+        }
+        boolean keepAlive = !"close".equalsIgnoreCase(request.getHeader("Connection"));
+        if (!keepAlive) {
+            headers.put("Connection", "close");
+        }
+        writeHeaders(out, status, headers, route.getHeaderDelayNanos());
+        if (!hasBody || "HEAD".equals(request.getMethod())) {
+            out.flush();
+            return keepAlive;
+        }
+        if (fault == Fault.TRUNCATE) {
+            writeBody(out, body, body.length / 2, false, route.getBandwidth());
+            out.flush();
+            return false;
+        }
+        writeBody(out, body, body.length, chunked, route.getBandwidth());
+        if (chunked) {
+            out.write("0\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+        }
+        out.flush();
+        return keepAlive;
+    }
+
+    private Route findRoute(final String path) {
+        Route route = NOT_FOUND;
+        int length = -1;
+        for (Map.Entry<String, Route> entry : routes.entrySet()) {
+            String prefix = entry.getKey();
+            if (path.startsWith(prefix) && prefix.length() > length) {
+                route = entry.getValue();
+                length = prefix.length();
+            }
+        }
+        return route;
+    }
+
+    private static void writeHeaders(
+        final OutputStream out,
+        final int status,
+        final Map<String, String> headers,
+        final long headerDelayNanos
+    ) throws IOException, InterruptedException {
+        out.write(("HTTP/1.1 " + status + " " + getReasonPhrase(status) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (headerDelayNanos > 0) {
+                out.flush();
+                sleepNanos(headerDelayNanos);
+            }
+            out.write((header.getKey() + ": " + header.getValue() + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        }
+        out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void writeBody(
+        final OutputStream out,
+        final byte[] body,
+        final int length,
+        final boolean chunked,
+        final long bandwidth
+    ) throws IOException, InterruptedException {
+        int sliceSize = bandwidth > 0
+            ? (int) Math.max(1, Math.min(MAX_SLICE_SIZE, bandwidth / SLICES_PER_SECOND))
+            : MAX_SLICE_SIZE;
+        long start = System.nanoTime();
+        for (int offset = 0; offset < length; offset += sliceSize) {
+            int size = Math.min(sliceSize, length - offset);
+            if (chunked) {
+                out.write((Integer.toHexString(size) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            }
+            out.write(body, offset, size);
+            if (chunked) {
+                out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+            }
+            if (bandwidth > 0) {
+                out.flush();
+                long sent = offset + size;
+                sleepNanos(start + sent * TimeUnit.SECONDS.toNanos(1) / bandwidth - System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * Parses a single byte range
+     * @param range "Range" header value
+     * @param length body length
+     * @return inclusive bounds or null for an unsatisfiable range
+     */
+    private static long[] parseRange(final String range, final long length) {
+        if (!range.startsWith("bytes=") || range.indexOf(',') >= 0) {
+            return null;
+        }
+        String[] bounds = range.substring("bytes=".length()).trim().split("-", -1);
+        try {
+            if (bounds.length != 2) {
+                return null;
+            }
+            if (bounds[0].isEmpty()) {
+                long suffix = Long.parseLong(bounds[1]);
+                return suffix <= 0 || length == 0 ? null : new long[] {Math.max(0, length - suffix), length - 1};
+            }
+            long first = Long.parseLong(bounds[0]);
+            long last = bounds[1].isEmpty() ? length - 1 : Math.min(length - 1, Long.parseLong(bounds[1]));
+            return first >= length || first > last ? null : new long[] {first, last};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static byte[] gzip(final byte[] body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(body);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String getReasonPhrase(final int status) {
+        switch (status) {
+            case 200: return "OK";
+            case 201: return "Created";
+            case 204: return "No Content";
+            case 206: return "Partial Content";
+            case 304: return "Not Modified";
+            case 400: return "Bad Request";
+            case 404: return "Not Found";
+            case 416: return "Range Not Satisfiable";
+            case 429: return "Too Many Requests";
+            case 500: return "Internal Server Error";
+            case 503: return "Service Unavailable";
+            default: return "Status";
+        }
+    }
+
+    private static void sleepNanos(final long nanos) throws InterruptedException {
+        if (nanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        }
+    }
+
+    private static void closeQuietly(final Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // Nothing to do
+        }
+    }
+}
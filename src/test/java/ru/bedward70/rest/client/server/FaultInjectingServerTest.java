@@ -0,0 +1,314 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.bedward70.rest.client.BaseRestClient;
+import ru.bedward70.rest.client.body.maker.JsonRestBodyMaker;
+import ru.bedward70.rest.client.body.maker.JsonSequenceRestBodyMaker;
+import ru.bedward70.rest.client.deadline.Deadline;
+import ru.bedward70.rest.client.exception.DeadlineExceededRestClientException;
+import ru.bedward70.rest.client.exception.ErrorCodeRestClientException;
+import ru.bedward70.rest.client.exception.ErrorRestClientException;
+import ru.bedward70.rest.client.response.acceptor.BytesRestResponseAcceptor;
+import ru.bedward70.rest.client.response.acceptor.StringRestResponseAcceptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FaultInjectingServerTest {
+
+    private static final byte[] CONTENT = new byte[64 * 1024 + 3];
+
+    static {
+        new Random(42).nextBytes(CONTENT);
+    }
+
+    private FaultInjectingServer server;
+    private BaseRestClient client;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = new FaultInjectingServer()
+            .route("/echo", new Route(request -> new ServerResponse(200, request.getBody())));
+        client = new BaseRestClient(server.getUrl());
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void echo() {
+        // when
+        JsonRestBodyMaker maker = new JsonRestBodyMaker(new ObjectMapper());
+
+        // do
+        String result = client.execute(
+            "POST", "/echo/json", Map.of("value", 1), maker, String.class, new StringRestResponseAcceptor(), null
+        );
+
+        // then
+        assertEquals("{\"value\":1}", result);
+    }
+
+    @Test
+    void echoChunkedRequest() {
+        // when
+        JsonSequenceRestBodyMaker maker = new JsonSequenceRestBodyMaker(
+            new ObjectMapper(), JsonSequenceRestBodyMaker.Format.NDJSON
+        );
+
+        // do
+        String result = client.execute(
+            "POST", "/echo", List.of(1, 2, 3).iterator(), maker, String.class, new StringRestResponseAcceptor(), null
+        );
+
+        // then
+        assertEquals("1\n2\n3\n", result);
+    }
+
+    @Test
+    void keepAlive() {
+        // when
+        // do
+        for (int i = 0; i < 5; i++) {
+            client.execute("GET", "/echo", String.class, new StringRestResponseAcceptor(), null);
+        }
+
+        // then
+        assertEquals(5, server.getRequests());
+        assertEquals(1, server.getConnections());
+    }
+
+    @Test
+    void unknownRoute() {
+        // when
+        // do
+        ErrorCodeRestClientException exception = assertThrows(
+            ErrorCodeRestClientException.class,
+            () -> client.execute("GET", "/missing", String.class, new StringRestResponseAcceptor(), null)
+        );
+
+        // then
+        assertEquals(404, exception.getResponseCode());
+    }
+
+    @Test
+    void injectedErrors() {
+        // when
+        server.route("/errors", new Route(200, "ok").errorRate(1.0, 503));
+
+        // do
+        ErrorCodeRestClientException exception = assertThrows(
+            ErrorCodeRestClientException.class,
+            () -> client.execute("GET", "/errors", String.class, new StringRestResponseAcceptor(), null)
+        );
+
+        // then
+        assertEquals(503, exception.getResponseCode());
+    }
+
+    @Test
+    void scriptedFaults() {
+        // when
+        server.route("/once", new Route(200, "ok").faults(
+            request -> server.getRequests() == 1 ? Fault.ERROR : Fault.NONE
+        ));
+
+        // do
+        assertThrows(
+            ErrorCodeRestClientException.class,
+            () -> client.execute("GET", "/once", String.class, new StringRestResponseAcceptor(), null)
+        );
+        String result = client.execute("GET", "/once", String.class, new StringRestResponseAcceptor(), null);
+
+        // then
+        assertEquals("ok", result);
+    }
+
+    @Test
+    void connectionReset() {
+        // when
+        server.route("/reset", new Route(200, "ok").resetRate(1.0));
+
+        // do
+        // then
+        assertThrows(
+            ErrorRestClientException.class,
+            () -> client.execute("GET", "/reset", String.class, new StringRestResponseAcceptor(), null)
+        );
+        assertTrue(server.getRequests() >= 1);
+    }
+
+    @Test
+    void truncatedBody() {
+        // when
+        server.route("/truncated", new Route(200, CONTENT).chunked(true).truncateRate(1.0));
+
+        // do
+        // then
+        assertThrows(
+            ErrorRestClientException.class,
+            () -> client.execute("GET", "/truncated", byte[].class, new BytesRestResponseAcceptor(null), null)
+        );
+    }
+
+    @Test
+    void slowHeaders() {
+        // when
+        server.route("/slow-headers", new Route(
+            request -> new ServerResponse(200, "ok").header("X-First", "1").header("X-Second", "2")
+        ).headerDelay(Duration.ofMillis(100)));
+        long start = System.nanoTime();
+
+        // do
+        String result = client.execute("GET", "/slow-headers", String.class, new StringRestResponseAcceptor(), null);
+
+        // then
+        assertEquals("ok", result);
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(300).toNanos());
+        // Every header line comes before the read timeout, only the deadline stops the response
+        assertThrows(
+            DeadlineExceededRestClientException.class,
+            () -> Deadline.after(Duration.ofMillis(150))
+                .call(() -> client.execute("GET", "/slow-headers", String.class, new StringRestResponseAcceptor(), null))
+        );
+    }
+
+    @Test
+    void latency() {
+        // when
+        server.route("/latency", new Route(200, "ok").latency(LatencyDistribution.fixed(Duration.ofMillis(200))));
+        long start = System.nanoTime();
+
+        // do
+        client.execute("GET", "/latency", String.class, new StringRestResponseAcceptor(), null);
+
+        // then
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(200).toNanos());
+    }
+
+    @Test
+    void bandwidth() {
+        // when
+        server.route("/throttled", new Route(200, new byte[4_000]).bandwidth(20_000));
+        long start = System.nanoTime();
+
+        // do
+        byte[] result = client.execute("GET", "/throttled", byte[].class, new BytesRestResponseAcceptor(null), null);
+
+        // then
+        assertEquals(4_000, result.length);
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(150).toNanos());
+    }
+
+    @Test
+    void chunkedGzip() throws IOException {
+        // when
+        server.route("/gzip", new Route(200, CONTENT).chunked(true).gzip(true));
+
+        // do
+        byte[] plain = client.execute("GET", "/gzip", byte[].class, new BytesRestResponseAcceptor(null), null);
+        byte[] compressed = client.execute(
+            "GET", "/gzip", byte[].class, new BytesRestResponseAcceptor(null), Map.of("Accept-Encoding", "gzip")
+        );
+
+        // then
+        assertArrayEquals(CONTENT, plain);
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(CONTENT, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void ranges() {
+        // when
+        server.route("/ranges", new Route(200, "0123456789").ranges(true));
+        BytesRestResponseAcceptor acceptor = new BytesRestResponseAcceptor(null);
+
+        // do
+        byte[] middle = client.execute("GET", "/ranges", byte[].class, acceptor, Map.of("Range", "bytes=2-5"), 206);
+        byte[] tail = client.execute("GET", "/ranges", byte[].class, acceptor, Map.of("Range", "bytes=7-"), 206);
+        byte[] suffix = client.execute("GET", "/ranges", byte[].class, acceptor, Map.of("Range", "bytes=-2"), 206);
+        ErrorCodeRestClientException exception = assertThrows(
+            ErrorCodeRestClientException.class,
+            () -> client.execute("GET", "/ranges", byte[].class, acceptor, Map.of("Range", "bytes=10-"), 206)
+        );
+
+        // then
+        assertEquals("2345", new String(middle, StandardCharsets.US_ASCII));
+        assertEquals("789", new String(tail, StandardCharsets.US_ASCII));
+        assertEquals("89", new String(suffix, StandardCharsets.US_ASCII));
+        assertEquals(416, exception.getResponseCode());
+    }
+
+    @Test
+    void latencyDistributions() {
+        // when
+        Random random = new Random(7);
+        long millis = Duration.ofMillis(1).toNanos();
+        LatencyDistribution uniform = LatencyDistribution.uniform(Duration.ofMillis(1), Duration.ofMillis(3));
+        LatencyDistribution exponential = LatencyDistribution.exponential(Duration.ofMillis(2));
+        LatencyDistribution logNormal = LatencyDistribution.logNormal(Duration.ofMillis(2), 0.5);
+        LatencyDistribution mixture = LatencyDistribution.mixture(
+            0.1, LatencyDistribution.none(), LatencyDistribution.fixed(Duration.ofMillis(10))
+        );
+
+        // do
+        int samples = 100_000;
+        double exponentialSum = 0;
+        int logNormalBelowMedian = 0;
+        int stalls = 0;
+        for (int i = 0; i < samples; i++) {
+            long value = uniform.nextNanos(random);
+            assertTrue(value >= millis && value < 3 * millis);
+            exponentialSum += exponential.nextNanos(random);
+            logNormalBelowMedian += logNormal.nextNanos(random) < 2 * millis ? 1 : 0;
+            stalls += mixture.nextNanos(random) > 0 ? 1 : 0;
+        }
+
+        // then
+        assertEquals(2.0, exponentialSum / samples / millis, 0.05);
+        assertEquals(0.5, (double) logNormalBelowMedian / samples, 0.01);
+        assertEquals(0.1, (double) stalls / samples, 0.01);
+    }
+}
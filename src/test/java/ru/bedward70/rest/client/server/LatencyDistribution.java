@@ -0,0 +1,108 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.server;
+
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * Distribution of the server latency before a response
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    /**
+     * Returns next latency
+     * @param random random generator
+     * @return latency in nanoseconds
+     */
+    long nextNanos(Random random);
+
+    /**
+     * Returns no latency distribution
+     * @return distribution
+     */
+    static LatencyDistribution none() {
+        return random -> 0L;
+    }
+
+    /**
+     * Returns fixed latency distribution
+     * @param latency latency
+     * @return distribution
+     */
+    static LatencyDistribution fixed(final Duration latency) {
+        long nanos = latency.toNanos();
+        return random -> nanos;
+    }
+
+    /**
+     * Returns uniform latency distribution
+     * @param min minimal latency
+     * @param max maximal latency
+     * @return distribution
+     */
+    static LatencyDistribution uniform(final Duration min, final Duration max) {
+        long minNanos = min.toNanos();
+        long range = max.toNanos() - minNanos;
+        return random -> minNanos + (long) (random.nextDouble() * range);
+    }
+
+    /**
+     * Returns exponential latency distribution (Poisson service times)
+     * @param mean mean latency
+     * @return distribution
+     */
+    static LatencyDistribution exponential(final Duration mean) {
+        long meanNanos = mean.toNanos();
+        return random -> (long) (-meanNanos * Math.log(1.0 - random.nextDouble()));
+    }
+
+    /**
+     * Returns log-normal latency distribution with a long tail
+     * @param median median latency
+     * @param sigma standard deviation of the latency logarithm
+     * @return distribution
+     */
+    static LatencyDistribution logNormal(final Duration median, final double sigma) {
+        long medianNanos = median.toNanos();
+        return random -> (long) (medianNanos * Math.exp(sigma * random.nextGaussian()));
+    }
+
+    /**
+     * Returns a mixture of two distributions, e.g. rare stalls over a fast path
+     * @param probability probability of the second distribution
+     * @param first first distribution
+     * @param second second distribution
+     * @return distribution
+     */
+    static LatencyDistribution mixture(
+        final double probability,
+        final LatencyDistribution first,
+        final LatencyDistribution second
+    ) {
+        return random -> random.nextDouble() < probability ? second.nextNanos(random) : first.nextNanos(random);
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.server;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Scriptable route of the {@link FaultInjectingServer}.
+ * The handler builds a response, the route settings shape how it goes over the wire.
+ * Settings may be changed while the server is running, e.g. to raise the error rate in a soak test.
+ */
+public class Route {
+
+    /** Response handler */
+    private final Function<ServerRequest, ServerResponse> handler;
+
+    /** Latency before the response */
+    private volatile LatencyDistribution latency = LatencyDistribution.none();
+
+    /** Body bandwidth in bytes per second, 0 - unlimited */
+    private volatile long bandwidth;
+
+    /** Delay before each header line */
+    private volatile long headerDelayNanos;
+
+    /** Chunked transfer encoding flag */
+    private volatile boolean chunked;
+
+    /** Gzip content encoding flag for clients accepting it */
+    private volatile boolean gzip;
+
+    /** Single byte range support flag */
+    private volatile boolean ranges;
+
+    /** Probability of an error status code */
+    private volatile double errorRate;
+
+    /** Injected error status code */
+    private volatile int errorStatus = 503;
+
+    /** Probability of a connection reset */
+    private volatile double resetRate;
+
+    /** Probability of a truncated body */
+    private volatile double truncateRate;
+
+    /** Scripted faults, checked before the random ones */
+    private volatile Function<ServerRequest, Fault> faults = request -> Fault.NONE;
+
+    /**
+     * Constructor
+     * @param handler response handler
+     */
+    public Route(final Function<ServerRequest, ServerResponse> handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Constructor
+     * @param status status code
+     * @param body body
+     */
+    public Route(final int status, final byte[] body) {
+        this(request -> new ServerResponse(status, body));
+    }
+
+    /**
+     * Constructor
+     * @param status status code
+     * @param body UTF-8 body
+     */
+    public Route(final int status, final String body) {
+        this(status, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Sets latency before the response
+     * @param latency latency distribution
+     * @return this route
+     */
+    public Route latency(final LatencyDistribution latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Throttles the body
+     * @param bytesPerSecond bandwidth in bytes per second, 0 - unlimited
+     * @return this route
+     */
+    public Route bandwidth(final long bytesPerSecond) {
+        this.bandwidth = bytesPerSecond;
+        return this;
+    }
+
+    /**
+     * Sends the headers slowly, line by line
+     * @param headerDelay delay before each header line
+     * @return this route
+     */
+    public Route headerDelay(final Duration headerDelay) {
+        this.headerDelayNanos = headerDelay.toNanos();
+        return this;
+    }
+
+    /**
+     * Sends the body with the chunked transfer encoding
+     * @param chunked chunked flag
+     * @return this route
+     */
+    public Route chunked(final boolean chunked) {
+        this.chunked = chunked;
+        return this;
+    }
+
+    /**
+     * Compresses the body for clients sending "Accept-Encoding: gzip"
+     * @param gzip gzip flag
+     * @return this route
+     */
+    public Route gzip(final boolean gzip) {
+        this.gzip = gzip;
+        return this;
+    }
+
+    /**
+     * Serves single "Range: bytes=..." requests of 200 responses with 206 or 416
+     * @param ranges ranges flag
+     * @return this route
+     */
+    public Route ranges(final boolean ranges) {
+        this.ranges = ranges;
+        return this;
+    }
+
+    /**
+     * Injects error status codes
+     * @param errorRate probability of an error
+     * @param errorStatus error status code
+     * @return this route
+     */
+    public Route errorRate(final double errorRate, final int errorStatus) {
+        this.errorRate = errorRate;
+        this.errorStatus = errorStatus;
+        return this;
+    }
+
+    /**
+     * Injects connection resets
+     * @param resetRate probability of a reset
+     * @return this route
+     */
+    public Route resetRate(final double resetRate) {
+        this.resetRate = resetRate;
+        return this;
+    }
+
+    /**
+     * Injects truncated bodies
+     * @param truncateRate probability of a truncated body
+     * @return this route
+     */
+    public Route truncateRate(final double truncateRate) {
+        this.truncateRate = truncateRate;
+        return this;
+    }
+
+    /**
+     * Sets scripted faults, e.g. failing only the first attempt of a request
+     * @param faults fault per request, {@link Fault#NONE} falls back to the random faults
+     * @return this route
+     */
+    public Route faults(final Function<ServerRequest, Fault> faults) {
+        this.faults = faults;
+        return this;
+    }
+
+    ServerResponse handle(final ServerRequest request) {
+        return handler.apply(request);
+    }
+
+    LatencyDistribution getLatency() {
+        return latency;
+    }
+
+    long getBandwidth() {
+        return bandwidth;
+    }
+
+    long getHeaderDelayNanos() {
+        return headerDelayNanos;
+    }
+
+    boolean isChunked() {
+        return chunked;
+    }
+
+    boolean isGzip() {
+        return gzip;
+    }
+
+    boolean isRanges() {
+        return ranges;
+    }
+
+    int getErrorStatus() {
+        return errorStatus;
+    }
+
+    Fault nextFault(final ServerRequest request, final Random random) {
+        Fault scripted = faults.apply(request);
+        if (scripted != Fault.NONE) {
+            return scripted;
+        }
+        double p = random.nextDouble();
+        if (p < resetRate) {
+            return Fault.RESET;
+        }
+        p -= resetRate;
+        if (p < errorRate) {
+            return Fault.ERROR;
+        }
+        p -= errorRate;
+        return p < truncateRate ? Fault.TRUNCATE : Fault.NONE;
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Request received by the {@link FaultInjectingServer}
+ */
+public class ServerRequest {
+
+    /** Max size of the request line or a header line */
+    private static final int MAX_LINE_SIZE = 64 * 1024;
+
+    /** Http method */
+    private final String method;
+
+    /** Path */
+    private final String path;
+
+    /** Raw query or null */
+    private final String query;
+
+    /** Headers with case-insensitive names */
+    private final Map<String, String> headers;
+
+    /** Body */
+    private final byte[] body;
+
+    /** Remote port of the connection */
+    private final int remotePort;
+
+    /**
+     * Constructor
+     * @param method http method
+     * @param path path
+     * @param query raw query or null
+     * @param headers headers with case-insensitive names
+     * @param body body
+     * @param remotePort remote port of the connection
+     */
+    public ServerRequest(
+        final String method,
+        final String path,
+        final String query,
+        final Map<String, String> headers,
+        final byte[] body,
+        final int remotePort
+    ) {
+        this.method = method;
+        this.path = path;
+        this.query = query;
+        this.headers = headers;
+        this.body = body;
+        this.remotePort = remotePort;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public Map<String, String> getHeaders() {
+        return Collections.unmodifiableMap(headers);
+    }
+
+    /**
+     * Returns a header value
+     * @param name case-insensitive name
+     * @return value or null
+     */
+    public String getHeader(final String name) {
+        return headers.get(name);
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * Returns the body as a UTF-8 string
+     * @return body
+     */
+    public String getBodyAsString() {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    public int getRemotePort() {
+        return remotePort;
+    }
+
+    /**
+     * Reads a request from a connection
+     * @param in connection input stream
+     * @param remotePort remote port of the connection
+     * @return request or null when the client closed the connection
+     * @throws IOException on I/O errors or a malformed request
+     */
+    static ServerRequest read(final InputStream in, final int remotePort) throws IOException {
+        String line = readLine(in);
+        while (nonNull(line) && line.isEmpty()) {
+            line = readLine(in);
+        }
+        if (isNull(line)) {
+            return null;
+        }
+        String[] parts = line.split(" ", 3);
+        if (parts.length != 3) {
+            throw new IOException("Malformed request line: " + line);
+        }
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (String header = readLine(in); nonNull(header) && !header.isEmpty(); header = readLine(in)) {
+            int colon = header.indexOf(':');
+            if (colon <= 0) {
+                throw new IOException("Malformed header: " + header);
+            }
+            headers.merge(header.substring(0, colon).trim(), header.substring(colon + 1).trim(), (a, b) -> a + ", " + b);
+        }
+        String target = parts[1];
+        int question = target.indexOf('?');
+        return new ServerRequest(
+            parts[0],
+            question < 0 ? target : target.substring(0, question),
+            question < 0 ? null : target.substring(question + 1),
+            headers,
+            readBody(in, headers),
+            remotePort
+        );
+    }
+
+    private static byte[] readBody(final InputStream in, final Map<String, String> headers) throws IOException {
+        String transferEncoding = headers.get("Transfer-Encoding");
+        if (nonNull(transferEncoding) && transferEncoding.toLowerCase().contains("chunked")) {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            for (int size = readChunkSize(in); size > 0; size = readChunkSize(in)) {
+                body.write(readFully(in, size));
+                readLine(in);
+            }
+            // Trailers
+            for (String trailer = readLine(in); nonNull(trailer) && !trailer.isEmpty(); trailer = readLine(in)) {
+                // Ignored
+            }
+            return body.toByteArray();
+        }
+        String contentLength = headers.get("Content-Length");
+        return isNull(contentLength) ? new byte[0] : readFully(in, Integer.parseInt(contentLength));
+    }
+
+    private static int readChunkSize(final InputStream in) throws IOException {
+        String line = readLine(in);
+        if (isNull(line)) {
+            throw new IOException("Unexpected end of a chunked body");
+        }
+        int extension = line.indexOf(';');
+        return Integer.parseInt((extension < 0 ? line : line.substring(0, extension)).trim(), 16);
+    }
+
+    private static byte[] readFully(final InputStream in, final int size) throws IOException {
+        byte[] bytes = in.readNBytes(size);
+        if (bytes.length != size) {
+            throw new IOException("Unexpected end of the body");
+        }
+        return bytes;
+    }
+
+    private static String readLine(final InputStream in) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int b = in.read();
+        if (b < 0) {
+            return null;
+        }
+        while (b >= 0 && b != '\n') {
+            if (b != '\r') {
+                if (sb.length() == MAX_LINE_SIZE) {
+                    throw new IOException("Line is longer than " + MAX_LINE_SIZE);
+                }
+                sb.append((char) b);
+            }
+            b = in.read();
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.server;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Response of a {@link Route} handler
+ */
+public class ServerResponse {
+
+    /** Status code */
+    private final int status;
+
+    /** Body */
+    private final byte[] body;
+
+    /** Headers */
+    private final Map<String, String> headers = new LinkedHashMap<>();
+
+    /**
+     * Constructor
+     * @param status status code
+     * @param body body
+     */
+    public ServerResponse(final int status, final byte[] body) {
+        this.status = status;
+        this.body = body;
+    }
+
+    /**
+     * Constructor
+     * @param status status code
+     * @param body UTF-8 body
+     */
+    public ServerResponse(final int status, final String body) {
+        this(status, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Sets a header
+     * @param name name
+     * @param value value
+     * @return this response
+     */
+    public ServerResponse header(final String name, final String value) {
+        headers.put(name, value);
+        return this;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.sse;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ServerSentEventParserTest {
+
+    @Test
+    void next() throws IOException {
+        // when
+        ServerSentEventParser parser = parser(
+            "\uFEFF: comment\n"
+                + "retry: 1500\n"
+                + "id: 1\n"
+                + "data: first\n"
+                + "\n"
+                + "event: update\r\n"
+                + "data:second\r\n"
+                + "data:  line\r\n"
+                + "\r\n"
+                + "id: 2\r"
+                + "\r"
+                + "data\n"
+                + "\n"
+                + "data: incomplete",
+            null
+        );
+
+        // do
+        ServerSentEvent first = parser.next();
+        ServerSentEvent second = parser.next();
+        ServerSentEvent third = parser.next();
+        ServerSentEvent end = parser.next();
+
+        // then
+        assertEquals("1", first.getId());
+        assertEquals("message", first.getEvent());
+        assertEquals("first", first.getData());
+        assertEquals("1", second.getId());
+        assertEquals("update", second.getEvent());
+        assertEquals("second\n line", second.getData());
+        assertEquals("2", third.getId());
+        assertEquals("", third.getData());
+        assertNull(end);
+        assertEquals("2", parser.getLastEventId());
+        assertEquals(1500L, parser.getRetry());
+    }
+
+    @Test
+    void nextByteByByte() throws IOException {
+        // when
+        byte[] bytes = "data: привет\r\n\r\nretry: x\r\n".getBytes(StandardCharsets.UTF_8);
+        InputStream inputStream = new ByteArrayInputStream(bytes) {
+            @Override
+            public synchronized int read(final byte[] b, final int off, final int len) {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+        ServerSentEventParser parser = new ServerSentEventParser(inputStream, "7", 16, 1024);
+
+        // do
+        ServerSentEvent event = parser.next();
+
+        // then
+        assertEquals("7", event.getId());
+        assertEquals("привет", event.getData());
+        assertNull(parser.next());
+        assertEquals(ServerSentEventParser.NO_RETRY, parser.getRetry());
+    }
+
+    @Test
+    void nextWithLongLine() {
+        // when
+        ServerSentEventParser parser = new ServerSentEventParser(
+            new ByteArrayInputStream(("data: " + "x".repeat(2000) + "\n\n").getBytes(StandardCharsets.UTF_8)),
+            null,
+            64,
+            1024
+        );
+
+        // do
+        // then
+        assertThrows(IOException.class, parser::next);
+    }
+
+    @Test
+    void nextStopsAtComment() throws IOException {
+        // when
+        AtomicBoolean stopped = new AtomicBoolean();
+        ServerSentEventParser parser = new ServerSentEventParser(
+            new ByteArrayInputStream("data: a\n\n: ping\n: ping\ndata: b\n\n".getBytes(StandardCharsets.UTF_8)),
+            null,
+            64,
+            1024,
+            stopped::get
+        );
+
+        // do
+        ServerSentEvent event = parser.next();
+        stopped.set(true);
+
+        // then
+        assertEquals("a", event.getData());
+        assertNull(parser.next());
+    }
+
+    private static ServerSentEventParser parser(final String text, final String lastEventId) {
+        return new ServerSentEventParser(
+            new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)),
+            lastEventId,
+            ServerSentEventRestResponseAcceptor.DEFAULT_BUFFER_SIZE,
+            ServerSentEventRestResponseAcceptor.DEFAULT_MAX_LINE_SIZE
+        );
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ MIT License https://en.wikipedia.org/wiki/MIT_License
+
+ Copyright (c) 2022, Eduard Balovnev (bedward70)
+ All rights reserved.
+
+ Permission is hereby granted, free of charge, to any person obtaining a copy
+ of this software and associated documentation files (the "Software"), to deal
+ in the Software without restriction, including without limitation the rights
+ to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ copies of the Software, and to permit persons to whom the Software is
+ furnished to do so, subject to the following conditions:
+
+ The above copyright notice and this permission notice shall be included in all
+ copies or substantial portions of the Software.
+
+ THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ SOFTWARE.
+ */
+package ru.bedward70.rest.client.sse;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.bedward70.rest.client.BaseRestClient;
+import ru.bedward70.rest.client.exception.ErrorCodeRestClientException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ServerSentEventSourceTest {
+
+    private HttpServer server;
+    private BaseRestClient client;
+    private ExecutorService executor;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final List<String> lastEventIds = new CopyOnWriteArrayList<>();
+    private final CountDownLatch heartbeats = new CountDownLatch(3);
+    private final CountDownLatch heartbeatsStopped = new CountDownLatch(1);
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/events", this::sendEvents);
+        server.createContext("/many", exchange -> {
+            StringBuilder body = new StringBuilder();
+            for (int i = 0; i < 1000; i++) {
+                body.append("id: ").append(i).append("\ndata: ").append(i).append("\n\n");
+            }
+            send(exchange, 200, body.toString());
+        });
+        server.createContext("/missing", exchange -> send(exchange, 404, "missing"));
+        server.createContext("/heartbeat", this::sendHeartbeats);
+        server.start();
+        client = new BaseRestClient("http://localhost:" + server.getAddress().getPort());
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void stopServer() {
+        executor.shutdownNow();
+        server.stop(0);
+    }
+
+    @Test
+    void subscribeWithReconnects() throws InterruptedException {
+        // when
+        ServerSentEventSource source = new ServerSentEventSource(client, "/events", null, executor);
+        TestSubscriber subscriber = new TestSubscriber(1);
+
+        // do
+        source.subscribe(subscriber);
+
+        // then
+        assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+        assertNull(subscriber.error.get());
+        assertEquals(List.of("a", "b\nc", "d"), subscriber.data);
+        assertEquals(3, connections.get());
+        assertEquals(List.of("", "2", "3"), lastEventIds);
+    }
+
+    @Test
+    void subscribeWithBackpressure() throws InterruptedException {
+        // when
+        ServerSentEventSource source = new ServerSentEventSource(
+            client, "/many", null, executor, Duration.ofMillis(10), Duration.ofMillis(10)
+        );
+        TestSubscriber subscriber = new TestSubscriber(0);
+
+        // do
+        source.subscribe(subscriber);
+        subscriber.subscribed.await(10, TimeUnit.SECONDS);
+        subscriber.subscription.request(2);
+        Thread.sleep(200);
+        int afterFirstRequest = subscriber.data.size();
+        subscriber.subscription.request(3);
+        Thread.sleep(200);
+        int afterSecondRequest = subscriber.data.size();
+        subscriber.subscription.cancel();
+
+        // then
+        assertEquals(2, afterFirstRequest);
+        assertEquals(5, afterSecondRequest);
+        assertEquals(List.of("0", "1", "2", "3", "4"), subscriber.data);
+        assertFalse(subscriber.done.await(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void subscribeWithErrorCode() throws InterruptedException {
+        // when
+        ServerSentEventSource source = new ServerSentEventSource(client, "/missing", null, executor);
+        TestSubscriber subscriber = new TestSubscriber(1);
+
+        // do
+        source.subscribe(subscriber);
+
+        // then
+        assertTrue(subscriber.done.await(10, TimeUnit.SECONDS));
+        assertInstanceOf(ErrorCodeRestClientException.class, subscriber.error.get());
+    }
+
+    @Test
+    void cancelDuringHeartbeats() throws InterruptedException {
+        // when
+        ExecutorService sourceExecutor = Executors.newSingleThreadExecutor();
+        ServerSentEventSource source = new ServerSentEventSource(client, "/heartbeat", null, sourceExecutor);
+        TestSubscriber subscriber = new TestSubscriber(1);
+
+        // do
+        source.subscribe(subscriber);
+        assertTrue(heartbeats.await(10, TimeUnit.SECONDS));
+        subscriber.subscription.cancel();
+        sourceExecutor.shutdown();
+
+        // then
+        assertTrue(sourceExecutor.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue(heartbeatsStopped.await(10, TimeUnit.SECONDS));
+        assertEquals(List.of(), subscriber.data);
+        assertEquals(1, connections.get());
+    }
+
+    private void sendHeartbeats(final HttpExchange exchange) throws IOException {
+        connections.incrementAndGet();
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream os = exchange.getResponseBody()) {
+            // Only comments until the client closes the connection
+            for (int i = 0; i < 1000; i++) {
+                os.write(": ping\n".getBytes(StandardCharsets.UTF_8));
+                os.flush();
+                heartbeats.countDown();
+                Thread.sleep(20);
+            }
+        } catch (IOException e) {
+            heartbeatsStopped.countDown();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void sendEvents(final HttpExchange exchange) throws IOException {
+        int connection = connections.incrementAndGet();
+        String lastEventId = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+        lastEventIds.add(lastEventId == null ? "" : lastEventId);
+        if (connection == 1) {
+            send(exchange, 200, "retry: 20\nid: 1\ndata: a\n\nid: 2\nevent: x\ndata: b\ndata: c\n\nid: 9\ndata: lost");
+        } else if (connection == 2) {
+            send(exchange, 200, ": keep-alive\r\nid: 3\r\ndata: d\r\n\r\n");
+        } else {
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        }
+    }
+
+    private static void send(final HttpExchange exchange, final int code, final String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    private static class TestSubscriber implements Flow.Subscriber<ServerSentEvent> {
+
+        private final long batch;
+        private final List<String> data = new CopyOnWriteArrayList<>();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        private final CountDownLatch subscribed = new CountDownLatch(1);
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile Flow.Subscription subscription;
+
+        TestSubscriber(final long batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscribed.countDown();
+            if (batch > 0) {
+                subscription.request(batch);
+            }
+        }
+
+        @Override
+        public void onNext(final ServerSentEvent item) {
+            data.add(item.getData());
+            if (batch > 0) {
+                subscription.request(batch);
+            }
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            error.set(throwable);
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+    }
+}